@@ -3,8 +3,11 @@ package com.semicolon.africa.tapprbackend.Wallet.controllers;
 import com.semicolon.africa.tapprbackend.Wallet.dtos.requests.CreateWalletRequest;
 import com.semicolon.africa.tapprbackend.Wallet.dtos.response.CreateWalletResponse;
 import com.semicolon.africa.tapprbackend.Wallet.service.interfaces.WalletService;
+import com.semicolon.africa.tapprbackend.security.TapprPrincipal;
+import com.semicolon.africa.tapprbackend.tapprException.TapprException;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
 @RestController
@@ -16,10 +19,12 @@ public class WalletController {
 
     @PostMapping
     public ResponseEntity<CreateWalletResponse> createWallet(
-            @RequestHeader("Authorization") String authHeader,
+            @AuthenticationPrincipal TapprPrincipal principal,
             @RequestBody CreateWalletRequest request) {
-        String token = authHeader.replace("Bearer ", "");
-        CreateWalletResponse response = walletService.createWalletForUser(token, request);
+        if (principal == null) {
+            throw new TapprException("Authorization token is required");
+        }
+        CreateWalletResponse response = walletService.createWalletForUserId(principal.userId(), request);
         return ResponseEntity.ok(response);
     }
 }
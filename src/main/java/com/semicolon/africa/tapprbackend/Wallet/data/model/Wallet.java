@@ -18,7 +18,8 @@ import java.util.UUID;
 @AllArgsConstructor
 @NoArgsConstructor
 @Entity
-@Table(name = "wallets")
+@Table(name = "wallets", uniqueConstraints =
+        @UniqueConstraint(name = "uk_wallets_user_currency", columnNames = {"user_id", "currency_type"}))
 public class Wallet {
 
     @Id
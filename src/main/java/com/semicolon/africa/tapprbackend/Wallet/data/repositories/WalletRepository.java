@@ -1,10 +1,20 @@
 package com.semicolon.africa.tapprbackend.Wallet.data.repositories;
 
 import com.semicolon.africa.tapprbackend.Wallet.data.model.Wallet;
+import com.semicolon.africa.tapprbackend.Wallet.dtos.PayoutTarget;
+import com.semicolon.africa.tapprbackend.Wallet.dtos.WalletBalance;
+import com.semicolon.africa.tapprbackend.Wallet.dtos.WalletDirectoryEntry;
 import com.semicolon.africa.tapprbackend.Wallet.enums.WalletCurrency;
 import com.semicolon.africa.tapprbackend.user.data.models.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -13,5 +23,57 @@ public interface WalletRepository extends JpaRepository<Wallet, UUID> {
     boolean existsByUser(User user);
     Optional<Wallet> findByUserAndCurrencyType(User user, WalletCurrency currencyType);
     List<Wallet> findByUser(User user);
+
+    // The owner and its eager one-to-ones are fetch-joined so they do not cost selects per row
+    @Query("SELECT w FROM Wallet w JOIN FETCH w.user u LEFT JOIN FETCH u.loyaltyWallet LEFT JOIN FETCH u.merchantProfile "
+            + "WHERE u.id IN :userIds AND w.currencyType IN :currencies")
+    List<Wallet> findByUserIdsAndCurrencies(@Param("userIds") Collection<UUID> userIds,
+                                            @Param("currencies") Collection<WalletCurrency> currencies);
+
     boolean existsByUserAndCurrencyType(User user, WalletCurrency walletCurrency);
+
+    // Returns 0 when the balance does not cover the amount, so no prior read is needed
+    @Modifying
+    @Transactional
+    @Query("UPDATE Wallet w SET w.balance = w.balance - :amount WHERE w.id = :id AND w.balance >= :amount")
+    int debit(@Param("id") UUID id, @Param("amount") BigDecimal amount);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE Wallet w SET w.balance = w.balance + :amount WHERE w.id = :id")
+    int credit(@Param("id") UUID id, @Param("amount") BigDecimal amount);
+
+    @Query("SELECT w.id FROM Wallet w WHERE w.user.id = :userId AND w.currencyType = :currency")
+    Optional<UUID> findIdByUserIdAndCurrencyType(@Param("userId") UUID userId,
+                                                 @Param("currency") WalletCurrency currency);
+
+    @Query("SELECT w.balance FROM Wallet w WHERE w.id = :id")
+    BigDecimal findBalanceById(@Param("id") UUID id);
+
+    @Query("SELECT new com.semicolon.africa.tapprbackend.Wallet.dtos.WalletBalance(w.id, w.balance) " +
+            "FROM Wallet w WHERE w.id IN :ids")
+    List<WalletBalance> findBalancesByIdIn(@Param("ids") Collection<UUID> ids);
+
+    @Query("SELECT new com.semicolon.africa.tapprbackend.Wallet.dtos.PayoutTarget(w.id, w.accountNumber, w.user.id, w.currencyType) " +
+            "FROM Wallet w WHERE w.accountNumber IN :accountNumbers")
+    List<PayoutTarget> findPayoutTargetsByAccountNumberIn(@Param("accountNumbers") Collection<String> accountNumbers);
+
+    @Query("SELECT new com.semicolon.africa.tapprbackend.Wallet.dtos.WalletDirectoryEntry(" +
+            "w.id, w.user.id, w.currencyType, w.accountNumber, w.walletAddress) FROM Wallet w ORDER BY w.id")
+    List<WalletDirectoryEntry> findDirectoryEntries(Pageable pageable);
+
+    @Query("SELECT new com.semicolon.africa.tapprbackend.Wallet.dtos.WalletDirectoryEntry(" +
+            "w.id, w.user.id, w.currencyType, w.accountNumber, w.walletAddress) FROM Wallet w " +
+            "WHERE w.id > :after ORDER BY w.id")
+    List<WalletDirectoryEntry> findDirectoryEntriesAfter(@Param("after") UUID after, Pageable pageable);
+
+    @Query("SELECT new com.semicolon.africa.tapprbackend.Wallet.dtos.WalletDirectoryEntry(" +
+            "w.id, w.user.id, w.currencyType, w.accountNumber, w.walletAddress) FROM Wallet w " +
+            "WHERE w.accountNumber = :accountNumber")
+    Optional<WalletDirectoryEntry> findDirectoryEntryByAccountNumber(@Param("accountNumber") String accountNumber);
+
+    @Query("SELECT new com.semicolon.africa.tapprbackend.Wallet.dtos.WalletDirectoryEntry(" +
+            "w.id, w.user.id, w.currencyType, w.accountNumber, w.walletAddress) FROM Wallet w " +
+            "WHERE w.walletAddress = :walletAddress")
+    Optional<WalletDirectoryEntry> findDirectoryEntryByWalletAddress(@Param("walletAddress") String walletAddress);
 }
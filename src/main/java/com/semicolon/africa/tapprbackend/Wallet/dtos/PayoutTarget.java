@@ -0,0 +1,11 @@
+package com.semicolon.africa.tapprbackend.Wallet.dtos;
+
+import com.semicolon.africa.tapprbackend.Wallet.enums.WalletCurrency;
+
+import java.util.UUID;
+
+/**
+ * Just enough of a receiving wallet to pay into it, without loading the wallet or its owner.
+ */
+public record PayoutTarget(UUID walletId, String accountNumber, UUID userId, WalletCurrency currency) {
+}
@@ -0,0 +1,11 @@
+package com.semicolon.africa.tapprbackend.Wallet.dtos;
+
+import com.semicolon.africa.tapprbackend.Wallet.enums.WalletCurrency;
+
+import java.util.UUID;
+
+/**
+ * The wallet an account number or wallet address pays into, and who owns it.
+ */
+public record ReceiverWallet(UUID userId, UUID walletId, WalletCurrency currency) {
+}
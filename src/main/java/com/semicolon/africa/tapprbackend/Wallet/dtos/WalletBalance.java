@@ -0,0 +1,7 @@
+package com.semicolon.africa.tapprbackend.Wallet.dtos;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+public record WalletBalance(UUID walletId, BigDecimal balance) {
+}
@@ -0,0 +1,12 @@
+package com.semicolon.africa.tapprbackend.Wallet.dtos;
+
+import com.semicolon.africa.tapprbackend.Wallet.enums.WalletCurrency;
+
+import java.util.UUID;
+
+/**
+ * A wallet's payment identifiers, as loaded into the receiver directory.
+ */
+public record WalletDirectoryEntry(UUID walletId, UUID userId, WalletCurrency currency,
+                                   String accountNumber, String walletAddress) {
+}
@@ -0,0 +1,12 @@
+package com.semicolon.africa.tapprbackend.Wallet.events;
+
+import com.semicolon.africa.tapprbackend.Wallet.enums.WalletCurrency;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * Outbox payload for WALLET_DEPOSITED and WALLET_WITHDRAWN.
+ */
+public record WalletBalanceEvent(UUID userId, WalletCurrency currency, BigDecimal amount) {
+}
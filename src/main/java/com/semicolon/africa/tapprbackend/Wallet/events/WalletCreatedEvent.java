@@ -0,0 +1,9 @@
+package com.semicolon.africa.tapprbackend.Wallet.events;
+
+import com.semicolon.africa.tapprbackend.Wallet.dtos.WalletDirectoryEntry;
+
+/**
+ * Published once a wallet has been saved. Listeners run after it commits.
+ */
+public record WalletCreatedEvent(WalletDirectoryEntry wallet) {
+}
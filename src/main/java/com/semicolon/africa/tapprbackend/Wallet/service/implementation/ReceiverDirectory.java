@@ -0,0 +1,164 @@
+package com.semicolon.africa.tapprbackend.Wallet.service.implementation;
+
+import com.semicolon.africa.tapprbackend.Wallet.data.repositories.WalletRepository;
+import com.semicolon.africa.tapprbackend.Wallet.dtos.ReceiverWallet;
+import com.semicolon.africa.tapprbackend.Wallet.dtos.WalletDirectoryEntry;
+import com.semicolon.africa.tapprbackend.Wallet.events.WalletCreatedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * In-memory index from fiat account numbers and SUI wallet addresses to the wallet they pay
+ * into, so resolving a payment's receiver does not need a query. Account numbers are keyed
+ * as one long and addresses as the two longs of their 128-bit hex body.
+ * <p>
+ * The directory is bulk loaded at startup and kept current by {@link WalletCreatedEvent}.
+ * Wallets it has not seen, such as those created on another instance, are looked up in the
+ * database and added, so a miss is never reported as an unknown receiver.
+ */
+@Slf4j
+@Component
+public class ReceiverDirectory {
+
+    private static final int ACCOUNT_NUMBER_LENGTH = 10;
+    private static final String ADDRESS_PREFIX = "sui_";
+    private static final int ADDRESS_HEX_LENGTH = 32;
+
+    private final WalletRepository walletRepository;
+    private final WalletKeyTable accountNumbers;
+    private final WalletKeyTable walletAddresses;
+    private final Counter hits;
+    private final Counter misses;
+
+    @Value("${wallet.directory.load-batch-size:10000}")
+    private int loadBatchSize;
+
+    public ReceiverDirectory(WalletRepository walletRepository,
+                             MeterRegistry meterRegistry,
+                             @Value("${wallet.directory.expected-size:100000}") int expectedSize) {
+        this.walletRepository = walletRepository;
+        this.accountNumbers = new WalletKeyTable(1, expectedSize);
+        this.walletAddresses = new WalletKeyTable(2, expectedSize);
+        this.hits = Counter.builder("wallet.directory.lookups").tag("result", "hit").register(meterRegistry);
+        this.misses = Counter.builder("wallet.directory.lookups").tag("result", "miss").register(meterRegistry);
+        Gauge.builder("wallet.directory.size", this, directory -> directory.size()).register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        long started = System.nanoTime();
+        int loaded = 0;
+        List<WalletDirectoryEntry> batch = walletRepository.findDirectoryEntries(PageRequest.of(0, loadBatchSize));
+        while (!batch.isEmpty()) {
+            batch.forEach(this::register);
+            loaded += batch.size();
+            if (batch.size() < loadBatchSize) {
+                break;
+            }
+            UUID last = batch.get(batch.size() - 1).walletId();
+            batch = walletRepository.findDirectoryEntriesAfter(last, PageRequest.of(0, loadBatchSize));
+        }
+        log.info("Loaded {} wallets into the receiver directory in {} ms",
+                loaded, (System.nanoTime() - started) / 1_000_000);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onWalletCreated(WalletCreatedEvent event) {
+        register(event.wallet());
+    }
+
+    /**
+     * Resolves a 10-digit account number or a wallet address to the wallet it pays into.
+     */
+    public Optional<ReceiverWallet> findByIdentifier(String identifier) {
+        if (identifier == null) {
+            return Optional.empty();
+        }
+        ReceiverWallet cached = lookup(identifier);
+        if (cached != null) {
+            hits.increment();
+            return Optional.of(cached);
+        }
+        misses.increment();
+        Optional<WalletDirectoryEntry> entry = isAccountNumber(identifier)
+                ? walletRepository.findDirectoryEntryByAccountNumber(identifier)
+                : walletRepository.findDirectoryEntryByWalletAddress(identifier);
+        entry.ifPresent(this::register);
+        return entry.map(wallet -> new ReceiverWallet(wallet.userId(), wallet.walletId(), wallet.currency()));
+    }
+
+    public int size() {
+        return accountNumbers.size() + walletAddresses.size();
+    }
+
+    void register(WalletDirectoryEntry wallet) {
+        if (wallet.accountNumber() != null && isAccountNumber(wallet.accountNumber())) {
+            accountNumbers.put(Long.parseLong(wallet.accountNumber()), 0,
+                    wallet.userId(), wallet.walletId(), wallet.currency());
+        }
+        if (wallet.walletAddress() != null && isEncodableAddress(wallet.walletAddress())) {
+            walletAddresses.put(addressHigh(wallet.walletAddress()), addressLow(wallet.walletAddress()),
+                    wallet.userId(), wallet.walletId(), wallet.currency());
+        }
+    }
+
+    private ReceiverWallet lookup(String identifier) {
+        if (isAccountNumber(identifier)) {
+            return accountNumbers.get(Long.parseLong(identifier), 0);
+        }
+        if (isEncodableAddress(identifier)) {
+            return walletAddresses.get(addressHigh(identifier), addressLow(identifier));
+        }
+        // Addresses in any other format are only in the database
+        return null;
+    }
+
+    private static boolean isAccountNumber(String value) {
+        if (value.length() != ACCOUNT_NUMBER_LENGTH) {
+            return false;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c < '0' || c > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Lowercase hex only: the stored address is matched exactly
+    private static boolean isEncodableAddress(String value) {
+        if (value.length() != ADDRESS_PREFIX.length() + ADDRESS_HEX_LENGTH || !value.startsWith(ADDRESS_PREFIX)) {
+            return false;
+        }
+        for (int i = ADDRESS_PREFIX.length(); i < value.length(); i++) {
+            char c = value.charAt(i);
+            if ((c < '0' || c > '9') && (c < 'a' || c > 'f')) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static long addressHigh(String address) {
+        int start = ADDRESS_PREFIX.length();
+        return Long.parseUnsignedLong(address, start, start + 16, 16);
+    }
+
+    private static long addressLow(String address) {
+        int start = ADDRESS_PREFIX.length() + 16;
+        return Long.parseUnsignedLong(address, start, start + 16, 16);
+    }
+}
@@ -0,0 +1,151 @@
+package com.semicolon.africa.tapprbackend.Wallet.service.implementation;
+
+import com.semicolon.africa.tapprbackend.Wallet.dtos.ReceiverWallet;
+import com.semicolon.africa.tapprbackend.Wallet.enums.WalletCurrency;
+
+import java.util.UUID;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Open-addressing hash table from a key of one or two longs to a wallet, kept in flat
+ * primitive arrays: an entry costs about 41 bytes per slot for a one-long key and 49 for a
+ * two-long key, with no per-entry objects. Entries are only ever added or replaced.
+ * <p>
+ * Lookups are lock-free unless they race a write; writes are serialised.
+ */
+final class WalletKeyTable {
+
+    private static final int VALUE_WIDTH = 4;
+    private static final double MAX_LOAD = 0.6;
+    private static final WalletCurrency[] CURRENCIES = WalletCurrency.values();
+
+    private final int keyWidth;
+    private final StampedLock lock = new StampedLock();
+    private volatile Slots slots;
+    private int size;
+
+    WalletKeyTable(int keyWidth, int expectedSize) {
+        this.keyWidth = keyWidth;
+        this.slots = new Slots(capacityFor(expectedSize), keyWidth);
+    }
+
+    ReceiverWallet get(long key0, long key1) {
+        long stamp = lock.tryOptimisticRead();
+        ReceiverWallet found = find(slots, key0, key1);
+        if (lock.validate(stamp)) {
+            return found;
+        }
+        stamp = lock.readLock();
+        try {
+            return find(slots, key0, key1);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    void put(long key0, long key1, UUID userId, UUID walletId, WalletCurrency currency) {
+        long stamp = lock.writeLock();
+        try {
+            if (size + 1 > slots.capacity() * MAX_LOAD) {
+                slots = resize(slots);
+            }
+            if (insert(slots, key0, key1, userId.getMostSignificantBits(), userId.getLeastSignificantBits(),
+                    walletId.getMostSignificantBits(), walletId.getLeastSignificantBits(),
+                    (byte) (currency.ordinal() + 1))) {
+                size++;
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    private ReceiverWallet find(Slots table, long key0, long key1) {
+        int mask = table.capacity() - 1;
+        for (int slot = hash(key0, key1) & mask; ; slot = (slot + 1) & mask) {
+            byte tag = table.tags[slot];
+            if (tag == 0) {
+                return null;
+            }
+            if (matches(table, slot, key0, key1)) {
+                int value = slot * VALUE_WIDTH;
+                long[] values = table.values;
+                return new ReceiverWallet(new UUID(values[value], values[value + 1]),
+                        new UUID(values[value + 2], values[value + 3]), CURRENCIES[tag - 1]);
+            }
+        }
+    }
+
+    // Returns true if the key was new
+    private boolean insert(Slots table, long key0, long key1,
+                           long userHi, long userLo, long walletHi, long walletLo, byte tag) {
+        int mask = table.capacity() - 1;
+        int slot = hash(key0, key1) & mask;
+        while (table.tags[slot] != 0 && !matches(table, slot, key0, key1)) {
+            slot = (slot + 1) & mask;
+        }
+        boolean added = table.tags[slot] == 0;
+        int key = slot * keyWidth;
+        table.keys[key] = key0;
+        if (keyWidth == 2) {
+            table.keys[key + 1] = key1;
+        }
+        int value = slot * VALUE_WIDTH;
+        table.values[value] = userHi;
+        table.values[value + 1] = userLo;
+        table.values[value + 2] = walletHi;
+        table.values[value + 3] = walletLo;
+        // Written last, so a reader never sees a live slot with a half-written key
+        table.tags[slot] = tag;
+        return added;
+    }
+
+    private Slots resize(Slots old) {
+        Slots grown = new Slots(old.capacity() * 2, keyWidth);
+        for (int slot = 0; slot < old.capacity(); slot++) {
+            byte tag = old.tags[slot];
+            if (tag != 0) {
+                int key = slot * keyWidth;
+                int value = slot * VALUE_WIDTH;
+                insert(grown, old.keys[key], keyWidth == 2 ? old.keys[key + 1] : 0,
+                        old.values[value], old.values[value + 1], old.values[value + 2], old.values[value + 3], tag);
+            }
+        }
+        return grown;
+    }
+
+    private boolean matches(Slots table, int slot, long key0, long key1) {
+        int key = slot * keyWidth;
+        return table.keys[key] == key0 && (keyWidth == 1 || table.keys[key + 1] == key1);
+    }
+
+    // 64-bit finalizer from MurmurHash3; account numbers are sequential-ish and need mixing
+    private static int hash(long key0, long key1) {
+        long h = key0 ^ (key1 * 0x9E3779B97F4A7C15L);
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB9FE1A85EC53L;
+        h ^= h >>> 33;
+        return (int) h;
+    }
+
+    private static int capacityFor(int expectedSize) {
+        int needed = (int) Math.ceil(Math.max(expectedSize, 16) / MAX_LOAD);
+        return Integer.highestOneBit(needed - 1) << 1;
+    }
+
+    private record Slots(long[] keys, long[] values, byte[] tags) {
+
+        Slots(int capacity, int keyWidth) {
+            this(new long[capacity * keyWidth], new long[capacity * VALUE_WIDTH], new byte[capacity]);
+        }
+
+        int capacity() {
+            return tags.length;
+        }
+    }
+}
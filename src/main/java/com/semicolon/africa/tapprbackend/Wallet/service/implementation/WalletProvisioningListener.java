@@ -0,0 +1,64 @@
+package com.semicolon.africa.tapprbackend.Wallet.service.implementation;
+
+import com.semicolon.africa.tapprbackend.Wallet.service.interfaces.WalletProvisioningService;
+import com.semicolon.africa.tapprbackend.user.events.UserRegisteredEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Provisions wallets for a new user on the wallet provisioning executor once the
+ * registration has committed, retrying with exponential backoff. Users that still fail
+ * are left for the backfill job.
+ */
+@Slf4j
+@Component
+public class WalletProvisioningListener {
+
+    private final WalletProvisioningService walletProvisioningService;
+
+    @Value("${wallet.provisioning.max-attempts:3}")
+    private int maxAttempts;
+
+    @Value("${wallet.provisioning.retry-backoff-ms:500}")
+    private long retryBackoffMs;
+
+    public WalletProvisioningListener(WalletProvisioningService walletProvisioningService) {
+        this.walletProvisioningService = walletProvisioningService;
+    }
+
+    @Async("walletProvisioningExecutor")
+    @TransactionalEventListener
+    public void onUserRegistered(UserRegisteredEvent event) {
+        long backoffMs = retryBackoffMs;
+        for (int attempt = 1; attempt <= maxAttempts; attempt++) {
+            try {
+                walletProvisioningService.provisionWallets(event.userId());
+                return;
+            } catch (RuntimeException e) {
+                if (attempt == maxAttempts) {
+                    log.error("Giving up provisioning wallets for user {} after {} attempts: {}",
+                            event.userId(), attempt, e.getMessage());
+                    return;
+                }
+                log.warn("Wallet provisioning attempt {} for user {} failed: {}", attempt, event.userId(), e.getMessage());
+                if (!sleep(backoffMs)) {
+                    return;
+                }
+                backoffMs *= 2;
+            }
+        }
+    }
+
+    private static boolean sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
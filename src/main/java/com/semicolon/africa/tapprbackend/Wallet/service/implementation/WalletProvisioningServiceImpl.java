@@ -0,0 +1,148 @@
+package com.semicolon.africa.tapprbackend.Wallet.service.implementation;
+
+import com.semicolon.africa.tapprbackend.Wallet.data.repositories.WalletRepository;
+import com.semicolon.africa.tapprbackend.Wallet.service.interfaces.WalletProvisioningService;
+import com.semicolon.africa.tapprbackend.Wallet.service.interfaces.WalletService;
+import com.semicolon.africa.tapprbackend.scheduling.services.interfaces.SchedulerLockService;
+import com.semicolon.africa.tapprbackend.security.UserStatusCache;
+import com.semicolon.africa.tapprbackend.user.data.models.User;
+import com.semicolon.africa.tapprbackend.user.data.repositories.UserRepository;
+import com.semicolon.africa.tapprbackend.user.exceptions.UserNotFoundException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+@Slf4j
+@Service
+public class WalletProvisioningServiceImpl implements WalletProvisioningService {
+
+    // Long enough to cover a backfill run; the cron and startup runs both go through it
+    private static final Duration BACKFILL_LEASE = Duration.ofHours(1);
+
+    private final UserRepository userRepository;
+    private final WalletRepository walletRepository;
+    private final WalletService walletService;
+    private final UserStatusCache userStatusCache;
+    private final SchedulerLockService schedulerLockService;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${wallet.backfill.batch-size:200}")
+    private int backfillBatchSize;
+
+    public WalletProvisioningServiceImpl(UserRepository userRepository,
+                                         WalletRepository walletRepository,
+                                         WalletService walletService,
+                                         UserStatusCache userStatusCache,
+                                         SchedulerLockService schedulerLockService,
+                                         PlatformTransactionManager transactionManager) {
+        this.userRepository = userRepository;
+        this.walletRepository = walletRepository;
+        this.walletService = walletService;
+        this.userStatusCache = userStatusCache;
+        this.schedulerLockService = schedulerLockService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    public int provisionWallets(UUID userId) {
+        int created;
+        try {
+            created = provisionInTransaction(userId);
+        } catch (DataIntegrityViolationException e) {
+            // Another worker created the same wallet first; the unique constraint kept it single.
+            // Its wallet is committed now, so a second pass sees it and only sets the flag
+            log.debug("Wallets for user {} were provisioned concurrently", userId);
+            try {
+                created = provisionInTransaction(userId);
+            } catch (DataIntegrityViolationException again) {
+                log.warn("Wallets for user {} are still being provisioned elsewhere; leaving the flag to the backfill", userId);
+                created = 0;
+            }
+        }
+        userStatusCache.evict(userId);
+        return created;
+    }
+
+    @Override
+    public int provisionWallets(List<UUID> userIds) {
+        if (userIds.isEmpty()) {
+            return 0;
+        }
+        Integer created = transactionTemplate.execute(status ->
+                userRepository.findAllWithWalletsByIdIn(userIds).stream().mapToInt(this::provision).sum());
+        userIds.forEach(userStatusCache::evict);
+        return created == null ? 0 : created;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${wallet.backfill.cron:0 30 3 * * *}")
+    public void runBackfill() {
+        // Replicas booting together would otherwise all walk the users table at once
+        schedulerLockService.runIfLeader("wallet-backfill", BACKFILL_LEASE, this::backfillMissingWallets);
+    }
+
+    @Override
+    public int backfillMissingWallets() {
+        int provisioned = 0;
+        UUID after = null;
+        List<UUID> batch;
+        do {
+            PageRequest page = PageRequest.of(0, backfillBatchSize);
+            batch = after == null
+                    ? userRepository.findIdsWithoutWallets(page)
+                    : userRepository.findIdsWithoutWalletsAfter(after, page);
+            if (batch.isEmpty()) {
+                break;
+            }
+            try {
+                provisioned += provisionWallets(batch);
+            } catch (RuntimeException e) {
+                // One bad row should not stall the whole batch
+                log.warn("Batch wallet backfill failed, retrying users one by one: {}", e.getMessage());
+                provisioned += batch.stream().mapToInt(this::provisionQuietly).sum();
+            }
+            after = batch.get(batch.size() - 1);
+        } while (batch.size() == backfillBatchSize);
+
+        if (provisioned > 0) {
+            log.info("Wallet backfill created {} wallets", provisioned);
+        }
+        return provisioned;
+    }
+
+    private int provisionInTransaction(UUID userId) {
+        Integer created = transactionTemplate.execute(status -> {
+            User user = userRepository.findById(userId)
+                    .orElseThrow(() -> new UserNotFoundException("User not found"));
+            user.setWallets(walletRepository.findByUser(user));
+            return provision(user);
+        });
+        return created == null ? 0 : created;
+    }
+
+    private int provision(User user) {
+        int created = walletService.createMissingWallets(user);
+        user.setHasWallet(true);
+        return created;
+    }
+
+    private int provisionQuietly(UUID userId) {
+        try {
+            return provisionWallets(userId);
+        } catch (RuntimeException e) {
+            log.error("Wallet backfill failed for user {}: {}", userId, e.getMessage());
+            return 0;
+        }
+    }
+}
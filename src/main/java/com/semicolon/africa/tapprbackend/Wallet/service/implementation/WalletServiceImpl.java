@@ -2,27 +2,41 @@ package com.semicolon.africa.tapprbackend.Wallet.service.implementation;
 
 import com.semicolon.africa.tapprbackend.Wallet.data.model.Wallet;
 import com.semicolon.africa.tapprbackend.Wallet.data.repositories.WalletRepository;
+import com.semicolon.africa.tapprbackend.Wallet.dtos.WalletDirectoryEntry;
 import com.semicolon.africa.tapprbackend.Wallet.dtos.requests.CreateWalletRequest;
 import com.semicolon.africa.tapprbackend.Wallet.dtos.response.CreateWalletResponse;
 import com.semicolon.africa.tapprbackend.Wallet.dtos.response.WalletBalanceResponse;
 import com.semicolon.africa.tapprbackend.Wallet.enums.WalletCurrency;
+import com.semicolon.africa.tapprbackend.Wallet.events.WalletBalanceEvent;
+import com.semicolon.africa.tapprbackend.Wallet.events.WalletCreatedEvent;
 import com.semicolon.africa.tapprbackend.Wallet.enums.WalletStatus;
 import com.semicolon.africa.tapprbackend.Wallet.enums.WalletType;
 import com.semicolon.africa.tapprbackend.Wallet.exceptions.InsufficientBalanceException;
 import com.semicolon.africa.tapprbackend.Wallet.exceptions.WalletNotFoundException;
 import com.semicolon.africa.tapprbackend.Wallet.service.interfaces.WalletService;
+import com.semicolon.africa.tapprbackend.Wallet.utils.WalletContext;
 import com.semicolon.africa.tapprbackend.Wallet.utils.WalletUtils;
+import com.semicolon.africa.tapprbackend.ledger.dtos.PostingLeg;
+import com.semicolon.africa.tapprbackend.ledger.enums.EntryDirection;
+import com.semicolon.africa.tapprbackend.ledger.enums.LedgerAccount;
+import com.semicolon.africa.tapprbackend.ledger.services.interfaces.LedgerService;
+import com.semicolon.africa.tapprbackend.outbox.enums.OutboxEventType;
+import com.semicolon.africa.tapprbackend.outbox.services.interfaces.OutboxService;
 import com.semicolon.africa.tapprbackend.security.JwtUtil;
 import com.semicolon.africa.tapprbackend.transaction.services.interfaces.SuiRateService;
 import com.semicolon.africa.tapprbackend.user.data.models.User;
 import com.semicolon.africa.tapprbackend.user.data.repositories.UserRepository;
 import com.semicolon.africa.tapprbackend.user.exceptions.UserNotFoundException;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 @Slf4j
@@ -33,20 +47,34 @@ public class WalletServiceImpl implements WalletService {
     private final WalletRepository walletRepository;
     private final JwtUtil jwtUtil;
     private final SuiRateService suiRateService;
+    private final OutboxService outboxService;
+    private final LedgerService ledgerService;
+    private final ApplicationEventPublisher eventPublisher;
 
     public WalletServiceImpl(UserRepository userRepository,
                              WalletRepository walletRepository,
                              JwtUtil jwtUtil,
-                             SuiRateService suiRateService) {
+                             SuiRateService suiRateService,
+                             OutboxService outboxService,
+                             LedgerService ledgerService,
+                             ApplicationEventPublisher eventPublisher) {
         this.userRepository = userRepository;
         this.walletRepository = walletRepository;
         this.jwtUtil = jwtUtil;
         this.suiRateService = suiRateService;
+        this.outboxService = outboxService;
+        this.ledgerService = ledgerService;
+        this.eventPublisher = eventPublisher;
     }
 
     @Override
     public CreateWalletResponse createWalletForUser(String jwtToken, CreateWalletRequest createWalletRequest) {
         UUID userId = UUID.fromString(jwtUtil.extractUserId(jwtToken));
+        return createWalletForUserId(userId, createWalletRequest);
+    }
+
+    @Override
+    public CreateWalletResponse createWalletForUserId(UUID userId, CreateWalletRequest createWalletRequest) {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new UserNotFoundException("User not found"));
 
@@ -73,6 +101,29 @@ public class WalletServiceImpl implements WalletService {
         }
     }
 
+    @Override
+    public int createMissingWallets(User user) {
+        List<Wallet> wallets = user.getWallets();
+        if (wallets == null) {
+            wallets = new ArrayList<>();
+            user.setWallets(wallets);
+        }
+
+        int created = 0;
+        if (findByCurrency(wallets, WalletCurrency.NGN).isEmpty()) {
+            log.info("Creating Fiat wallet for user: {}", user.getEmail());
+            wallets.add(createFiatWallet(user));
+            created++;
+        }
+
+        if (findByCurrency(wallets, WalletCurrency.SUI).isEmpty()) {
+            log.info("Creating Crypto wallet for user: {}", user.getEmail());
+            wallets.add(createSuiWallet(user));
+            created++;
+        }
+        return created;
+    }
+
     @Override
     public CreateWalletResponse createWallet(User user) {
         createWalletIfNotExists(user);
@@ -89,7 +140,7 @@ public class WalletServiceImpl implements WalletService {
         wallet.setAccountNumber(WalletUtils.generateAccountNumberFromPhoneNumber(user.getPhoneNumber()));
         wallet.setBalance(BigDecimal.ZERO);
         wallet.setStatus(WalletStatus.ACTIVE);
-        return walletRepository.save(wallet);
+        return published(walletRepository.save(wallet));
     }
 
     public Wallet createSuiWallet(User user) {
@@ -101,17 +152,38 @@ public class WalletServiceImpl implements WalletService {
         wallet.setTokenSymbol("SUI");
         wallet.setBalance(BigDecimal.ZERO);
         wallet.setStatus(WalletStatus.ACTIVE);
-        return walletRepository.save(wallet);
+        return published(walletRepository.save(wallet));
+    }
+
+    // Keeps the receiver directory current once the wallet commits
+    private Wallet published(Wallet wallet) {
+        eventPublisher.publishEvent(new WalletCreatedEvent(new WalletDirectoryEntry(wallet.getId(),
+                wallet.getUser().getId(), wallet.getCurrencyType(), wallet.getAccountNumber(), wallet.getWalletAddress())));
+        return wallet;
     }
 
     @Override
     public WalletBalanceResponse getUserWalletBalances(UUID userId) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new UserNotFoundException("User not found"));
+        WalletContext wallets = WalletContext.load(walletRepository, List.of(userId),
+                List.of(WalletCurrency.NGN, WalletCurrency.SUI));
+        // Only an empty result needs the extra read, to tell a missing user from missing wallets
+        if (wallets.isEmpty() && !userRepository.existsById(userId)) {
+            throw new UserNotFoundException("User not found");
+        }
+        return getWalletBalances(wallets, userId);
+    }
+
+    @Override
+    public WalletBalanceResponse getWalletBalances(WalletContext wallets, UUID userId) {
+        Wallet fiat = wallets.require(userId, WalletCurrency.NGN,
+                () -> new WalletNotFoundException("Wallet for " + WalletCurrency.NGN + " not found"));
+        Wallet sui = wallets.require(userId, WalletCurrency.SUI,
+                () -> new WalletNotFoundException("Wallet for " + WalletCurrency.SUI + " not found"));
 
-        Wallet fiat = getWalletByType(user, WalletCurrency.NGN);
-        Wallet sui = getWalletByType(user, WalletCurrency.SUI);
+        return buildBalanceResponse(fiat, sui);
+    }
 
+    private WalletBalanceResponse buildBalanceResponse(Wallet fiat, Wallet sui) {
         BigDecimal exchangeRate = suiRateService.getSuiToNgnRate();
 
         return WalletBalanceResponse.builder()
@@ -133,51 +205,72 @@ public class WalletServiceImpl implements WalletService {
     }
 
     @Override
+    @Transactional
     public void depositFiat(UUID userId, BigDecimal amount) {
-        Wallet wallet = getWalletByUserIdAndCurrency(userId, WalletCurrency.NGN);
-        wallet.setBalance(wallet.getBalance().add(amount));
-        walletRepository.save(wallet);
+        credit(userId, WalletCurrency.NGN, amount);
     }
 
     @Override
+    @Transactional
     public void withdrawFiat(UUID userId, BigDecimal amount) {
-        Wallet wallet = getWalletByUserIdAndCurrency(userId, WalletCurrency.NGN);
-        if (wallet.getBalance().compareTo(amount) < 0) {
-            throw new InsufficientBalanceException("Not enough fiat balance");
-        }
-        wallet.setBalance(wallet.getBalance().subtract(amount));
-        walletRepository.save(wallet);
+        debit(userId, WalletCurrency.NGN, amount, "Not enough fiat balance");
     }
 
     @Override
+    @Transactional
     public void depositSui(UUID userId, BigDecimal amount) {
-        Wallet wallet = getWalletByUserIdAndCurrency(userId, WalletCurrency.SUI);
-        wallet.setBalance(wallet.getBalance().add(amount));
-        walletRepository.save(wallet);
+        credit(userId, WalletCurrency.SUI, amount);
     }
 
     @Override
+    @Transactional
     public void withdrawSui(UUID userId, BigDecimal amount) {
-        Wallet wallet = getWalletByUserIdAndCurrency(userId, WalletCurrency.SUI);
-        if (wallet.getBalance().compareTo(amount) < 0) {
-            throw new InsufficientBalanceException("Not enough crypto balance");
-        }
-        wallet.setBalance(wallet.getBalance().subtract(amount));
-        walletRepository.save(wallet);
+        debit(userId, WalletCurrency.SUI, amount, "Not enough crypto balance");
     }
 
+    // Posted against the external settlement account, so the wallet balance keeps matching its
+    // ledger entries; the ledger moves it with one conditional UPDATE, so no write is lost
+    private void credit(UUID userId, WalletCurrency currency, BigDecimal amount) {
+        requirePositive(amount);
+        UUID walletId = findWalletId(userId, currency);
+        ledgerService.post("deposit:" + UUID.randomUUID(), List.of(
+                PostingLeg.house(LedgerAccount.EXTERNAL_SETTLEMENT, EntryDirection.DEBIT, currency, amount),
+                PostingLeg.credit(walletId, currency, amount)));
+        outboxService.append(OutboxEventType.WALLET_DEPOSITED, userId.toString(),
+                new WalletBalanceEvent(userId, currency, amount));
+    }
 
-    private Wallet getWalletByUserIdAndCurrency(UUID userId, WalletCurrency currency) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new UserNotFoundException("User not found"));
-        return getWalletByType(user, currency);
+    private void debit(UUID userId, WalletCurrency currency, BigDecimal amount, String insufficientMessage) {
+        requirePositive(amount);
+        UUID walletId = findWalletId(userId, currency);
+        try {
+            ledgerService.post("withdrawal:" + UUID.randomUUID(), List.of(
+                    PostingLeg.debit(walletId, currency, amount),
+                    PostingLeg.house(LedgerAccount.EXTERNAL_SETTLEMENT, EntryDirection.CREDIT, currency, amount)));
+        } catch (InsufficientBalanceException e) {
+            throw new InsufficientBalanceException(insufficientMessage);
+        }
+        outboxService.append(OutboxEventType.WALLET_WITHDRAWN, userId.toString(),
+                new WalletBalanceEvent(userId, currency, amount));
     }
 
-    private Wallet getWalletByType(User user, WalletCurrency currency) {
-        return walletRepository.findByUserAndCurrencyType(user, currency)
+    private UUID findWalletId(UUID userId, WalletCurrency currency) {
+        return walletRepository.findIdByUserIdAndCurrencyType(userId, currency)
                 .orElseThrow(() -> new WalletNotFoundException("Wallet for " + currency + " not found"));
     }
 
+    private static void requirePositive(BigDecimal amount) {
+        if (amount == null || amount.signum() <= 0) {
+            throw new IllegalArgumentException("Amount must be greater than zero");
+        }
+    }
+
+    private static Optional<Wallet> findByCurrency(List<Wallet> wallets, WalletCurrency currency) {
+        return wallets.stream()
+                .filter(wallet -> wallet.getCurrencyType() == currency)
+                .findFirst();
+    }
+
     private CreateWalletResponse mapToCreateWalletResponse(Wallet wallet) {
         return CreateWalletResponse.builder()
                 .message("Wallet created successfully")
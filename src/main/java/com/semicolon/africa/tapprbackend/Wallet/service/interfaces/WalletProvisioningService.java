@@ -0,0 +1,26 @@
+package com.semicolon.africa.tapprbackend.Wallet.service.interfaces;
+
+import java.util.List;
+import java.util.UUID;
+
+public interface WalletProvisioningService {
+
+    /**
+     * Creates any missing default wallets for the user and marks the user as having a wallet.
+     * Safe to call repeatedly and concurrently.
+     * @return the number of wallets created
+     */
+    int provisionWallets(UUID userId);
+
+    /**
+     * Provisions a batch of users in one transaction and one flush.
+     * @return the number of wallets created
+     */
+    int provisionWallets(List<UUID> userIds);
+
+    /**
+     * Walks every user still flagged as having no wallet and provisions them in batches.
+     * @return the number of wallets created
+     */
+    int backfillMissingWallets();
+}
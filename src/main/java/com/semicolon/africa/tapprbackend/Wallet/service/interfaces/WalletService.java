@@ -4,6 +4,7 @@ import com.semicolon.africa.tapprbackend.Wallet.data.model.Wallet;
 import com.semicolon.africa.tapprbackend.Wallet.dtos.requests.CreateWalletRequest;
 import com.semicolon.africa.tapprbackend.Wallet.dtos.response.CreateWalletResponse;
 import com.semicolon.africa.tapprbackend.Wallet.dtos.response.WalletBalanceResponse;
+import com.semicolon.africa.tapprbackend.Wallet.utils.WalletContext;
 import com.semicolon.africa.tapprbackend.user.data.models.User;
 
 import java.math.BigDecimal;
@@ -14,8 +15,16 @@ public interface WalletService {
 
     CreateWalletResponse createWalletForUser(String jwtToken, CreateWalletRequest createWalletRequest);
 
+    CreateWalletResponse createWalletForUserId(UUID userId, CreateWalletRequest createWalletRequest);
+
     void createWalletIfNotExists(User user);
 
+    /**
+     * Creates whichever default wallets are missing from the user's already loaded wallets,
+     * without querying for them. The new wallets are added to that collection.
+     */
+    int createMissingWallets(User user);
+
     CreateWalletResponse createWallet(User user);
 
     List<Wallet> getWallets(UUID userId);
@@ -30,4 +39,6 @@ public interface WalletService {
 
     WalletBalanceResponse getUserWalletBalances(UUID userId);
 
+    WalletBalanceResponse getWalletBalances(WalletContext wallets, UUID userId);
+
 }
@@ -0,0 +1,56 @@
+package com.semicolon.africa.tapprbackend.Wallet.utils;
+
+import com.semicolon.africa.tapprbackend.Wallet.data.model.Wallet;
+import com.semicolon.africa.tapprbackend.Wallet.data.repositories.WalletRepository;
+import com.semicolon.africa.tapprbackend.Wallet.enums.WalletCurrency;
+
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * The wallets one request works with, loaded together up front so later lookups by user and
+ * currency do not go back to the database. Not shared between requests.
+ */
+public final class WalletContext {
+
+    private final Map<UUID, Map<WalletCurrency, Wallet>> walletsByUser = new HashMap<>();
+
+    private WalletContext(Collection<Wallet> wallets) {
+        for (Wallet wallet : wallets) {
+            walletsByUser.computeIfAbsent(wallet.getUser().getId(), userId -> new EnumMap<>(WalletCurrency.class))
+                    .put(wallet.getCurrencyType(), wallet);
+        }
+    }
+
+    /**
+     * Loads every wallet the given users hold in the given currencies with one query.
+     */
+    public static WalletContext load(WalletRepository walletRepository,
+                                     Collection<UUID> userIds,
+                                     Collection<WalletCurrency> currencies) {
+        return new WalletContext(walletRepository.findByUserIdsAndCurrencies(userIds, currencies));
+    }
+
+    // For wallets that are already loaded, such as a user's fetch-joined wallets
+    public static WalletContext of(Collection<Wallet> wallets) {
+        return new WalletContext(wallets == null ? List.of() : wallets);
+    }
+
+    public Optional<Wallet> find(UUID userId, WalletCurrency currency) {
+        return Optional.ofNullable(walletsByUser.getOrDefault(userId, Map.of()).get(currency));
+    }
+
+    public Wallet require(UUID userId, WalletCurrency currency, Supplier<? extends RuntimeException> missing) {
+        return find(userId, currency).orElseThrow(missing);
+    }
+
+    public boolean isEmpty() {
+        return walletsByUser.isEmpty();
+    }
+}
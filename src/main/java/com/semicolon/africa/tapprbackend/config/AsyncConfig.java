@@ -0,0 +1,83 @@
+package com.semicolon.africa.tapprbackend.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@Slf4j
+@Configuration
+@EnableAsync
+public class AsyncConfig {
+
+    /**
+     * Runs wallet provisioning for new sign-ups. When the queue is full the work is dropped;
+     * the wallet backfill job picks those users up on its next run.
+     */
+    @Bean(name = "walletProvisioningExecutor")
+    public ThreadPoolTaskExecutor walletProvisioningExecutor(
+            @Value("${wallet.provisioning.threads:2}") int threads,
+            @Value("${wallet.provisioning.queue-capacity:1000}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("wallet-provisioning-");
+        executor.setRejectedExecutionHandler((task, pool) ->
+                log.warn("Wallet provisioning queue is full; leaving the user for the backfill job"));
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(10);
+        return executor;
+    }
+
+    /**
+     * Quote stage of the transaction settlement pipeline: prices cross-currency payments. Kept
+     * apart from posting so a slow rate lookup cannot hold up same-currency settlement. When
+     * the queue is full the payment stays PENDING for the recovery sweep.
+     */
+    @Bean(name = "transactionQuoteExecutor")
+    public ThreadPoolTaskExecutor transactionQuoteExecutor(
+            @Value("${transactions.pipeline.quote.threads:2}") int threads,
+            @Value("${transactions.pipeline.queue-capacity:10000}") int queueCapacity) {
+        return pipelineExecutor("transaction-quote-", threads, queueCapacity);
+    }
+
+    /**
+     * Posting stage of the transaction settlement pipeline: settles payments on the ledger.
+     */
+    @Bean(name = "transactionPostingExecutor")
+    public ThreadPoolTaskExecutor transactionPostingExecutor(
+            @Value("${transactions.pipeline.posting.threads:8}") int threads,
+            @Value("${transactions.pipeline.queue-capacity:10000}") int queueCapacity) {
+        return pipelineExecutor("transaction-posting-", threads, queueCapacity);
+    }
+
+    /**
+     * Revalidates exchange rates that readers found stale. One refresh at a time is enough, so
+     * further requests are dropped while one is queued.
+     */
+    @Bean(name = "rateRefreshExecutor")
+    public ThreadPoolTaskExecutor rateRefreshExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setQueueCapacity(1);
+        executor.setThreadNamePrefix("rate-refresh-");
+        executor.setRejectedExecutionHandler((task, pool) -> log.debug("Rate refresh already queued"));
+        return executor;
+    }
+
+    // Rejects with TaskRejectedException when full, so the pipeline knows to leave the payment for recovery
+    private static ThreadPoolTaskExecutor pipelineExecutor(String threadNamePrefix, int threads, int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix(threadNamePrefix);
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(10);
+        return executor;
+    }
+}
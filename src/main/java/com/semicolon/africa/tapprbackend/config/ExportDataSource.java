@@ -0,0 +1,53 @@
+package com.semicolon.africa.tapprbackend.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+
+/**
+ * A small pool of read-only connections for streaming exports, kept apart from the main pool
+ * so driver settings that only suit long cursor reads, such as MySQL's {@code useCursorFetch},
+ * never reach ordinary queries. It connects with the main datasource's URL, credentials and
+ * driver properties, and opens no connection until the first export.
+ * <p>
+ * Deliberately not a {@link DataSource} bean, so the auto-configured main pool stays the only one.
+ */
+@Component
+public class ExportDataSource {
+
+    private final HikariDataSource dataSource;
+
+    public ExportDataSource(DataSourceProperties properties,
+                            Environment environment,
+                            @Value("${transactions.export.pool-size:2}") int poolSize,
+                            @Value("${transactions.export.cursor-fetch:false}") boolean cursorFetch) {
+        HikariDataSource pool = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        pool.setPoolName("export");
+        pool.setMaximumPoolSize(poolSize);
+        pool.setMinimumIdle(0);
+        pool.setReadOnly(true);
+        Binder.get(environment)
+                .bind("spring.datasource.hikari.data-source-properties", Bindable.mapOf(String.class, String.class))
+                .ifBound(driverProperties -> driverProperties.forEach(pool::addDataSourceProperty));
+        if (cursorFetch) {
+            pool.addDataSourceProperty("useCursorFetch", "true");
+        }
+        this.dataSource = pool;
+    }
+
+    public DataSource getDataSource() {
+        return dataSource;
+    }
+
+    @PreDestroy
+    void close() {
+        dataSource.close();
+    }
+}
@@ -0,0 +1,18 @@
+package com.semicolon.africa.tapprbackend.config;
+
+import org.springframework.boot.autoconfigure.orm.jpa.EntityManagerFactoryDependsOnPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class SchemaMigrationConfig {
+
+    /**
+     * Runs the schema migrations before Hibernate builds its EntityManagerFactory and applies
+     * ddl-auto to the tables they change.
+     */
+    @Bean
+    public static EntityManagerFactoryDependsOnPostProcessor migrationsBeforeJpa() {
+        return new EntityManagerFactoryDependsOnPostProcessor(TransactionUniqueIndexMigration.BEAN_NAME);
+    }
+}
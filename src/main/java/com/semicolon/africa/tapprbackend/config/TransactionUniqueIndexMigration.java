@@ -0,0 +1,59 @@
+package com.semicolon.africa.tapprbackend.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * Drops the single-column unique indexes that earlier versions put on the sender and receiver
+ * columns of transactions. With them in place a user could make only one payment, and a batch
+ * payout could pay each receiver only once. ddl-auto=update adds indexes but never drops
+ * them, so a table an earlier version created keeps them until this runs.
+ * <p>
+ * Runs before the EntityManagerFactory is built, and only on MySQL: the H2 profiles create
+ * their schema from scratch.
+ */
+@Slf4j
+@Component(TransactionUniqueIndexMigration.BEAN_NAME)
+public class TransactionUniqueIndexMigration implements InitializingBean {
+
+    static final String BEAN_NAME = "transactionUniqueIndexMigration";
+
+    private static final String UNIQUE_INDEXES_SQL = "SELECT INDEX_NAME FROM INFORMATION_SCHEMA.STATISTICS " +
+            "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'transactions' AND NON_UNIQUE = 0 " +
+            "AND INDEX_NAME <> 'PRIMARY' GROUP BY INDEX_NAME HAVING COUNT(*) = 1 AND MAX(COLUMN_NAME) IN " +
+            "('senders_id', 'receivers_id', 'sender_account_number', 'receivers_account_number')";
+
+    private final DataSource dataSource;
+
+    public TransactionUniqueIndexMigration(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        if (!isMySql()) {
+            return;
+        }
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        List<String> indexes = jdbcTemplate.queryForList(UNIQUE_INDEXES_SQL, String.class);
+        for (String index : indexes) {
+            jdbcTemplate.execute("ALTER TABLE transactions DROP INDEX `" + index.replace("`", "``") + "`");
+            log.info("Dropped unique index {} from transactions", index);
+        }
+    }
+
+    private boolean isMySql() {
+        try (Connection connection = dataSource.getConnection()) {
+            return "MySQL".equalsIgnoreCase(connection.getMetaData().getDatabaseProductName());
+        } catch (SQLException e) {
+            throw new IllegalStateException("Could not inspect the database before migrating transactions", e);
+        }
+    }
+}
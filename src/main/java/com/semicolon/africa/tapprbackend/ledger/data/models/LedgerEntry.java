@@ -0,0 +1,65 @@
+package com.semicolon.africa.tapprbackend.ledger.data.models;
+
+import com.semicolon.africa.tapprbackend.Wallet.enums.WalletCurrency;
+import com.semicolon.africa.tapprbackend.ledger.enums.EntryDirection;
+import com.semicolon.africa.tapprbackend.ledger.enums.LedgerAccount;
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Immutable line of the double-entry ledger. Entries sharing a posting ref balance to zero
+ * per currency.
+ */
+@Entity
+@Getter
+@Setter
+@Table(name = "ledger_entries", indexes = {
+        @Index(name = "idx_ledger_entries_posting_ref", columnList = "posting_ref"),
+        @Index(name = "idx_ledger_entries_wallet_created", columnList = "wallet_id, created_at")
+})
+public class LedgerEntry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    @JdbcTypeCode(SqlTypes.VARCHAR)
+    @Column(name = "id", columnDefinition = "VARCHAR(36)", updatable = false, nullable = false)
+    private UUID id;
+
+    @Column(name = "posting_ref", nullable = false, updatable = false)
+    private String postingRef;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "account", nullable = false, updatable = false, length = 20)
+    private LedgerAccount account;
+
+    @JdbcTypeCode(SqlTypes.VARCHAR)
+    @Column(name = "wallet_id", columnDefinition = "VARCHAR(36)", updatable = false)
+    private UUID walletId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "direction", nullable = false, updatable = false, length = 6)
+    private EntryDirection direction;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "currency", nullable = false, updatable = false, length = 10)
+    private WalletCurrency currency;
+
+    @Column(name = "amount", nullable = false, updatable = false, precision = 19, scale = 2)
+    private BigDecimal amount;
+
+    // Wallet balance right after this entry was applied; null for house accounts
+    @Column(name = "balance_after", updatable = false, precision = 19, scale = 2)
+    private BigDecimal balanceAfter;
+
+    @CreationTimestamp
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,28 @@
+package com.semicolon.africa.tapprbackend.ledger.data.models;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * One row per posting that reached the ledger. The posting ref is the key, so a posting
+ * handed in twice, from a retry or from another instance, can only ever commit once.
+ */
+@Entity
+@Getter
+@Setter
+@Table(name = "ledger_postings")
+public class LedgerPosting {
+
+    @Id
+    @Column(name = "posting_ref", nullable = false, updatable = false)
+    private String postingRef;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+}
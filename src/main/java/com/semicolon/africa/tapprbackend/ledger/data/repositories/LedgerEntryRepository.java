@@ -0,0 +1,14 @@
+package com.semicolon.africa.tapprbackend.ledger.data.repositories;
+
+import com.semicolon.africa.tapprbackend.ledger.data.models.LedgerEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+public interface LedgerEntryRepository extends JpaRepository<LedgerEntry, UUID> {
+    List<LedgerEntry> findByPostingRef(String postingRef);
+    List<LedgerEntry> findByPostingRefIn(Collection<String> postingRefs);
+    List<LedgerEntry> findByWalletId(UUID walletId);
+}
@@ -0,0 +1,18 @@
+package com.semicolon.africa.tapprbackend.ledger.data.repositories;
+
+import com.semicolon.africa.tapprbackend.ledger.data.models.LedgerPosting;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+
+public interface LedgerPostingRepository extends JpaRepository<LedgerPosting, String> {
+
+    // A plain INSERT, not save(): a merge would quietly accept a ref another posting just claimed
+    @Modifying
+    @Query(value = "INSERT INTO ledger_postings (posting_ref, created_at) VALUES (:postingRef, :now)",
+            nativeQuery = true)
+    int insert(@Param("postingRef") String postingRef, @Param("now") LocalDateTime now);
+}
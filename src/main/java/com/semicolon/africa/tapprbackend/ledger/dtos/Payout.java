@@ -0,0 +1,10 @@
+package com.semicolon.africa.tapprbackend.ledger.dtos;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * One line of a fan-out posting: the wallet to credit and the posting ref its entries share.
+ */
+public record Payout(String postingRef, UUID walletId, BigDecimal amount) {
+}
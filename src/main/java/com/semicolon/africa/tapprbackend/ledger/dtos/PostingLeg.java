@@ -0,0 +1,28 @@
+package com.semicolon.africa.tapprbackend.ledger.dtos;
+
+import com.semicolon.africa.tapprbackend.Wallet.enums.WalletCurrency;
+import com.semicolon.africa.tapprbackend.ledger.enums.EntryDirection;
+import com.semicolon.africa.tapprbackend.ledger.enums.LedgerAccount;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * One side of a posting. Wallet legs carry the wallet id; house account legs leave it null.
+ */
+public record PostingLeg(LedgerAccount account, UUID walletId, EntryDirection direction,
+                         WalletCurrency currency, BigDecimal amount) {
+
+    public static PostingLeg debit(UUID walletId, WalletCurrency currency, BigDecimal amount) {
+        return new PostingLeg(LedgerAccount.WALLET, walletId, EntryDirection.DEBIT, currency, amount);
+    }
+
+    public static PostingLeg credit(UUID walletId, WalletCurrency currency, BigDecimal amount) {
+        return new PostingLeg(LedgerAccount.WALLET, walletId, EntryDirection.CREDIT, currency, amount);
+    }
+
+    public static PostingLeg house(LedgerAccount account, EntryDirection direction,
+                                   WalletCurrency currency, BigDecimal amount) {
+        return new PostingLeg(account, null, direction, currency, amount);
+    }
+}
@@ -0,0 +1,6 @@
+package com.semicolon.africa.tapprbackend.ledger.enums;
+
+public enum EntryDirection {
+    DEBIT,
+    CREDIT
+}
@@ -0,0 +1,7 @@
+package com.semicolon.africa.tapprbackend.ledger.enums;
+
+public enum LedgerAccount {
+    WALLET,              // a user wallet; every entry moves its balance
+    FX_CLEARING,         // house account that nets out the two currency legs of a conversion
+    EXTERNAL_SETTLEMENT  // house account for money entering or leaving through deposits and withdrawals
+}
@@ -0,0 +1,9 @@
+package com.semicolon.africa.tapprbackend.ledger.exceptions;
+
+import com.semicolon.africa.tapprbackend.tapprException.TapprException;
+
+public class UnbalancedPostingException extends TapprException {
+    public UnbalancedPostingException(String message) {
+        super(message);
+    }
+}
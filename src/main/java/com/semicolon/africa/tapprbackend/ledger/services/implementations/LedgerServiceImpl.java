@@ -0,0 +1,195 @@
+package com.semicolon.africa.tapprbackend.ledger.services.implementations;
+
+import com.semicolon.africa.tapprbackend.Wallet.data.repositories.WalletRepository;
+import com.semicolon.africa.tapprbackend.Wallet.dtos.WalletBalance;
+import com.semicolon.africa.tapprbackend.Wallet.enums.WalletCurrency;
+import com.semicolon.africa.tapprbackend.Wallet.exceptions.InsufficientBalanceException;
+import com.semicolon.africa.tapprbackend.Wallet.exceptions.WalletNotFoundException;
+import com.semicolon.africa.tapprbackend.ledger.data.models.LedgerEntry;
+import com.semicolon.africa.tapprbackend.ledger.data.repositories.LedgerEntryRepository;
+import com.semicolon.africa.tapprbackend.ledger.data.repositories.LedgerPostingRepository;
+import com.semicolon.africa.tapprbackend.ledger.dtos.Payout;
+import com.semicolon.africa.tapprbackend.ledger.dtos.PostingLeg;
+import com.semicolon.africa.tapprbackend.ledger.enums.EntryDirection;
+import com.semicolon.africa.tapprbackend.ledger.enums.LedgerAccount;
+import com.semicolon.africa.tapprbackend.ledger.services.interfaces.LedgerService;
+import com.semicolon.africa.tapprbackend.ledger.exceptions.UnbalancedPostingException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+@Service
+public class LedgerServiceImpl implements LedgerService {
+
+    // Wallet rows are always locked in id order, so two postings touching the same pair of
+    // wallets cannot deadlock; a wallet's debit runs before its credit
+    private static final Comparator<PostingLeg> LOCK_ORDER = Comparator
+            .comparing(PostingLeg::walletId, Comparator.nullsLast(Comparator.naturalOrder()))
+            .thenComparing(PostingLeg::direction);
+
+    private static final String CREDIT_SQL = "UPDATE wallets SET balance = balance + ? WHERE id = ?";
+
+    private final WalletRepository walletRepository;
+    private final LedgerEntryRepository ledgerEntryRepository;
+    private final LedgerPostingRepository ledgerPostingRepository;
+    private final ShardedPostingWriter shardedPostingWriter;
+    private final TransactionTemplate transactionTemplate;
+    private final JdbcTemplate jdbcTemplate;
+
+    public LedgerServiceImpl(WalletRepository walletRepository,
+                             LedgerEntryRepository ledgerEntryRepository,
+                             LedgerPostingRepository ledgerPostingRepository,
+                             ShardedPostingWriter shardedPostingWriter,
+                             PlatformTransactionManager transactionManager,
+                             JdbcTemplate jdbcTemplate) {
+        this.walletRepository = walletRepository;
+        this.ledgerEntryRepository = ledgerEntryRepository;
+        this.ledgerPostingRepository = ledgerPostingRepository;
+        this.shardedPostingWriter = shardedPostingWriter;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    public List<LedgerEntry> post(String postingRef, List<PostingLeg> legs) {
+        if (shardedPostingWriter.accepts(legs)) {
+            return shardedPostingWriter.await(shardedPostingWriter.submit(postingRef, legs));
+        }
+        return transactionTemplate.execute(status -> postInline(postingRef, legs));
+    }
+
+    @Override
+    public CompletableFuture<List<LedgerEntry>> submit(String postingRef, List<PostingLeg> legs) {
+        if (shardedPostingWriter.accepts(legs)) {
+            return shardedPostingWriter.submit(postingRef, legs);
+        }
+        try {
+            return CompletableFuture.completedFuture(transactionTemplate.execute(status -> postInline(postingRef, legs)));
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    @Override
+    public List<LedgerEntry> postPayouts(UUID sourceWalletId, WalletCurrency currency, List<Payout> payouts) {
+        return transactionTemplate.execute(status -> postPayoutsInline(sourceWalletId, currency, payouts));
+    }
+
+    private List<LedgerEntry> postInline(String postingRef, List<PostingLeg> legs) {
+        Postings.validateBalanced(legs);
+
+        List<LedgerEntry> posted = ledgerEntryRepository.findByPostingRef(postingRef);
+        if (!posted.isEmpty()) {
+            return posted;
+        }
+        // Claimed before any wallet is touched, so a concurrent duplicate waits here and then fails
+        ledgerPostingRepository.insert(postingRef, LocalDateTime.now());
+
+        List<LedgerEntry> entries = new ArrayList<>(legs.size());
+        for (PostingLeg leg : legs.stream().sorted(LOCK_ORDER).toList()) {
+            entries.add(Postings.toEntry(postingRef, leg, apply(leg)));
+        }
+        return ledgerEntryRepository.saveAll(entries);
+    }
+
+    /**
+     * Moves the wallet balance with a single conditional UPDATE and returns the balance it
+     * left behind. The row stays locked until commit, so the follow-up read cannot see
+     * another posting's change.
+     */
+    private BigDecimal apply(PostingLeg leg) {
+        if (leg.account() != LedgerAccount.WALLET) {
+            return null;
+        }
+
+        if (leg.direction() == EntryDirection.DEBIT) {
+            if (walletRepository.debit(leg.walletId(), leg.amount()) == 0) {
+                throw new InsufficientBalanceException("Insufficient balance in wallet " + leg.walletId());
+            }
+        } else if (walletRepository.credit(leg.walletId(), leg.amount()) == 0) {
+            throw new WalletNotFoundException("Wallet not found: " + leg.walletId());
+        }
+        return walletRepository.findBalanceById(leg.walletId());
+    }
+
+    private List<LedgerEntry> postPayoutsInline(UUID sourceWalletId, WalletCurrency currency, List<Payout> payouts) {
+        if (payouts.isEmpty()) {
+            throw new UnbalancedPostingException("A payout posting needs at least one payout");
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        BigDecimal total = BigDecimal.ZERO;
+        TreeMap<UUID, BigDecimal> credits = new TreeMap<>();
+        List<LedgerEntry> entries = new ArrayList<>(payouts.size() * 2);
+        for (Payout payout : payouts) {
+            if (payout.amount() == null || payout.amount().signum() <= 0) {
+                throw new UnbalancedPostingException("Posting amounts must be greater than zero");
+            }
+            ledgerPostingRepository.insert(payout.postingRef(), now);
+            total = total.add(payout.amount());
+            credits.merge(payout.walletId(), payout.amount(), BigDecimal::add);
+            entries.add(Postings.toEntry(payout.postingRef(),
+                    PostingLeg.debit(sourceWalletId, currency, payout.amount()), null));
+            entries.add(Postings.toEntry(payout.postingRef(),
+                    PostingLeg.credit(payout.walletId(), currency, payout.amount()), null));
+        }
+
+        // Same id order as single postings: credits below the source, the debit, then the rest
+        creditAll(credits.headMap(sourceWalletId, false));
+        if (walletRepository.debit(sourceWalletId, total) == 0) {
+            throw new InsufficientBalanceException("Insufficient balance in wallet " + sourceWalletId);
+        }
+        creditAll(credits.tailMap(sourceWalletId, true));
+
+        List<UUID> touched = new ArrayList<>(credits.keySet());
+        touched.add(sourceWalletId);
+        Map<UUID, BigDecimal> running = new HashMap<>();
+        for (WalletBalance balance : walletRepository.findBalancesByIdIn(touched)) {
+            running.put(balance.walletId(), balance.balance());
+        }
+        // Walk back from the final balances so each entry gets the balance it left behind
+        for (int i = entries.size() - 1; i >= 0; i--) {
+            LedgerEntry entry = entries.get(i);
+            BigDecimal after = running.get(entry.getWalletId());
+            entry.setBalanceAfter(after);
+            running.put(entry.getWalletId(), entry.getDirection() == EntryDirection.DEBIT
+                    ? after.add(entry.getAmount())
+                    : after.subtract(entry.getAmount()));
+        }
+        return ledgerEntryRepository.saveAll(entries);
+    }
+
+    /**
+     * Credits each wallet once in a single JDBC batch. MySQL may report a rewritten batch as
+     * {@link java.sql.Statement#SUCCESS_NO_INFO}, so only an explicit zero counts as missing.
+     */
+    private void creditAll(Map<UUID, BigDecimal> credits) {
+        if (credits.isEmpty()) {
+            return;
+        }
+
+        List<UUID> walletIds = new ArrayList<>(credits.keySet());
+        List<Object[]> args = new ArrayList<>(walletIds.size());
+        for (UUID walletId : walletIds) {
+            args.add(new Object[]{credits.get(walletId), walletId.toString()});
+        }
+        int[] updated = jdbcTemplate.batchUpdate(CREDIT_SQL, args);
+        for (int i = 0; i < updated.length; i++) {
+            if (updated[i] == 0) {
+                throw new WalletNotFoundException("Wallet not found: " + walletIds.get(i));
+            }
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.semicolon.africa.tapprbackend.ledger.services.implementations;
+
+import com.semicolon.africa.tapprbackend.Wallet.enums.WalletCurrency;
+import com.semicolon.africa.tapprbackend.ledger.data.models.LedgerEntry;
+import com.semicolon.africa.tapprbackend.ledger.dtos.PostingLeg;
+import com.semicolon.africa.tapprbackend.ledger.enums.EntryDirection;
+import com.semicolon.africa.tapprbackend.ledger.enums.LedgerAccount;
+import com.semicolon.africa.tapprbackend.ledger.exceptions.UnbalancedPostingException;
+
+import java.math.BigDecimal;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Checks and entry mapping shared by the inline and the sharded posting paths.
+ */
+final class Postings {
+
+    private Postings() {
+    }
+
+    static void validateBalanced(List<PostingLeg> legs) {
+        if (legs.size() < 2) {
+            throw new UnbalancedPostingException("A posting needs at least one debit and one credit");
+        }
+
+        Map<WalletCurrency, BigDecimal> net = new EnumMap<>(WalletCurrency.class);
+        for (PostingLeg leg : legs) {
+            if (leg.amount() == null || leg.amount().signum() <= 0) {
+                throw new UnbalancedPostingException("Posting amounts must be greater than zero");
+            }
+            if (leg.account() == LedgerAccount.WALLET && leg.walletId() == null) {
+                throw new UnbalancedPostingException("Wallet leg is missing its wallet");
+            }
+            BigDecimal signed = leg.direction() == EntryDirection.DEBIT ? leg.amount() : leg.amount().negate();
+            net.merge(leg.currency(), signed, BigDecimal::add);
+        }
+
+        net.forEach((currency, balance) -> {
+            if (balance.signum() != 0) {
+                throw new UnbalancedPostingException("Posting does not balance in " + currency);
+            }
+        });
+    }
+
+    static LedgerEntry toEntry(String postingRef, PostingLeg leg, BigDecimal balanceAfter) {
+        LedgerEntry entry = new LedgerEntry();
+        entry.setPostingRef(postingRef);
+        entry.setAccount(leg.account());
+        entry.setWalletId(leg.walletId());
+        entry.setDirection(leg.direction());
+        entry.setCurrency(leg.currency());
+        entry.setAmount(leg.amount());
+        entry.setBalanceAfter(balanceAfter);
+        return entry;
+    }
+
+    static boolean isWalletLeg(PostingLeg leg, EntryDirection direction) {
+        return leg.account() == LedgerAccount.WALLET && leg.direction() == direction;
+    }
+}
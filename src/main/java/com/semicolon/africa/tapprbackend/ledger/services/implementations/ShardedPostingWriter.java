@@ -0,0 +1,394 @@
+package com.semicolon.africa.tapprbackend.ledger.services.implementations;
+
+import com.semicolon.africa.tapprbackend.Wallet.data.repositories.WalletRepository;
+import com.semicolon.africa.tapprbackend.Wallet.exceptions.InsufficientBalanceException;
+import com.semicolon.africa.tapprbackend.Wallet.exceptions.WalletNotFoundException;
+import com.semicolon.africa.tapprbackend.ledger.data.models.LedgerEntry;
+import com.semicolon.africa.tapprbackend.ledger.data.repositories.LedgerEntryRepository;
+import com.semicolon.africa.tapprbackend.ledger.data.repositories.LedgerPostingRepository;
+import com.semicolon.africa.tapprbackend.ledger.dtos.PostingLeg;
+import com.semicolon.africa.tapprbackend.ledger.enums.EntryDirection;
+import com.semicolon.africa.tapprbackend.ledger.exceptions.LedgerBusyException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Collectors;
+
+/**
+ * Optional single-writer mode for ledger postings, enabled with {@code ledger.sharding.enabled}.
+ * Postings are routed by the wallet they credit to a fixed set of shards, each drained by one
+ * thread. A shard settles whatever has queued up as one micro-batch in one database
+ * transaction, and all credits to the same wallet in that batch become a single UPDATE. A hot
+ * merchant wallet therefore takes one row lock per batch instead of one per payment.
+ * <p>
+ * Only postings with at most one wallet debit are routed here, so a rejected debit never has
+ * to be compensated. Anything else stays on the inline path.
+ * <p>
+ * A shard commits in its own transaction, not the caller's. Each posting claims its ref in
+ * {@code ledger_postings} in that transaction, and a ref already on the ledger is answered
+ * with its existing entries, so a caller that gave up or rolled back can retry the same ref
+ * without paying twice.
+ * <p>
+ * Callers block on the result while keeping any connection their own transaction holds, so
+ * the pool needs room for the shard threads on top of the blocked callers.
+ */
+@Slf4j
+@Component
+public class ShardedPostingWriter {
+
+    private static final String BUSY_MESSAGE = "Payments are busy right now, please retry shortly";
+    private static final int MAX_ATTEMPTS = 3;
+
+    private final boolean enabled;
+    private final int shardCount;
+    private final int queueCapacity;
+    private final int maxBatch;
+    private final long awaitTimeoutMs;
+    private final WalletRepository walletRepository;
+    private final LedgerEntryRepository ledgerEntryRepository;
+    private final LedgerPostingRepository ledgerPostingRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+    private final DistributionSummary batchSize;
+    private final Counter rejected;
+
+    private final List<Shard> shards = new ArrayList<>();
+    private volatile boolean running;
+
+    public ShardedPostingWriter(@Value("${ledger.sharding.enabled:false}") boolean enabled,
+                                @Value("${ledger.sharding.shards:8}") int shardCount,
+                                @Value("${ledger.sharding.queue-capacity:10000}") int queueCapacity,
+                                @Value("${ledger.sharding.max-batch:256}") int maxBatch,
+                                @Value("${ledger.sharding.await-timeout-ms:5000}") long awaitTimeoutMs,
+                                WalletRepository walletRepository,
+                                LedgerEntryRepository ledgerEntryRepository,
+                                LedgerPostingRepository ledgerPostingRepository,
+                                PlatformTransactionManager transactionManager,
+                                MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.shardCount = shardCount;
+        this.queueCapacity = queueCapacity;
+        this.maxBatch = maxBatch;
+        this.awaitTimeoutMs = awaitTimeoutMs;
+        this.walletRepository = walletRepository;
+        this.ledgerEntryRepository = ledgerEntryRepository;
+        this.ledgerPostingRepository = ledgerPostingRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.meterRegistry = meterRegistry;
+        this.batchSize = DistributionSummary.builder("ledger.sharded.batch.size").register(meterRegistry);
+        this.rejected = Counter.builder("ledger.sharded.rejected").register(meterRegistry);
+    }
+
+    @PostConstruct
+    void start() {
+        if (!enabled) {
+            return;
+        }
+        running = true;
+        for (int i = 0; i < shardCount; i++) {
+            Shard shard = new Shard(new ArrayBlockingQueue<>(queueCapacity));
+            Thread thread = new Thread(() -> drain(shard), "ledger-shard-" + i);
+            thread.setDaemon(true);
+            shard.thread = thread;
+            shards.add(shard);
+            Gauge.builder("ledger.sharded.queue.depth", shard.queue, BlockingQueue::size)
+                    .tag("shard", String.valueOf(i))
+                    .register(meterRegistry);
+            thread.start();
+        }
+        log.info("Sharded ledger writer started with {} shards", shardCount);
+    }
+
+    @PreDestroy
+    void stop() {
+        running = false;
+        shards.forEach(shard -> shard.thread.interrupt());
+    }
+
+    /**
+     * Whether this posting can be settled by a shard.
+     */
+    public boolean accepts(List<PostingLeg> legs) {
+        return enabled && legs.stream().filter(leg -> Postings.isWalletLeg(leg, EntryDirection.DEBIT)).count() <= 1;
+    }
+
+    public CompletableFuture<List<LedgerEntry>> submit(String postingRef, List<PostingLeg> legs) {
+        Postings.validateBalanced(legs);
+        PendingPosting posting = new PendingPosting(postingRef, legs);
+        if (!running || !shardFor(legs).queue.offer(posting)) {
+            rejected.increment();
+            posting.result.completeExceptionally(new LedgerBusyException(BUSY_MESSAGE));
+        }
+        return posting.result;
+    }
+
+    /**
+     * Waits for a submitted posting and rethrows its failure as thrown by the shard. A posting
+     * still queued when the wait runs out is withdrawn; one its shard already picked up may
+     * still commit, and a retry under the same ref then gets its entries back.
+     */
+    public List<LedgerEntry> await(CompletableFuture<List<LedgerEntry>> result) {
+        try {
+            try {
+                return result.get(awaitTimeoutMs, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                return withdraw(result);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return withdraw(result);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new LedgerBusyException(BUSY_MESSAGE);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException("Ledger posting failed", e.getCause());
+        }
+    }
+
+    // Cancelling fails only once the shard has completed it, and then get() returns at once
+    private static List<LedgerEntry> withdraw(CompletableFuture<List<LedgerEntry>> result)
+            throws InterruptedException, ExecutionException {
+        if (result.cancel(false)) {
+            throw new LedgerBusyException(BUSY_MESSAGE);
+        }
+        return result.get();
+    }
+
+    private Shard shardFor(List<PostingLeg> legs) {
+        UUID routingWallet = legs.stream()
+                .filter(leg -> Postings.isWalletLeg(leg, EntryDirection.CREDIT))
+                .map(PostingLeg::walletId)
+                .findFirst()
+                .orElseGet(() -> legs.stream().map(PostingLeg::walletId).filter(id -> id != null).findFirst().orElseThrow());
+        return shards.get(Math.floorMod(routingWallet.hashCode(), shards.size()));
+    }
+
+    private void drain(Shard shard) {
+        List<PendingPosting> batch = new ArrayList<>(maxBatch);
+        while (running) {
+            try {
+                batch.add(shard.queue.take());
+            } catch (InterruptedException e) {
+                break;
+            }
+            shard.queue.drainTo(batch, maxBatch - 1);
+            // Withdrawn by callers that stopped waiting
+            batch.removeIf(posting -> posting.result.isDone());
+            if (!batch.isEmpty()) {
+                batchSize.record(batch.size());
+                settle(batch);
+                batch.clear();
+            }
+        }
+
+        List<PendingPosting> abandoned = new ArrayList<>();
+        shard.queue.drainTo(abandoned);
+        abandoned.forEach(posting -> posting.result.completeExceptionally(new LedgerBusyException(BUSY_MESSAGE)));
+    }
+
+    private void settle(List<PendingPosting> batch) {
+        List<PendingPosting> remaining = new ArrayList<>(batch.size());
+        Map<String, PendingPosting> byRef = new HashMap<>();
+        for (PendingPosting posting : batch) {
+            PendingPosting first = byRef.putIfAbsent(posting.postingRef, posting);
+            if (first == null) {
+                remaining.add(posting);
+            } else {
+                // The same ref twice in one batch settles once and both callers get that outcome
+                first.result.whenComplete((entries, error) -> {
+                    if (error == null) {
+                        posting.result.complete(entries);
+                    } else {
+                        posting.result.completeExceptionally(error);
+                    }
+                });
+            }
+        }
+
+        int attempt = 1;
+        while (!remaining.isEmpty()) {
+            try {
+                BatchOutcome outcome = transactionTemplate.execute(status -> apply(remaining));
+                outcome.rejected().forEach((posting, error) -> posting.result.completeExceptionally(error));
+                outcome.entries().forEach((posting, entries) -> posting.result.complete(entries));
+                return;
+            } catch (MissingWalletException e) {
+                // Rolled back; fail only the postings that credit the missing wallet and go again
+                remaining.removeIf(posting -> {
+                    if (e.postings.contains(posting)) {
+                        posting.result.completeExceptionally(new WalletNotFoundException(e.getMessage()));
+                        return true;
+                    }
+                    return false;
+                });
+            } catch (PessimisticLockingFailureException | DataIntegrityViolationException e) {
+                // A lock conflict, or a ref another instance claimed first; the next attempt
+                // finds that posting on the ledger and answers it from there
+                if (attempt++ >= MAX_ATTEMPTS) {
+                    fail(remaining, e);
+                    return;
+                }
+                log.debug("Ledger shard batch hit a conflict, retrying: {}", e.getMessage());
+            } catch (RuntimeException e) {
+                log.error("Ledger shard batch of {} postings failed: {}", remaining.size(), e.getMessage());
+                fail(remaining, e);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Applies every debit individually in wallet id order, then one UPDATE per credited wallet.
+     * Debits all run before credits, so each credit's running balance can be worked back from
+     * the wallet's final balance. Postings already on the ledger are answered with their
+     * entries and not applied again.
+     */
+    private BatchOutcome apply(List<PendingPosting> postings) {
+        Map<PendingPosting, List<LedgerEntry>> entries = new LinkedHashMap<>();
+        Map<PendingPosting, RuntimeException> rejectedPostings = new HashMap<>();
+
+        Map<String, List<LedgerEntry>> posted = ledgerEntryRepository
+                .findByPostingRefIn(postings.stream().map(posting -> posting.postingRef).toList())
+                .stream()
+                .collect(Collectors.groupingBy(LedgerEntry::getPostingRef));
+        List<PendingPosting> batch = postings.stream()
+                .filter(posting -> !posted.containsKey(posting.postingRef))
+                .toList();
+
+        LocalDateTime now = LocalDateTime.now();
+        List<PendingPosting> byDebitWallet = batch.stream()
+                .sorted(Comparator.comparing(PendingPosting::debitWalletId, Comparator.nullsLast(Comparator.naturalOrder())))
+                .toList();
+        for (PendingPosting posting : byDebitWallet) {
+            List<LedgerEntry> postingEntries = new ArrayList<>(posting.legs.size());
+            PostingLeg debit = posting.debitLeg();
+            if (debit != null) {
+                if (walletRepository.debit(debit.walletId(), debit.amount()) == 0) {
+                    rejectedPostings.put(posting,
+                            new InsufficientBalanceException("Insufficient balance in wallet " + debit.walletId()));
+                    continue;
+                }
+                BigDecimal balance = walletRepository.findBalanceById(debit.walletId());
+                postingEntries.add(Postings.toEntry(posting.postingRef, debit, balance));
+            }
+            ledgerPostingRepository.insert(posting.postingRef, now);
+            entries.put(posting, postingEntries);
+        }
+
+        // Accepted postings in arrival order, grouped per credited wallet in lock order
+        Map<UUID, List<CreditLeg>> credits = new TreeMap<>();
+        for (PendingPosting posting : batch) {
+            List<LedgerEntry> postingEntries = entries.get(posting);
+            if (postingEntries == null) {
+                continue;
+            }
+            for (PostingLeg leg : posting.legs) {
+                if (Postings.isWalletLeg(leg, EntryDirection.CREDIT)) {
+                    credits.computeIfAbsent(leg.walletId(), id -> new ArrayList<>()).add(new CreditLeg(posting, leg));
+                } else if (leg.walletId() == null) {
+                    postingEntries.add(Postings.toEntry(posting.postingRef, leg, null));
+                }
+            }
+        }
+
+        credits.forEach((walletId, legs) -> {
+            BigDecimal total = legs.stream().map(credit -> credit.leg().amount()).reduce(BigDecimal.ZERO, BigDecimal::add);
+            if (walletRepository.credit(walletId, total) == 0) {
+                throw new MissingWalletException(walletId, legs.stream().map(CreditLeg::posting).toList());
+            }
+            BigDecimal running = walletRepository.findBalanceById(walletId);
+            for (int i = legs.size() - 1; i >= 0; i--) {
+                CreditLeg credit = legs.get(i);
+                entries.get(credit.posting()).add(Postings.toEntry(credit.posting().postingRef, credit.leg(), running));
+                running = running.subtract(credit.leg().amount());
+            }
+        });
+
+        ledgerEntryRepository.saveAll(entries.values().stream().flatMap(List::stream).toList());
+        postings.stream()
+                .filter(posting -> posted.containsKey(posting.postingRef))
+                .forEach(posting -> entries.put(posting, posted.get(posting.postingRef)));
+        return new BatchOutcome(entries, rejectedPostings);
+    }
+
+    private static void fail(List<PendingPosting> postings, RuntimeException error) {
+        postings.forEach(posting -> posting.result.completeExceptionally(error));
+    }
+
+    private static final class Shard {
+        private final BlockingQueue<PendingPosting> queue;
+        private Thread thread;
+
+        private Shard(BlockingQueue<PendingPosting> queue) {
+            this.queue = queue;
+        }
+    }
+
+    private static final class PendingPosting {
+        private final String postingRef;
+        private final List<PostingLeg> legs;
+        private final CompletableFuture<List<LedgerEntry>> result = new CompletableFuture<>();
+
+        private PendingPosting(String postingRef, List<PostingLeg> legs) {
+            this.postingRef = postingRef;
+            this.legs = legs;
+        }
+
+        private PostingLeg debitLeg() {
+            return legs.stream().filter(leg -> Postings.isWalletLeg(leg, EntryDirection.DEBIT)).findFirst().orElse(null);
+        }
+
+        private UUID debitWalletId() {
+            PostingLeg debit = debitLeg();
+            return debit == null ? null : debit.walletId();
+        }
+    }
+
+    private record CreditLeg(PendingPosting posting, PostingLeg leg) {
+    }
+
+    private record BatchOutcome(Map<PendingPosting, List<LedgerEntry>> entries,
+                                Map<PendingPosting, RuntimeException> rejected) {
+    }
+
+    private static final class MissingWalletException extends RuntimeException {
+        private final Set<PendingPosting> postings;
+
+        private MissingWalletException(UUID walletId, List<PendingPosting> postings) {
+            super("Wallet not found: " + walletId);
+            this.postings = new HashSet<>(postings);
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.semicolon.africa.tapprbackend.ledger.services.interfaces;
+
+import com.semicolon.africa.tapprbackend.Wallet.enums.WalletCurrency;
+import com.semicolon.africa.tapprbackend.ledger.data.models.LedgerEntry;
+import com.semicolon.africa.tapprbackend.ledger.dtos.Payout;
+import com.semicolon.africa.tapprbackend.ledger.dtos.PostingLeg;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+public interface LedgerService {
+
+    /**
+     * Applies the legs to their wallets and records one entry per leg, atomically. Inline
+     * postings join the caller's transaction; with sharding enabled the posting is settled by
+     * its shard in the shard's own transaction and this call waits for it, so rolling the
+     * caller back does not undo it. Debits only succeed when the wallet balance covers them.
+     * <p>
+     * A posting ref is only ever posted once. Posting a ref that is already on the ledger
+     * returns its entries without moving any money, so a caller that timed out or rolled
+     * back can safely retry with the same ref.
+     * @throws com.semicolon.africa.tapprbackend.ledger.exceptions.UnbalancedPostingException
+     *         if debits and credits differ in any currency
+     * @throws com.semicolon.africa.tapprbackend.Wallet.exceptions.InsufficientBalanceException
+     *         if a debited wallet cannot cover its leg
+     * @throws com.semicolon.africa.tapprbackend.ledger.exceptions.LedgerBusyException
+     *         if the shard did not settle it in time; it may still commit under its ref
+     */
+    List<LedgerEntry> post(String postingRef, List<PostingLeg> legs);
+
+    /**
+     * Same as {@link #post} without blocking the caller when sharding is enabled.
+     */
+    CompletableFuture<List<LedgerEntry>> submit(String postingRef, List<PostingLeg> legs);
+
+    /**
+     * Pays every payout out of one source wallet, atomically and always inline. The source is
+     * debited once for the total and each receiving wallet is credited once, however many
+     * payouts it has; every payout still gets its own debit and credit entry. Payout refs
+     * already on the ledger are rejected with the whole batch.
+     * @throws com.semicolon.africa.tapprbackend.Wallet.exceptions.InsufficientBalanceException
+     *         if the source wallet cannot cover the total
+     * @throws com.semicolon.africa.tapprbackend.Wallet.exceptions.WalletNotFoundException
+     *         if a receiving wallet does not exist
+     */
+    List<LedgerEntry> postPayouts(UUID sourceWalletId, WalletCurrency currency, List<Payout> payouts);
+}
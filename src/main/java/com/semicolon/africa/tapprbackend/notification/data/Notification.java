@@ -14,7 +14,9 @@ import java.util.UUID;
 @Entity
 @Getter
 @Setter
-@Table(name = "notifications")
+@Table(name = "notifications", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_notifications_event_user", columnNames = {"event_id", "user_id"})
+})
 public class Notification {
     @Id
     @GeneratedValue(strategy = GenerationType.UUID)
@@ -28,6 +30,11 @@ public class Notification {
 
     @Column(nullable = false, length = 500)
     private String message;
+
+    // Outbox event this was raised for, so a redelivered event does not notify twice
+    @JdbcTypeCode(SqlTypes.VARCHAR)
+    @Column(name = "event_id", columnDefinition = "VARCHAR(36)", updatable = false)
+    private UUID eventId;
     
     @Column(name = "is_read", nullable = false)
     private boolean read = false;
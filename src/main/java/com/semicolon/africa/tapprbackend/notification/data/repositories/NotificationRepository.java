@@ -0,0 +1,10 @@
+package com.semicolon.africa.tapprbackend.notification.data.repositories;
+
+import com.semicolon.africa.tapprbackend.notification.data.Notification;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.UUID;
+
+public interface NotificationRepository extends JpaRepository<Notification, UUID> {
+    boolean existsByEventId(UUID eventId);
+}
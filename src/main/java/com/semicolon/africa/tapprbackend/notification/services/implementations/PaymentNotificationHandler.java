@@ -0,0 +1,96 @@
+package com.semicolon.africa.tapprbackend.notification.services.implementations;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.semicolon.africa.tapprbackend.notification.data.Notification;
+import com.semicolon.africa.tapprbackend.notification.data.repositories.NotificationRepository;
+import com.semicolon.africa.tapprbackend.outbox.dtos.OutboxMessage;
+import com.semicolon.africa.tapprbackend.outbox.enums.OutboxEventType;
+import com.semicolon.africa.tapprbackend.outbox.services.interfaces.OutboxEventHandler;
+import com.semicolon.africa.tapprbackend.transaction.events.TransactionEvent;
+import com.semicolon.africa.tapprbackend.user.data.models.User;
+import com.semicolon.africa.tapprbackend.user.data.repositories.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Tells the sender and the receiver of a payment once it settles, and the sender when it
+ * fails. Users that no longer exist are skipped; an event that was already handled is ignored.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PaymentNotificationHandler implements OutboxEventHandler {
+
+    private static final int MAX_MESSAGE_LENGTH = 500;
+
+    private final NotificationRepository notificationRepository;
+    private final UserRepository userRepository;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    public Set<OutboxEventType> eventTypes() {
+        return Set.of(OutboxEventType.TRANSACTION_SETTLED, OutboxEventType.TRANSACTION_FAILED);
+    }
+
+    @Override
+    public void handle(OutboxMessage message) {
+        if (notificationRepository.existsByEventId(message.eventId())) {
+            return;
+        }
+        TransactionEvent event = read(message.payload());
+        String amount = event.amount().toPlainString() + " " + event.currency();
+
+        Map<String, String> messages = new LinkedHashMap<>();
+        if (message.eventType() == OutboxEventType.TRANSACTION_SETTLED) {
+            messages.put(event.senderId(), "You sent " + amount + ". Ref: " + event.transactionRef());
+            messages.put(event.receiverId(), "You received " + amount + ". Ref: " + event.transactionRef());
+        } else {
+            String reason = event.failureReason() == null ? "" : ": " + event.failureReason();
+            messages.put(event.senderId(), "Your payment of " + amount + " failed" + reason
+                    + ". Ref: " + event.transactionRef());
+        }
+
+        List<Notification> notifications = new ArrayList<>(messages.size());
+        for (User user : userRepository.findAllById(userIds(messages.keySet()))) {
+            Notification notification = new Notification();
+            notification.setUser(user);
+            notification.setEventId(message.eventId());
+            notification.setMessage(truncate(messages.get(user.getId().toString())));
+            notifications.add(notification);
+        }
+        notificationRepository.saveAll(notifications);
+    }
+
+    private TransactionEvent read(String payload) {
+        try {
+            return objectMapper.readValue(payload, TransactionEvent.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Transaction event could not be read", e);
+        }
+    }
+
+    private static List<UUID> userIds(Set<String> ids) {
+        List<UUID> userIds = new ArrayList<>(ids.size());
+        for (String id : ids) {
+            try {
+                userIds.add(UUID.fromString(id));
+            } catch (IllegalArgumentException | NullPointerException e) {
+                log.warn("Skipping payment notification for unknown user id {}", id);
+            }
+        }
+        return userIds;
+    }
+
+    private static String truncate(String message) {
+        return message.length() <= MAX_MESSAGE_LENGTH ? message : message.substring(0, MAX_MESSAGE_LENGTH);
+    }
+}
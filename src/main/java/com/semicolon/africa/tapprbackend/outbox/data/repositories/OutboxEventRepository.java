@@ -0,0 +1,43 @@
+package com.semicolon.africa.tapprbackend.outbox.data.repositories;
+
+import com.semicolon.africa.tapprbackend.outbox.data.models.OutboxEvent;
+import com.semicolon.africa.tapprbackend.outbox.enums.OutboxEventType;
+import com.semicolon.africa.tapprbackend.outbox.enums.OutboxStatus;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, UUID> {
+
+    // A lock timeout of -2 is SKIP LOCKED: rows another relay holds are passed over, not waited on
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT e FROM OutboxEvent e WHERE e.status = :status AND e.eventType IN :types " +
+            "AND e.availableAt <= :now ORDER BY e.availableAt")
+    List<OutboxEvent> claimAvailable(@Param("status") OutboxStatus status,
+                                     @Param("types") Collection<OutboxEventType> types,
+                                     @Param("now") LocalDateTime now,
+                                     Pageable pageable);
+
+    @Modifying
+    @Query("UPDATE OutboxEvent e SET e.status = com.semicolon.africa.tapprbackend.outbox.enums.OutboxStatus.PUBLISHED, " +
+            "e.publishedAt = :now, e.lastError = NULL WHERE e.id IN :ids")
+    int markPublished(@Param("ids") Collection<UUID> ids, @Param("now") LocalDateTime now);
+
+    @Query("SELECT MIN(e.createdAt) FROM OutboxEvent e WHERE e.status = :status AND e.eventType IN :types")
+    LocalDateTime findOldestCreatedAt(@Param("status") OutboxStatus status,
+                                      @Param("types") Collection<OutboxEventType> types);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM OutboxEvent e WHERE e.status = :status AND e.publishedAt < :before")
+    int deletePublishedBefore(@Param("status") OutboxStatus status, @Param("before") LocalDateTime before);
+}
@@ -0,0 +1,14 @@
+package com.semicolon.africa.tapprbackend.outbox.dtos;
+
+import com.semicolon.africa.tapprbackend.outbox.enums.OutboxEventType;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * An outbox event as handed to its consumers. Delivery is at least once, so consumers should
+ * use {@code eventId} to ignore events they have already handled.
+ */
+public record OutboxMessage(UUID eventId, OutboxEventType eventType, String aggregateId, String payload,
+                            int attempt, LocalDateTime createdAt) {
+}
@@ -0,0 +1,9 @@
+package com.semicolon.africa.tapprbackend.outbox.enums;
+
+public enum OutboxEventType {
+    TRANSACTION_ACCEPTED,
+    TRANSACTION_SETTLED,
+    TRANSACTION_FAILED,
+    WALLET_DEPOSITED,
+    WALLET_WITHDRAWN
+}
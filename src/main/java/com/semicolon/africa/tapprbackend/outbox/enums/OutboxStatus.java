@@ -0,0 +1,8 @@
+package com.semicolon.africa.tapprbackend.outbox.enums;
+
+public enum OutboxStatus {
+    PENDING,
+    PUBLISHED,
+    // Gave up after the maximum number of attempts; needs a look before it is replayed
+    FAILED
+}
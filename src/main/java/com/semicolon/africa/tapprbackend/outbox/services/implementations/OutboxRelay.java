@@ -0,0 +1,230 @@
+package com.semicolon.africa.tapprbackend.outbox.services.implementations;
+
+import com.semicolon.africa.tapprbackend.outbox.data.models.OutboxEvent;
+import com.semicolon.africa.tapprbackend.outbox.data.repositories.OutboxEventRepository;
+import com.semicolon.africa.tapprbackend.outbox.dtos.OutboxMessage;
+import com.semicolon.africa.tapprbackend.outbox.enums.OutboxEventType;
+import com.semicolon.africa.tapprbackend.outbox.enums.OutboxStatus;
+import com.semicolon.africa.tapprbackend.outbox.services.interfaces.OutboxEventHandler;
+import com.semicolon.africa.tapprbackend.scheduling.services.interfaces.SchedulerLockService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Delivers outbox events to their in-process handlers. A batch is claimed with
+ * {@code FOR UPDATE SKIP LOCKED} in a short transaction that pushes its events out of sight
+ * for the claim timeout, so several instances can relay side by side without handing out the
+ * same event twice. Handlers then run with no transaction or row lock held, and a second short
+ * transaction marks each event published or pushes it back with exponential backoff.
+ * <p>
+ * Only event types with at least one handler are claimed; the rest stay PENDING until a
+ * handler for them is deployed. Delivery is at least once: a crash before the outcome is
+ * recorded redelivers the batch once its claim times out.
+ */
+@Slf4j
+@Component
+public class OutboxRelay {
+
+    private static final int MAX_ERROR_LENGTH = 500;
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final SchedulerLockService schedulerLockService;
+    private final Map<OutboxEventType, List<OutboxEventHandler>> handlers = new EnumMap<>(OutboxEventType.class);
+    private final TransactionTemplate transactionTemplate;
+    private final Counter publishedCounter;
+    private final Counter retriedCounter;
+    private final Counter failedCounter;
+    private final Timer deliveryLag;
+    private final AtomicLong oldestPendingAgeMs = new AtomicLong();
+
+    @Value("${outbox.relay.enabled:true}")
+    private boolean enabled;
+
+    @Value("${outbox.relay.batch-size:100}")
+    private int batchSize;
+
+    @Value("${outbox.relay.max-batches:10}")
+    private int maxBatches;
+
+    // How long a claimed batch stays hidden from other relays if this one dies mid-delivery
+    @Value("${outbox.relay.claim-timeout-ms:60000}")
+    private long claimTimeoutMs;
+
+    @Value("${outbox.max-attempts:10}")
+    private int maxAttempts;
+
+    @Value("${outbox.retry-backoff-ms:1000}")
+    private long retryBackoffMs;
+
+    @Value("${outbox.max-retry-backoff-ms:300000}")
+    private long maxRetryBackoffMs;
+
+    @Value("${outbox.retention-hours:72}")
+    private long retentionHours;
+
+    @Value("${outbox.purge-interval-ms:3600000}")
+    private long purgeIntervalMs;
+
+    public OutboxRelay(OutboxEventRepository outboxEventRepository,
+                       ObjectProvider<OutboxEventHandler> eventHandlers,
+                       PlatformTransactionManager transactionManager,
+                       SchedulerLockService schedulerLockService,
+                       MeterRegistry meterRegistry) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.schedulerLockService = schedulerLockService;
+        eventHandlers.orderedStream().forEach(handler -> handler.eventTypes().forEach(type ->
+                handlers.computeIfAbsent(type, key -> new ArrayList<>()).add(handler)));
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        EnumSet<OutboxEventType> unhandled = EnumSet.allOf(OutboxEventType.class);
+        unhandled.removeAll(handlers.keySet());
+        if (!unhandled.isEmpty()) {
+            log.info("No outbox handler for {}; those events stay pending", unhandled);
+        }
+
+        this.publishedCounter = Counter.builder("outbox.events").tag("outcome", "published").register(meterRegistry);
+        this.retriedCounter = Counter.builder("outbox.events").tag("outcome", "retried").register(meterRegistry);
+        this.failedCounter = Counter.builder("outbox.events").tag("outcome", "failed").register(meterRegistry);
+        this.deliveryLag = Timer.builder("outbox.delivery.lag")
+                .description("Time from an event being written to it being delivered")
+                .register(meterRegistry);
+        TimeGauge.builder("outbox.oldest.pending.age", oldestPendingAgeMs, TimeUnit.MILLISECONDS, AtomicLong::get)
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${outbox.relay.interval-ms:500}")
+    public void scheduledRelay() {
+        if (enabled) {
+            relay();
+        }
+    }
+
+    /**
+     * Claims and delivers due events until a batch comes back short or the per-run batch
+     * limit is reached.
+     * @return the number of events handled, whether delivered or pushed back
+     */
+    public int relay() {
+        if (handlers.isEmpty()) {
+            return 0;
+        }
+        int handled = 0;
+        for (int batch = 0; batch < maxBatches; batch++) {
+            List<OutboxEvent> events = transactionTemplate.execute(status -> claimBatch());
+            if (events == null || events.isEmpty()) {
+                break;
+            }
+            relayBatch(events);
+            handled += events.size();
+            if (events.size() < batchSize) {
+                break;
+            }
+        }
+        refreshOldestPendingAge();
+        return handled;
+    }
+
+    // Relaying is safe on every instance; purging is done by one at a time
+    @Scheduled(fixedDelayString = "${outbox.purge-interval-ms:3600000}")
+    public void scheduledPurge() {
+        schedulerLockService.runIfLeader("outbox-purge", Duration.ofMillis(purgeIntervalMs), this::purgePublished);
+    }
+
+    public void purgePublished() {
+        int purged = outboxEventRepository.deletePublishedBefore(
+                OutboxStatus.PUBLISHED, LocalDateTime.now().minusHours(retentionHours));
+        if (purged > 0) {
+            log.info("Purged {} published outbox events", purged);
+        }
+    }
+
+    private List<OutboxEvent> claimBatch() {
+        LocalDateTime now = LocalDateTime.now();
+        List<OutboxEvent> events = outboxEventRepository.claimAvailable(
+                OutboxStatus.PENDING, handlers.keySet(), now, PageRequest.of(0, batchSize));
+        LocalDateTime claimedUntil = now.plus(Duration.ofMillis(claimTimeoutMs));
+        events.forEach(event -> event.setAvailableAt(claimedUntil));
+        return events;
+    }
+
+    private void relayBatch(List<OutboxEvent> events) {
+        List<UUID> published = new ArrayList<>(events.size());
+        List<OutboxEvent> rescheduled = new ArrayList<>();
+        for (OutboxEvent event : events) {
+            if (deliver(event)) {
+                published.add(event.getId());
+            } else {
+                rescheduled.add(event);
+            }
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            if (!published.isEmpty()) {
+                outboxEventRepository.markPublished(published, LocalDateTime.now());
+            }
+            outboxEventRepository.saveAll(rescheduled);
+        });
+    }
+
+    private boolean deliver(OutboxEvent event) {
+        OutboxMessage message = new OutboxMessage(event.getId(), event.getEventType(), event.getAggregateId(),
+                event.getPayload(), event.getAttempts() + 1, event.getCreatedAt());
+        try {
+            for (OutboxEventHandler handler : handlers.get(event.getEventType())) {
+                handler.handle(message);
+            }
+        } catch (RuntimeException e) {
+            reschedule(event, e);
+            return false;
+        }
+        publishedCounter.increment();
+        deliveryLag.record(Duration.between(event.getCreatedAt(), LocalDateTime.now()));
+        return true;
+    }
+
+    private void reschedule(OutboxEvent event, RuntimeException error) {
+        int attempts = event.getAttempts() + 1;
+        event.setAttempts(attempts);
+        event.setLastError(truncate(String.valueOf(error.getMessage())));
+        if (attempts >= maxAttempts) {
+            event.setStatus(OutboxStatus.FAILED);
+            failedCounter.increment();
+            log.error("Giving up on outbox event {} ({}) after {} attempts",
+                    event.getId(), event.getEventType(), attempts, error);
+            return;
+        }
+        long backoffMs = Math.min(maxRetryBackoffMs, retryBackoffMs << Math.min(attempts - 1, 20));
+        event.setAvailableAt(LocalDateTime.now().plus(Duration.ofMillis(backoffMs)));
+        retriedCounter.increment();
+        log.warn("Outbox event {} ({}) failed on attempt {}; retrying in {} ms: {}",
+                event.getId(), event.getEventType(), attempts, backoffMs, error.getMessage());
+    }
+
+    private void refreshOldestPendingAge() {
+        LocalDateTime oldest = outboxEventRepository.findOldestCreatedAt(OutboxStatus.PENDING, handlers.keySet());
+        oldestPendingAgeMs.set(oldest == null ? 0 : Duration.between(oldest, LocalDateTime.now()).toMillis());
+    }
+
+    private static String truncate(String value) {
+        return value.length() <= MAX_ERROR_LENGTH ? value : value.substring(0, MAX_ERROR_LENGTH);
+    }
+}
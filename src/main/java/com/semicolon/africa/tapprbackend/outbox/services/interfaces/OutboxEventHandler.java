@@ -0,0 +1,18 @@
+package com.semicolon.africa.tapprbackend.outbox.services.interfaces;
+
+import com.semicolon.africa.tapprbackend.outbox.dtos.OutboxMessage;
+import com.semicolon.africa.tapprbackend.outbox.enums.OutboxEventType;
+
+import java.util.Set;
+
+/**
+ * An in-process consumer of outbox events. Any bean implementing this is picked up by the
+ * relay. Handlers run outside the relay's transaction; throwing schedules a redelivery of the
+ * event to every handler of its type, so handlers must be idempotent.
+ */
+public interface OutboxEventHandler {
+
+    Set<OutboxEventType> eventTypes();
+
+    void handle(OutboxMessage message);
+}
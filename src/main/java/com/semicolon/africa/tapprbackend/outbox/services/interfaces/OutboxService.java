@@ -0,0 +1,12 @@
+package com.semicolon.africa.tapprbackend.outbox.services.interfaces;
+
+import com.semicolon.africa.tapprbackend.outbox.enums.OutboxEventType;
+
+public interface OutboxService {
+
+    /**
+     * Records an event in the caller's transaction; it is delivered once that commits.
+     * Must be called inside a transaction.
+     */
+    void append(OutboxEventType eventType, String aggregateId, Object payload);
+}
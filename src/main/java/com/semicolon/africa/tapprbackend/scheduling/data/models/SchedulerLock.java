@@ -0,0 +1,34 @@
+package com.semicolon.africa.tapprbackend.scheduling.data.models;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.Instant;
+
+/**
+ * Lease on a scheduled job. The instance named in {@code owner} may run the job until
+ * {@code lockedUntil}; after that any instance may take the lease over.
+ */
+@Entity
+@Getter
+@Setter
+@Table(name = "scheduler_locks")
+public class SchedulerLock {
+
+    @Id
+    @Column(name = "name", length = 64, nullable = false, updatable = false)
+    private String name;
+
+    @Column(name = "owner", length = 128, nullable = false)
+    private String owner;
+
+    @Column(name = "locked_at", nullable = false)
+    private Instant lockedAt;
+
+    @Column(name = "locked_until", nullable = false)
+    private Instant lockedUntil;
+}
@@ -0,0 +1,38 @@
+package com.semicolon.africa.tapprbackend.scheduling.data.repositories;
+
+import com.semicolon.africa.tapprbackend.scheduling.data.models.SchedulerLock;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+
+public interface SchedulerLockRepository extends JpaRepository<SchedulerLock, String> {
+
+    // Renews a lease this owner holds or takes over one that has lapsed, in a single statement
+    @Modifying
+    @Transactional
+    @Query("UPDATE SchedulerLock l SET l.owner = :owner, l.lockedAt = :now, l.lockedUntil = :until " +
+            "WHERE l.name = :name AND (l.owner = :owner OR l.lockedUntil <= :now)")
+    int acquire(@Param("name") String name,
+                @Param("owner") String owner,
+                @Param("now") Instant now,
+                @Param("until") Instant until);
+
+    // A plain INSERT, not save(): a merge would overwrite a row another instance just created
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO scheduler_locks (name, owner, locked_at, locked_until) " +
+            "VALUES (:name, :owner, :now, :until)", nativeQuery = true)
+    int insert(@Param("name") String name,
+               @Param("owner") String owner,
+               @Param("now") Instant now,
+               @Param("until") Instant until);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE SchedulerLock l SET l.lockedUntil = :now WHERE l.owner = :owner AND l.lockedUntil > :now")
+    int releaseAll(@Param("owner") String owner, @Param("now") Instant now);
+}
@@ -0,0 +1,85 @@
+package com.semicolon.africa.tapprbackend.scheduling.services.implementations;
+
+import com.semicolon.africa.tapprbackend.scheduling.data.repositories.SchedulerLockRepository;
+import com.semicolon.africa.tapprbackend.scheduling.services.interfaces.SchedulerLockService;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Leases held in the scheduler_locks table, one row per job. Taking a lease is a single
+ * conditional UPDATE, with an INSERT the first time a job runs anywhere, so there is no lock
+ * held between runs and nothing to clean up if an instance dies: its leases simply lapse.
+ * <p>
+ * Expiry is compared against each instance's own clock, so leases should be long compared
+ * with the clock drift between replicas.
+ */
+@Slf4j
+@Service
+public class SchedulerLockServiceImpl implements SchedulerLockService {
+
+    private final SchedulerLockRepository schedulerLockRepository;
+    private final String owner;
+
+    public SchedulerLockServiceImpl(SchedulerLockRepository schedulerLockRepository) {
+        this.schedulerLockRepository = schedulerLockRepository;
+        // The random part tells apart two instances on one host, or one restarted
+        this.owner = hostname() + "/" + UUID.randomUUID().toString().substring(0, 8);
+    }
+
+    @Override
+    public boolean runIfLeader(String jobName, Duration lease, Runnable job) {
+        if (!tryAcquire(jobName, lease)) {
+            log.debug("Skipping {}: another instance holds the lease", jobName);
+            return false;
+        }
+        job.run();
+        return true;
+    }
+
+    boolean tryAcquire(String jobName, Duration lease) {
+        Instant now = Instant.now();
+        Instant until = now.plus(lease);
+        try {
+            if (schedulerLockRepository.acquire(jobName, owner, now, until) == 1) {
+                return true;
+            }
+            if (schedulerLockRepository.existsById(jobName)) {
+                return false;
+            }
+            return schedulerLockRepository.insert(jobName, owner, now, until) == 1;
+        } catch (DataIntegrityViolationException e) {
+            // Another instance inserted the row first and holds the lease
+            return false;
+        } catch (DataAccessException e) {
+            log.warn("Could not take the lease for {}, skipping this run: {}", jobName, e.getMessage());
+            return false;
+        }
+    }
+
+    // Lets another replica take over straight away on a clean shutdown
+    @PreDestroy
+    void releaseAll() {
+        try {
+            schedulerLockRepository.releaseAll(owner, Instant.now());
+        } catch (DataAccessException e) {
+            log.debug("Could not release scheduler leases on shutdown: {}", e.getMessage());
+        }
+    }
+
+    private static String hostname() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            return "unknown";
+        }
+    }
+}
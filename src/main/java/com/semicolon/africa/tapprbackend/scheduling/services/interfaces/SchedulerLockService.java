@@ -0,0 +1,15 @@
+package com.semicolon.africa.tapprbackend.scheduling.services.interfaces;
+
+import java.time.Duration;
+
+public interface SchedulerLockService {
+
+    /**
+     * Runs the job if this instance holds the named lease or can take it, so a job scheduled
+     * on every replica runs on only one of them. The lease is kept for its full length after
+     * the job finishes, which stops the other replicas running it again within that time;
+     * it should be about the job's interval and longer than a single run.
+     * @return true if the job ran on this instance
+     */
+    boolean runIfLeader(String jobName, Duration lease, Runnable job);
+}
@@ -0,0 +1,150 @@
+package com.semicolon.africa.tapprbackend.security;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throttles the unauthenticated auth endpoints before any token parsing, BCrypt or database
+ * work. Each request spends one token from a per-IP bucket. It then spends one from a
+ * bucket for each identity field it names (email, phone number), so spreading attempts
+ * across IPs does not get around the per-account limit.
+ */
+@Slf4j
+@Component
+public class AuthRateLimitFilter extends OncePerRequestFilter {
+
+    private static final int MAX_BODY_BYTES = 8 * 1024;
+    private static final Duration PERIOD = Duration.ofMinutes(1);
+
+    private final Map<String, EndpointLimit> limits = new LinkedHashMap<>();
+    private final TokenBucketRateLimiter limiter;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+
+    public AuthRateLimitFilter(ObjectMapper objectMapper, MeterRegistry meterRegistry,
+                               @Value("${security.rate-limit.max-keys:100000}") long maxKeys,
+                               @Value("${security.rate-limit.login.per-ip:30}") int loginPerIp,
+                               @Value("${security.rate-limit.login.per-identity:5}") int loginPerIdentity,
+                               @Value("${security.rate-limit.register.per-ip:10}") int registerPerIp,
+                               @Value("${security.rate-limit.register.per-identity:3}") int registerPerIdentity,
+                               @Value("${security.rate-limit.refresh.per-ip:30}") int refreshPerIp) {
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        this.limiter = new TokenBucketRateLimiter(maxKeys, PERIOD.multipliedBy(2));
+        limits.put("/api/v1/auth/login", new EndpointLimit("login", loginPerIp, loginPerIdentity, List.of("email")));
+        limits.put("/api/v1/auth/register",
+                new EndpointLimit("register", registerPerIp, registerPerIdentity, List.of("email", "phoneNumber")));
+        limits.put("/api/v1/auth/refresh", new EndpointLimit("refresh", refreshPerIp, 0, List.of()));
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !"POST".equalsIgnoreCase(request.getMethod()) || !limits.containsKey(pathOf(request));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain chain) throws ServletException, IOException {
+        EndpointLimit limit = limits.get(pathOf(request));
+
+        // Behind a proxy this relies on server.forward-headers-strategy to resolve the client address
+        long waitNanos = limiter.tryAcquire(limit.name() + "|ip|" + request.getRemoteAddr(), limit.perIp(), PERIOD);
+        if (waitNanos > 0) {
+            reject(request, response, limit, "ip", waitNanos);
+            return;
+        }
+
+        if (limit.identityFields().isEmpty() || limit.perIdentity() <= 0) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        CachedBodyHttpServletRequest cached = CachedBodyHttpServletRequest.wrap(request, MAX_BODY_BYTES);
+        if (cached == null) {
+            response.sendError(HttpStatus.PAYLOAD_TOO_LARGE.value());
+            return;
+        }
+
+        JsonNode body = readBody(cached.getBody());
+        for (String field : limit.identityFields()) {
+            String identity = normalize(field, body.path(field).asText(null));
+            if (identity == null) {
+                continue;
+            }
+            waitNanos = limiter.tryAcquire(limit.name() + "|" + field + "|" + identity, limit.perIdentity(), PERIOD);
+            if (waitNanos > 0) {
+                reject(request, response, limit, field, waitNanos);
+                return;
+            }
+        }
+
+        chain.doFilter(cached, response);
+    }
+
+    private JsonNode readBody(byte[] body) {
+        try {
+            return body.length == 0 ? objectMapper.missingNode() : objectMapper.readTree(body);
+        } catch (IOException e) {
+            // Malformed bodies are left for the controller to reject
+            return objectMapper.missingNode();
+        }
+    }
+
+    private static String normalize(String field, String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        if ("phoneNumber".equals(field)) {
+            String digits = value.replaceAll("\\D", "");
+            return digits.isEmpty() ? null : digits;
+        }
+        return value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private void reject(HttpServletRequest request, HttpServletResponse response, EndpointLimit limit,
+                        String keyType, long waitNanos) throws IOException {
+        meterRegistry.counter("auth.rate_limit.rejected", "endpoint", limit.name(), "key", keyType).increment();
+        log.warn("Rate limited {} request by {} from {}", limit.name(), keyType, request.getRemoteAddr());
+
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("timestamp", LocalDateTime.now());
+        body.put("status", HttpStatus.TOO_MANY_REQUESTS.value());
+        body.put("error", "Too Many Requests");
+        body.put("message", "Too many attempts, please try again later");
+        body.put("path", pathOf(request));
+
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER,
+                String.valueOf(Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos) + 1)));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), body);
+    }
+
+    private static String pathOf(HttpServletRequest request) {
+        return request.getRequestURI().substring(request.getContextPath().length());
+    }
+
+    private record EndpointLimit(String name, int perIp, int perIdentity, List<String> identityFields) {
+    }
+}
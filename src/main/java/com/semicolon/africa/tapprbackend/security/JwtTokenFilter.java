@@ -1,66 +1,68 @@
 package com.semicolon.africa.tapprbackend.security;
 
-import com.semicolon.africa.tapprbackend.user.data.models.User;
-import com.semicolon.africa.tapprbackend.user.data.repositories.UserRepository;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
-import java.util.List;
 
+@Slf4j
 @Component
 public class JwtTokenFilter extends OncePerRequestFilter {
 
     private final JwtUtil jwtUtil;
-    private final UserRepository userRepository;
+    private final VerifiedTokenCache verifiedTokenCache;
+    private final TokenRevocationService tokenRevocationService;
 
-    public JwtTokenFilter(JwtUtil jwtUtil, UserRepository userRepository) {
+    public JwtTokenFilter(JwtUtil jwtUtil, VerifiedTokenCache verifiedTokenCache,
+                          TokenRevocationService tokenRevocationService) {
         this.jwtUtil = jwtUtil;
-        this.userRepository = userRepository;
+        this.verifiedTokenCache = verifiedTokenCache;
+        this.tokenRevocationService = tokenRevocationService;
     }
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
                                     FilterChain chain) throws ServletException, IOException {
 
-        String header = request.getHeader("Authorization");
-
-        if (header == null || !header.startsWith("Bearer ")) {
+        String token = jwtUtil.extractBearerToken(request);
+        if (token == null) {
             chain.doFilter(request, response);
             return;
         }
 
-        String token = header.substring(7);
-        if (!jwtUtil.validateToken(token)) {
+        // Verified at most once per token lifetime; everything downstream reads the cached claims
+        VerifiedToken verified;
+        try {
+            verified = verifiedTokenCache.verify(token);
+        } catch (JwtException | IllegalArgumentException e) {
+            log.debug("Rejected bearer token: {}", e.getMessage());
             chain.doFilter(request, response);
             return;
         }
-
-        String email = jwtUtil.extractEmail(token);
-        User user = userRepository.findByEmail(email).orElse(null);
-
-        if (user == null) {
+        Claims claims = verified.claims();
+        TapprPrincipal principal = verified.principal();
+        if (tokenRevocationService.isRevoked(principal.tokenId())) {
+            log.debug("Rejected revoked token for user {}", principal.userId());
             chain.doFilter(request, response);
             return;
         }
+        request.setAttribute(JwtUtil.CLAIMS_ATTRIBUTE, claims);
 
-        List<GrantedAuthority> authorities = List.of(
-                new SimpleGrantedAuthority("ROLE_" + user.getRole().name())
-        );
-
+        // Identity and role come from the signed claims, so no user lookup is needed here
         UsernamePasswordAuthenticationToken auth =
-                new UsernamePasswordAuthenticationToken(email, null, authorities);
+                new UsernamePasswordAuthenticationToken(principal, null, principal.authorities());
+        auth.setDetails(claims);
 
         SecurityContextHolder.getContext().setAuthentication(auth);
         chain.doFilter(request, response);
     }
 }
-
@@ -3,9 +3,11 @@ package com.semicolon.africa.tapprbackend.security;
 import com.semicolon.africa.tapprbackend.user.enums.Role;
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
+import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
@@ -19,6 +21,14 @@ import javax.crypto.SecretKey;
 @Component
 public class JwtUtil {
 
+    /**
+     * Request attribute under which {@link JwtTokenFilter} stores the verified claims,
+     * so downstream code never has to parse the bearer token a second time.
+     */
+    public static final String CLAIMS_ATTRIBUTE = JwtUtil.class.getName() + ".CLAIMS";
+
+    private static final String BEARER_PREFIX = "Bearer ";
+
     @Value("${jwt.expiration}")
     private long jwtExpirationMs;
 
@@ -27,8 +37,12 @@ public class JwtUtil {
 
     private final SecretKey secretKey;
 
+    // Immutable and thread-safe, so one instance is shared by every request
+    private final JwtParser jwtParser;
+
     public JwtUtil(@Value("${jwt.secret}")String secret) {
         this.secretKey = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+        this.jwtParser = Jwts.parserBuilder().setSigningKey(secretKey).build();
     }
 
     public String generateToken(String email, UUID userId, Role role) {
@@ -45,36 +59,21 @@ public class JwtUtil {
     }
 
     public boolean validateToken(String token) {
-        Jwts.parserBuilder().setSigningKey(secretKey).build().parseClaimsJws(token);
+        parseClaims(token);
         return true;
     }
 
     public String extractEmail(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(secretKey)
-                .build()
-                .parseClaimsJws(token)
-                .getBody()
-                .getSubject();
+        return parseClaims(token).getSubject();
     }
 
     public String extractUserId(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(secretKey)
-                .build()
-                .parseClaimsJws(token)
-                .getBody()
-                .get("userId", String.class);
+        return parseClaims(token).get("userId", String.class);
     }
 
 
     public String extractRole(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(secretKey)
-                .build()
-                .parseClaimsJws(token)
-                .getBody()
-                .get("role", String.class);
+        return parseClaims(token).get("role", String.class);
     }
 
 
@@ -107,11 +106,41 @@ public class JwtUtil {
         }
     }
 
-    private Claims parseClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(secretKey)
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+    /**
+     * Verifies the signature and expiry of the token and returns its claims.
+     * @throws JwtException if the token is malformed, tampered with or expired
+     */
+    public Claims parseClaims(String token) {
+        return jwtParser.parseClaimsJws(token).getBody();
+    }
+
+    /**
+     * Returns the claims of the bearer token on the request, reusing the ones verified by
+     * {@link JwtTokenFilter} when present.
+     * @return the verified claims, or null when the request carries no bearer token
+     * @throws JwtException if a bearer token is present but fails verification
+     */
+    public Claims resolveClaims(HttpServletRequest request) {
+        Object verified = request.getAttribute(CLAIMS_ATTRIBUTE);
+        if (verified instanceof Claims claims) {
+            return claims;
+        }
+
+        String token = extractBearerToken(request);
+        if (token == null) {
+            return null;
+        }
+
+        Claims claims = parseClaims(token);
+        request.setAttribute(CLAIMS_ATTRIBUTE, claims);
+        return claims;
+    }
+
+    public String extractBearerToken(HttpServletRequest request) {
+        String header = request.getHeader("Authorization");
+        if (header == null || !header.startsWith(BEARER_PREFIX)) {
+            return null;
+        }
+        return header.substring(BEARER_PREFIX.length());
     }
 }
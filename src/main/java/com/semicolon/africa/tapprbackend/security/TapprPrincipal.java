@@ -0,0 +1,30 @@
+package com.semicolon.africa.tapprbackend.security;
+
+import com.semicolon.africa.tapprbackend.user.enums.Role;
+import io.jsonwebtoken.Claims;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * The authenticated caller, built straight from verified access-token claims so that
+ * authenticating a request never needs a database round trip.
+ */
+public record TapprPrincipal(UUID userId, String email, Role role, String tokenId) {
+
+    public static TapprPrincipal fromClaims(Claims claims) {
+        String userId = claims.get("userId", String.class);
+        String role = claims.get("role", String.class);
+        if (userId == null || role == null || claims.getSubject() == null) {
+            throw new IllegalArgumentException("Token is missing identity claims");
+        }
+        return new TapprPrincipal(UUID.fromString(userId), claims.getSubject(), Role.valueOf(role),
+                claims.getId());
+    }
+
+    public List<GrantedAuthority> authorities() {
+        return List.of(new SimpleGrantedAuthority("ROLE_" + role.name()));
+    }
+}
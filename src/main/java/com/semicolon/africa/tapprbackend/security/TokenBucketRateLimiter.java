@@ -0,0 +1,73 @@
+package com.semicolon.africa.tapprbackend.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.time.Duration;
+import java.util.function.LongSupplier;
+
+/**
+ * In-memory token buckets keyed by arbitrary strings. Buckets live in a size-bounded
+ * Caffeine cache, whose frequency sketch decides what to evict, so a flood of distinct
+ * keys cannot grow memory. Updates are serialised per lock stripe rather than per bucket
+ * or globally.
+ */
+public class TokenBucketRateLimiter {
+
+    private static final int STRIPES = 64;
+
+    private final Cache<String, Bucket> buckets;
+    private final Object[] locks = new Object[STRIPES];
+    private final LongSupplier nanoClock;
+
+    public TokenBucketRateLimiter(long maxKeys, Duration idleExpiry) {
+        this(maxKeys, idleExpiry, System::nanoTime);
+    }
+
+    TokenBucketRateLimiter(long maxKeys, Duration idleExpiry, LongSupplier nanoClock) {
+        this.nanoClock = nanoClock;
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(maxKeys)
+                .expireAfterAccess(idleExpiry)
+                .build();
+        for (int i = 0; i < STRIPES; i++) {
+            locks[i] = new Object();
+        }
+    }
+
+    /**
+     * Takes one token from the bucket for the key, creating a full bucket on first use.
+     * @param capacity burst size, which is also the number of tokens refilled per period
+     * @param period time taken to refill an empty bucket completely
+     * @return zero when the token was granted, otherwise the nanoseconds until one is available
+     */
+    public long tryAcquire(String key, int capacity, Duration period) {
+        long now = nanoClock.getAsLong();
+        double refillPerNano = (double) capacity / period.toNanos();
+
+        synchronized (locks[(key.hashCode() & Integer.MAX_VALUE) % STRIPES]) {
+            // Looked up under the lock so concurrent first requests cannot each spend a fresh bucket
+            Bucket bucket = buckets.get(key, k -> new Bucket(capacity, now));
+            long elapsed = now - bucket.lastRefillNanos;
+            if (elapsed > 0) {
+                bucket.tokens = Math.min(capacity, bucket.tokens + elapsed * refillPerNano);
+                bucket.lastRefillNanos = now;
+            }
+            if (bucket.tokens >= 1) {
+                bucket.tokens -= 1;
+                return 0;
+            }
+            return Math.max(1, (long) Math.ceil((1 - bucket.tokens) / refillPerNano));
+        }
+    }
+
+    private static final class Bucket {
+        private double tokens;
+        private long lastRefillNanos;
+
+        private Bucket(double tokens, long lastRefillNanos) {
+            this.tokens = tokens;
+            this.lastRefillNanos = lastRefillNanos;
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.semicolon.africa.tapprbackend.security;
+
+import com.semicolon.africa.tapprbackend.scheduling.services.interfaces.SchedulerLockService;
+import com.semicolon.africa.tapprbackend.user.data.models.RevokedToken;
+import com.semicolon.africa.tapprbackend.user.data.repositories.RevokedTokenRepository;
+import io.jsonwebtoken.JwtException;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Denylist of revoked tokens keyed by their jti claim. Lookups are answered from memory only;
+ * the revoked_tokens table exists so that revocations survive restarts and reach every
+ * instance through the periodic sync. An entry is only kept until its token would have
+ * expired anyway, after which signature verification rejects the token by itself.
+ */
+@Slf4j
+@Service
+public class TokenRevocationService {
+
+    // Covers clock drift between instances writing revoked_at
+    private static final Duration SYNC_OVERLAP = Duration.ofSeconds(30);
+
+    private final RevokedTokenRepository revokedTokenRepository;
+    private final VerifiedTokenCache verifiedTokenCache;
+    private final SchedulerLockService schedulerLockService;
+    private final Map<String, Instant> revokedUntil = new ConcurrentHashMap<>();
+    private volatile Instant lastSync = Instant.EPOCH;
+
+    @Value("${security.revocation.purge-interval-ms:3600000}")
+    private long purgeIntervalMs;
+
+    public TokenRevocationService(RevokedTokenRepository revokedTokenRepository,
+                                  VerifiedTokenCache verifiedTokenCache,
+                                  SchedulerLockService schedulerLockService) {
+        this.revokedTokenRepository = revokedTokenRepository;
+        this.verifiedTokenCache = verifiedTokenCache;
+        this.schedulerLockService = schedulerLockService;
+    }
+
+    @PostConstruct
+    void loadRevokedTokens() {
+        sync();
+        log.info("Loaded {} active token revocations", revokedUntil.size());
+    }
+
+    public boolean isRevoked(String jti) {
+        return jti != null && revokedUntil.containsKey(jti);
+    }
+
+    /**
+     * Revokes the given token until it expires. Tokens that no longer verify cannot be used
+     * anyway, so they are ignored.
+     * @return the token's principal, or empty if it did not verify
+     */
+    public Optional<TapprPrincipal> revoke(String token) {
+        VerifiedToken verified;
+        try {
+            verified = verifiedTokenCache.verify(token);
+        } catch (JwtException | IllegalArgumentException e) {
+            return Optional.empty();
+        }
+
+        TapprPrincipal principal = verified.principal();
+        if (principal.tokenId() == null || verified.expiresAt() == null) {
+            log.warn("Cannot revoke a token without jti or exp for user {}", principal.userId());
+            return Optional.of(principal);
+        }
+
+        revokedUntil.put(principal.tokenId(), verified.expiresAt());
+        revokedTokenRepository.save(new RevokedToken(principal.tokenId(), principal.userId(),
+                verified.expiresAt(), Instant.now()));
+        verifiedTokenCache.evict(token);
+        return Optional.of(principal);
+    }
+
+    @Scheduled(fixedDelayString = "${security.revocation.sync-interval-ms:10000}",
+            initialDelayString = "${security.revocation.sync-interval-ms:10000}")
+    public void sync() {
+        Instant now = Instant.now();
+        Instant since = lastSync.equals(Instant.EPOCH) ? Instant.EPOCH : lastSync.minus(SYNC_OVERLAP);
+        for (RevokedToken revoked : revokedTokenRepository.findByRevokedAtAfterAndExpiresAtAfter(since, now)) {
+            revokedUntil.put(revoked.getJti(), revoked.getExpiresAt());
+        }
+        lastSync = now;
+        revokedUntil.values().removeIf(expiresAt -> expiresAt.isBefore(now));
+    }
+
+    // Every instance syncs its own denylist, but one purge of the table is enough
+    @Scheduled(fixedDelayString = "${security.revocation.purge-interval-ms:3600000}")
+    public void scheduledPurge() {
+        schedulerLockService.runIfLeader("token-revocation-purge", Duration.ofMillis(purgeIntervalMs), this::purgeExpired);
+    }
+
+    public void purgeExpired() {
+        int purged = revokedTokenRepository.deleteExpiredBefore(Instant.now());
+        if (purged > 0) {
+            log.info("Purged {} expired token revocations", purged);
+        }
+    }
+}
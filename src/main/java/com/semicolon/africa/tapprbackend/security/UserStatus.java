@@ -0,0 +1,11 @@
+package com.semicolon.africa.tapprbackend.security;
+
+import com.semicolon.africa.tapprbackend.user.enums.Role;
+
+import java.util.UUID;
+
+/**
+ * The few mutable user fields that some request paths must check against fresh data.
+ */
+public record UserStatus(UUID userId, String phoneNumber, Role role, boolean hasWallet) {
+}
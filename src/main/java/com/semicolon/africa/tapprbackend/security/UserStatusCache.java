@@ -0,0 +1,47 @@
+package com.semicolon.africa.tapprbackend.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.semicolon.africa.tapprbackend.user.data.repositories.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Short-lived local cache of {@link UserStatus}. Authentication itself is stateless; this
+ * covers the rare checks that need a user's current state (role, has a wallet) without
+ * loading the full user on every request. Writers evict the entry when they change that state.
+ */
+@Component
+public class UserStatusCache {
+
+    private final UserRepository userRepository;
+    private final Cache<UUID, UserStatus> statuses;
+
+    public UserStatusCache(UserRepository userRepository,
+                           @Value("${security.user-status.ttl-ms:30000}") long ttlMs,
+                           @Value("${security.user-status.max-size:100000}") long maxSize) {
+        this.userRepository = userRepository;
+        this.statuses = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofMillis(ttlMs))
+                .maximumSize(maxSize)
+                .build();
+    }
+
+    public Optional<UserStatus> get(UUID userId) {
+        UserStatus cached = statuses.getIfPresent(userId);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        Optional<UserStatus> loaded = userRepository.findStatusById(userId);
+        loaded.ifPresent(status -> statuses.put(userId, status));
+        return loaded;
+    }
+
+    public void evict(UUID userId) {
+        statuses.invalidate(userId);
+    }
+}
@@ -0,0 +1,11 @@
+package com.semicolon.africa.tapprbackend.security;
+
+import io.jsonwebtoken.Claims;
+
+import java.time.Instant;
+
+/**
+ * A bearer token whose signature and expiry have already been checked.
+ */
+public record VerifiedToken(TapprPrincipal principal, Claims claims, Instant expiresAt) {
+}
@@ -0,0 +1,69 @@
+package com.semicolon.africa.tapprbackend.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+
+/**
+ * Bounded cache of bearer tokens that have already passed HMAC verification, keyed by the
+ * SHA-256 digest of the token. Clients resend the same token for its whole lifetime, so a
+ * hit skips signature verification and claim parsing entirely.
+ *
+ * <p>Each entry expires exactly when its token does, so the cache can never accept a token
+ * the parser would reject as expired. Revoked tokens must be removed with {@link #evict}.
+ * Hit ratio, size and evictions are published under {@code jwt.verified.tokens}.
+ */
+@Component
+public class VerifiedTokenCache {
+
+    private final JwtUtil jwtUtil;
+    private final Cache<String, VerifiedToken> tokens;
+
+    public VerifiedTokenCache(JwtUtil jwtUtil, MeterRegistry meterRegistry,
+                              @Value("${security.verified-token-cache.max-size:50000}") long maxSize) {
+        this.jwtUtil = jwtUtil;
+        this.tokens = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(Expiry.creating((String digest, VerifiedToken token) ->
+                        Duration.between(Instant.now(), token.expiresAt())))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, tokens, "jwt.verified.tokens");
+    }
+
+    /**
+     * Returns the verified form of the token, checking the signature only on a cache miss.
+     * @throws io.jsonwebtoken.JwtException if the token is malformed, tampered with or expired
+     * @throws IllegalArgumentException if the token lacks the identity claims
+     */
+    public VerifiedToken verify(String token) {
+        String digest = TokenDigests.sha256Hex(token);
+        VerifiedToken cached = tokens.getIfPresent(digest);
+        if (cached != null) {
+            return cached;
+        }
+
+        Claims claims = jwtUtil.parseClaims(token);
+        Date expiration = claims.getExpiration();
+        VerifiedToken verified = new VerifiedToken(TapprPrincipal.fromClaims(claims), claims,
+                expiration == null ? null : expiration.toInstant());
+        // Tokens without an exp claim never expire, so they are not worth pinning in memory
+        if (verified.expiresAt() != null) {
+            tokens.put(digest, verified);
+        }
+        return verified;
+    }
+
+    public void evict(String token) {
+        tokens.invalidate(TokenDigests.sha256Hex(token));
+    }
+}
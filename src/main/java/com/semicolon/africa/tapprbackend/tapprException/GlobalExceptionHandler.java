@@ -1,7 +1,12 @@
 package com.semicolon.africa.tapprbackend.tapprException;
 
+import com.semicolon.africa.tapprbackend.ledger.exceptions.LedgerBusyException;
+import com.semicolon.africa.tapprbackend.transaction.exceptions.FxRatesUnavailableException;
+import com.semicolon.africa.tapprbackend.transaction.exceptions.IdempotencyConflictException;
+import com.semicolon.africa.tapprbackend.user.exceptions.AuthServiceBusyException;
 import com.semicolon.africa.tapprbackend.user.exceptions.UserNotFoundException;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.FieldError;
@@ -31,6 +36,70 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse);
     }
 
+    @ExceptionHandler(AuthServiceBusyException.class)
+    public ResponseEntity<ErrorResponse> handleAuthServiceBusyException(AuthServiceBusyException e) {
+        log.warn("AuthServiceBusyException occurred: {}", e.getMessage());
+        ErrorResponse errorResponse = ErrorResponse.builder()
+                .timestamp(LocalDateTime.now())
+                .status(HttpStatus.SERVICE_UNAVAILABLE.value())
+                .error("Service Unavailable")
+                .message(e.getMessage())
+                .path("/api/v1/auth")
+                .build();
+
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(errorResponse);
+    }
+
+    @ExceptionHandler(LedgerBusyException.class)
+    public ResponseEntity<ErrorResponse> handleLedgerBusyException(LedgerBusyException e) {
+        log.warn("LedgerBusyException occurred: {}", e.getMessage());
+        ErrorResponse errorResponse = ErrorResponse.builder()
+                .timestamp(LocalDateTime.now())
+                .status(HttpStatus.SERVICE_UNAVAILABLE.value())
+                .error("Service Unavailable")
+                .message(e.getMessage())
+                .path("/api/v1/transactions")
+                .build();
+
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(errorResponse);
+    }
+
+    @ExceptionHandler(FxRatesUnavailableException.class)
+    public ResponseEntity<ErrorResponse> handleFxRatesUnavailableException(FxRatesUnavailableException e) {
+        log.warn("FxRatesUnavailableException occurred: {}", e.getMessage());
+        ErrorResponse errorResponse = ErrorResponse.builder()
+                .timestamp(LocalDateTime.now())
+                .status(HttpStatus.SERVICE_UNAVAILABLE.value())
+                .error("Service Unavailable")
+                .message(e.getMessage())
+                .path("/api/v1/transactions")
+                .build();
+
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "30")
+                .body(errorResponse);
+    }
+
+    @ExceptionHandler(IdempotencyConflictException.class)
+    public ResponseEntity<ErrorResponse> handleIdempotencyConflictException(IdempotencyConflictException e) {
+        log.warn("IdempotencyConflictException occurred: {}", e.getMessage());
+        ErrorResponse errorResponse = ErrorResponse.builder()
+                .timestamp(LocalDateTime.now())
+                .status(HttpStatus.CONFLICT.value())
+                .error("Conflict")
+                .message(e.getMessage())
+                .path("/api/v1/transactions")
+                .build();
+
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(errorResponse);
+    }
+
     @ExceptionHandler(IllegalArgumentException.class)
     public ResponseEntity<ErrorResponse> handleIllegalArgumentException(IllegalArgumentException e) {
         log.error("IllegalArgumentException occurred: {}", e.getMessage());
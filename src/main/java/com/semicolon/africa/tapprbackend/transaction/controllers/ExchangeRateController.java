@@ -1,14 +1,20 @@
 package com.semicolon.africa.tapprbackend.transaction.controllers;
 
+import com.semicolon.africa.tapprbackend.transaction.dtos.responses.RateCandleResponse;
+import com.semicolon.africa.tapprbackend.transaction.dtos.responses.RateSnapshot;
+import com.semicolon.africa.tapprbackend.transaction.services.interfaces.RateHistoryService;
 import com.semicolon.africa.tapprbackend.transaction.services.interfaces.SuiRateService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
-import java.math.BigDecimal;
+import java.time.Instant;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 @RestController
@@ -17,13 +23,27 @@ import java.util.Map;
 public class ExchangeRateController {
 
     private final SuiRateService suiRateService;
+    private final RateHistoryService rateHistoryService;
 
     @GetMapping("/sui-ngn")
     public ResponseEntity<Map<String, Object>> getSuiNgnRate() {
-        BigDecimal rate = suiRateService.getSuiToNgnRate();
+        RateSnapshot rate = suiRateService.getSuiToNgnSnapshot();
         Map<String, Object> response = new HashMap<>();
-        response.put("rate", rate);
+        response.put("rate", rate.rate());
         response.put("pair", "SUI/NGN");
+        response.put("lastUpdated", rate.lastUpdated());
+        response.put("source", rate.source());
         return ResponseEntity.ok(response);
     }
+
+    /**
+     * OHLC candles of 1m, 1h or 1d, served from the rollups.
+     */
+    @GetMapping("/sui-ngn/candles")
+    public ResponseEntity<List<RateCandleResponse>> getSuiNgnCandles(
+            @RequestParam(defaultValue = "1h") String interval,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to) {
+        return ResponseEntity.ok(rateHistoryService.candles("SUI/NGN", interval, from, to));
+    }
 }
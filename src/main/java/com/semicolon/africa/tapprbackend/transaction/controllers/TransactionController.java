@@ -1,23 +1,160 @@
 package com.semicolon.africa.tapprbackend.transaction.controllers;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.semicolon.africa.tapprbackend.security.TapprPrincipal;
+import com.semicolon.africa.tapprbackend.transaction.dtos.requests.BatchTransferRequest;
 import com.semicolon.africa.tapprbackend.transaction.dtos.requests.CreateTransactionRequest;
+import com.semicolon.africa.tapprbackend.transaction.dtos.requests.TransactionExportRequest;
+import com.semicolon.africa.tapprbackend.transaction.dtos.responses.BatchTransferLineResult;
+import com.semicolon.africa.tapprbackend.transaction.dtos.responses.BatchTransferSummary;
 import com.semicolon.africa.tapprbackend.transaction.dtos.responses.CreateTransactionResponse;
+import com.semicolon.africa.tapprbackend.transaction.dtos.responses.IdempotentResult;
+import com.semicolon.africa.tapprbackend.transaction.dtos.responses.TransactionHistoryPage;
+import com.semicolon.africa.tapprbackend.transaction.exceptions.InvalidRequestException;
+import com.semicolon.africa.tapprbackend.transaction.services.interfaces.BatchTransferService;
+import com.semicolon.africa.tapprbackend.transaction.services.interfaces.IdempotencyService;
+import com.semicolon.africa.tapprbackend.transaction.services.interfaces.TransactionExportService;
+import com.semicolon.africa.tapprbackend.transaction.services.interfaces.TransactionHistoryService;
 import com.semicolon.africa.tapprbackend.transaction.services.interfaces.TransactionService;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+
 @RestController
 @RequestMapping("/api/v1/transactions")
 @RequiredArgsConstructor
 public class TransactionController {
 
+    static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    static final String IDEMPOTENT_REPLAYED_HEADER = "Idempotent-Replayed";
+    static final String NDJSON = "application/x-ndjson";
+    private static final int EXPORT_BUFFER_SIZE = 64 * 1024;
+
     private final TransactionService transactionService;
+    private final IdempotencyService idempotencyService;
+    private final BatchTransferService batchTransferService;
+    private final TransactionHistoryService transactionHistoryService;
+    private final TransactionExportService transactionExportService;
+    private final ObjectMapper objectMapper;
 
     @PostMapping
-    public ResponseEntity<CreateTransactionResponse> createTransaction(@RequestBody CreateTransactionRequest request) {
-        CreateTransactionResponse response = transactionService.createTransaction(request);
-        return new ResponseEntity<>(response, HttpStatus.CREATED);
+    public ResponseEntity<CreateTransactionResponse> createTransaction(@AuthenticationPrincipal TapprPrincipal principal,
+                                                                       @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
+                                                                       @RequestBody CreateTransactionRequest request) {
+        if (idempotencyKey == null) {
+            CreateTransactionResponse response = transactionService.createTransaction(principal, request);
+            return new ResponseEntity<>(response, HttpStatus.ACCEPTED);
+        }
+        if (principal == null) {
+            throw new InvalidRequestException("Missing or invalid authorization header");
+        }
+
+        IdempotentResult<CreateTransactionResponse> result = idempotencyService.execute(principal.userId(),
+                idempotencyKey, fingerprint(request), CreateTransactionResponse.class,
+                () -> transactionService.createTransaction(principal, request));
+        return ResponseEntity.status(HttpStatus.ACCEPTED)
+                .header(IDEMPOTENT_REPLAYED_HEADER, String.valueOf(result.replayed()))
+                .body(result.body());
+    }
+
+    @GetMapping("/sent")
+    public ResponseEntity<TransactionHistoryPage> getSentHistory(@AuthenticationPrincipal TapprPrincipal principal,
+                                                                 @RequestParam(required = false) String cursor,
+                                                                 @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(transactionHistoryService.getSentHistory(principal, cursor, limit));
+    }
+
+    @GetMapping("/received")
+    public ResponseEntity<TransactionHistoryPage> getReceivedHistory(@AuthenticationPrincipal TapprPrincipal principal,
+                                                                     @RequestParam(required = false) String cursor,
+                                                                     @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(transactionHistoryService.getReceivedHistory(principal, cursor, limit));
+    }
+
+    /**
+     * Streams the payments the caller received between {@code from} and {@code to} as NDJSON
+     * or CSV, gzip-compressed when the client accepts it.
+     */
+    @GetMapping("/export")
+    public void exportReceived(@AuthenticationPrincipal TapprPrincipal principal,
+                               @RequestParam(defaultValue = "ndjson") String format,
+                               @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                               @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                               @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+                               HttpServletResponse response) throws IOException {
+        TransactionExportRequest export = transactionExportService.prepare(principal, format, from, to);
+        boolean gzip = acceptEncoding != null && acceptEncoding.toLowerCase().contains("gzip");
+
+        response.setStatus(HttpStatus.OK.value());
+        response.setContentType(export.format().contentType());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"transactions-"
+                + from + "-" + to + "." + export.format().extension() + "\"");
+        response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (!gzip) {
+            transactionExportService.export(export, response.getOutputStream());
+            return;
+        }
+        response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+        try (OutputStream out = new GZIPOutputStream(response.getOutputStream(), EXPORT_BUFFER_SIZE)) {
+            transactionExportService.export(export, out);
+        }
+    }
+
+    @GetMapping("/{transactionId}")
+    public ResponseEntity<CreateTransactionResponse> getTransaction(@AuthenticationPrincipal TapprPrincipal principal,
+                                                                    @PathVariable String transactionId) {
+        return ResponseEntity.ok(transactionService.getTransaction(principal, transactionId));
+    }
+
+    /**
+     * Streams one JSON result per line as each chunk commits, then a final {@code summary}
+     * line. Errors that reject the whole batch are raised before anything is written, so they
+     * still get a regular error response. A client that disconnects stops the chunks not yet
+     * settled; the ones already committed stand.
+     */
+    @PostMapping("/batch")
+    public void createBatchTransfer(@AuthenticationPrincipal TapprPrincipal principal,
+                                    @RequestBody BatchTransferRequest request,
+                                    HttpServletResponse response) throws IOException {
+        ServletOutputStream out = response.getOutputStream();
+        BatchTransferSummary summary = batchTransferService.transfer(principal, request, results -> {
+            if (!response.isCommitted()) {
+                response.setStatus(HttpStatus.OK.value());
+                response.setContentType(NDJSON);
+            }
+            try {
+                for (BatchTransferLineResult result : results) {
+                    writeLine(out, result);
+                }
+                out.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        writeLine(out, Map.of("summary", summary));
+        out.flush();
+    }
+
+    private void writeLine(ServletOutputStream out, Object value) throws IOException {
+        out.write(objectMapper.writeValueAsBytes(value));
+        out.write('\n');
+    }
+
+    private static String fingerprint(CreateTransactionRequest request) {
+        String amount = request.getAmount() == null ? "" : request.getAmount().stripTrailingZeros().toPlainString();
+        return request.getAccountNumber() + "|" + amount;
     }
 }
@@ -27,4 +27,13 @@ public class ExchangeRate {
 
     @Column(name = "last_updated", nullable = false)
     private LocalDateTime lastUpdated;
+
+    // When the rate was last confirmed upstream, changed or not
+    @Column(name = "verified_at")
+    private LocalDateTime verifiedAt;
+
+    // Bumped on every write; other instances watch it to know when to reload
+    @Version
+    @Column(name = "version", nullable = false)
+    private long version;
 }
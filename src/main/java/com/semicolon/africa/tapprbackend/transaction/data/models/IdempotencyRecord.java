@@ -0,0 +1,71 @@
+package com.semicolon.africa.tapprbackend.transaction.data.models;
+
+import com.semicolon.africa.tapprbackend.transaction.enums.IdempotencyStatus;
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+import org.springframework.data.domain.Persistable;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Stored outcome of a request made with an Idempotency-Key. A PROCESSING row claims the key
+ * while the first request runs, so other instances wait instead of running it again.
+ */
+@Entity
+@Getter
+@Setter
+@Table(name = "idempotency_records", indexes = {
+        @Index(name = "idx_idempotency_records_expires_at", columnList = "expires_at")
+})
+public class IdempotencyRecord implements Persistable<String> {
+
+    // SHA-256 of the user id and the client's key, so keys are scoped per user
+    @Id
+    @Column(name = "key_hash", length = 64, columnDefinition = "CHAR(64)")
+    private String keyHash;
+
+    @JdbcTypeCode(SqlTypes.VARCHAR)
+    @Column(name = "user_id", columnDefinition = "VARCHAR(36)", nullable = false)
+    private UUID userId;
+
+    // SHA-256 of the request, to catch a key being reused for a different payment
+    @Column(name = "request_hash", length = 64, columnDefinition = "CHAR(64)", nullable = false)
+    private String requestHash;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 10)
+    private IdempotencyStatus status;
+
+    @Column(name = "response_body", columnDefinition = "TEXT")
+    private String responseBody;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    @Column(name = "expires_at", nullable = false)
+    private Instant expiresAt;
+
+    // The key is assigned, so the insert that claims it must not be turned into a merge
+    @Transient
+    private boolean isNew = true;
+
+    @Override
+    public String getId() {
+        return keyHash;
+    }
+
+    @Override
+    public boolean isNew() {
+        return isNew;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        this.isNew = false;
+    }
+}
@@ -0,0 +1,63 @@
+package com.semicolon.africa.tapprbackend.transaction.data.models;
+
+import com.semicolon.africa.tapprbackend.transaction.enums.CandleInterval;
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * Open, high, low and close of a symbol's ticks within one bucket, updated as each tick
+ * is recorded. The unique key doubles as the index range queries read.
+ */
+@Entity
+@Getter
+@Setter
+@Table(name = "rate_candles", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_rate_candles_symbol_interval_bucket",
+                columnNames = {"symbol", "candle_interval", "bucket_start"})
+})
+public class RateCandle {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "symbol", nullable = false, length = 16, updatable = false)
+    private String symbol;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "candle_interval", nullable = false, length = 10, updatable = false)
+    private CandleInterval interval;
+
+    @Column(name = "bucket_start", nullable = false, updatable = false)
+    private Instant bucketStart;
+
+    @Column(name = "open_rate", nullable = false, precision = 18, scale = 8)
+    private BigDecimal open;
+
+    @Column(name = "high_rate", nullable = false, precision = 18, scale = 8)
+    private BigDecimal high;
+
+    @Column(name = "low_rate", nullable = false, precision = 18, scale = 8)
+    private BigDecimal low;
+
+    @Column(name = "close_rate", nullable = false, precision = 18, scale = 8)
+    private BigDecimal close;
+
+    // Times of the ticks behind open and close, so a late tick cannot displace either
+    @Column(name = "opened_at", nullable = false)
+    private Instant openedAt;
+
+    @Column(name = "closed_at", nullable = false)
+    private Instant closedAt;
+
+    @Column(name = "tick_count", nullable = false)
+    private int tickCount;
+
+    @Version
+    @Column(name = "version", nullable = false)
+    private long version;
+}
@@ -0,0 +1,42 @@
+package com.semicolon.africa.tapprbackend.transaction.data.models;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Immutable;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * One confirmed upstream rate. Ticks are only ever appended, so they record which rate
+ * applied at any moment; past the retention period only their candles are kept.
+ */
+@Entity
+@Getter
+@Immutable
+@NoArgsConstructor
+@Table(name = "rate_ticks", indexes = {
+        @Index(name = "idx_rate_ticks_symbol_recorded_at", columnList = "symbol, recorded_at")
+})
+public class RateTick {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "symbol", nullable = false, length = 16)
+    private String symbol;
+
+    @Column(name = "rate", nullable = false, precision = 18, scale = 8)
+    private BigDecimal rate;
+
+    @Column(name = "recorded_at", nullable = false)
+    private Instant recordedAt;
+
+    public RateTick(String symbol, BigDecimal rate, Instant recordedAt) {
+        this.symbol = symbol;
+        this.rate = rate;
+        this.recordedAt = recordedAt;
+    }
+}
@@ -8,14 +8,22 @@ import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.Setter;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.UUID;
 
 
 @Entity
 @Getter
 @Setter
-@Table(name = "transactions")
+@Table(name = "transactions", indexes = {
+        @Index(name = "idx_transactions_status_initiated", columnList = "status, initiated_at"),
+        @Index(name = "idx_transactions_sender_history", columnList = "senders_id, initiated_at, id"),
+        @Index(name = "idx_transactions_merchant_history", columnList = "merchant_id, initiated_at, id")
+})
 public class Transaction {
     @Id
     @GeneratedValue(strategy = GenerationType.UUID)
@@ -24,18 +32,27 @@ public class Transaction {
     @Column(name = "transaction_ref", nullable = false, unique = true)
     private String transactionRef;
 
-    @Column(name = "sender_account_number", nullable = false, unique = true)
+    @Column(name = "sender_account_number", nullable = false)
     private String senderAccountNumber;
 
-    @Column(name = "receivers_account_number", nullable = false, unique = true)
+    @Column(name = "receivers_account_number", nullable = false)
     private String receiversAccountNumber;
 
-    @Column(name = "senders_id", nullable = false, unique = true)
+    @Column(name = "senders_id", nullable = false)
     private String senderId;
 
-    @Column(name = "receivers_id", nullable = false, unique = true)
+    @Column(name = "receivers_id", nullable = false)
     private String receiversId;
 
+    // Wallets chosen when the payment was accepted; null on rows that predate the settlement pipeline
+    @JdbcTypeCode(SqlTypes.VARCHAR)
+    @Column(name = "sender_wallet_id", columnDefinition = "VARCHAR(36)")
+    private UUID senderWalletId;
+
+    @JdbcTypeCode(SqlTypes.VARCHAR)
+    @Column(name = "receiver_wallet_id", columnDefinition = "VARCHAR(36)")
+    private UUID receiverWalletId;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "merchant_id", nullable = false)
     private User merchant;
@@ -60,6 +77,9 @@ public class Transaction {
     @Column(name = "completed_at")
     private LocalDateTime completedAt;
 
+    @Column(name = "failure_reason")
+    private String failureReason;
+
     @OneToOne(mappedBy = "transaction", cascade = CascadeType.ALL)
     private Receipt receipt;
 }
@@ -2,12 +2,19 @@ package com.semicolon.africa.tapprbackend.transaction.data.repositories;
 
 import com.semicolon.africa.tapprbackend.transaction.data.models.ExchangeRate;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface ExchangeRateRepository extends JpaRepository<ExchangeRate, Long> {
     Optional<ExchangeRate> findBySymbol(String symbol);
     boolean existsBySymbol(String symbol);
+    List<ExchangeRate> findBySymbolNot(String symbol);
+
+    @Query("SELECT r.version FROM ExchangeRate r WHERE r.symbol = :symbol")
+    Optional<Long> findVersionBySymbol(@Param("symbol") String symbol);
 }
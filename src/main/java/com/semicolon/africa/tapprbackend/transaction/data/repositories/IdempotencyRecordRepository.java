@@ -0,0 +1,30 @@
+package com.semicolon.africa.tapprbackend.transaction.data.repositories;
+
+import com.semicolon.africa.tapprbackend.transaction.data.models.IdempotencyRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, String> {
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE IdempotencyRecord r SET r.status = com.semicolon.africa.tapprbackend.transaction.enums.IdempotencyStatus.COMPLETED, " +
+            "r.responseBody = :responseBody WHERE r.keyHash = :keyHash")
+    int markCompleted(@Param("keyHash") String keyHash, @Param("responseBody") String responseBody);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE IdempotencyRecord r SET r.status = com.semicolon.africa.tapprbackend.transaction.enums.IdempotencyStatus.FAILED " +
+            "WHERE r.keyHash = :keyHash AND r.status = com.semicolon.africa.tapprbackend.transaction.enums.IdempotencyStatus.PROCESSING")
+    int markFailed(@Param("keyHash") String keyHash);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.expiresAt < :now")
+    int deleteExpiredBefore(@Param("now") Instant now);
+}
@@ -0,0 +1,33 @@
+package com.semicolon.africa.tapprbackend.transaction.data.repositories;
+
+import com.semicolon.africa.tapprbackend.transaction.data.models.RateCandle;
+import com.semicolon.africa.tapprbackend.transaction.dtos.responses.RateCandleResponse;
+import com.semicolon.africa.tapprbackend.transaction.enums.CandleInterval;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+public interface RateCandleRepository extends JpaRepository<RateCandle, Long> {
+
+    Optional<RateCandle> findBySymbolAndIntervalAndBucketStart(String symbol, CandleInterval interval, Instant bucketStart);
+
+    @Query("SELECT new com.semicolon.africa.tapprbackend.transaction.dtos.responses.RateCandleResponse(" +
+            "c.bucketStart, c.open, c.high, c.low, c.close, c.tickCount) FROM RateCandle c " +
+            "WHERE c.symbol = :symbol AND c.interval = :interval AND c.bucketStart >= :from AND c.bucketStart < :to " +
+            "ORDER BY c.bucketStart")
+    List<RateCandleResponse> findRange(@Param("symbol") String symbol,
+                                       @Param("interval") CandleInterval interval,
+                                       @Param("from") Instant from,
+                                       @Param("to") Instant to);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM RateCandle c WHERE c.interval = :interval AND c.bucketStart < :before")
+    int deleteBucketsBefore(@Param("interval") CandleInterval interval, @Param("before") Instant before);
+}
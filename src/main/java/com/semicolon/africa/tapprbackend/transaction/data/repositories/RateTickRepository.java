@@ -0,0 +1,18 @@
+package com.semicolon.africa.tapprbackend.transaction.data.repositories;
+
+import com.semicolon.africa.tapprbackend.transaction.data.models.RateTick;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+
+public interface RateTickRepository extends JpaRepository<RateTick, Long> {
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM RateTick t WHERE t.recordedAt < :before")
+    int deleteRecordedBefore(@Param("before") Instant before);
+}
@@ -1,10 +1,66 @@
 package com.semicolon.africa.tapprbackend.transaction.data.repositories;
 
 import com.semicolon.africa.tapprbackend.transaction.data.models.Transaction;
+import com.semicolon.africa.tapprbackend.transaction.dtos.responses.TransactionHistoryItem;
+import com.semicolon.africa.tapprbackend.transaction.enums.TransactionStatus;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
 
 @Repository
-public interface TransactionRepository extends JpaRepository<Transaction, Long> {
-    // You can add custom query methods here if needed
-}
\ No newline at end of file
+public interface TransactionRepository extends JpaRepository<Transaction, String> {
+
+    // Holds the row until commit, so a payment is only ever settled by one worker at a time
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT t FROM Transaction t WHERE t.id = :id")
+    Optional<Transaction> findForSettlementById(@Param("id") String id);
+
+    @Query("SELECT t.id FROM Transaction t WHERE t.status = :status AND t.initiatedAt < :before " +
+            "AND t.senderWalletId IS NOT NULL ORDER BY t.initiatedAt")
+    List<String> findSettleableIds(@Param("status") TransactionStatus status,
+                                   @Param("before") LocalDateTime before, Pageable pageable);
+
+    // Never fails a payment whose posting already reached the ledger
+    @Modifying
+    @Transactional
+    @Query("UPDATE Transaction t SET t.status = com.semicolon.africa.tapprbackend.transaction.enums.TransactionStatus.FAILED, " +
+            "t.failureReason = :reason, t.completedAt = :completedAt " +
+            "WHERE t.id = :id AND t.status = com.semicolon.africa.tapprbackend.transaction.enums.TransactionStatus.PENDING " +
+            "AND NOT EXISTS (SELECT 1 FROM LedgerEntry e WHERE e.postingRef = t.transactionRef)")
+    int markFailed(@Param("id") String id, @Param("reason") String reason,
+                   @Param("completedAt") LocalDateTime completedAt);
+
+    // History pages seek on (owner, initiatedAt, id) so every page costs the same; see the history indexes
+    String HISTORY_ITEM = "SELECT new com.semicolon.africa.tapprbackend.transaction.dtos.responses.TransactionHistoryItem(" +
+            "t.id, t.transactionRef, t.amount, t.walletCurrency, t.status, t.senderAccountNumber, " +
+            "t.receiversAccountNumber, t.initiatedAt, t.completedAt) FROM Transaction t ";
+    String NEWEST_FIRST = " ORDER BY t.initiatedAt DESC, t.id DESC";
+    String BEFORE_CURSOR = " AND (t.initiatedAt < :initiatedAt OR (t.initiatedAt = :initiatedAt AND t.id < :id))";
+
+    @Query(HISTORY_ITEM + "WHERE t.senderId = :senderId" + NEWEST_FIRST)
+    List<TransactionHistoryItem> findSentHistory(@Param("senderId") String senderId, Pageable pageable);
+
+    @Query(HISTORY_ITEM + "WHERE t.senderId = :senderId" + BEFORE_CURSOR + NEWEST_FIRST)
+    List<TransactionHistoryItem> findSentHistoryBefore(@Param("senderId") String senderId,
+                                                       @Param("initiatedAt") LocalDateTime initiatedAt,
+                                                       @Param("id") String id, Pageable pageable);
+
+    @Query(HISTORY_ITEM + "WHERE t.merchant.id = :merchantId" + NEWEST_FIRST)
+    List<TransactionHistoryItem> findReceivedHistory(@Param("merchantId") UUID merchantId, Pageable pageable);
+
+    @Query(HISTORY_ITEM + "WHERE t.merchant.id = :merchantId" + BEFORE_CURSOR + NEWEST_FIRST)
+    List<TransactionHistoryItem> findReceivedHistoryBefore(@Param("merchantId") UUID merchantId,
+                                                           @Param("initiatedAt") LocalDateTime initiatedAt,
+                                                           @Param("id") String id, Pageable pageable);
+}
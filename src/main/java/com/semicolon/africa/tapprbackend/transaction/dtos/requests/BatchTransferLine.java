@@ -0,0 +1,16 @@
+package com.semicolon.africa.tapprbackend.transaction.dtos.requests;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+
+@Setter
+@Getter
+public class BatchTransferLine {
+
+    // Caller's own id for the line (invoice, payslip...), echoed back in the result
+    private String reference;
+    private String accountNumber;
+    private BigDecimal amount;
+}
@@ -0,0 +1,13 @@
+package com.semicolon.africa.tapprbackend.transaction.dtos.requests;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+@Setter
+@Getter
+public class BatchTransferRequest {
+
+    private List<BatchTransferLine> lines;
+}
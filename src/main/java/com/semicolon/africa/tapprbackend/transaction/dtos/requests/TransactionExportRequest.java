@@ -0,0 +1,13 @@
+package com.semicolon.africa.tapprbackend.transaction.dtos.requests;
+
+import com.semicolon.africa.tapprbackend.transaction.enums.ExportFormat;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * A validated export: the merchant's payments initiated in [{@code from}, {@code until}).
+ */
+public record TransactionExportRequest(UUID merchantId, ExportFormat format,
+                                       LocalDateTime from, LocalDateTime until) {
+}
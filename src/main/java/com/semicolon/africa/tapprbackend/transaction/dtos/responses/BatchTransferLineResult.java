@@ -0,0 +1,12 @@
+package com.semicolon.africa.tapprbackend.transaction.dtos.responses;
+
+import com.semicolon.africa.tapprbackend.transaction.enums.TransactionStatus;
+
+import java.math.BigDecimal;
+
+/**
+ * Outcome of one payout line; {@code line} is its 1-based position in the request.
+ */
+public record BatchTransferLineResult(int line, String reference, String accountNumber, BigDecimal amount,
+                                      TransactionStatus status, String transactionRef, String error) {
+}
@@ -0,0 +1,7 @@
+package com.semicolon.africa.tapprbackend.transaction.dtos.responses;
+
+import java.math.BigDecimal;
+
+public record BatchTransferSummary(int lines, int succeeded, int failed, BigDecimal totalPaid,
+                                   long elapsedMs, double linesPerSecond) {
+}
@@ -20,6 +20,7 @@ public class CreateTransactionResponse {
     private TransactionStatus status;
     private LocalDateTime initiatedAt;
     private LocalDateTime completedAt;
+    private String failureReason;
     private String merchantReceiptDownloadUrl;
     private String regularReceiptDownloadUrl;
 }
@@ -0,0 +1,7 @@
+package com.semicolon.africa.tapprbackend.transaction.dtos.responses;
+
+/**
+ * Response of an idempotent call, and whether it was replayed from an earlier request.
+ */
+public record IdempotentResult<T>(T body, boolean replayed) {
+}
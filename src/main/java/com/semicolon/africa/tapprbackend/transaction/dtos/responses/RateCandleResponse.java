@@ -0,0 +1,8 @@
+package com.semicolon.africa.tapprbackend.transaction.dtos.responses;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+public record RateCandleResponse(Instant bucketStart, BigDecimal open, BigDecimal high, BigDecimal low,
+                                 BigDecimal close, int ticks) {
+}
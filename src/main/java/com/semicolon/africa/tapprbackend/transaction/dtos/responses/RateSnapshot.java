@@ -0,0 +1,14 @@
+package com.semicolon.africa.tapprbackend.transaction.dtos.responses;
+
+import com.semicolon.africa.tapprbackend.transaction.enums.RateSource;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * An exchange rate as last known. {@code lastUpdated} is when the rate last changed;
+ * {@code verifiedAtNanos} is the {@link System#nanoTime()} at which it was last confirmed,
+ * and decides when it is stale.
+ */
+public record RateSnapshot(BigDecimal rate, LocalDateTime lastUpdated, RateSource source, long verifiedAtNanos) {
+}
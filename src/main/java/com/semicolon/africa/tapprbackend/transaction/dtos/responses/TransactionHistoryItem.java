@@ -0,0 +1,16 @@
+package com.semicolon.africa.tapprbackend.transaction.dtos.responses;
+
+import com.semicolon.africa.tapprbackend.Wallet.enums.WalletCurrency;
+import com.semicolon.africa.tapprbackend.transaction.enums.TransactionStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * One row of a transaction history page, read straight from the transactions table.
+ */
+public record TransactionHistoryItem(String transactionId, String transactionRef, BigDecimal amount,
+                                     WalletCurrency currency, TransactionStatus status,
+                                     String senderAccountNumber, String receiverAccountNumber,
+                                     LocalDateTime initiatedAt, LocalDateTime completedAt) {
+}
@@ -0,0 +1,9 @@
+package com.semicolon.africa.tapprbackend.transaction.dtos.responses;
+
+import java.util.List;
+
+/**
+ * A page of history, newest first. {@code nextCursor} is null on the last page.
+ */
+public record TransactionHistoryPage(List<TransactionHistoryItem> items, String nextCursor) {
+}
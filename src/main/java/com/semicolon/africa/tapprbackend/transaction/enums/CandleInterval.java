@@ -0,0 +1,45 @@
+package com.semicolon.africa.tapprbackend.transaction.enums;
+
+import com.semicolon.africa.tapprbackend.transaction.exceptions.InvalidRequestException;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Width of an OHLC candle. Buckets are aligned to UTC.
+ */
+public enum CandleInterval {
+    ONE_MINUTE("1m", ChronoUnit.MINUTES),
+    ONE_HOUR("1h", ChronoUnit.HOURS),
+    ONE_DAY("1d", ChronoUnit.DAYS);
+
+    private final String code;
+    private final ChronoUnit unit;
+
+    CandleInterval(String code, ChronoUnit unit) {
+        this.code = code;
+        this.unit = unit;
+    }
+
+    public String code() {
+        return code;
+    }
+
+    public Duration duration() {
+        return unit.getDuration();
+    }
+
+    public Instant bucketOf(Instant at) {
+        return at.truncatedTo(unit);
+    }
+
+    public static CandleInterval from(String value) {
+        for (CandleInterval interval : values()) {
+            if (interval.code.equalsIgnoreCase(value)) {
+                return interval;
+            }
+        }
+        throw new InvalidRequestException("Unsupported candle interval " + value);
+    }
+}
@@ -0,0 +1,8 @@
+package com.semicolon.africa.tapprbackend.transaction.enums;
+
+public enum IdempotencyStatus {
+    PROCESSING,
+    COMPLETED,
+    // The call failed in a way that may have left a payment behind; the key is never rerun
+    FAILED
+}
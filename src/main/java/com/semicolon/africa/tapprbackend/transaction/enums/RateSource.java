@@ -0,0 +1,8 @@
+package com.semicolon.africa.tapprbackend.transaction.enums;
+
+public enum RateSource {
+    // Built-in default, used until a rate has been stored or fetched
+    FALLBACK,
+    DATABASE,
+    UPSTREAM
+}
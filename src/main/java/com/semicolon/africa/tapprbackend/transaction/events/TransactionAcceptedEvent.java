@@ -0,0 +1,7 @@
+package com.semicolon.africa.tapprbackend.transaction.events;
+
+/**
+ * Published once a payment has been accepted as PENDING. Listeners run after it commits.
+ */
+public record TransactionAcceptedEvent(String transactionId) {
+}
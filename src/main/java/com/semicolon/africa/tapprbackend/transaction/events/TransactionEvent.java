@@ -0,0 +1,37 @@
+package com.semicolon.africa.tapprbackend.transaction.events;
+
+import com.semicolon.africa.tapprbackend.Wallet.enums.WalletCurrency;
+import com.semicolon.africa.tapprbackend.transaction.data.models.Transaction;
+import com.semicolon.africa.tapprbackend.transaction.enums.TransactionStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Outbox payload for TRANSACTION_ACCEPTED, TRANSACTION_SETTLED and TRANSACTION_FAILED.
+ */
+public record TransactionEvent(String transactionId,
+                               String transactionRef,
+                               String senderId,
+                               String receiverId,
+                               BigDecimal amount,
+                               WalletCurrency currency,
+                               TransactionStatus status,
+                               String failureReason,
+                               LocalDateTime initiatedAt,
+                               LocalDateTime completedAt) {
+
+    public static TransactionEvent of(Transaction transaction) {
+        return new TransactionEvent(
+                transaction.getId(),
+                transaction.getTransactionRef(),
+                transaction.getSenderId(),
+                transaction.getReceiversId(),
+                transaction.getAmount(),
+                transaction.getWalletCurrency(),
+                transaction.getStatus(),
+                transaction.getFailureReason(),
+                transaction.getInitiatedAt(),
+                transaction.getCompletedAt());
+    }
+}
@@ -0,0 +1,9 @@
+package com.semicolon.africa.tapprbackend.transaction.exceptions;
+
+import com.semicolon.africa.tapprbackend.tapprException.TapprException;
+
+public class FxRatesUnavailableException extends TapprException {
+    public FxRatesUnavailableException(String message) {
+        super(message);
+    }
+}
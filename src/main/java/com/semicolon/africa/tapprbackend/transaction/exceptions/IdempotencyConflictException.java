@@ -0,0 +1,9 @@
+package com.semicolon.africa.tapprbackend.transaction.exceptions;
+
+import com.semicolon.africa.tapprbackend.tapprException.TapprException;
+
+public class IdempotencyConflictException extends TapprException {
+    public IdempotencyConflictException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,316 @@
+package com.semicolon.africa.tapprbackend.transaction.services.implementations;
+
+import com.semicolon.africa.tapprbackend.Wallet.data.model.Wallet;
+import com.semicolon.africa.tapprbackend.Wallet.data.repositories.WalletRepository;
+import com.semicolon.africa.tapprbackend.Wallet.dtos.PayoutTarget;
+import com.semicolon.africa.tapprbackend.Wallet.enums.WalletCurrency;
+import com.semicolon.africa.tapprbackend.Wallet.exceptions.InsufficientBalanceException;
+import com.semicolon.africa.tapprbackend.Wallet.exceptions.WalletNotFoundException;
+import com.semicolon.africa.tapprbackend.ledger.dtos.Payout;
+import com.semicolon.africa.tapprbackend.ledger.services.interfaces.LedgerService;
+import com.semicolon.africa.tapprbackend.outbox.enums.OutboxEventType;
+import com.semicolon.africa.tapprbackend.outbox.services.interfaces.OutboxService;
+import com.semicolon.africa.tapprbackend.security.TapprPrincipal;
+import com.semicolon.africa.tapprbackend.security.TokenRevocationService;
+import com.semicolon.africa.tapprbackend.security.UserStatus;
+import com.semicolon.africa.tapprbackend.security.UserStatusCache;
+import com.semicolon.africa.tapprbackend.transaction.data.models.Transaction;
+import com.semicolon.africa.tapprbackend.transaction.data.repositories.TransactionRepository;
+import com.semicolon.africa.tapprbackend.transaction.dtos.requests.BatchTransferLine;
+import com.semicolon.africa.tapprbackend.transaction.dtos.requests.BatchTransferRequest;
+import com.semicolon.africa.tapprbackend.transaction.dtos.responses.BatchTransferLineResult;
+import com.semicolon.africa.tapprbackend.transaction.dtos.responses.BatchTransferSummary;
+import com.semicolon.africa.tapprbackend.transaction.enums.TransactionStatus;
+import com.semicolon.africa.tapprbackend.transaction.events.TransactionEvent;
+import com.semicolon.africa.tapprbackend.transaction.exceptions.InvalidRequestException;
+import com.semicolon.africa.tapprbackend.transaction.services.interfaces.BatchTransferService;
+import com.semicolon.africa.tapprbackend.user.data.repositories.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Pays many receivers from one sender. Receivers are resolved with set-based lookups and the
+ * batch total is checked once up front; lines are then settled in chunks, each one a single
+ * debit of the sender, one batched credit per receiving wallet and batched inserts of its
+ * ledger entries and transactions.
+ * <p>
+ * Batch payouts are fiat only: every line names a 10-digit account number and is paid from
+ * the sender's NGN wallet into the receiver's NGN wallet.
+ */
+@Slf4j
+@Service
+public class BatchTransferServiceImpl implements BatchTransferService {
+
+    // Matches the scale of wallets.balance and ledger_entries.amount
+    private static final int AMOUNT_SCALE = 2;
+    // Keeps IN lists well below driver and optimizer limits
+    private static final int LOOKUP_CHUNK = 1000;
+    private static final int MAX_ATTEMPTS = 3;
+    private static final WalletCurrency PAYOUT_CURRENCY = WalletCurrency.NGN;
+
+    private final TransactionRepository transactionRepository;
+    private final UserRepository userRepository;
+    private final UserStatusCache userStatusCache;
+    private final TokenRevocationService tokenRevocationService;
+    private final WalletRepository walletRepository;
+    private final LedgerService ledgerService;
+    private final OutboxService outboxService;
+    private final MeterRegistry meterRegistry;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${transactions.batch.max-lines:5000}")
+    private int maxLines;
+
+    @Value("${transactions.batch.chunk-size:500}")
+    private int chunkSize;
+
+    public BatchTransferServiceImpl(TransactionRepository transactionRepository,
+                                    UserRepository userRepository,
+                                    UserStatusCache userStatusCache,
+                                    TokenRevocationService tokenRevocationService,
+                                    WalletRepository walletRepository,
+                                    LedgerService ledgerService,
+                                    OutboxService outboxService,
+                                    MeterRegistry meterRegistry,
+                                    PlatformTransactionManager transactionManager) {
+        this.transactionRepository = transactionRepository;
+        this.userRepository = userRepository;
+        this.userStatusCache = userStatusCache;
+        this.tokenRevocationService = tokenRevocationService;
+        this.walletRepository = walletRepository;
+        this.ledgerService = ledgerService;
+        this.outboxService = outboxService;
+        this.meterRegistry = meterRegistry;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    public BatchTransferSummary transfer(TapprPrincipal principal, BatchTransferRequest request,
+                                         Consumer<List<BatchTransferLineResult>> sink) {
+        long started = System.nanoTime();
+        List<BatchTransferLine> lines = request == null ? null : request.getLines();
+        if (lines == null || lines.isEmpty()) {
+            throw new InvalidRequestException("Batch must contain at least one line");
+        }
+        if (lines.size() > maxLines) {
+            throw new InvalidRequestException("Batch cannot contain more than " + maxLines + " lines");
+        }
+        if (principal == null) {
+            throw new InvalidRequestException("Missing or invalid authorization header");
+        }
+
+        UserStatus senderStatus = userStatusCache.get(principal.userId())
+                .orElseThrow(() -> new InvalidRequestException("User not found"));
+        if (!senderStatus.hasWallet()) {
+            throw new InvalidRequestException("User does not have a wallet");
+        }
+        if (tokenRevocationService.isRevoked(principal.tokenId())) {
+            throw new InvalidRequestException("User is not logged in");
+        }
+
+        Wallet senderWallet = walletRepository.findByUserAndCurrencyType(
+                        userRepository.getReferenceById(principal.userId()), PAYOUT_CURRENCY)
+                .orElseThrow(() -> new InvalidRequestException("Sender fiat wallet not found"));
+
+        String[] errors = new String[lines.size()];
+        for (int i = 0; i < lines.size(); i++) {
+            errors[i] = validate(lines.get(i));
+        }
+        Map<String, PayoutTarget> targets = resolveTargets(lines, errors);
+
+        BigDecimal total = BigDecimal.ZERO;
+        for (int i = 0; i < lines.size(); i++) {
+            if (errors[i] == null) {
+                total = total.add(lines.get(i).getAmount());
+            }
+        }
+        // Fast rejection of the whole batch; each chunk's debit is what actually guards the balance
+        if (senderWallet.getBalance().compareTo(total) < 0) {
+            throw new InvalidRequestException("Insufficient funds for the batch total of " + total);
+        }
+
+        int succeeded = 0;
+        BigDecimal paid = BigDecimal.ZERO;
+        for (int from = 0; from < lines.size(); from += chunkSize) {
+            int to = Math.min(from + chunkSize, lines.size());
+            List<BatchTransferLineResult> results = settleChunk(principal, senderWallet, lines, errors, targets, from, to);
+            for (BatchTransferLineResult result : results) {
+                if (result.status() == TransactionStatus.SUCCESS) {
+                    succeeded++;
+                    paid = paid.add(result.amount());
+                }
+            }
+            sink.accept(results);
+        }
+
+        return summarize(lines.size(), succeeded, paid, System.nanoTime() - started);
+    }
+
+    private static String validate(BatchTransferLine line) {
+        if (line == null) {
+            return "Line is empty";
+        }
+        String accountNumber = line.getAccountNumber();
+        if (accountNumber == null || accountNumber.length() != 10 || !accountNumber.matches("\\d+")) {
+            return "Batch payouts need a 10-digit account number";
+        }
+        if (line.getAmount() == null || line.getAmount().compareTo(BigDecimal.ZERO) <= 0) {
+            return "Amount must be greater than zero";
+        }
+        if (line.getAmount().stripTrailingZeros().scale() > AMOUNT_SCALE) {
+            return "Amount cannot have more than " + AMOUNT_SCALE + " decimal places";
+        }
+        return null;
+    }
+
+    /**
+     * Looks up every distinct account number in a handful of IN queries and marks the lines
+     * whose receiver cannot be paid.
+     */
+    private Map<String, PayoutTarget> resolveTargets(List<BatchTransferLine> lines, String[] errors) {
+        Set<String> accountNumbers = new LinkedHashSet<>();
+        for (int i = 0; i < lines.size(); i++) {
+            if (errors[i] == null) {
+                accountNumbers.add(lines.get(i).getAccountNumber());
+            }
+        }
+
+        Map<String, PayoutTarget> targets = new HashMap<>(accountNumbers.size() * 2);
+        List<String> pending = new ArrayList<>(accountNumbers);
+        for (int from = 0; from < pending.size(); from += LOOKUP_CHUNK) {
+            List<String> slice = pending.subList(from, Math.min(from + LOOKUP_CHUNK, pending.size()));
+            for (PayoutTarget target : walletRepository.findPayoutTargetsByAccountNumberIn(slice)) {
+                if (target.currency() == PAYOUT_CURRENCY) {
+                    targets.put(target.accountNumber(), target);
+                }
+            }
+        }
+
+        for (int i = 0; i < lines.size(); i++) {
+            if (errors[i] == null && !targets.containsKey(lines.get(i).getAccountNumber())) {
+                errors[i] = "Receiver not found";
+            }
+        }
+        return targets;
+    }
+
+    private List<BatchTransferLineResult> settleChunk(TapprPrincipal principal, Wallet senderWallet,
+                                                      List<BatchTransferLine> lines, String[] errors,
+                                                      Map<String, PayoutTarget> targets, int from, int to) {
+        String[] refs = new String[to - from];
+        List<PendingPayout> pending = new ArrayList<>(to - from);
+        for (int i = from; i < to; i++) {
+            if (errors[i] == null) {
+                BatchTransferLine line = lines.get(i);
+                refs[i - from] = UUID.randomUUID().toString();
+                pending.add(new PendingPayout(line, targets.get(line.getAccountNumber()), refs[i - from]));
+            }
+        }
+
+        String chunkError = pending.isEmpty() ? null : post(principal, senderWallet, pending);
+
+        List<BatchTransferLineResult> results = new ArrayList<>(to - from);
+        for (int i = from; i < to; i++) {
+            BatchTransferLine line = lines.get(i);
+            String error = errors[i] != null ? errors[i] : chunkError;
+            results.add(new BatchTransferLineResult(i + 1,
+                    line == null ? null : line.getReference(),
+                    line == null ? null : line.getAccountNumber(),
+                    line == null ? null : line.getAmount(),
+                    error == null ? TransactionStatus.SUCCESS : TransactionStatus.FAILED,
+                    error == null ? refs[i - from] : null,
+                    error));
+        }
+        return results;
+    }
+
+    /**
+     * Settles one chunk atomically and returns why it failed, or null once it has committed.
+     * Lock timeouts and deadlocks are retried; the entities are rebuilt on every attempt since
+     * a rolled back persist leaves them unusable.
+     */
+    private String post(TapprPrincipal principal, Wallet senderWallet, List<PendingPayout> pending) {
+        List<Payout> payouts = pending.stream()
+                .map(payout -> new Payout(payout.transactionRef(), payout.target().walletId(), payout.line().getAmount()))
+                .toList();
+
+        for (int attempt = 1; ; attempt++) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    ledgerService.postPayouts(senderWallet.getId(), PAYOUT_CURRENCY, payouts);
+                    for (Transaction transaction : transactionRepository.saveAll(pending.stream()
+                            .map(payout -> toTransaction(principal, senderWallet, payout))
+                            .toList())) {
+                        outboxService.append(OutboxEventType.TRANSACTION_SETTLED, transaction.getId(),
+                                TransactionEvent.of(transaction));
+                    }
+                });
+                return null;
+            } catch (InsufficientBalanceException e) {
+                return "Insufficient funds in sender's fiat wallet";
+            } catch (WalletNotFoundException e) {
+                return "Receiver wallet not found";
+            } catch (PessimisticLockingFailureException e) {
+                if (attempt >= MAX_ATTEMPTS) {
+                    return "Payments are busy right now, please retry shortly";
+                }
+                log.debug("Retrying batch chunk after lock failure (attempt {})", attempt);
+            } catch (RuntimeException e) {
+                log.error("Batch chunk of {} payouts failed", payouts.size(), e);
+                return "Payout could not be processed";
+            }
+        }
+    }
+
+    private Transaction toTransaction(TapprPrincipal principal, Wallet senderWallet, PendingPayout payout) {
+        LocalDateTime now = LocalDateTime.now();
+        Transaction transaction = new Transaction();
+        transaction.setTransactionRef(payout.transactionRef());
+        // A reference is enough for the foreign key; the receiver is never loaded
+        transaction.setMerchant(userRepository.getReferenceById(payout.target().userId()));
+        transaction.setSenderId(principal.userId().toString());
+        transaction.setReceiversId(payout.target().userId().toString());
+        transaction.setSenderAccountNumber(senderWallet.getAccountNumber());
+        transaction.setReceiversAccountNumber(payout.line().getAccountNumber());
+        transaction.setAmount(payout.line().getAmount());
+        transaction.setWalletCurrency(PAYOUT_CURRENCY);
+        transaction.setInitiatedAt(now);
+        transaction.setStatus(TransactionStatus.SUCCESS);
+        transaction.setInitiated(true);
+        transaction.setCompletedAt(now);
+        return transaction;
+    }
+
+    private BatchTransferSummary summarize(int lines, int succeeded, BigDecimal paid, long elapsedNanos) {
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(elapsedNanos);
+        double linesPerSecond = Math.round(lines * 10.0 * TimeUnit.SECONDS.toNanos(1) / Math.max(elapsedNanos, 1)) / 10.0;
+
+        meterRegistry.counter("transactions.batch.lines", "outcome", "success").increment(succeeded);
+        meterRegistry.counter("transactions.batch.lines", "outcome", "failed").increment(lines - succeeded);
+        meterRegistry.summary("transactions.batch.lines.per.second").record(linesPerSecond);
+        log.info("Batch of {} lines settled in {} ms ({} lines/s, {} failed)",
+                lines, elapsedMs, linesPerSecond, lines - succeeded);
+
+        return new BatchTransferSummary(lines, succeeded, lines - succeeded, paid, elapsedMs, linesPerSecond);
+    }
+
+    private record PendingPayout(BatchTransferLine line, PayoutTarget target, String transactionRef) {
+    }
+}
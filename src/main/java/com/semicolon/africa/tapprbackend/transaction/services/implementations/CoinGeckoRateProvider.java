@@ -0,0 +1,26 @@
+package com.semicolon.africa.tapprbackend.transaction.services.implementations;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.net.http.HttpClient;
+
+// {"sui": {"ngn": 4012.5}}
+@Component
+@ConditionalOnProperty(name = "sui.rate.providers.coingecko.enabled", havingValue = "true", matchIfMissing = true)
+public class CoinGeckoRateProvider extends HttpRateProvider {
+
+    public CoinGeckoRateProvider(HttpClient httpClient, ObjectMapper objectMapper,
+                                 @Value("${sui.price.api.url:https://api.coingecko.com/api/v3/simple/price?ids=sui&vs_currencies=ngn}") String url,
+                                 @Value("${sui.rate.request-timeout-ms:3000}") long timeoutMs) {
+        super("coingecko", httpClient, objectMapper, url, timeoutMs);
+    }
+
+    @Override
+    JsonNode locateRate(JsonNode root) {
+        return root.path("sui").path("ngn");
+    }
+}
@@ -0,0 +1,26 @@
+package com.semicolon.africa.tapprbackend.transaction.services.implementations;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.net.http.HttpClient;
+
+// {"data": {"currency": "SUI", "rates": {"NGN": "4012.5"}}}; rates are strings
+@Component
+@ConditionalOnProperty(name = "sui.rate.providers.coinbase.enabled", havingValue = "true", matchIfMissing = true)
+public class CoinbaseRateProvider extends HttpRateProvider {
+
+    public CoinbaseRateProvider(HttpClient httpClient, ObjectMapper objectMapper,
+                                @Value("${sui.rate.providers.coinbase.url:https://api.coinbase.com/v2/exchange-rates?currency=SUI}") String url,
+                                @Value("${sui.rate.request-timeout-ms:3000}") long timeoutMs) {
+        super("coinbase", httpClient, objectMapper, url, timeoutMs);
+    }
+
+    @Override
+    JsonNode locateRate(JsonNode root) {
+        return root.path("data").path("rates").path("NGN");
+    }
+}
@@ -0,0 +1,26 @@
+package com.semicolon.africa.tapprbackend.transaction.services.implementations;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.net.http.HttpClient;
+
+// {"NGN": 4012.5}
+@Component
+@ConditionalOnProperty(name = "sui.rate.providers.cryptocompare.enabled", havingValue = "true", matchIfMissing = true)
+public class CryptoCompareRateProvider extends HttpRateProvider {
+
+    public CryptoCompareRateProvider(HttpClient httpClient, ObjectMapper objectMapper,
+                                     @Value("${sui.rate.providers.cryptocompare.url:https://min-api.cryptocompare.com/data/price?fsym=SUI&tsyms=NGN}") String url,
+                                     @Value("${sui.rate.request-timeout-ms:3000}") long timeoutMs) {
+        super("cryptocompare", httpClient, objectMapper, url, timeoutMs);
+    }
+
+    @Override
+    JsonNode locateRate(JsonNode root) {
+        return root.path("NGN");
+    }
+}
@@ -0,0 +1,94 @@
+package com.semicolon.africa.tapprbackend.transaction.services.implementations;
+
+import com.semicolon.africa.tapprbackend.Wallet.enums.WalletCurrency;
+
+import java.util.Arrays;
+
+/**
+ * Immutable any-to-any rate table over {@link WalletCurrency}, stored as one dense
+ * {@code double[]} indexed by {@code from.ordinal() * SIZE + to.ordinal()}, so a lookup is a
+ * single array read. A cell holds how many units of {@code to} one {@code from} buys, or NaN
+ * if the pair cannot be priced.
+ */
+final class FxRateMatrix {
+
+    static final int SIZE = WalletCurrency.values().length;
+    // Tried in order when a pair has no quote of its own
+    private static final WalletCurrency[] PIVOTS = {WalletCurrency.USD, WalletCurrency.SUI};
+
+    private final double[] rates;
+
+    private FxRateMatrix(double[] rates) {
+        this.rates = rates;
+    }
+
+    double rate(WalletCurrency from, WalletCurrency to) {
+        return from == to ? 1.0 : rates[from.ordinal() * SIZE + to.ordinal()];
+    }
+
+    // Pairs that can be priced, for logging
+    int pricedPairs() {
+        int priced = 0;
+        for (double rate : rates) {
+            if (!Double.isNaN(rate)) {
+                priced++;
+            }
+        }
+        return priced;
+    }
+
+    static Builder builder() {
+        return new Builder();
+    }
+
+    static final class Builder {
+
+        private final double[] rates = new double[SIZE * SIZE];
+
+        private Builder() {
+            Arrays.fill(rates, Double.NaN);
+        }
+
+        /**
+         * Records that one {@code base} costs {@code price} units of {@code quote}, and the
+         * inverse. Non-positive and non-finite prices are ignored.
+         */
+        Builder quote(WalletCurrency base, WalletCurrency quote, double price) {
+            if (base != quote && price > 0 && Double.isFinite(price)) {
+                rates[base.ordinal() * SIZE + quote.ordinal()] = price;
+                rates[quote.ordinal() * SIZE + base.ordinal()] = 1.0 / price;
+            }
+            return this;
+        }
+
+        /**
+         * Fills every unquoted pair that can be reached through a pivot, preferring USD to SUI,
+         * until no more pairs can be derived.
+         */
+        FxRateMatrix build() {
+            double[] matrix = rates.clone();
+            boolean derived;
+            do {
+                derived = false;
+                for (WalletCurrency pivot : PIVOTS) {
+                    int p = pivot.ordinal();
+                    for (int from = 0; from < SIZE; from++) {
+                        double toPivot = matrix[from * SIZE + p];
+                        if (from == p || Double.isNaN(toPivot)) {
+                            continue;
+                        }
+                        for (int to = 0; to < SIZE; to++) {
+                            int cell = from * SIZE + to;
+                            double fromPivot = matrix[p * SIZE + to];
+                            if (to != from && to != p && Double.isNaN(matrix[cell]) && !Double.isNaN(fromPivot)) {
+                                matrix[cell] = toPivot * fromPivot;
+                                derived = true;
+                            }
+                        }
+                    }
+                }
+            } while (derived);
+            return new FxRateMatrix(matrix);
+        }
+    }
+}
@@ -0,0 +1,281 @@
+package com.semicolon.africa.tapprbackend.transaction.services.implementations;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.semicolon.africa.tapprbackend.Wallet.enums.WalletCurrency;
+import com.semicolon.africa.tapprbackend.scheduling.services.interfaces.SchedulerLockService;
+import com.semicolon.africa.tapprbackend.transaction.data.models.ExchangeRate;
+import com.semicolon.africa.tapprbackend.transaction.data.repositories.ExchangeRateRepository;
+import com.semicolon.africa.tapprbackend.transaction.exceptions.FxRatesUnavailableException;
+import com.semicolon.africa.tapprbackend.transaction.exceptions.InvalidRequestException;
+import com.semicolon.africa.tapprbackend.transaction.services.interfaces.FxRateService;
+import com.semicolon.africa.tapprbackend.transaction.services.interfaces.SuiRateService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Prices any pair of {@link WalletCurrency} from an in-memory {@link FxRateMatrix}, with no
+ * database access. The upstream quotes come from one call that prices each supported crypto
+ * asset in every quoted currency; pairs with no quote of their own are triangulated through
+ * USD or SUI. A failed fetch keeps the previous quotes.
+ * <p>
+ * Only the holder of the refresh lease calls the upstream. It stores the quotes in
+ * {@code exchange_rates}, one row per pair, and the other instances load the rows it last
+ * confirmed, so they trail it by at most one refresh interval.
+ * <p>
+ * SUI/NGN always comes from {@link SuiRateService}, so payments settle at the rate the app
+ * publishes, and the matrix is rebuilt whenever that rate moves. Pairs that need the upstream
+ * quotes are refused once those are older than {@code fx.rates.max-age-ms}, or before the
+ * first fetch succeeds.
+ */
+@Slf4j
+@Service
+public class FxRateServiceImpl implements FxRateService {
+
+    // CoinGecko ids of the assets in the upstream response
+    private static final Map<String, WalletCurrency> ASSET_IDS = Map.of(
+            "sui", WalletCurrency.SUI,
+            "bitcoin", WalletCurrency.BTC,
+            "ethereum", WalletCurrency.ETH,
+            "tether", WalletCurrency.USDT);
+
+    private static final Quotes NO_QUOTES = new Quotes(List.of(), null, 0);
+    private static final String REFRESH_JOB = "fx-rate-refresh";
+    // Owned by SuiRateService, which prices it from its own providers
+    private static final String SUI_NGN_SYMBOL = "SUI/NGN";
+    // Matches exchange_rates.rate: precision 18, scale 8
+    private static final int RATE_SCALE = 8;
+    private static final int RATE_INTEGER_DIGITS = 10;
+
+    private final RestTemplate restTemplate;
+    private final ObjectMapper objectMapper;
+    private final SuiRateService suiRateService;
+    private final ExchangeRateRepository exchangeRateRepository;
+    private final SchedulerLockService schedulerLockService;
+    private final AtomicReference<Quotes> quotes = new AtomicReference<>(NO_QUOTES);
+    // Matrix built from the current quotes and the SUI/NGN rate it was last priced with
+    private final AtomicReference<PricedMatrix> priced = new AtomicReference<>();
+
+    @Value("${fx.rates.url:https://api.coingecko.com/api/v3/simple/price?ids=sui,bitcoin,ethereum,tether"
+            + "&vs_currencies=usd,ngn,zar,egp,eur,gbp,inr,jpy,aed}")
+    private String ratesUrl;
+
+    @Value("${fx.rates.refresh-ms:300000}")
+    private long refreshMs;
+
+    @Value("${fx.rates.max-age-ms:900000}")
+    private long maxAgeMs;
+
+    public FxRateServiceImpl(RestTemplate restTemplate,
+                             ObjectMapper objectMapper,
+                             SuiRateService suiRateService,
+                             ExchangeRateRepository exchangeRateRepository,
+                             SchedulerLockService schedulerLockService) {
+        this.restTemplate = restTemplate;
+        this.objectMapper = objectMapper;
+        this.suiRateService = suiRateService;
+        this.exchangeRateRepository = exchangeRateRepository;
+        this.schedulerLockService = schedulerLockService;
+    }
+
+    @Override
+    public double rate(WalletCurrency from, WalletCurrency to) {
+        return matrix().rate(from, to);
+    }
+
+    @Override
+    public boolean supports(WalletCurrency from, WalletCurrency to) {
+        return !Double.isNaN(rate(from, to));
+    }
+
+    @Override
+    public BigDecimal convert(BigDecimal amount, WalletCurrency from, WalletCurrency to) {
+        if (from == to) {
+            return amount;
+        }
+        FxRateMatrix current = matrix();
+        if (!isSuiNgn(from, to) && isStale(quotes.get())) {
+            throw new FxRatesUnavailableException("FX rates for " + from + "/" + to + " are out of date");
+        }
+        double rate = current.rate(from, to);
+        if (Double.isNaN(rate)) {
+            throw new InvalidRequestException("Unsupported currency pair " + from + "/" + to);
+        }
+        return amount.multiply(BigDecimal.valueOf(rate));
+    }
+
+    /**
+     * Fetches the quotes upstream if this instance holds the refresh lease; otherwise loads
+     * whatever the leader last stored.
+     */
+    @Scheduled(fixedRateString = "${fx.rates.refresh-ms:300000}")
+    public void refreshRates() {
+        if (!schedulerLockService.runIfLeader(REFRESH_JOB, Duration.ofMillis(refreshMs), this::fetchRates)) {
+            loadStoredRates();
+        }
+    }
+
+    void fetchRates() {
+        Quotes refreshed;
+        try {
+            ResponseEntity<String> response = restTemplate.getForEntity(ratesUrl, String.class);
+            if (response.getStatusCode() != HttpStatus.OK || response.getBody() == null) {
+                log.warn("FX rate request failed. Status: {}", response.getStatusCode());
+                return;
+            }
+            refreshed = parse(objectMapper.readTree(response.getBody()));
+            quotes.set(refreshed);
+            log.info("FX rates refreshed: {} upstream quotes", refreshed.quotes().size());
+        } catch (Exception e) {
+            log.warn("Failed to refresh FX rates, keeping the previous ones: {}", e.getMessage());
+            return;
+        }
+        try {
+            store(refreshed);
+        } catch (Exception e) {
+            log.warn("Failed to store FX rates for the other instances: {}", e.getMessage());
+        }
+    }
+
+    // Every row is confirmed with the fetch time, changed or not, so readers can tell current rows apart
+    private void store(Quotes fetched) {
+        Map<String, ExchangeRate> stored = new HashMap<>();
+        for (ExchangeRate row : exchangeRateRepository.findBySymbolNot(SUI_NGN_SYMBOL)) {
+            stored.put(row.getSymbol(), row);
+        }
+        LocalDateTime fetchedAt = fetched.fetchedAt();
+        List<ExchangeRate> rows = new ArrayList<>();
+        for (Quote quote : fetched.quotes()) {
+            BigDecimal rate = BigDecimal.valueOf(quote.price()).setScale(RATE_SCALE, RoundingMode.HALF_UP);
+            if (isSuiNgn(quote.base(), quote.quote()) || rate.signum() <= 0
+                    || rate.precision() - rate.scale() > RATE_INTEGER_DIGITS) {
+                continue;
+            }
+            ExchangeRate row = stored.computeIfAbsent(quote.base() + "/" + quote.quote(),
+                    symbol -> new ExchangeRate(null, symbol, rate, fetchedAt, null, 0));
+            if (row.getRate().compareTo(rate) != 0) {
+                row.setRate(rate);
+                row.setLastUpdated(fetchedAt);
+            }
+            row.setVerifiedAt(fetchedAt);
+            rows.add(row);
+        }
+        exchangeRateRepository.saveAll(rows);
+    }
+
+    /**
+     * Replaces the quotes with the rows the leader confirmed on its last fetch, if that fetch
+     * is newer than the quotes held here. Rows it did not confirm are pairs the upstream has
+     * since left out.
+     */
+    void loadStoredRates() {
+        try {
+            List<ExchangeRate> rows = exchangeRateRepository.findBySymbolNot(SUI_NGN_SYMBOL);
+            LocalDateTime latest = null;
+            for (ExchangeRate row : rows) {
+                if (row.getVerifiedAt() != null && (latest == null || row.getVerifiedAt().isAfter(latest))) {
+                    latest = row.getVerifiedAt();
+                }
+            }
+            Quotes current = quotes.get();
+            if (latest == null || (current.fetchedAt() != null && !latest.isAfter(current.fetchedAt()))) {
+                return;
+            }
+            List<Quote> loaded = new ArrayList<>();
+            for (ExchangeRate row : rows) {
+                String[] pair = row.getSymbol().split("/");
+                WalletCurrency base = pair.length == 2 ? currencyOf(pair[0]) : null;
+                WalletCurrency quote = pair.length == 2 ? currencyOf(pair[1]) : null;
+                if (base != null && quote != null && latest.equals(row.getVerifiedAt())) {
+                    loaded.add(new Quote(base, quote, row.getRate().doubleValue()));
+                }
+            }
+            long ageNanos = Math.max(0, Duration.between(latest, LocalDateTime.now()).toNanos());
+            quotes.set(new Quotes(List.copyOf(loaded), latest, System.nanoTime() - ageNanos));
+            log.debug("Loaded {} stored FX quotes", loaded.size());
+        } catch (Exception e) {
+            log.warn("Failed to load stored FX rates, keeping the previous ones: {}", e.getMessage());
+        }
+    }
+
+    Quotes parse(JsonNode root) {
+        List<Quote> parsed = new ArrayList<>();
+        for (Map.Entry<String, WalletCurrency> asset : ASSET_IDS.entrySet()) {
+            JsonNode prices = root.path(asset.getKey());
+            for (Map.Entry<String, JsonNode> price : prices.properties()) {
+                WalletCurrency quote = currencyOf(price.getKey());
+                if (quote != null && price.getValue().isNumber()) {
+                    parsed.add(new Quote(asset.getValue(), quote, price.getValue().doubleValue()));
+                }
+            }
+        }
+        return new Quotes(List.copyOf(parsed), LocalDateTime.now(), System.nanoTime());
+    }
+
+    private FxRateMatrix matrix() {
+        Quotes current = quotes.get();
+        BigDecimal suiNgn = suiRateService.getSuiToNgnRate();
+        PricedMatrix cached = priced.get();
+        if (cached != null && cached.quotes() == current && cached.suiNgn().compareTo(suiNgn) == 0) {
+            return cached.matrix();
+        }
+        FxRateMatrix.Builder builder = FxRateMatrix.builder();
+        for (Quote quote : current.quotes()) {
+            builder.quote(quote.base(), quote.quote(), quote.price());
+        }
+        // Set last so it replaces any SUI/NGN quote from the upstream
+        builder.quote(WalletCurrency.SUI, WalletCurrency.NGN, suiNgn.doubleValue());
+        FxRateMatrix rebuilt = builder.build();
+        priced.set(new PricedMatrix(current, suiNgn, rebuilt));
+        log.debug("Rebuilt FX rate matrix: {} of {} pairs priced", rebuilt.pricedPairs(),
+                FxRateMatrix.SIZE * (FxRateMatrix.SIZE - 1));
+        return rebuilt;
+    }
+
+    private boolean isStale(Quotes current) {
+        return current.fetchedAt() == null
+                || System.nanoTime() - current.fetchedAtNanos() > TimeUnit.MILLISECONDS.toNanos(maxAgeMs);
+    }
+
+    // The one pair priced without the upstream quotes
+    private static boolean isSuiNgn(WalletCurrency from, WalletCurrency to) {
+        return (from == WalletCurrency.SUI && to == WalletCurrency.NGN)
+                || (from == WalletCurrency.NGN && to == WalletCurrency.SUI);
+    }
+
+    private static WalletCurrency currencyOf(String code) {
+        for (WalletCurrency currency : WalletCurrency.values()) {
+            if (currency.name().equalsIgnoreCase(code)) {
+                return currency;
+            }
+        }
+        return null;
+    }
+
+    // One base costs price units of quote
+    record Quote(WalletCurrency base, WalletCurrency quote, double price) {
+    }
+
+    // Upstream quotes with when they were fetched; no fetch time until the first fetch succeeds
+    record Quotes(List<Quote> quotes, LocalDateTime fetchedAt, long fetchedAtNanos) {
+    }
+
+    private record PricedMatrix(Quotes quotes, BigDecimal suiNgn, FxRateMatrix matrix) {
+    }
+}
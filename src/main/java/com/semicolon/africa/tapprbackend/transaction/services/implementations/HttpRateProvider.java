@@ -0,0 +1,79 @@
+package com.semicolon.africa.tapprbackend.transaction.services.implementations;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.semicolon.africa.tapprbackend.transaction.services.interfaces.RateProvider;
+
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * A {@link RateProvider} backed by one JSON endpoint, called asynchronously on the shared
+ * {@link HttpClient} with a per-request timeout. Subclasses only locate the rate in the body.
+ */
+abstract class HttpRateProvider implements RateProvider {
+
+    private final String name;
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper;
+    private final URI uri;
+    private final Duration timeout;
+
+    HttpRateProvider(String name, HttpClient httpClient, ObjectMapper objectMapper, String url, long timeoutMs) {
+        this.name = name;
+        this.httpClient = httpClient;
+        this.objectMapper = objectMapper;
+        this.uri = URI.create(url);
+        this.timeout = Duration.ofMillis(timeoutMs);
+    }
+
+    @Override
+    public String name() {
+        return name;
+    }
+
+    @Override
+    public CompletableFuture<BigDecimal> fetchSuiToNgn() {
+        HttpRequest request = HttpRequest.newBuilder(uri)
+                .timeout(timeout)
+                .header("Accept", "application/json")
+                .GET()
+                .build();
+        return httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofString()).thenApply(this::parse);
+    }
+
+    /**
+     * Returns the node holding the SUI price in NGN, or a missing node if there is none.
+     */
+    abstract JsonNode locateRate(JsonNode root);
+
+    private BigDecimal parse(HttpResponse<String> response) {
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException(name + " returned HTTP " + response.statusCode());
+        }
+        JsonNode node;
+        try {
+            node = locateRate(objectMapper.readTree(response.body()));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(name + " returned malformed JSON", e);
+        }
+        BigDecimal rate;
+        if (node.isNumber()) {
+            rate = node.decimalValue();
+        } else if (node.isTextual()) {
+            rate = new BigDecimal(node.asText().replace(",", ""));
+        } else {
+            throw new IllegalStateException(name + " returned no SUI/NGN rate");
+        }
+        if (rate.signum() <= 0) {
+            throw new IllegalStateException(name + " returned a non-positive rate " + rate);
+        }
+        return rate;
+    }
+}
@@ -0,0 +1,289 @@
+package com.semicolon.africa.tapprbackend.transaction.services.implementations;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.semicolon.africa.tapprbackend.ledger.exceptions.LedgerBusyException;
+import com.semicolon.africa.tapprbackend.scheduling.services.interfaces.SchedulerLockService;
+import com.semicolon.africa.tapprbackend.security.TokenDigests;
+import com.semicolon.africa.tapprbackend.tapprException.TapprException;
+import com.semicolon.africa.tapprbackend.transaction.data.models.IdempotencyRecord;
+import com.semicolon.africa.tapprbackend.transaction.data.repositories.IdempotencyRecordRepository;
+import com.semicolon.africa.tapprbackend.transaction.dtos.responses.IdempotentResult;
+import com.semicolon.africa.tapprbackend.transaction.enums.IdempotencyStatus;
+import com.semicolon.africa.tapprbackend.transaction.exceptions.IdempotencyConflictException;
+import com.semicolon.africa.tapprbackend.transaction.exceptions.InvalidRequestException;
+import com.semicolon.africa.tapprbackend.transaction.services.interfaces.IdempotencyService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Two tiers of stored responses: a Caffeine cache in front of the idempotency_records table.
+ * Duplicates on this instance wait on the first call's future; duplicates on other instances
+ * see its PROCESSING row and poll until it completes. Replays never reach the action, so they
+ * never touch wallets or the ledger. Only successful responses are stored. A call the action
+ * rejected releases its key so the client can retry; any other failure may have left a
+ * payment behind, so the key is kept as FAILED and repeats get a 409 until it expires.
+ */
+@Slf4j
+@Service
+public class IdempotencyServiceImpl implements IdempotencyService {
+
+    private static final int MAX_KEY_LENGTH = 255;
+    private static final long POLL_INTERVAL_MS = 50;
+    private static final String IN_PROGRESS_MESSAGE = "A request with this Idempotency-Key is still being processed";
+    private static final String UNKNOWN_OUTCOME_MESSAGE =
+            "The request with this Idempotency-Key did not finish cleanly; check its status before retrying with a new key";
+
+    private final IdempotencyRecordRepository idempotencyRecordRepository;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final SchedulerLockService schedulerLockService;
+    private final Duration ttl;
+    private final long waitTimeoutMs;
+    private final Cache<String, StoredResponse> completed;
+
+    @Value("${idempotency.purge-interval-ms:3600000}")
+    private long purgeIntervalMs;
+    private final ConcurrentMap<String, CompletableFuture<StoredResponse>> inFlight = new ConcurrentHashMap<>();
+
+    public IdempotencyServiceImpl(IdempotencyRecordRepository idempotencyRecordRepository,
+                                  ObjectMapper objectMapper,
+                                  PlatformTransactionManager transactionManager,
+                                  SchedulerLockService schedulerLockService,
+                                  @Value("${idempotency.ttl-hours:24}") long ttlHours,
+                                  @Value("${idempotency.cache-size:100000}") long cacheSize,
+                                  @Value("${idempotency.wait-timeout-ms:10000}") long waitTimeoutMs) {
+        this.idempotencyRecordRepository = idempotencyRecordRepository;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.schedulerLockService = schedulerLockService;
+        this.ttl = Duration.ofHours(ttlHours);
+        this.waitTimeoutMs = waitTimeoutMs;
+        this.completed = Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    @Override
+    public <T> IdempotentResult<T> execute(UUID userId, String idempotencyKey, String requestFingerprint,
+                                           Class<T> responseType, Supplier<T> action) {
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+            throw new InvalidRequestException("Idempotency-Key must be between 1 and " + MAX_KEY_LENGTH + " characters");
+        }
+        String keyHash = TokenDigests.sha256Hex(userId + ":" + idempotencyKey);
+        String requestHash = TokenDigests.sha256Hex(requestFingerprint);
+
+        StoredResponse cached = completed.getIfPresent(keyHash);
+        if (cached != null) {
+            return replay(cached, requestHash, responseType);
+        }
+
+        CompletableFuture<StoredResponse> claim = new CompletableFuture<>();
+        CompletableFuture<StoredResponse> running = inFlight.putIfAbsent(keyHash, claim);
+        if (running != null) {
+            return replay(await(running), requestHash, responseType);
+        }
+
+        try {
+            Optional<StoredResponse> stored = claimOrLoad(userId, keyHash, requestHash);
+            if (stored.isPresent()) {
+                claim.complete(stored.get());
+                return replay(stored.get(), requestHash, responseType);
+            }
+
+            T body;
+            try {
+                body = action.get();
+            } catch (RuntimeException e) {
+                release(keyHash, e);
+                throw e;
+            }
+
+            StoredResponse response = new StoredResponse(requestHash, write(body));
+            completed.put(keyHash, response);
+            claim.complete(response);
+            store(keyHash, response);
+            return new IdempotentResult<>(body, false);
+        } catch (RuntimeException e) {
+            claim.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(keyHash, claim);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${idempotency.purge-interval-ms:3600000}")
+    public void scheduledPurge() {
+        schedulerLockService.runIfLeader("idempotency-purge", Duration.ofMillis(purgeIntervalMs), this::purgeExpired);
+    }
+
+    public void purgeExpired() {
+        int purged = idempotencyRecordRepository.deleteExpiredBefore(Instant.now());
+        if (purged > 0) {
+            log.info("Purged {} expired idempotency records", purged);
+        }
+    }
+
+    /**
+     * Claims the key with a PROCESSING row, or returns the response another call stored for it.
+     * @return empty when this call owns the key and must run the action
+     */
+    private Optional<StoredResponse> claimOrLoad(UUID userId, String keyHash, String requestHash) {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(waitTimeoutMs);
+        while (true) {
+            Optional<IdempotencyRecord> existing = idempotencyRecordRepository.findById(keyHash);
+            if (existing.isEmpty()) {
+                if (tryClaim(userId, keyHash, requestHash)) {
+                    return Optional.empty();
+                }
+                continue;
+            }
+
+            IdempotencyRecord record = existing.get();
+            if (record.getExpiresAt().isBefore(Instant.now())) {
+                // Expired but not purged yet; the key is free again
+                idempotencyRecordRepository.delete(record);
+                continue;
+            }
+            if (record.getStatus() == IdempotencyStatus.COMPLETED) {
+                StoredResponse stored = new StoredResponse(record.getRequestHash(), record.getResponseBody());
+                completed.put(keyHash, stored);
+                return Optional.of(stored);
+            }
+            if (!record.getRequestHash().equals(requestHash)) {
+                throw keyReused();
+            }
+            if (record.getStatus() == IdempotencyStatus.FAILED) {
+                throw new IdempotencyConflictException(UNKNOWN_OUTCOME_MESSAGE);
+            }
+
+            // Another instance is running it; a PROCESSING row left by a crash is only freed by expiry,
+            // since running the payment again could charge twice
+            if (System.nanoTime() > deadline) {
+                throw new IdempotencyConflictException(IN_PROGRESS_MESSAGE);
+            }
+            sleep();
+        }
+    }
+
+    private boolean tryClaim(UUID userId, String keyHash, String requestHash) {
+        IdempotencyRecord record = new IdempotencyRecord();
+        record.setKeyHash(keyHash);
+        record.setUserId(userId);
+        record.setRequestHash(requestHash);
+        record.setStatus(IdempotencyStatus.PROCESSING);
+        record.setCreatedAt(Instant.now());
+        record.setExpiresAt(record.getCreatedAt().plus(ttl));
+        try {
+            transactionTemplate.executeWithoutResult(status -> idempotencyRecordRepository.saveAndFlush(record));
+            return true;
+        } catch (DataIntegrityViolationException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Frees the key after a definite rejection, which the action's transaction rolled back.
+     * Anything else, such as a busy ledger, a timeout or a database error, may have committed
+     * part of the work, so the key is kept and marked FAILED instead.
+     */
+    private void release(String keyHash, RuntimeException failure) {
+        try {
+            if (isRejection(failure)) {
+                idempotencyRecordRepository.deleteById(keyHash);
+            } else if (idempotencyRecordRepository.markFailed(keyHash) > 0) {
+                log.warn("Kept Idempotency-Key {} as FAILED after an ambiguous failure: {}", keyHash, failure.getMessage());
+            }
+        } catch (RuntimeException e) {
+            // Left as PROCESSING, which blocks repeats until it expires
+            log.error("Could not release Idempotency-Key {}: {}", keyHash, e.getMessage());
+        }
+    }
+
+    private static boolean isRejection(RuntimeException e) {
+        return e instanceof TapprException
+                && !(e instanceof LedgerBusyException)
+                && !(e instanceof IdempotencyConflictException);
+    }
+
+    private void store(String keyHash, StoredResponse response) {
+        try {
+            idempotencyRecordRepository.markCompleted(keyHash, response.body());
+        } catch (RuntimeException e) {
+            // The payment went through; this instance still replays it from the cache
+            log.error("Could not store idempotent response for key {}: {}", keyHash, e.getMessage());
+        }
+    }
+
+    private StoredResponse await(CompletableFuture<StoredResponse> running) {
+        try {
+            return running.get(waitTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            throw new IdempotencyConflictException(IN_PROGRESS_MESSAGE);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IdempotencyConflictException(IN_PROGRESS_MESSAGE);
+        } catch (ExecutionException e) {
+            // The duplicate gets the same outcome as the call it waited for
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException("Idempotent request failed", e.getCause());
+        }
+    }
+
+    private <T> IdempotentResult<T> replay(StoredResponse stored, String requestHash, Class<T> responseType) {
+        if (!stored.requestHash().equals(requestHash)) {
+            throw keyReused();
+        }
+        try {
+            return new IdempotentResult<>(objectMapper.readValue(stored.body(), responseType), true);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Stored idempotent response could not be read", e);
+        }
+    }
+
+    private String write(Object body) {
+        try {
+            return objectMapper.writeValueAsString(body);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Idempotent response could not be stored", e);
+        }
+    }
+
+    private static InvalidRequestException keyReused() {
+        return new InvalidRequestException("Idempotency-Key was already used for a different request");
+    }
+
+    private static void sleep() {
+        try {
+            Thread.sleep(POLL_INTERVAL_MS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IdempotencyConflictException(IN_PROGRESS_MESSAGE);
+        }
+    }
+
+    private record StoredResponse(String requestHash, String body) {
+    }
+}
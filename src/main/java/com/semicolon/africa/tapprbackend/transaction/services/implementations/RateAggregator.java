@@ -0,0 +1,142 @@
+package com.semicolon.africa.tapprbackend.transaction.services.implementations;
+
+import com.semicolon.africa.tapprbackend.transaction.services.interfaces.RateProvider;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Queries every {@link RateProvider} at once and combines their answers into one SUI/NGN
+ * rate. A source gets {@code sui.rate.request-timeout-ms} to answer and is skipped while its
+ * circuit breaker is open. Answers further than {@code sui.rate.max-deviation} from the
+ * median are dropped as outliers, and the median of the rest is the result.
+ */
+@Slf4j
+@Component
+public class RateAggregator {
+
+    private static final BigDecimal TWO = BigDecimal.valueOf(2);
+
+    private final List<Source> sources;
+    private final MeterRegistry meterRegistry;
+    private final long timeoutMs;
+    private final BigDecimal maxDeviation;
+    private final int minSources;
+
+    public RateAggregator(List<RateProvider> providers,
+                          MeterRegistry meterRegistry,
+                          @Value("${sui.rate.request-timeout-ms:3000}") long timeoutMs,
+                          @Value("${sui.rate.max-deviation:0.05}") BigDecimal maxDeviation,
+                          @Value("${sui.rate.min-sources:1}") int minSources,
+                          @Value("${sui.rate.breaker.failure-threshold:3}") int failureThreshold,
+                          @Value("${sui.rate.breaker.open-ms:60000}") long openMs) {
+        this.meterRegistry = meterRegistry;
+        this.timeoutMs = timeoutMs;
+        this.maxDeviation = maxDeviation;
+        this.minSources = Math.max(minSources, 1);
+        this.sources = providers.stream()
+                .map(provider -> new Source(provider,
+                        new RateCircuitBreaker(failureThreshold, TimeUnit.MILLISECONDS.toNanos(openMs))))
+                .toList();
+    }
+
+    /**
+     * Returns the combined rate, or empty if too few sources answered or they disagree.
+     * Blocks for at most the request timeout.
+     */
+    public Optional<BigDecimal> fetchSuiToNgn() {
+        List<CompletableFuture<BigDecimal>> calls = new ArrayList<>();
+        for (Source source : sources) {
+            if (!source.breaker().tryAcquire(System.nanoTime())) {
+                record(source, "skipped");
+                continue;
+            }
+            calls.add(call(source));
+        }
+        // Every call is bounded by orTimeout, so this wait is too
+        CompletableFuture.allOf(calls.toArray(CompletableFuture[]::new)).exceptionally(e -> null).join();
+
+        List<BigDecimal> rates = new ArrayList<>();
+        for (CompletableFuture<BigDecimal> call : calls) {
+            if (!call.isCompletedExceptionally()) {
+                rates.add(call.join());
+            }
+        }
+        return combine(rates);
+    }
+
+    private CompletableFuture<BigDecimal> call(Source source) {
+        CompletableFuture<BigDecimal> call;
+        try {
+            call = source.provider().fetchSuiToNgn();
+        } catch (RuntimeException e) {
+            call = CompletableFuture.failedFuture(e);
+        }
+        return call.orTimeout(timeoutMs, TimeUnit.MILLISECONDS).whenComplete((rate, error) -> {
+            if (error == null) {
+                source.breaker().onSuccess();
+                record(source, "success");
+            } else {
+                source.breaker().onFailure(System.nanoTime());
+                record(source, "failure");
+                log.warn("Rate provider {} failed: {}", source.provider().name(), error.toString());
+            }
+        });
+    }
+
+    Optional<BigDecimal> combine(List<BigDecimal> rates) {
+        if (rates.size() < minSources) {
+            log.warn("Only {} rate sources answered, need {}", rates.size(), minSources);
+            return Optional.empty();
+        }
+        BigDecimal median = median(rates);
+        List<BigDecimal> agreeing = rates.stream()
+                .filter(rate -> rate.subtract(median).abs().compareTo(median.multiply(maxDeviation)) <= 0)
+                .toList();
+        if (agreeing.size() < rates.size()) {
+            log.warn("Dropped {} outlying rates from {} around median {}", rates.size() - agreeing.size(), rates, median);
+        }
+        if (agreeing.size() < minSources) {
+            return Optional.empty();
+        }
+        return Optional.of(median(agreeing));
+    }
+
+    private static BigDecimal median(List<BigDecimal> rates) {
+        List<BigDecimal> sorted = rates.stream().sorted().toList();
+        int middle = sorted.size() / 2;
+        if (sorted.size() % 2 == 1) {
+            return sorted.get(middle);
+        }
+        return sorted.get(middle - 1).add(sorted.get(middle)).divide(TWO, MathContext.DECIMAL64);
+    }
+
+    RateCircuitBreaker.State breakerState(String providerName) {
+        return sources.stream()
+                .filter(source -> source.provider().name().equals(providerName))
+                .findFirst()
+                .orElseThrow()
+                .breaker().state();
+    }
+
+    private void record(Source source, String outcome) {
+        Counter.builder("rate.provider.requests")
+                .tag("provider", source.provider().name())
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    private record Source(RateProvider provider, RateCircuitBreaker breaker) {
+    }
+}
@@ -0,0 +1,137 @@
+package com.semicolon.africa.tapprbackend.transaction.services.implementations;
+
+import com.semicolon.africa.tapprbackend.scheduling.services.interfaces.SchedulerLockService;
+import com.semicolon.africa.tapprbackend.transaction.data.models.RateCandle;
+import com.semicolon.africa.tapprbackend.transaction.data.models.RateTick;
+import com.semicolon.africa.tapprbackend.transaction.data.repositories.RateCandleRepository;
+import com.semicolon.africa.tapprbackend.transaction.data.repositories.RateTickRepository;
+import com.semicolon.africa.tapprbackend.transaction.dtos.responses.RateCandleResponse;
+import com.semicolon.africa.tapprbackend.transaction.enums.CandleInterval;
+import com.semicolon.africa.tapprbackend.transaction.exceptions.InvalidRequestException;
+import com.semicolon.africa.tapprbackend.transaction.services.interfaces.RateHistoryService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Rate history as raw ticks plus 1m, 1h and 1d candles. Candles are rolled up as each tick
+ * is recorded, in the same transaction, so reads never aggregate ticks. Ticks and minute
+ * candles are dropped after their retention period, leaving the coarser candles as the
+ * downsampled history.
+ */
+@Slf4j
+@Service
+public class RateHistoryServiceImpl implements RateHistoryService {
+
+    private static final String RETENTION_JOB = "rate-history-retention";
+    private static final Duration RETENTION_LEASE = Duration.ofHours(1);
+
+    private final RateTickRepository rateTickRepository;
+    private final RateCandleRepository rateCandleRepository;
+    private final SchedulerLockService schedulerLockService;
+
+    @Value("${rates.history.max-candles:1000}")
+    private int maxCandles;
+
+    @Value("${rates.history.tick-retention-days:30}")
+    private long tickRetentionDays;
+
+    @Value("${rates.history.minute-candle-retention-days:90}")
+    private long minuteCandleRetentionDays;
+
+    public RateHistoryServiceImpl(RateTickRepository rateTickRepository,
+                                  RateCandleRepository rateCandleRepository,
+                                  SchedulerLockService schedulerLockService) {
+        this.rateTickRepository = rateTickRepository;
+        this.rateCandleRepository = rateCandleRepository;
+        this.schedulerLockService = schedulerLockService;
+    }
+
+    @Override
+    @Transactional
+    public void record(String symbol, BigDecimal rate, Instant at) {
+        rateTickRepository.save(new RateTick(symbol, rate, at));
+        for (CandleInterval interval : CandleInterval.values()) {
+            Instant bucket = interval.bucketOf(at);
+            Optional<RateCandle> candle = rateCandleRepository.findBySymbolAndIntervalAndBucketStart(symbol, interval, bucket);
+            if (candle.isPresent()) {
+                roll(candle.get(), rate, at);
+            } else {
+                rateCandleRepository.save(newCandle(symbol, interval, bucket, rate, at));
+            }
+        }
+    }
+
+    @Override
+    public List<RateCandleResponse> candles(String symbol, String interval, Instant from, Instant to) {
+        CandleInterval candleInterval = CandleInterval.from(interval);
+        Duration maxRange = candleInterval.duration().multipliedBy(maxCandles);
+        Instant until = to != null ? to : Instant.now();
+        Instant since = from != null ? from : until.minus(maxRange);
+        if (until.isBefore(since)) {
+            throw new InvalidRequestException("Candle range ends before it starts");
+        }
+        if (Duration.between(since, until).compareTo(maxRange) > 0) {
+            throw new InvalidRequestException("Candle range cannot exceed " + maxCandles + " "
+                    + candleInterval.code() + " candles");
+        }
+        return rateCandleRepository.findRange(symbol, candleInterval, candleInterval.bucketOf(since), until);
+    }
+
+    @Scheduled(cron = "${rates.history.retention-cron:0 20 2 * * *}")
+    public void scheduledRetention() {
+        schedulerLockService.runIfLeader(RETENTION_JOB, RETENTION_LEASE, this::applyRetention);
+    }
+
+    /**
+     * Deletes ticks and minute candles past their retention. Every tick is already in the
+     * hour and day candles, which are kept.
+     */
+    public void applyRetention() {
+        Instant now = Instant.now();
+        int ticks = rateTickRepository.deleteRecordedBefore(now.minus(Duration.ofDays(tickRetentionDays)));
+        int minutes = rateCandleRepository.deleteBucketsBefore(CandleInterval.ONE_MINUTE,
+                now.minus(Duration.ofDays(minuteCandleRetentionDays)));
+        if (ticks > 0 || minutes > 0) {
+            log.info("Downsampled rate history: removed {} ticks and {} minute candles", ticks, minutes);
+        }
+    }
+
+    private static RateCandle newCandle(String symbol, CandleInterval interval, Instant bucket,
+                                        BigDecimal rate, Instant at) {
+        RateCandle candle = new RateCandle();
+        candle.setSymbol(symbol);
+        candle.setInterval(interval);
+        candle.setBucketStart(bucket);
+        candle.setOpen(rate);
+        candle.setHigh(rate);
+        candle.setLow(rate);
+        candle.setClose(rate);
+        candle.setOpenedAt(at);
+        candle.setClosedAt(at);
+        candle.setTickCount(1);
+        return candle;
+    }
+
+    private static void roll(RateCandle candle, BigDecimal rate, Instant at) {
+        if (at.isBefore(candle.getOpenedAt())) {
+            candle.setOpen(rate);
+            candle.setOpenedAt(at);
+        }
+        if (!at.isBefore(candle.getClosedAt())) {
+            candle.setClose(rate);
+            candle.setClosedAt(at);
+        }
+        candle.setHigh(candle.getHigh().max(rate));
+        candle.setLow(candle.getLow().min(rate));
+        candle.setTickCount(candle.getTickCount() + 1);
+    }
+}
@@ -1,59 +1,191 @@
 package com.semicolon.africa.tapprbackend.transaction.services.implementations;
 
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.semicolon.africa.tapprbackend.scheduling.services.interfaces.SchedulerLockService;
 import com.semicolon.africa.tapprbackend.transaction.data.models.ExchangeRate;
 import com.semicolon.africa.tapprbackend.transaction.data.repositories.ExchangeRateRepository;
+import com.semicolon.africa.tapprbackend.transaction.dtos.responses.RateSnapshot;
+import com.semicolon.africa.tapprbackend.transaction.enums.RateSource;
+import com.semicolon.africa.tapprbackend.transaction.services.interfaces.RateHistoryService;
 import com.semicolon.africa.tapprbackend.transaction.services.interfaces.SuiRateService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.boot.context.event.ApplicationReadyEvent;
 import org.springframework.context.event.EventListener;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.http.HttpStatus;
-import org.springframework.http.ResponseEntity;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.time.Duration;
+import java.time.Instant;
 import java.time.LocalDateTime;
 import java.util.Optional;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
 
+/**
+ * Serves the SUI/NGN rate from an immutable {@link RateSnapshot} held in memory, so reads
+ * are a single volatile load with no lock, query or allocation. The snapshot is seeded from
+ * the database at startup and replaced whenever the scheduled fetch confirms or changes
+ * the rate. Fetches go to every {@link RateAggregator} source at once.
+ * <p>
+ * Only the instance holding the refresh lease fetches upstream and writes the row. The
+ * others watch the row's version and reload it when the leader has written, so N replicas
+ * make the upstream calls of one.
+ * <p>
+ * Stale while revalidate: once the snapshot has gone {@code sui.rate.stale-after-ms}
+ * without being confirmed, reads keep returning it and trigger a background refresh. If the
+ * upstream fetch fails the last known rate keeps being served until a fetch succeeds. A
+ * refresh that leaves the snapshot stale holds off the next one read-triggered refresh for
+ * the sync interval, doubling after each failure up to the refresh interval.
+ */
 @Service
 @Slf4j
-@RequiredArgsConstructor
 public class SuiRateServiceImpl implements SuiRateService {
 
     private final ExchangeRateRepository exchangeRateRepository;
-    private final RestTemplate restTemplate;
-    private final ObjectMapper objectMapper;
+    private final RateAggregator rateAggregator;
+    private final SchedulerLockService schedulerLockService;
+    private final RateHistoryService rateHistoryService;
+    private final Executor refreshExecutor;
+    private final Counter refreshed;
+    private final Counter refreshFailed;
     private static final String SYMBOL = "SUI/NGN";
     private static final BigDecimal FALLBACK_RATE = new BigDecimal("345.00");
     private static final long UPDATE_INTERVAL_MS = 5 * 60 * 1000; // 5 minutes
+    private static final String REFRESH_JOB = "exchange-rate-refresh";
+    private static final Duration REFRESH_LEASE = Duration.ofMillis(UPDATE_INTERVAL_MS);
 
-    @Value("${sui.price.api.url:https://api.coingecko.com/api/v3/simple/price?ids=sui&vs_currencies=ngn}")
-    private String coingeckoUrl;
+    // Null until seeded, so a read before startup finishes seeds it itself
+    private final AtomicReference<RateSnapshot> snapshot = new AtomicReference<>();
+    private final AtomicBoolean refreshing = new AtomicBoolean();
+    // Version of the stored row the snapshot was last taken from or written as
+    private volatile long seenVersion = -1;
+    private final long staleAfterNanos;
+    private final long minRevalidateBackoffNanos;
+    // Reads trigger no refresh before this time; moved on by every refresh that leaves the rate stale
+    private volatile long revalidateAfterNanos = System.nanoTime();
+    private volatile long revalidateBackoffNanos;
+
+    public SuiRateServiceImpl(ExchangeRateRepository exchangeRateRepository,
+                              RateAggregator rateAggregator,
+                              SchedulerLockService schedulerLockService,
+                              RateHistoryService rateHistoryService,
+                              @Qualifier("rateRefreshExecutor") Executor refreshExecutor,
+                              MeterRegistry meterRegistry,
+                              @Value("${sui.rate.stale-after-ms:" + 2 * UPDATE_INTERVAL_MS + "}") long staleAfterMs,
+                              @Value("${sui.rate.sync-interval-ms:15000}") long minRevalidateBackoffMs) {
+        this.exchangeRateRepository = exchangeRateRepository;
+        this.rateAggregator = rateAggregator;
+        this.schedulerLockService = schedulerLockService;
+        this.rateHistoryService = rateHistoryService;
+        this.refreshExecutor = refreshExecutor;
+        this.staleAfterNanos = TimeUnit.MILLISECONDS.toNanos(staleAfterMs);
+        this.minRevalidateBackoffNanos = TimeUnit.MILLISECONDS.toNanos(minRevalidateBackoffMs);
+        this.revalidateBackoffNanos = minRevalidateBackoffNanos;
+        this.refreshed = Counter.builder("exchange.rate.refreshes").tag("outcome", "success").register(meterRegistry);
+        this.refreshFailed = Counter.builder("exchange.rate.refreshes").tag("outcome", "failed").register(meterRegistry);
+    }
 
     @EventListener(ApplicationReadyEvent.class)
     public void initRateIfMissing() {
         try {
             if (!exchangeRateRepository.existsBySymbol(SYMBOL)) {
-                ExchangeRate rate = new ExchangeRate(null, SYMBOL, FALLBACK_RATE, LocalDateTime.now());
-                exchangeRateRepository.save(rate);
-                log.info("Initialized exchange rate with fallback value: {}", FALLBACK_RATE);
+                // Only the lease holder inserts, so replicas booting together do not race on the symbol
+                schedulerLockService.runIfLeader(REFRESH_JOB, REFRESH_LEASE, this::insertFallbackRate);
             }
+            snapshot.set(loadSnapshot());
         } catch (Exception e) {
             log.warn("Failed to initialize exchange rate, will use fallback rate when needed: {}", e.getMessage());
         }
     }
 
+    private void insertFallbackRate() {
+        LocalDateTime now = LocalDateTime.now();
+        ExchangeRate saved = exchangeRateRepository.save(new ExchangeRate(null, SYMBOL, FALLBACK_RATE, now, null, 0));
+        seenVersion = saved.getVersion();
+        log.info("Initialized exchange rate with fallback value: {}", FALLBACK_RATE);
+    }
+
+    @Override
+    public RateSnapshot getSuiToNgnSnapshot() {
+        RateSnapshot current = snapshot.get();
+        if (current == null) {
+            snapshot.compareAndSet(null, loadSnapshot());
+            current = snapshot.get();
+        }
+        if (System.nanoTime() - current.verifiedAtNanos() > staleAfterNanos) {
+            revalidate();
+        }
+        return current;
+    }
+
     @Override
     public BigDecimal getSuiToNgnRate() {
-        return exchangeRateRepository.findBySymbol(SYMBOL)
-                .map(ExchangeRate::getRate)
-                .orElse(FALLBACK_RATE);
+        return getSuiToNgnSnapshot().rate();
+    }
+
+    private RateSnapshot loadSnapshot() {
+        try {
+            return exchangeRateRepository.findBySymbol(SYMBOL)
+                    .map(this::storedSnapshot)
+                    .orElseGet(SuiRateServiceImpl::fallbackSnapshot);
+        } catch (Exception e) {
+            log.warn("Failed to load exchange rate, using fallback rate: {}", e.getMessage());
+            return fallbackSnapshot();
+        }
+    }
+
+    // The stored rate is as fresh as its last confirmation, so an old row is stale from the start
+    private RateSnapshot storedSnapshot(ExchangeRate rate) {
+        seenVersion = rate.getVersion();
+        LocalDateTime verifiedAt = rate.getVerifiedAt() != null ? rate.getVerifiedAt() : rate.getLastUpdated();
+        return new RateSnapshot(rate.getRate(), rate.getLastUpdated(), RateSource.DATABASE,
+                System.nanoTime() - ageNanos(verifiedAt));
+    }
+
+    private static RateSnapshot fallbackSnapshot() {
+        // Never confirmed, so the first read asks for a refresh
+        return new RateSnapshot(FALLBACK_RATE, LocalDateTime.now(), RateSource.FALLBACK, System.nanoTime() - Long.MAX_VALUE / 2);
+    }
+
+    private static long ageNanos(LocalDateTime lastUpdated) {
+        return Math.max(0, Duration.between(lastUpdated, LocalDateTime.now()).toNanos());
+    }
+
+    private void revalidate() {
+        if (System.nanoTime() - revalidateAfterNanos < 0 || !refreshing.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            refreshExecutor.execute(() -> {
+                try {
+                    updateExchangeRate();
+                } finally {
+                    backOffIfStillStale();
+                    refreshing.set(false);
+                }
+            });
+        } catch (RuntimeException e) {
+            refreshing.set(false);
+            log.debug("Could not schedule exchange rate refresh: {}", e.getMessage());
+        }
+    }
+
+    // Without this an outage would start a refresh on nearly every read, each one failing fast
+    private void backOffIfStillStale() {
+        long now = System.nanoTime();
+        if (now - snapshot.get().verifiedAtNanos() <= staleAfterNanos) {
+            revalidateBackoffNanos = minRevalidateBackoffNanos;
+            return;
+        }
+        revalidateAfterNanos = now + revalidateBackoffNanos;
+        revalidateBackoffNanos = Math.min(revalidateBackoffNanos * 2, TimeUnit.MILLISECONDS.toNanos(UPDATE_INTERVAL_MS));
     }
 
     @Override
@@ -70,68 +202,85 @@ public class SuiRateServiceImpl implements SuiRateService {
         return ngnAmount.divide(rate, 6, RoundingMode.HALF_UP);
     }
 
+    /**
+     * Fetches the rate upstream if this instance holds the refresh lease; otherwise picks up
+     * whatever the leader last wrote.
+     */
     @Scheduled(fixedRate = UPDATE_INTERVAL_MS)
     public void updateExchangeRate() {
-        try {
-            ResponseEntity<String> response = restTemplate.getForEntity(coingeckoUrl, String.class);
-
-            if (response.getStatusCode() != HttpStatus.OK || response.getBody() == null) {
-                log.warn("API request failed. Status: {}", response.getStatusCode());
-                return;
-            }
-
-            JsonNode root = objectMapper.readTree(response.getBody());
-            JsonNode suiNode = root.path("sui");
-
-            if (suiNode.isMissingNode()) {
-                log.warn("'sui' node not found in API response");
-                return;
-            }
-
-            JsonNode ngnNode = suiNode.path("ngn");
+        if (!schedulerLockService.runIfLeader(REFRESH_JOB, REFRESH_LEASE, this::refresh)) {
+            syncFromDatabase();
+        }
+    }
 
-            if (!ngnNode.isValueNode()) {
-                log.warn("'ngn' value not found or invalid");
-                return;
+    /**
+     * Reloads the snapshot if the stored row has been written since it was taken. While it
+     * has not, this costs one single-column query.
+     */
+    @Scheduled(initialDelayString = "${sui.rate.sync-interval-ms:15000}",
+            fixedDelayString = "${sui.rate.sync-interval-ms:15000}")
+    public void syncFromDatabase() {
+        try {
+            Optional<Long> version = exchangeRateRepository.findVersionBySymbol(SYMBOL);
+            if (version.isPresent() && version.get() != seenVersion) {
+                exchangeRateRepository.findBySymbol(SYMBOL).map(this::storedSnapshot).ifPresent(snapshot::set);
             }
-
-            BigDecimal newRate = parseRateValue(ngnNode);
-            updateRateInDatabase(newRate);
-
         } catch (Exception e) {
-            log.warn("⚠️ Failed to update SUI↔NGN rate: {}", e.getMessage(), e);
+            log.debug("Could not check the stored exchange rate version: {}", e.getMessage());
         }
     }
 
-    private BigDecimal parseRateValue(JsonNode ngnNode) {
+    /**
+     * Fetches the rate from the providers and swaps in a new snapshot. On any failure the
+     * current snapshot is left in place, to be served stale until a later fetch succeeds.
+     */
+    boolean refresh() {
         try {
-            if (ngnNode.isNumber()) {
-                return ngnNode.decimalValue();
-            } else if (ngnNode.isTextual()) {
-                return new BigDecimal(ngnNode.asText().replace(",", ""));
-            } else {
-                throw new IllegalArgumentException("Unsupported value type for rate");
+            Optional<BigDecimal> newRate = rateAggregator.fetchSuiToNgn();
+            if (newRate.isEmpty()) {
+                log.warn("No usable SUI/NGN rate from the providers, serving the last known rate");
+                refreshFailed.increment();
+                return false;
             }
+            updateRateInDatabase(newRate.get());
+            refreshed.increment();
+            return true;
         } catch (Exception e) {
-            log.warn("Rate parsing error. Using fallback rate. Error: {}", e.getMessage());
-            return FALLBACK_RATE;
+            refreshFailed.increment();
+            log.warn("⚠️ Failed to update SUI↔NGN rate, serving the last known rate: {}", e.getMessage(), e);
+            return false;
         }
     }
 
     private void updateRateInDatabase(BigDecimal newRate) {
+        LocalDateTime now = LocalDateTime.now();
         Optional<ExchangeRate> existingRate = exchangeRateRepository.findBySymbol(SYMBOL);
-        ExchangeRate rate = existingRate.orElseGet(() ->
-                new ExchangeRate(null, SYMBOL, newRate, LocalDateTime.now())
-        );
+        ExchangeRate rate = existingRate.orElseGet(() -> new ExchangeRate(null, SYMBOL, newRate, now, null, 0));
+        boolean changed = existingRate.isEmpty() || newRate.compareTo(rate.getRate()) != 0;
+        if (changed) {
+            rate.setRate(newRate);
+            rate.setLastUpdated(now);
+        }
+        // Written even when unchanged: the version bump tells the other instances the rate is current
+        rate.setVerifiedAt(now);
+        ExchangeRate saved = exchangeRateRepository.save(rate);
+        seenVersion = saved.getVersion();
+        snapshot.set(new RateSnapshot(saved.getRate(), saved.getLastUpdated(), RateSource.UPSTREAM, System.nanoTime()));
+        recordTick(newRate);
 
-        if (existingRate.isPresent() && newRate.compareTo(existingRate.get().getRate()) == 0) {
-            log.debug("Rate unchanged ({}), skipping update", newRate);
-            return;
+        if (changed) {
+            log.info("✅ SUI↔NGN rate updated: 1 SUI = ₦{}", newRate);
+        } else {
+            log.debug("Rate unchanged ({}), confirmed", newRate);
         }
+    }
 
-        rate.setRate(newRate);
-        rate.setLastUpdated(LocalDateTime.now());
-        exchangeRateRepository.save(rate);
-        log.info("✅ SUI↔NGN rate updated: 1 SUI = ₦{}", newRate);
+    // History is best effort: a tick that fails to save must not fail the refresh
+    private void recordTick(BigDecimal rate) {
+        try {
+            rateHistoryService.record(SYMBOL, rate, Instant.now());
+        } catch (Exception e) {
+            log.warn("Failed to record SUI/NGN rate tick: {}", e.getMessage());
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,111 @@
+package com.semicolon.africa.tapprbackend.transaction.services.implementations;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.semicolon.africa.tapprbackend.config.ExportDataSource;
+import com.semicolon.africa.tapprbackend.security.TapprPrincipal;
+import com.semicolon.africa.tapprbackend.transaction.dtos.requests.TransactionExportRequest;
+import com.semicolon.africa.tapprbackend.transaction.enums.ExportFormat;
+import com.semicolon.africa.tapprbackend.transaction.exceptions.InvalidRequestException;
+import com.semicolon.africa.tapprbackend.transaction.services.interfaces.TransactionExportService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Streams a merchant's payments from a forward-only, read-only JDBC cursor straight into the
+ * response, bypassing the persistence context so no entity is created or retained. Exports
+ * run on their own {@link ExportDataSource} pool; on MySQL the fetch size only streams with
+ * {@code useCursorFetch=true}, which the prod profile turns on for that pool alone.
+ */
+@Slf4j
+@Service
+public class TransactionExportServiceImpl implements TransactionExportService {
+
+    // Served by idx_transactions_merchant_history
+    private static final String EXPORT_SQL = "SELECT id, transaction_ref, amount, wallet_currency, status, senders_id, " +
+            "sender_account_number, receivers_account_number, initiated_at, completed_at, failure_reason " +
+            "FROM transactions WHERE merchant_id = ? AND initiated_at >= ? AND initiated_at < ? " +
+            "ORDER BY initiated_at, id";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+
+    @Value("${transactions.export.fetch-size:1000}")
+    private int fetchSize;
+
+    @Value("${transactions.export.max-days:366}")
+    private int maxDays;
+
+    public TransactionExportServiceImpl(ExportDataSource exportDataSource, ObjectMapper objectMapper) {
+        this.jdbcTemplate = new JdbcTemplate(exportDataSource.getDataSource());
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public TransactionExportRequest prepare(TapprPrincipal principal, String format, LocalDate from, LocalDate to) {
+        if (principal == null) {
+            throw new InvalidRequestException("Missing or invalid authorization header");
+        }
+        ExportFormat exportFormat = ExportFormat.from(format);
+        if (from == null || to == null) {
+            throw new InvalidRequestException("Both from and to dates are required");
+        }
+        if (to.isBefore(from)) {
+            throw new InvalidRequestException("Export range ends before it starts");
+        }
+        if (ChronoUnit.DAYS.between(from, to) >= maxDays) {
+            throw new InvalidRequestException("Export range cannot exceed " + maxDays + " days");
+        }
+        return new TransactionExportRequest(principal.userId(), exportFormat,
+                from.atStartOfDay(), to.plusDays(1).atStartOfDay());
+    }
+
+    @Override
+    public long export(TransactionExportRequest request, OutputStream out) throws IOException {
+        long started = System.nanoTime();
+        long[] rows = {0};
+        try (TransactionExportWriter writer = TransactionExportWriter.create(request.format(),
+                objectMapper.getFactory(), out)) {
+            jdbcTemplate.query(connection -> {
+                PreparedStatement statement = connection.prepareStatement(EXPORT_SQL,
+                        ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                statement.setFetchSize(fetchSize);
+                statement.setString(1, request.merchantId().toString());
+                statement.setTimestamp(2, Timestamp.valueOf(request.from()));
+                statement.setTimestamp(3, Timestamp.valueOf(request.until()));
+                return statement;
+            }, resultSet -> {
+                try {
+                    writer.write(resultSet.getString(1), resultSet.getString(2), resultSet.getBigDecimal(3),
+                            resultSet.getString(4), resultSet.getString(5), resultSet.getString(6),
+                            resultSet.getString(7), resultSet.getString(8), localDateTime(resultSet.getTimestamp(9)),
+                            localDateTime(resultSet.getTimestamp(10)), resultSet.getString(11));
+                } catch (IOException e) {
+                    // Usually the client went away; unwrapped below so the query is abandoned
+                    throw new UncheckedIOException(e);
+                }
+                rows[0]++;
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        log.info("Exported {} transactions for merchant {} in {} ms", rows[0], request.merchantId(),
+                (System.nanoTime() - started) / 1_000_000);
+        return rows[0];
+    }
+
+    private static LocalDateTime localDateTime(Timestamp timestamp) {
+        return timestamp == null ? null : timestamp.toLocalDateTime();
+    }
+}
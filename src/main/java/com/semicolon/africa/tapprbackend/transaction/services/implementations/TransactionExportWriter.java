@@ -0,0 +1,149 @@
+package com.semicolon.africa.tapprbackend.transaction.services.implementations;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.semicolon.africa.tapprbackend.transaction.enums.ExportFormat;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+
+/**
+ * Writes export rows one at a time through a fixed-size buffer; nothing is kept per row.
+ * {@link #close()} flushes but leaves the target open for the caller to finish.
+ */
+abstract class TransactionExportWriter implements AutoCloseable {
+
+    static final String[] COLUMNS = {
+            "transactionId", "transactionRef", "amount", "currency", "status", "senderId",
+            "senderAccountNumber", "receiverAccountNumber", "initiatedAt", "completedAt", "failureReason"
+    };
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    static TransactionExportWriter create(ExportFormat format, JsonFactory jsonFactory, OutputStream out)
+            throws IOException {
+        return switch (format) {
+            case NDJSON -> new Ndjson(jsonFactory, out);
+            case CSV -> new Csv(out);
+        };
+    }
+
+    abstract void write(String transactionId, String transactionRef, BigDecimal amount, String currency,
+                        String status, String senderId, String senderAccountNumber,
+                        String receiverAccountNumber, LocalDateTime initiatedAt, LocalDateTime completedAt,
+                        String failureReason) throws IOException;
+
+    @Override
+    public abstract void close() throws IOException;
+
+    private static String text(LocalDateTime value) {
+        return value == null ? null : value.toString();
+    }
+
+    private static final class Ndjson extends TransactionExportWriter {
+
+        private final JsonGenerator generator;
+
+        Ndjson(JsonFactory jsonFactory, OutputStream out) throws IOException {
+            generator = jsonFactory.createGenerator(out, JsonEncoding.UTF8);
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            // Lines are ended by hand instead, so the last one gets its newline too
+            generator.setRootValueSeparator(null);
+        }
+
+        @Override
+        void write(String transactionId, String transactionRef, BigDecimal amount, String currency,
+                   String status, String senderId, String senderAccountNumber,
+                   String receiverAccountNumber, LocalDateTime initiatedAt, LocalDateTime completedAt,
+                   String failureReason) throws IOException {
+            generator.writeStartObject();
+            generator.writeStringField(COLUMNS[0], transactionId);
+            generator.writeStringField(COLUMNS[1], transactionRef);
+            generator.writeFieldName(COLUMNS[2]);
+            generator.writeNumber(amount);
+            generator.writeStringField(COLUMNS[3], currency);
+            generator.writeStringField(COLUMNS[4], status);
+            generator.writeStringField(COLUMNS[5], senderId);
+            generator.writeStringField(COLUMNS[6], senderAccountNumber);
+            generator.writeStringField(COLUMNS[7], receiverAccountNumber);
+            generator.writeStringField(COLUMNS[8], text(initiatedAt));
+            generator.writeStringField(COLUMNS[9], text(completedAt));
+            generator.writeStringField(COLUMNS[10], failureReason);
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+        }
+
+        @Override
+        public void close() throws IOException {
+            generator.close();
+        }
+    }
+
+    private static final class Csv extends TransactionExportWriter {
+
+        private final Writer writer;
+
+        Csv(OutputStream out) throws IOException {
+            writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE);
+            writer.write(String.join(",", COLUMNS));
+            writer.write("\r\n");
+        }
+
+        @Override
+        void write(String transactionId, String transactionRef, BigDecimal amount, String currency,
+                   String status, String senderId, String senderAccountNumber,
+                   String receiverAccountNumber, LocalDateTime initiatedAt, LocalDateTime completedAt,
+                   String failureReason) throws IOException {
+            field(transactionId, true);
+            field(transactionRef, true);
+            field(amount == null ? null : amount.toPlainString(), true);
+            field(currency, true);
+            field(status, true);
+            field(senderId, true);
+            field(senderAccountNumber, true);
+            field(receiverAccountNumber, true);
+            field(text(initiatedAt), true);
+            field(text(completedAt), true);
+            field(failureReason, false);
+            writer.write("\r\n");
+        }
+
+        // RFC 4180: quote fields holding a separator, quote or line break, doubling inner quotes
+        private void field(String value, boolean more) throws IOException {
+            if (value != null) {
+                if (needsQuotes(value)) {
+                    writer.write('"');
+                    writer.write(value.replace("\"", "\"\""));
+                    writer.write('"');
+                } else {
+                    writer.write(value);
+                }
+            }
+            if (more) {
+                writer.write(',');
+            }
+        }
+
+        private static boolean needsQuotes(String value) {
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                if (c == ',' || c == '"' || c == '\n' || c == '\r') {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public void close() throws IOException {
+            writer.flush();
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.semicolon.africa.tapprbackend.transaction.services.implementations;
+
+import com.semicolon.africa.tapprbackend.security.TapprPrincipal;
+import com.semicolon.africa.tapprbackend.transaction.data.repositories.TransactionRepository;
+import com.semicolon.africa.tapprbackend.transaction.dtos.responses.TransactionHistoryItem;
+import com.semicolon.africa.tapprbackend.transaction.dtos.responses.TransactionHistoryPage;
+import com.semicolon.africa.tapprbackend.transaction.exceptions.InvalidRequestException;
+import com.semicolon.africa.tapprbackend.transaction.services.interfaces.TransactionHistoryService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Keyset pagination over a user's payments. The cursor is the (initiatedAt, id) of the last
+ * row returned, so a page is an index seek on the owner's history index rather than an
+ * OFFSET scan, and costs the same however deep it is. Rows are read as
+ * {@link TransactionHistoryItem} projections; no entity, merchant or receipt is loaded.
+ */
+@Service
+@RequiredArgsConstructor
+public class TransactionHistoryServiceImpl implements TransactionHistoryService {
+
+    private static final char CURSOR_SEPARATOR = '|';
+
+    private final TransactionRepository transactionRepository;
+
+    @Value("${transactions.history.default-page-size:20}")
+    private int defaultPageSize;
+
+    @Value("${transactions.history.max-page-size:100}")
+    private int maxPageSize;
+
+    @Override
+    @Transactional(readOnly = true)
+    public TransactionHistoryPage getSentHistory(TapprPrincipal principal, String cursor, Integer limit) {
+        String senderId = requirePrincipal(principal).userId().toString();
+        int size = pageSize(limit);
+        Cursor after = decode(cursor);
+        // One extra row tells us whether there is a next page without a count query
+        Pageable page = PageRequest.of(0, size + 1);
+        List<TransactionHistoryItem> rows = after == null
+                ? transactionRepository.findSentHistory(senderId, page)
+                : transactionRepository.findSentHistoryBefore(senderId, after.initiatedAt(), after.id(), page);
+        return toPage(rows, size);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public TransactionHistoryPage getReceivedHistory(TapprPrincipal principal, String cursor, Integer limit) {
+        requirePrincipal(principal);
+        int size = pageSize(limit);
+        Cursor after = decode(cursor);
+        Pageable page = PageRequest.of(0, size + 1);
+        List<TransactionHistoryItem> rows = after == null
+                ? transactionRepository.findReceivedHistory(principal.userId(), page)
+                : transactionRepository.findReceivedHistoryBefore(principal.userId(), after.initiatedAt(), after.id(), page);
+        return toPage(rows, size);
+    }
+
+    private static TapprPrincipal requirePrincipal(TapprPrincipal principal) {
+        if (principal == null) {
+            throw new InvalidRequestException("Missing or invalid authorization header");
+        }
+        return principal;
+    }
+
+    private int pageSize(Integer limit) {
+        if (limit == null) {
+            return defaultPageSize;
+        }
+        if (limit < 1 || limit > maxPageSize) {
+            throw new InvalidRequestException("Limit must be between 1 and " + maxPageSize);
+        }
+        return limit;
+    }
+
+    private static TransactionHistoryPage toPage(List<TransactionHistoryItem> rows, int size) {
+        if (rows.size() <= size) {
+            return new TransactionHistoryPage(rows, null);
+        }
+        List<TransactionHistoryItem> items = rows.subList(0, size);
+        TransactionHistoryItem last = items.get(size - 1);
+        return new TransactionHistoryPage(List.copyOf(items), encode(last.initiatedAt(), last.transactionId()));
+    }
+
+    static String encode(LocalDateTime initiatedAt, String id) {
+        String raw = initiatedAt.toString() + CURSOR_SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static Cursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(CURSOR_SEPARATOR);
+            if (separator <= 0 || separator == raw.length() - 1) {
+                throw new InvalidRequestException("Invalid cursor");
+            }
+            return new Cursor(LocalDateTime.parse(raw.substring(0, separator)), raw.substring(separator + 1));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new InvalidRequestException("Invalid cursor");
+        }
+    }
+
+    record Cursor(LocalDateTime initiatedAt, String id) {
+    }
+}
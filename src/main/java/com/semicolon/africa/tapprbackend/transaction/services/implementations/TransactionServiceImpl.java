@@ -2,99 +2,126 @@ package com.semicolon.africa.tapprbackend.transaction.services.implementations;
 
 import com.semicolon.africa.tapprbackend.Wallet.data.model.Wallet;
 import com.semicolon.africa.tapprbackend.Wallet.data.repositories.WalletRepository;
+import com.semicolon.africa.tapprbackend.Wallet.dtos.ReceiverWallet;
 import com.semicolon.africa.tapprbackend.Wallet.enums.CurrencyResolver;
 import com.semicolon.africa.tapprbackend.Wallet.enums.WalletCurrency;
-import com.semicolon.africa.tapprbackend.reciepts.data.models.Receipt;
-import com.semicolon.africa.tapprbackend.security.JwtUtil;
+import com.semicolon.africa.tapprbackend.Wallet.service.implementation.ReceiverDirectory;
+import com.semicolon.africa.tapprbackend.Wallet.utils.WalletContext;
+import com.semicolon.africa.tapprbackend.outbox.enums.OutboxEventType;
+import com.semicolon.africa.tapprbackend.outbox.services.interfaces.OutboxService;
+import com.semicolon.africa.tapprbackend.security.TapprPrincipal;
+import com.semicolon.africa.tapprbackend.security.TokenRevocationService;
+import com.semicolon.africa.tapprbackend.security.UserStatus;
+import com.semicolon.africa.tapprbackend.security.UserStatusCache;
 import com.semicolon.africa.tapprbackend.transaction.data.models.Transaction;
 import com.semicolon.africa.tapprbackend.transaction.data.repositories.TransactionRepository;
 import com.semicolon.africa.tapprbackend.transaction.dtos.requests.CreateTransactionRequest;
 import com.semicolon.africa.tapprbackend.transaction.dtos.responses.CreateTransactionResponse;
 import com.semicolon.africa.tapprbackend.transaction.enums.TransactionStatus;
+import com.semicolon.africa.tapprbackend.transaction.events.TransactionAcceptedEvent;
+import com.semicolon.africa.tapprbackend.transaction.events.TransactionEvent;
 import com.semicolon.africa.tapprbackend.transaction.exceptions.InvalidRequestException;
+import com.semicolon.africa.tapprbackend.transaction.services.interfaces.FxRateService;
 import com.semicolon.africa.tapprbackend.transaction.services.interfaces.TransactionService;
 import com.semicolon.africa.tapprbackend.user.data.models.User;
-import com.semicolon.africa.tapprbackend.user.data.repositories.UserRepository;
-import org.springframework.web.context.request.RequestContextHolder;
-import org.springframework.web.context.request.ServletRequestAttributes;
-import jakarta.servlet.http.HttpServletRequest;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.List;
 import java.util.UUID;
 
 @Service
 @RequiredArgsConstructor
 public class TransactionServiceImpl implements TransactionService {
 
+    // Matches the scale of wallets.balance and ledger_entries.amount
+    private static final int AMOUNT_SCALE = 2;
+
     private final TransactionRepository transactionRepository;
-    private final UserRepository userRepository;
-    private final JwtUtil jwtUtil;
+    private final UserStatusCache userStatusCache;
+    private final TokenRevocationService tokenRevocationService;
     private final WalletRepository walletRepository;
+    private final ReceiverDirectory receiverDirectory;
+    private final ApplicationEventPublisher eventPublisher;
+    private final OutboxService outboxService;
+    private final FxRateService fxRateService;
 
     @Override
-    public CreateTransactionResponse createTransaction(CreateTransactionRequest request) {
+    @Transactional
+    public CreateTransactionResponse createTransaction(TapprPrincipal principal, CreateTransactionRequest request) {
         if (request.getAccountNumber() == null || request.getAmount() == null
                 || request.getAmount().compareTo(BigDecimal.ZERO) <= 0) {
             throw new InvalidRequestException("Amount or account number must be correct and greater than zero!");
         }
+        if (request.getAmount().stripTrailingZeros().scale() > AMOUNT_SCALE) {
+            throw new InvalidRequestException("Amount cannot have more than " + AMOUNT_SCALE + " decimal places");
+        }
 
-        HttpServletRequest httpRequest = ((ServletRequestAttributes) RequestContextHolder
-                .getRequestAttributes()).getRequest();
-        String authHeader = httpRequest.getHeader("Authorization");
-        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+        if (principal == null) {
             throw new InvalidRequestException("Missing or invalid authorization header");
         }
 
-        String token = authHeader.substring(7);
-        String email = jwtUtil.extractEmail(token);
-        User sender = userRepository.findByEmail(email)
+        UserStatus senderStatus = userStatusCache.get(principal.userId())
                 .orElseThrow(() -> new InvalidRequestException("User not found"));
 
-        if (!sender.isHasWallet()) {
+        if (!senderStatus.hasWallet()) {
             throw new InvalidRequestException("User does not have a wallet");
         }
 
-        if (!sender.isLoggedIn()) {
+        if (tokenRevocationService.isRevoked(principal.tokenId())) {
             throw new InvalidRequestException("User is not logged in");
         }
 
         // Determine target currency based on input format
-        WalletCurrency targetCurrency = resolveCurrencyFromInput(sender.getPhoneNumber(), request.getAccountNumber());
+        WalletCurrency targetCurrency = resolveCurrencyFromInput(senderStatus.phoneNumber(), request.getAccountNumber());
         
-        // Find receiver by account number or wallet address
-        User receiver = findReceiverByIdentifier(request.getAccountNumber(), targetCurrency);
-        if (receiver == null) {
-            throw new InvalidRequestException("Receiver not found");
-        }
+        // Find receiver by account number or wallet address; a memory lookup for known wallets
+        ReceiverWallet receiverWallet = receiverDirectory.findByIdentifier(request.getAccountNumber())
+                .orElseThrow(() -> new InvalidRequestException("Receiver not found"));
+
+        // Both parties' wallets in one statement; it also loads the receiver for the response
+        UUID senderId = principal.userId();
+        WalletContext wallets = WalletContext.load(walletRepository,
+                new HashSet<>(List.of(senderId, receiverWallet.userId())),
+                EnumSet.of(WalletCurrency.NGN, WalletCurrency.SUI, targetCurrency));
 
         // Get sender's fiat wallet (users always spend from fiat wallet - Naira)
-        Wallet senderFiatWallet = walletRepository.findByUserAndCurrencyType(sender, WalletCurrency.NGN)
-                .orElseThrow(() -> new InvalidRequestException("Sender fiat wallet not found"));
+        Wallet senderFiatWallet = wallets.require(senderId, WalletCurrency.NGN,
+                () -> new InvalidRequestException("Sender fiat wallet not found"));
 
         // Get sender's crypto wallet (for Sui execution)
-        Wallet senderCryptoWallet = walletRepository.findByUserAndCurrencyType(sender, WalletCurrency.SUI)
-                .orElseThrow(() -> new InvalidRequestException("Sender crypto wallet not found"));
+        Wallet senderCryptoWallet = wallets.require(senderId, WalletCurrency.SUI,
+                () -> new InvalidRequestException("Sender crypto wallet not found"));
 
         // Get receiver's target wallet
-        Wallet receiversWallet = walletRepository.findByUserAndCurrencyType(receiver, targetCurrency)
-                .orElseThrow(() -> new InvalidRequestException("Receiver wallet not found"));
+        Wallet receiversWallet = wallets.require(receiverWallet.userId(), targetCurrency,
+                () -> new InvalidRequestException("Receiver wallet not found"));
+        User receiver = receiversWallet.getUser();
 
-        // Validate sender has sufficient balance in fiat wallet (since users spend Naira)
+        // Fast rejection only; the ledger debit at settlement is what actually guards the balance
         if (senderFiatWallet.getBalance().compareTo(request.getAmount()) < 0) {
             throw new InvalidRequestException("Insufficient funds in sender's fiat wallet");
         }
-
-        // For now, we're just creating the transaction record
-        // The actual balance updates and Sui execution would happen in a separate service
-        // TODO: Implement actual balance transfer and Sui blockchain execution
+        WalletCurrency sourceCurrency = senderFiatWallet.getCurrencyType();
+        if (sourceCurrency != targetCurrency && !fxRateService.supports(sourceCurrency, targetCurrency)) {
+            throw new InvalidRequestException("Unsupported currency pair "
+                    + sourceCurrency + "/" + targetCurrency);
+        }
 
         Transaction transaction = new Transaction();
         transaction.setTransactionRef(UUID.randomUUID().toString());
         transaction.setMerchant(receiver);
+        transaction.setSenderId(principal.userId().toString());
+        transaction.setReceiversId(receiver.getId().toString());
+        transaction.setSenderWalletId(senderFiatWallet.getId());
+        transaction.setReceiverWalletId(receiversWallet.getId());
 
         // Store sender's fiat account number (what user sees)
         transaction.setSenderAccountNumber(senderFiatWallet.getAccountNumber());
@@ -107,13 +134,27 @@ public class TransactionServiceImpl implements TransactionService {
         transaction.setStatus(TransactionStatus.PENDING);
         transaction.setInitiated(true);
 
-        Receipt receipt = new Receipt();
-        transaction.setReceipt(receipt);
-
         Transaction savedTransaction = transactionRepository.save(transaction);
+        outboxService.append(OutboxEventType.TRANSACTION_ACCEPTED, savedTransaction.getId(),
+                TransactionEvent.of(savedTransaction));
+        // Settled by the pipeline once this commits; the caller only waits for acceptance
+        eventPublisher.publishEvent(new TransactionAcceptedEvent(savedTransaction.getId()));
         return mapToResponse(savedTransaction);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public CreateTransactionResponse getTransaction(TapprPrincipal principal, String transactionId) {
+        if (principal == null) {
+            throw new InvalidRequestException("Missing or invalid authorization header");
+        }
+        String userId = principal.userId().toString();
+        return transactionRepository.findById(transactionId)
+                .filter(transaction -> userId.equals(transaction.getSenderId()) || userId.equals(transaction.getReceiversId()))
+                .map(this::mapToResponse)
+                .orElseThrow(() -> new InvalidRequestException("Transaction not found"));
+    }
+
     private WalletCurrency resolveCurrencyFromInput(String senderPhone, String input) {
         if (input.length() == 10 && input.matches("\\d+")) {
             com.semicolon.africa.tapprbackend.transaction.enums.WalletCurrency transactionCurrency =
@@ -176,6 +217,7 @@ public class TransactionServiceImpl implements TransactionService {
         response.setStatus(transaction.getStatus());
         response.setInitiatedAt(transaction.getInitiatedAt());
         response.setCompletedAt(transaction.getCompletedAt());
+        response.setFailureReason(transaction.getFailureReason());
 
         if (transaction.getReceipt() != null) {
             response.setMerchantReceiptDownloadUrl(transaction.getReceipt().getMerchantReceiptDownloadUrl());
@@ -185,21 +227,6 @@ public class TransactionServiceImpl implements TransactionService {
         return response;
     }
 
-    /**
-     * Finds receiver by account number (for fiat) or wallet address (for crypto)
-     */
-    private User findReceiverByIdentifier(String identifier, WalletCurrency currency) {
-        if (identifier.length() == 10 && identifier.matches("\\d+")) {
-            // Fiat account number - search by account number
-            return userRepository.findUserByAccountNumber(identifier)
-                    .orElse(null);
-        } else {
-            // Crypto wallet address - search by wallet address
-            return userRepository.findUserByWalletAddress(identifier)
-                    .orElse(null);
-        }
-    }
-
     /**
      * Helper method to get all necessary wallet information for a transaction
      * This demonstrates how to retrieve both fiat and crypto wallet details
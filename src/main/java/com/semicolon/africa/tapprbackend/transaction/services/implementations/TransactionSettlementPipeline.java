@@ -0,0 +1,286 @@
+package com.semicolon.africa.tapprbackend.transaction.services.implementations;
+
+import com.semicolon.africa.tapprbackend.Wallet.enums.WalletCurrency;
+import com.semicolon.africa.tapprbackend.ledger.dtos.PostingLeg;
+import com.semicolon.africa.tapprbackend.ledger.enums.EntryDirection;
+import com.semicolon.africa.tapprbackend.ledger.enums.LedgerAccount;
+import com.semicolon.africa.tapprbackend.ledger.exceptions.LedgerBusyException;
+import com.semicolon.africa.tapprbackend.ledger.services.interfaces.LedgerService;
+import com.semicolon.africa.tapprbackend.outbox.enums.OutboxEventType;
+import com.semicolon.africa.tapprbackend.outbox.services.interfaces.OutboxService;
+import com.semicolon.africa.tapprbackend.scheduling.services.interfaces.SchedulerLockService;
+import com.semicolon.africa.tapprbackend.tapprException.TapprException;
+import com.semicolon.africa.tapprbackend.transaction.data.models.Transaction;
+import com.semicolon.africa.tapprbackend.transaction.data.repositories.TransactionRepository;
+import com.semicolon.africa.tapprbackend.transaction.enums.TransactionStatus;
+import com.semicolon.africa.tapprbackend.transaction.events.TransactionAcceptedEvent;
+import com.semicolon.africa.tapprbackend.transaction.events.TransactionEvent;
+import com.semicolon.africa.tapprbackend.transaction.exceptions.FxRatesUnavailableException;
+import com.semicolon.africa.tapprbackend.transaction.exceptions.InvalidRequestException;
+import com.semicolon.africa.tapprbackend.transaction.services.interfaces.FxRateService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Supplier;
+
+/**
+ * Settles accepted payments off the request thread. A payment goes through two stages, each
+ * on its own bounded executor: the quote stage prices it and the posting stage settles it on
+ * the ledger and records SUCCESS or FAILED. Failures that may clear on their own are retried
+ * with exponential backoff. Payments that keep failing, or that find a queue full, stay
+ * PENDING and are picked up again by the recovery sweep.
+ * <p>
+ * Settlement locks the transaction row and skips payments that are no longer PENDING. The
+ * payment is posted under its transaction ref, and the ledger posts a ref at most once, so a
+ * retry after a timeout or a rollback, or the same payment settled from another instance,
+ * picks up the posting that already committed instead of paying again.
+ */
+@Slf4j
+@Component
+public class TransactionSettlementPipeline {
+
+    // Payments are always spent from the sender's fiat wallet
+    private static final WalletCurrency SOURCE_CURRENCY = WalletCurrency.NGN;
+
+    // Matches the scale of wallets.balance and ledger_entries.amount
+    private static final int AMOUNT_SCALE = 2;
+
+    private final TransactionRepository transactionRepository;
+    private final LedgerService ledgerService;
+    private final FxRateService fxRateService;
+    private final OutboxService outboxService;
+    private final SchedulerLockService schedulerLockService;
+    private final Executor quoteExecutor;
+    private final Executor postingExecutor;
+    private final TransactionTemplate transactionTemplate;
+
+    // Payments queued or running on this instance, so the sweep does not hand them in again
+    private final Set<String> inFlight = ConcurrentHashMap.newKeySet();
+
+    @Value("${transactions.pipeline.max-attempts:3}")
+    private int maxAttempts;
+
+    @Value("${transactions.pipeline.retry-backoff-ms:200}")
+    private long retryBackoffMs;
+
+    @Value("${transactions.pipeline.recovery-after-ms:60000}")
+    private long recoveryAfterMs;
+
+    @Value("${transactions.pipeline.recovery-interval-ms:30000}")
+    private long recoveryIntervalMs;
+
+    @Value("${transactions.pipeline.recovery-batch-size:500}")
+    private int recoveryBatchSize;
+
+    public TransactionSettlementPipeline(TransactionRepository transactionRepository,
+                                         LedgerService ledgerService,
+                                         FxRateService fxRateService,
+                                         OutboxService outboxService,
+                                         SchedulerLockService schedulerLockService,
+                                         @Qualifier("transactionQuoteExecutor") Executor quoteExecutor,
+                                         @Qualifier("transactionPostingExecutor") Executor postingExecutor,
+                                         PlatformTransactionManager transactionManager) {
+        this.transactionRepository = transactionRepository;
+        this.ledgerService = ledgerService;
+        this.fxRateService = fxRateService;
+        this.outboxService = outboxService;
+        this.schedulerLockService = schedulerLockService;
+        this.quoteExecutor = quoteExecutor;
+        this.postingExecutor = postingExecutor;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @TransactionalEventListener
+    public void onTransactionAccepted(TransactionAcceptedEvent event) {
+        submit(event.transactionId());
+    }
+
+    /**
+     * Hands a PENDING payment to the pipeline.
+     * @return false if the payment is already in flight here or the quote queue is full
+     */
+    public boolean submit(String transactionId) {
+        if (!inFlight.add(transactionId)) {
+            return false;
+        }
+        return dispatch(quoteExecutor, transactionId, () -> quote(transactionId));
+    }
+
+    // One replica sweeps at a time, so they do not all queue the same stalled payments
+    @Scheduled(initialDelayString = "${transactions.pipeline.recovery-interval-ms:30000}",
+            fixedDelayString = "${transactions.pipeline.recovery-interval-ms:30000}")
+    public void scheduledRecovery() {
+        schedulerLockService.runIfLeader("settlement-recovery", Duration.ofMillis(recoveryIntervalMs), this::recoverStalled);
+    }
+
+    /**
+     * Resubmits payments that have been PENDING for longer than the recovery delay: those left
+     * behind by a full queue, exhausted retries or a restart, on any instance. A payment still
+     * in flight on another instance may be settled twice over; the second run finds it no
+     * longer PENDING, or finds its posting already on the ledger.
+     */
+    public void recoverStalled() {
+        LocalDateTime before = LocalDateTime.now().minus(Duration.ofMillis(recoveryAfterMs));
+        int resubmitted = 0;
+        for (String transactionId : transactionRepository.findSettleableIds(
+                TransactionStatus.PENDING, before, PageRequest.of(0, recoveryBatchSize))) {
+            if (submit(transactionId)) {
+                resubmitted++;
+            }
+        }
+        if (resubmitted > 0) {
+            log.info("Resubmitted {} stalled payments for settlement", resubmitted);
+        }
+    }
+
+    private void quote(String transactionId) {
+        List<PostingLeg> legs = runStage("quote", transactionId, () -> transactionRepository.findById(transactionId)
+                .filter(transaction -> transaction.getStatus() == TransactionStatus.PENDING)
+                .map(this::buildLegs)
+                .orElse(List.of()));
+        if (legs == null) {
+            return;
+        }
+        if (legs.isEmpty()) {
+            inFlight.remove(transactionId);
+            return;
+        }
+        dispatch(postingExecutor, transactionId, () -> post(transactionId, legs));
+    }
+
+    private void post(String transactionId, List<PostingLeg> legs) {
+        runStage("post", transactionId, () -> transactionTemplate.execute(status -> settle(transactionId, legs)));
+        inFlight.remove(transactionId);
+    }
+
+    private Boolean settle(String transactionId, List<PostingLeg> legs) {
+        Transaction transaction = transactionRepository.findForSettlementById(transactionId).orElse(null);
+        if (transaction == null || transaction.getStatus() != TransactionStatus.PENDING) {
+            return false;
+        }
+        // A posting that committed before its status did comes back as is and is not paid again
+        ledgerService.post(transaction.getTransactionRef(), legs);
+        transaction.setStatus(TransactionStatus.SUCCESS);
+        transaction.setCompletedAt(LocalDateTime.now());
+        outboxService.append(OutboxEventType.TRANSACTION_SETTLED, transactionId, TransactionEvent.of(transaction));
+        return true;
+    }
+
+    /**
+     * Runs one stage of a payment with retries. Returns null once the payment has been failed
+     * or left for recovery; it is then no longer in flight.
+     */
+    private <T> T runStage(String stage, String transactionId, Supplier<T> work) {
+        long backoffMs = retryBackoffMs;
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return work.get();
+            } catch (RuntimeException e) {
+                if (isPermanent(e)) {
+                    fail(transactionId, e.getMessage());
+                    return null;
+                }
+                if (attempt >= maxAttempts || !sleep(backoffMs)) {
+                    log.warn("Leaving payment {} for recovery after {} failed {} attempts: {}",
+                            transactionId, attempt, stage, e.getMessage());
+                    inFlight.remove(transactionId);
+                    return null;
+                }
+                log.debug("Retrying {} of payment {} after: {}", stage, transactionId, e.getMessage());
+                backoffMs *= 2;
+            }
+        }
+    }
+
+    // Business rejections will not change on a retry; a busy ledger, out-of-date FX rates or a
+    // database hiccup might. Retrying is safe because the ledger answers a ref it already posted
+    // with that posting
+    private static boolean isPermanent(RuntimeException e) {
+        return e instanceof TapprException && !(e instanceof LedgerBusyException)
+                && !(e instanceof FxRatesUnavailableException);
+    }
+
+    private void fail(String transactionId, String reason) {
+        inFlight.remove(transactionId);
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                if (transactionRepository.markFailed(transactionId, reason, LocalDateTime.now()) == 0) {
+                    log.warn("Payment {} was not marked failed: it is settled or already on the ledger", transactionId);
+                    return;
+                }
+                transactionRepository.findById(transactionId).ifPresent(transaction -> outboxService.append(
+                        OutboxEventType.TRANSACTION_FAILED, transactionId, TransactionEvent.of(transaction)));
+            });
+        } catch (RuntimeException e) {
+            log.error("Could not mark payment {} as failed; leaving it for recovery", transactionId, e);
+        }
+    }
+
+    private boolean dispatch(Executor executor, String transactionId, Runnable task) {
+        try {
+            executor.execute(task);
+            return true;
+        } catch (RejectedExecutionException e) {
+            inFlight.remove(transactionId);
+            log.warn("Settlement queue is full; payment {} stays PENDING for the recovery sweep", transactionId);
+            return false;
+        }
+    }
+
+    /**
+     * Debits the sender's fiat wallet and credits the receiver's. Cross-currency payments go
+     * through the FX clearing account, so each currency balances on its own.
+     */
+    private List<PostingLeg> buildLegs(Transaction transaction) {
+        WalletCurrency from = SOURCE_CURRENCY;
+        WalletCurrency to = transaction.getWalletCurrency();
+        BigDecimal amount = transaction.getAmount();
+        if (from == to) {
+            return List.of(
+                    PostingLeg.debit(transaction.getSenderWalletId(), from, amount),
+                    PostingLeg.credit(transaction.getReceiverWalletId(), to, amount));
+        }
+
+        BigDecimal converted = convert(amount, from, to);
+        return List.of(
+                PostingLeg.debit(transaction.getSenderWalletId(), from, amount),
+                PostingLeg.house(LedgerAccount.FX_CLEARING, EntryDirection.CREDIT, from, amount),
+                PostingLeg.house(LedgerAccount.FX_CLEARING, EntryDirection.DEBIT, to, converted),
+                PostingLeg.credit(transaction.getReceiverWalletId(), to, converted));
+    }
+
+    private BigDecimal convert(BigDecimal amount, WalletCurrency from, WalletCurrency to) {
+        // Rounded down so the receiver is never credited more than was paid
+        BigDecimal converted = fxRateService.convert(amount, from, to).setScale(AMOUNT_SCALE, RoundingMode.DOWN);
+        if (converted.signum() <= 0) {
+            throw new InvalidRequestException("Amount is too small to convert to " + to);
+        }
+        return converted;
+    }
+
+    private static boolean sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
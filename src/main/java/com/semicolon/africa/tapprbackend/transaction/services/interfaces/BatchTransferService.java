@@ -0,0 +1,23 @@
+package com.semicolon.africa.tapprbackend.transaction.services.interfaces;
+
+import com.semicolon.africa.tapprbackend.security.TapprPrincipal;
+import com.semicolon.africa.tapprbackend.transaction.dtos.requests.BatchTransferRequest;
+import com.semicolon.africa.tapprbackend.transaction.dtos.responses.BatchTransferLineResult;
+import com.semicolon.africa.tapprbackend.transaction.dtos.responses.BatchTransferSummary;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+public interface BatchTransferService {
+
+    /**
+     * Pays every line of the batch from the sender's fiat wallet. The request is validated and
+     * the batch total checked against the sender's balance before anything is paid or handed
+     * to {@code sink}; after that, lines are settled in chunks, each chunk atomically, and
+     * each chunk's results are passed to {@code sink} once it has committed.
+     * @throws com.semicolon.africa.tapprbackend.transaction.exceptions.InvalidRequestException
+     *         if the batch as a whole is rejected
+     */
+    BatchTransferSummary transfer(TapprPrincipal sender, BatchTransferRequest request,
+                                  Consumer<List<BatchTransferLineResult>> sink);
+}
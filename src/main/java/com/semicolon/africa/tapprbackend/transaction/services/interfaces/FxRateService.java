@@ -0,0 +1,24 @@
+package com.semicolon.africa.tapprbackend.transaction.services.interfaces;
+
+import com.semicolon.africa.tapprbackend.Wallet.enums.WalletCurrency;
+
+import java.math.BigDecimal;
+
+public interface FxRateService {
+
+    /**
+     * Returns how many units of {@code to} one {@code from} buys, or NaN if the pair cannot
+     * be priced.
+     */
+    double rate(WalletCurrency from, WalletCurrency to);
+
+    boolean supports(WalletCurrency from, WalletCurrency to);
+
+    /**
+     * Converts {@code amount} at the current rate, unrounded; callers round to the scale
+     * of the target.
+     * @throws com.semicolon.africa.tapprbackend.transaction.exceptions.InvalidRequestException
+     *         if the pair cannot be priced
+     */
+    BigDecimal convert(BigDecimal amount, WalletCurrency from, WalletCurrency to);
+}
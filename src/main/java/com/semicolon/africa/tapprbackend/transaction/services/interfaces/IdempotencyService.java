@@ -0,0 +1,20 @@
+package com.semicolon.africa.tapprbackend.transaction.services.interfaces;
+
+import com.semicolon.africa.tapprbackend.transaction.dtos.responses.IdempotentResult;
+
+import java.util.UUID;
+import java.util.function.Supplier;
+
+public interface IdempotencyService {
+
+    /**
+     * Runs the action once per user and key and replays its stored response for every repeat.
+     * A repeat that arrives while the first call is still running waits for its outcome.
+     * If the first call was rejected the key is free for a retry; if it failed any other way
+     * repeats are refused with an
+     * {@link com.semicolon.africa.tapprbackend.transaction.exceptions.IdempotencyConflictException}.
+     * @param requestFingerprint identifies the request, so a key reused for a different one is rejected
+     */
+    <T> IdempotentResult<T> execute(UUID userId, String idempotencyKey, String requestFingerprint,
+                                    Class<T> responseType, Supplier<T> action);
+}
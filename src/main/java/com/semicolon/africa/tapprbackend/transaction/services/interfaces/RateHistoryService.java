@@ -0,0 +1,21 @@
+package com.semicolon.africa.tapprbackend.transaction.services.interfaces;
+
+import com.semicolon.africa.tapprbackend.transaction.dtos.responses.RateCandleResponse;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+
+public interface RateHistoryService {
+
+    /**
+     * Appends a tick and rolls it into the symbol's candles of every interval.
+     */
+    void record(String symbol, BigDecimal rate, Instant at);
+
+    /**
+     * Candles whose bucket starts in [from, to), oldest first. Either bound may be null: the
+     * range then ends now, or starts as far back as the largest allowed range.
+     */
+    List<RateCandleResponse> candles(String symbol, String interval, Instant from, Instant to);
+}
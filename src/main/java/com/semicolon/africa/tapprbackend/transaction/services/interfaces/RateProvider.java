@@ -0,0 +1,19 @@
+package com.semicolon.africa.tapprbackend.transaction.services.interfaces;
+
+import java.math.BigDecimal;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * A source of the SUI/NGN rate. Implementations are picked up as beans and queried
+ * together; see {@code RateAggregator}.
+ */
+public interface RateProvider {
+
+    String name();
+
+    /**
+     * Fetches the price of one SUI in NGN without blocking the caller. The future completes
+     * exceptionally on any failure, including a timeout or an unusable response.
+     */
+    CompletableFuture<BigDecimal> fetchSuiToNgn();
+}
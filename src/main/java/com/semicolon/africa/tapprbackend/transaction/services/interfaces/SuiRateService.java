@@ -1,8 +1,14 @@
 package com.semicolon.africa.tapprbackend.transaction.services.interfaces;
 
+import com.semicolon.africa.tapprbackend.transaction.dtos.responses.RateSnapshot;
+
 import java.math.BigDecimal;
 
 public interface SuiRateService {
+    /**
+     * Returns the last known SUI/NGN rate with when and where it was obtained.
+     */
+    RateSnapshot getSuiToNgnSnapshot();
     BigDecimal getSuiToNgnRate();
     BigDecimal convertSuiToNgn(BigDecimal suiAmount);
     BigDecimal convertNgnToSui(BigDecimal ngnAmount);
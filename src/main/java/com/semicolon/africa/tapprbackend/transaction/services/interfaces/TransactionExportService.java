@@ -0,0 +1,25 @@
+package com.semicolon.africa.tapprbackend.transaction.services.interfaces;
+
+import com.semicolon.africa.tapprbackend.security.TapprPrincipal;
+import com.semicolon.africa.tapprbackend.transaction.dtos.requests.TransactionExportRequest;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+
+public interface TransactionExportService {
+
+    /**
+     * Validates an export of the payments the caller received between {@code from} and
+     * {@code to}, both inclusive, before anything is written.
+     * @throws com.semicolon.africa.tapprbackend.transaction.exceptions.InvalidRequestException
+     *         if the format or date range is rejected
+     */
+    TransactionExportRequest prepare(TapprPrincipal principal, String format, LocalDate from, LocalDate to);
+
+    /**
+     * Streams the export to {@code out}, oldest first, and returns the number of rows written.
+     * Rows are written as they are read, so memory use does not depend on the row count.
+     */
+    long export(TransactionExportRequest request, OutputStream out) throws IOException;
+}
@@ -0,0 +1,19 @@
+package com.semicolon.africa.tapprbackend.transaction.services.interfaces;
+
+import com.semicolon.africa.tapprbackend.security.TapprPrincipal;
+import com.semicolon.africa.tapprbackend.transaction.dtos.responses.TransactionHistoryPage;
+
+public interface TransactionHistoryService {
+
+    /**
+     * Returns the payments the caller sent, newest first, starting after {@code cursor}
+     * (null for the first page).
+     */
+    TransactionHistoryPage getSentHistory(TapprPrincipal principal, String cursor, Integer limit);
+
+    /**
+     * Returns the payments the caller received as merchant, newest first, starting after
+     * {@code cursor} (null for the first page).
+     */
+    TransactionHistoryPage getReceivedHistory(TapprPrincipal principal, String cursor, Integer limit);
+}
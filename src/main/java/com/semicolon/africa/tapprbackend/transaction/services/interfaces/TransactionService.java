@@ -1,9 +1,17 @@
 package com.semicolon.africa.tapprbackend.transaction.services.interfaces;
 
+import com.semicolon.africa.tapprbackend.security.TapprPrincipal;
 import com.semicolon.africa.tapprbackend.transaction.dtos.requests.CreateTransactionRequest;
 import com.semicolon.africa.tapprbackend.transaction.dtos.responses.CreateTransactionResponse;
-import com.semicolon.africa.tapprbackend.transaction.dtos.responses.CreateTransactionResponse;
 
 public interface TransactionService {
-    CreateTransactionResponse createTransaction(CreateTransactionRequest request);
+    /**
+     * Validates and accepts a payment as PENDING; it is settled asynchronously afterwards.
+     */
+    CreateTransactionResponse createTransaction(TapprPrincipal sender, CreateTransactionRequest request);
+
+    /**
+     * Returns a payment the caller sent or received, with its current settlement status.
+     */
+    CreateTransactionResponse getTransaction(TapprPrincipal principal, String transactionId);
 }
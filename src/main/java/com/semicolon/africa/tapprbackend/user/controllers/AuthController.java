@@ -1,6 +1,8 @@
 package com.semicolon.africa.tapprbackend.user.controllers;
 
 import com.semicolon.africa.tapprbackend.security.JwtUtil;
+import com.semicolon.africa.tapprbackend.security.TapprPrincipal;
+import com.semicolon.africa.tapprbackend.security.TokenRevocationService;
 import com.semicolon.africa.tapprbackend.tapprException.TapprException;
 import com.semicolon.africa.tapprbackend.user.data.models.RefreshToken;
 import com.semicolon.africa.tapprbackend.user.data.models.User;
@@ -13,6 +15,7 @@ import com.semicolon.africa.tapprbackend.user.dtos.responses.LogoutUserResponse;
 import com.semicolon.africa.tapprbackend.user.services.implementations.RefreshTokenService;
 import com.semicolon.africa.tapprbackend.user.services.interfaces.AuthService;
 
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -24,6 +27,7 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
 import java.util.Map;
+import java.util.Optional;
 
 @RestController
 @RequestMapping("/api/v1/auth")
@@ -34,6 +38,7 @@ public class AuthController {
     private final AuthService authService;
     private final JwtUtil jwtUtil;
     private final RefreshTokenService refreshTokenService;
+    private final TokenRevocationService tokenRevocationService;
 
     @PostMapping("/register")
     public ResponseEntity<CreateNewUserResponse> register(
@@ -76,9 +81,17 @@ public class AuthController {
     }
 
     @PostMapping("/logout")
-    public ResponseEntity<LogoutUserResponse> logout(@Valid @RequestBody LogoutRequest request) {
+    public ResponseEntity<LogoutUserResponse> logout(@Valid @RequestBody LogoutRequest request,
+                                                     HttpServletRequest httpRequest) {
         try {
             log.info("Logout attempt for email: {}", request.getEmail());
+            // Revoked before anything else can fail, whatever the account's logged-in flag says
+            String token = jwtUtil.extractBearerToken(httpRequest);
+            TapprPrincipal principal = (token == null ? Optional.<TapprPrincipal>empty() : tokenRevocationService.revoke(token))
+                    .orElseThrow(() -> new TapprException("A valid bearer token is required to log out"));
+            if (request.getEmail() == null || !principal.email().equalsIgnoreCase(request.getEmail().trim())) {
+                throw new TapprException("Cannot log out another user");
+            }
             LogoutUserResponse response = authService.logOut(request);
             log.info("User logged out successfully: {}", request.getEmail());
             return ResponseEntity.ok(response);
@@ -1,17 +1,17 @@
 package com.semicolon.africa.tapprbackend.user.controllers;
 
-import com.semicolon.africa.tapprbackend.security.JwtUtil;
+import com.semicolon.africa.tapprbackend.security.TapprPrincipal;
 import com.semicolon.africa.tapprbackend.tapprException.TapprException;
 import com.semicolon.africa.tapprbackend.user.data.repositories.UserRepository;
 import com.semicolon.africa.tapprbackend.user.dtos.requests.CreateMerchantProfileRequest;
 import com.semicolon.africa.tapprbackend.user.dtos.responses.MerchantProfileResponse;
 import com.semicolon.africa.tapprbackend.user.services.interfaces.MerchantProfileService;
-import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.HashMap;
@@ -27,14 +27,13 @@ public class MerchantProfileController {
     
     private final MerchantProfileService merchantProfileService;
     private final UserRepository userRepository;
-    private final JwtUtil jwtUtil;
     
     @PostMapping("/activate")
     public ResponseEntity<Map<String, Object>> activateMerchantProfile(
             @Valid @RequestBody CreateMerchantProfileRequest request,
-            HttpServletRequest httpRequest) {
+            @AuthenticationPrincipal TapprPrincipal principal) {
         try {
-            UUID userId = getUserIdFromToken(httpRequest);
+            UUID userId = requireUserId(principal);
             
             MerchantProfileResponse merchantProfile = merchantProfileService.createMerchantProfile(userId, request);
             
@@ -63,9 +62,9 @@ public class MerchantProfileController {
     }
     
     @GetMapping("/profile")
-    public ResponseEntity<Map<String, Object>> getMerchantProfile(HttpServletRequest httpRequest) {
+    public ResponseEntity<Map<String, Object>> getMerchantProfile(@AuthenticationPrincipal TapprPrincipal principal) {
         try {
-            UUID userId = getUserIdFromToken(httpRequest);
+            UUID userId = requireUserId(principal);
             
             MerchantProfileResponse merchantProfile = merchantProfileService.getMerchantProfile(userId);
             
@@ -94,9 +93,9 @@ public class MerchantProfileController {
     @PutMapping("/profile")
     public ResponseEntity<Map<String, Object>> updateMerchantProfile(
             @Valid @RequestBody CreateMerchantProfileRequest request,
-            HttpServletRequest httpRequest) {
+            @AuthenticationPrincipal TapprPrincipal principal) {
         try {
-            UUID userId = getUserIdFromToken(httpRequest);
+            UUID userId = requireUserId(principal);
             
             MerchantProfileResponse merchantProfile = merchantProfileService.updateMerchantProfile(userId, request);
             
@@ -124,9 +123,9 @@ public class MerchantProfileController {
     }
     
     @DeleteMapping("/deactivate")
-    public ResponseEntity<Map<String, Object>> deactivateMerchantProfile(HttpServletRequest httpRequest) {
+    public ResponseEntity<Map<String, Object>> deactivateMerchantProfile(@AuthenticationPrincipal TapprPrincipal principal) {
         try {
-            UUID userId = getUserIdFromToken(httpRequest);
+            UUID userId = requireUserId(principal);
             
             merchantProfileService.deactivateMerchantProfile(userId);
             
@@ -153,9 +152,9 @@ public class MerchantProfileController {
     }
     
     @GetMapping("/status")
-    public ResponseEntity<Map<String, Object>> getMerchantStatus(HttpServletRequest httpRequest) {
+    public ResponseEntity<Map<String, Object>> getMerchantStatus(@AuthenticationPrincipal TapprPrincipal principal) {
         try {
-            UUID userId = getUserIdFromToken(httpRequest);
+            UUID userId = requireUserId(principal);
             
             boolean hasMerchantProfile = merchantProfileService.hasMerchantProfile(userId);
             
@@ -175,25 +174,10 @@ public class MerchantProfileController {
         }
     }
     
-    private UUID getUserIdFromToken(HttpServletRequest request) {
-        String token = extractTokenFromRequest(request);
-        if (token == null) {
+    private UUID requireUserId(TapprPrincipal principal) {
+        if (principal == null) {
             throw new TapprException("Authorization token is required");
         }
-        
-        if (!jwtUtil.validateToken(token)) {
-            throw new TapprException("Invalid or expired token");
-        }
-        
-        String userIdString = jwtUtil.extractUserId(token);
-        return UUID.fromString(userIdString);
-    }
-    
-    private String extractTokenFromRequest(HttpServletRequest request) {
-        String authHeader = request.getHeader("Authorization");
-        if (authHeader != null && authHeader.startsWith("Bearer ")) {
-            return authHeader.substring(7);
-        }
-        return null;
+        return principal.userId();
     }
 }
\ No newline at end of file
@@ -1,6 +1,9 @@
 package com.semicolon.africa.tapprbackend.user.controllers;
 
 import com.semicolon.africa.tapprbackend.security.JwtUtil;
+import com.semicolon.africa.tapprbackend.security.TapprPrincipal;
+import com.semicolon.africa.tapprbackend.security.UserStatus;
+import com.semicolon.africa.tapprbackend.security.UserStatusCache;
 import com.semicolon.africa.tapprbackend.user.data.models.User;
 import com.semicolon.africa.tapprbackend.user.data.repositories.UserRepository;
 import com.semicolon.africa.tapprbackend.tapprException.TapprException;
@@ -8,13 +11,12 @@ import com.semicolon.africa.tapprbackend.tapprException.TapprException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
-import jakarta.servlet.http.HttpServletRequest;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
-import java.util.UUID;
 
 @RestController
 @RequestMapping("/api/v1/user")
@@ -25,21 +27,15 @@ public class UserController {
 
     private final UserRepository userRepository;
     private final JwtUtil jwtUtil;
+    private final UserStatusCache userStatusCache;
 
     @GetMapping("/profile")
-    public ResponseEntity<Map<String, Object>> getUserProfile(HttpServletRequest request) {
+    public ResponseEntity<Map<String, Object>> getUserProfile(@AuthenticationPrincipal TapprPrincipal principal) {
         try {
-            String token = extractTokenFromRequest(request);
-            if (token == null) {
-                throw new TapprException("Authorization token is required");
-            }
-
-            if (!jwtUtil.validateToken(token)) {
-                throw new TapprException("Invalid or expired token");
-            }
+            requirePrincipal(principal, "Authorization token is required");
 
-            String email = jwtUtil.extractEmail(token);
-            Optional<User> userOptional = userRepository.findByEmail(email);
+            String email = principal.email();
+            Optional<User> userOptional = userRepository.findById(principal.userId());
             
             if (userOptional.isEmpty()) {
                 throw new TapprException("User not found");
@@ -70,24 +66,16 @@ public class UserController {
     }
 
     @PostMapping("/refresh-token")
-    public ResponseEntity<Map<String, String>> refreshToken(HttpServletRequest request) {
+    public ResponseEntity<Map<String, String>> refreshToken(@AuthenticationPrincipal TapprPrincipal principal) {
         try {
-            String token = extractTokenFromRequest(request);
-            if (token == null) {
-                throw new TapprException("Refresh token is required");
-            }
+            requirePrincipal(principal, "Refresh token is required");
 
-            if (!jwtUtil.validateToken(token)) {
-                throw new TapprException("Invalid or expired refresh token");
-            }
+            String email = principal.email();
+            // The role may have changed since the token was issued (e.g. merchant activation)
+            UserStatus status = userStatusCache.get(principal.userId())
+                    .orElseThrow(() -> new TapprException("User not found"));
 
-            String email = jwtUtil.extractEmail(token);
-            String userId = jwtUtil.extractUserId(token);
-            String role = jwtUtil.extractRole(token);
-            
-            String newAccessToken = jwtUtil.generateToken(email,
-                UUID.fromString(userId),
-                com.semicolon.africa.tapprbackend.user.enums.Role.valueOf(role));
+            String newAccessToken = jwtUtil.generateToken(email, principal.userId(), status.role());
 
             Map<String, String> response = new HashMap<>();
             response.put("accessToken", newAccessToken);
@@ -106,21 +94,14 @@ public class UserController {
     }
 
     @PostMapping("/validate-token")
-    public ResponseEntity<Map<String, Object>> validateToken(HttpServletRequest request) {
+    public ResponseEntity<Map<String, Object>> validateToken(@AuthenticationPrincipal TapprPrincipal principal) {
         try {
-            String token = extractTokenFromRequest(request);
-            if (token == null) {
-                throw new TapprException("Authorization token is required");
-            }
+            requirePrincipal(principal, "Authorization token is required");
 
-            boolean isValid = jwtUtil.validateToken(token);
             Map<String, Object> response = new HashMap<>();
-            response.put("valid", isValid);
-            
-            if (isValid) {
-                response.put("email", jwtUtil.extractEmail(token));
-                response.put("role", jwtUtil.extractRole(token));
-            }
+            response.put("valid", true);
+            response.put("email", principal.email());
+            response.put("role", principal.role().name());
 
             return ResponseEntity.ok(response);
 
@@ -136,11 +117,9 @@ public class UserController {
         }
     }
 
-    private String extractTokenFromRequest(HttpServletRequest request) {
-        String authHeader = request.getHeader("Authorization");
-        if (authHeader != null && authHeader.startsWith("Bearer ")) {
-            return authHeader.substring(7);
+    private void requirePrincipal(TapprPrincipal principal, String missingMessage) {
+        if (principal == null) {
+            throw new TapprException(missingMessage);
         }
-        return null;
     }
 }
\ No newline at end of file
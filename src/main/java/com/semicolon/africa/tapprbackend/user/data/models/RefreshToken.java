@@ -3,26 +3,44 @@ package com.semicolon.africa.tapprbackend.user.data.models;
 import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
 
 import java.time.Instant;
+import java.util.UUID;
 
 @Entity
+@Table(name = "refresh_tokens", indexes = {
+        @Index(name = "uk_refresh_tokens_token_hash", columnList = "token_hash", unique = true),
+        @Index(name = "idx_refresh_tokens_expiry_date", columnList = "expiry_date"),
+        @Index(name = "idx_refresh_tokens_revoked_expiry_date", columnList = "revoked, expiry_date")
+})
 @Setter
 @Getter
 public class RefreshToken {
+    // Generated in the application rather than by IDENTITY, so the insert can wait for the batched flush.
+    // Earlier versions kept tokens in refresh_token, so refresh_tokens is always created with this id
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
-    private Long id;
+    @GeneratedValue(strategy = GenerationType.UUID)
+    @JdbcTypeCode(SqlTypes.VARCHAR)
+    @Column(name = "id", columnDefinition = "VARCHAR(36)", updatable = false, nullable = false)
+    private UUID id;
 
-    @Column(nullable = false, length = 1000)
+    // SHA-256 of the signed token; the token itself is never stored
+    @Column(name = "token_hash", nullable = false, length = 64, columnDefinition = "CHAR(64)")
+    private String tokenHash;
+
+    // Only populated on freshly issued tokens so the caller can hand it to the client
+    @Transient
     private String token;
 
     @ManyToOne
     @JoinColumn(name = "user_id")
     private User user;
 
+    @Column(name = "expiry_date")
     private Instant expiryDate;
 
     private boolean revoked;
 
-}
\ No newline at end of file
+}
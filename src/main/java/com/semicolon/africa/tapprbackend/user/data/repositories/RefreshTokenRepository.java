@@ -2,6 +2,7 @@ package com.semicolon.africa.tapprbackend.user.data.repositories;
 
 import com.semicolon.africa.tapprbackend.user.data.models.RefreshToken;
 import com.semicolon.africa.tapprbackend.user.data.models.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
@@ -9,12 +10,32 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 @Repository
-public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Long> {
-    Optional<RefreshToken> findByToken(String token);
+public interface RefreshTokenRepository extends JpaRepository<RefreshToken, UUID> {
+    Optional<RefreshToken> findByTokenHash(String tokenHash);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE RefreshToken rt SET rt.revoked = true WHERE rt.user.id = :userId AND rt.revoked = false")
+    int revokeAllByUserId(@Param("userId") UUID userId);
+
+    // Expired and revoked tokens are found separately, as an OR of the two could use neither index
+    @Query("SELECT rt.id FROM RefreshToken rt WHERE rt.expiryDate < :now")
+    List<UUID> findExpiredIds(@Param("now") Instant now, Pageable page);
+
+    @Query("SELECT rt.id FROM RefreshToken rt WHERE rt.revoked = true")
+    List<UUID> findRevokedIds(Pageable page);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM RefreshToken rt WHERE rt.id IN :ids")
+    int deleteByIdIn(@Param("ids") Collection<UUID> ids);
     
     @Modifying
     @Transactional
@@ -24,4 +45,4 @@ public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Long
     @Modifying
     @Transactional
     void deleteByUser(User user);
-}
\ No newline at end of file
+}
@@ -1,13 +1,17 @@
 package com.semicolon.africa.tapprbackend.user.data.repositories;
 
+import com.semicolon.africa.tapprbackend.security.UserStatus;
 import com.semicolon.africa.tapprbackend.user.data.models.User;
 import jakarta.validation.constraints.NotEmpty;
 import jakarta.validation.constraints.Pattern;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -24,4 +28,27 @@ public interface UserRepository extends JpaRepository<User, UUID> {
     
     @Query("SELECT w.user FROM Wallet w WHERE w.walletAddress = :walletAddress")
     Optional<User> findUserByWalletAddress(@Param("walletAddress") String walletAddress);
+
+    /**
+     * Loads the user with everything the login response needs in a single query, including
+     * the inverse one-to-one sides that Hibernate would otherwise fetch one select at a time.
+     */
+    @Query("SELECT u FROM User u LEFT JOIN FETCH u.wallets LEFT JOIN FETCH u.merchantProfile " +
+            "LEFT JOIN FETCH u.loyaltyWallet WHERE u.email = :email")
+    Optional<User> findWithWalletsByEmail(@Param("email") String email);
+
+    @Query("SELECT DISTINCT u FROM User u LEFT JOIN FETCH u.wallets LEFT JOIN FETCH u.merchantProfile " +
+            "LEFT JOIN FETCH u.loyaltyWallet WHERE u.id IN :ids")
+    List<User> findAllWithWalletsByIdIn(@Param("ids") Collection<UUID> ids);
+
+    @Query("SELECT u.id FROM User u WHERE u.hasWallet = false ORDER BY u.id")
+    List<UUID> findIdsWithoutWallets(Pageable page);
+
+    // Keyset page after the given id, so users that fail to provision are not re-read forever
+    @Query("SELECT u.id FROM User u WHERE u.hasWallet = false AND u.id > :after ORDER BY u.id")
+    List<UUID> findIdsWithoutWalletsAfter(@Param("after") UUID after, Pageable page);
+
+    @Query("SELECT new com.semicolon.africa.tapprbackend.security.UserStatus(u.id, u.phoneNumber, u.role, u.hasWallet) " +
+            "FROM User u WHERE u.id = :userId")
+    Optional<UserStatus> findStatusById(@Param("userId") UUID userId);
 }
\ No newline at end of file
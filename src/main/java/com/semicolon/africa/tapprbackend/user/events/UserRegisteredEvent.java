@@ -0,0 +1,9 @@
+package com.semicolon.africa.tapprbackend.user.events;
+
+import java.util.UUID;
+
+/**
+ * Published once a new user has been saved. Listeners run after the registration commits.
+ */
+public record UserRegisteredEvent(UUID userId) {
+}
@@ -0,0 +1,9 @@
+package com.semicolon.africa.tapprbackend.user.exceptions;
+
+import com.semicolon.africa.tapprbackend.tapprException.TapprException;
+
+public class AuthServiceBusyException extends TapprException {
+    public AuthServiceBusyException(String message) {
+        super(message);
+    }
+}
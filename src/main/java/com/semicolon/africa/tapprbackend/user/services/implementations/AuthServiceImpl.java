@@ -2,10 +2,9 @@ package com.semicolon.africa.tapprbackend.user.services.implementations;
 
 import com.google.i18n.phonenumbers.NumberParseException;
 import com.google.i18n.phonenumbers.PhoneNumberUtil;
-import com.semicolon.africa.tapprbackend.Wallet.data.repositories.WalletRepository;
-import com.semicolon.africa.tapprbackend.Wallet.exceptions.WalletCreationFailedException;
-import com.semicolon.africa.tapprbackend.Wallet.service.interfaces.WalletService;
 import com.semicolon.africa.tapprbackend.security.JwtUtil;
+import com.semicolon.africa.tapprbackend.security.PasswordHashingService;
+import com.semicolon.africa.tapprbackend.security.UserStatusCache;
 import com.semicolon.africa.tapprbackend.tapprException.TapprException;
 import com.semicolon.africa.tapprbackend.user.data.models.RefreshToken;
 import com.semicolon.africa.tapprbackend.user.data.models.User;
@@ -17,41 +16,52 @@ import com.semicolon.africa.tapprbackend.user.dtos.responses.CreateNewUserRespon
 import com.semicolon.africa.tapprbackend.user.dtos.responses.LoginResponse;
 import com.semicolon.africa.tapprbackend.user.dtos.responses.LogoutUserResponse;
 import com.semicolon.africa.tapprbackend.user.enums.Role;
+import com.semicolon.africa.tapprbackend.user.events.UserRegisteredEvent;
 import com.semicolon.africa.tapprbackend.user.exceptions.PasswordLenghtMismatchException;
 import com.semicolon.africa.tapprbackend.user.exceptions.UserNotFoundException;
 import com.semicolon.africa.tapprbackend.user.services.interfaces.AuthService;
 import com.semicolon.africa.tapprbackend.user.services.interfaces.UserService;
 import jakarta.transaction.Transactional;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
 @Slf4j
 @Service
 public class AuthServiceImpl implements AuthService {
 
     private final UserRepository userRepository;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHashingService passwordHashingService;
     private final UserService userService;
-    private final WalletService walletService;
-    private final WalletRepository walletRepository;
+    private final ApplicationEventPublisher eventPublisher;
     private final RefreshTokenService refreshTokenService;
+    private final UserStatusCache userStatusCache;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
     private final PhoneNumberUtil phoneUtil = PhoneNumberUtil.getInstance();
 
     public AuthServiceImpl(UserRepository userRepository,
-                           PasswordEncoder passwordEncoder, UserService userService,
+                           PasswordHashingService passwordHashingService, UserService userService,
                            JwtUtil jwtUtil,
-                           WalletService walletService,
-                           WalletRepository walletRepository,
-                           RefreshTokenService refreshTokenService) {
+                           ApplicationEventPublisher eventPublisher,
+                           RefreshTokenService refreshTokenService,
+                           UserStatusCache userStatusCache,
+                           JdbcTemplate jdbcTemplate,
+                           PlatformTransactionManager transactionManager) {
         this.userRepository = userRepository;
-        this.passwordEncoder = passwordEncoder;
+        this.passwordHashingService = passwordHashingService;
         this.userService = userService;
-        this.walletService = walletService;
-        this.walletRepository = walletRepository;
+        this.eventPublisher = eventPublisher;
         this.refreshTokenService = refreshTokenService;
+        this.userStatusCache = userStatusCache;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
     }
 
     @Transactional
@@ -72,17 +82,22 @@ public class AuthServiceImpl implements AuthService {
         user.setFirstName(request.getFirstName().trim());
         user.setLastName(request.getLastName().trim());
         user.setEmail(email);
-        user.setPasswordHash(passwordEncoder.encode(request.getPassword()));
+        user.setPasswordHash(passwordHashingService.encode(request.getPassword()));
         user.setPhoneNumber(phone);
         user.setRole(Role.REGULAR);
         user.setCreatedAt(LocalDateTime.now());
         user.setKycVerified(false);
 
         userRepository.save(user);
+        // Wallets are created off the request thread once this transaction commits
+        eventPublisher.publishEvent(new UserRegisteredEvent(user.getId()));
         return new CreateNewUserResponse("User created successfully", user.getId().toString(), email, phone);
     }
 
-    @Transactional
+    /**
+     * Checks the password with no database connection held, since the hash check may wait
+     * behind other logins, then records the login in one short transaction.
+     */
     @Override
     public LoginResponse login(LoginRequest request) {
         // Validate email first
@@ -91,30 +106,42 @@ public class AuthServiceImpl implements AuthService {
         }
         
         String email = request.getEmail().trim().toLowerCase();
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new UserNotFoundException("User with that email doesn't exist"));
+        String passwordHash = findPasswordHash(email);
 
         if (request.getPassword() == null) {
             throw new IllegalArgumentException("Password is required");
         }
 
-        if (!passwordEncoder.matches(request.getPassword(), user.getPasswordHash())) {
+        if (!passwordHashingService.matches(request.getPassword(), passwordHash)) {
             throw new IllegalArgumentException("Incorrect credentials");
         }
 
-        user.setLoggedIn(true);
-        user.setLastLoginAt(LocalDateTime.now());
-        user.setHasWallet(true);
-        user.setWallets(walletService.getWallets(user.getId()));
-        userRepository.save(user);
-
-        createWalletsIfNecessary(user);
-        
-        refreshTokenService.createRefreshToken(user);
-        
-        return userService.generateLoginResponse(user, "Logged in successfully");
+        return transactionTemplate.execute(status -> {
+            // One fetch-joined query loads the user and every wallet the response needs
+            User user = userRepository.findWithWalletsByEmail(email)
+                    .orElseThrow(() -> new UserNotFoundException("User with that email doesn't exist"));
+            // The password changed while it was being checked
+            if (!passwordHash.equals(user.getPasswordHash())) {
+                throw new IllegalArgumentException("Incorrect credentials");
+            }
+
+            // Re-hash with the current cost factor while the plain password is at hand
+            if (passwordHashingService.needsUpgrade(passwordHash)) {
+                user.setPasswordHash(passwordHashingService.encode(request.getPassword()));
+            }
+
+            user.setLoggedIn(true);
+            user.setLastLoginAt(LocalDateTime.now());
+
+            // Wallets are provisioned when the user registers, so login never checks for them
+            RefreshToken refreshToken = refreshTokenService.createRefreshToken(user);
+
+            // The user update and the refresh token go out in the single flush at commit
+            return userService.generateLoginResponse(user, "Logged in successfully", refreshToken.getToken());
+        });
     }
 
+    @Transactional
     @Override
     public LoginResponse refreshAccessToken(String refreshTokenStr) {
         RefreshToken refreshToken = refreshTokenService.findByToken(refreshTokenStr)
@@ -123,9 +150,9 @@ public class AuthServiceImpl implements AuthService {
 
         User user = refreshToken.getUser();
         refreshTokenService.revokeAllUserTokens(user);
-        refreshTokenService.createRefreshToken(user);
+        RefreshToken newRefreshToken = refreshTokenService.createRefreshToken(user);
 
-        return userService.generateLoginResponse(user, "Token refreshed successfully");
+        return userService.generateLoginResponse(user, "Token refreshed successfully", newRefreshToken.getToken());
     }
 
     @Override
@@ -139,23 +166,23 @@ public class AuthServiceImpl implements AuthService {
         User user = userRepository.findByEmail(email)
                 .orElseThrow(() -> new UserNotFoundException("User with that email doesn't exist"));
 
-        if (!user.isLoggedIn()) {
-            throw new IllegalArgumentException("User is already logged out");
+        // Logging out twice, say from a second device, is not an error
+        if (user.isLoggedIn()) {
+            user.setLoggedIn(false);
+            userRepository.save(user);
         }
-
-        user.setLoggedIn(false);
-        userRepository.save(user);
         return new LogoutUserResponse("Logged Out Successfully", false);
     }
 
-    private void createWalletsIfNecessary(User user) {
-        try {
-            walletService.createWalletIfNotExists(user);
-            log.info("Wallets created for user: {}", user.getEmail());
-        } catch (Exception e) {
-            log.error("Wallet creation failed for user {}: {}", user.getEmail(), e.getMessage());
-            // Don't let wallet creation failure prevent login
+    // Plain JDBC rather than the repository: outside a transaction, a query through the
+    // request's open EntityManager would keep its connection until the request ends
+    private String findPasswordHash(String email) {
+        List<String> hashes = jdbcTemplate.queryForList(
+                "SELECT password_hash FROM users WHERE email = ?", String.class, email);
+        if (hashes.isEmpty()) {
+            throw new UserNotFoundException("User with that email doesn't exist");
         }
+        return hashes.get(0);
     }
 
     private void validateSignUpRequest(CreateNewUserRequest request) {
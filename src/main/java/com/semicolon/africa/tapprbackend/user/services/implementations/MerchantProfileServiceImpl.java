@@ -1,5 +1,6 @@
 package com.semicolon.africa.tapprbackend.user.services.implementations;
 
+import com.semicolon.africa.tapprbackend.security.UserStatusCache;
 import com.semicolon.africa.tapprbackend.tapprException.TapprException;
 import com.semicolon.africa.tapprbackend.user.data.models.MerchantProfile;
 import com.semicolon.africa.tapprbackend.user.data.models.User;
@@ -23,6 +24,7 @@ public class MerchantProfileServiceImpl implements MerchantProfileService {
     
     private final MerchantProfileRepository merchantProfileRepository;
     private final UserRepository userRepository;
+    private final UserStatusCache userStatusCache;
     
     @Override
     @Transactional
@@ -54,6 +56,7 @@ public class MerchantProfileServiceImpl implements MerchantProfileService {
         user.setRole(Role.MERCHANT);
         user.setMerchantProfile(savedProfile);
         userRepository.save(user);
+        userStatusCache.evict(userId);
         
         log.info("Merchant profile created successfully for user: {}", user.getEmail());
         
@@ -121,6 +124,7 @@ public class MerchantProfileServiceImpl implements MerchantProfileService {
         user.setRole(Role.REGULAR);
         user.setMerchantProfile(null);
         userRepository.save(user);
+        userStatusCache.evict(userId);
         
         log.info("Merchant profile deactivated successfully for user: {}", user.getEmail());
     }
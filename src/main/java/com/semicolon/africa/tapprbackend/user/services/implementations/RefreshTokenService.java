@@ -1,33 +1,47 @@
 package com.semicolon.africa.tapprbackend.user.services.implementations;
 
+import com.semicolon.africa.tapprbackend.scheduling.services.interfaces.SchedulerLockService;
 import com.semicolon.africa.tapprbackend.security.JwtUtil;
+import com.semicolon.africa.tapprbackend.security.TokenDigests;
 import com.semicolon.africa.tapprbackend.user.data.models.RefreshToken;
 import com.semicolon.africa.tapprbackend.user.data.models.User;
 import com.semicolon.africa.tapprbackend.user.data.repositories.RefreshTokenRepository;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import jakarta.persistence.EntityManager;
-import jakarta.persistence.PersistenceContext;
+import java.time.Duration;
 import java.time.Instant;
+import java.util.List;
 import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Function;
 
+@Slf4j
 @Service
 public class RefreshTokenService {
 
     @Value("${jwt.refresh-expiration-ms}")
     private long refreshTokenDurationMs;
 
+    @Value("${jwt.refresh-purge-batch-size:1000}")
+    private int purgeBatchSize;
+
+    @Value("${jwt.refresh-purge-interval-ms:3600000}")
+    private long purgeIntervalMs;
+
     private final RefreshTokenRepository refreshTokenRepository;
     private final JwtUtil jwtUtil;
-    
-    @PersistenceContext
-    private EntityManager entityManager;
+    private final SchedulerLockService schedulerLockService;
 
-    public RefreshTokenService(RefreshTokenRepository repo, JwtUtil jwtUtil) {
+    public RefreshTokenService(RefreshTokenRepository repo, JwtUtil jwtUtil, SchedulerLockService schedulerLockService) {
         this.refreshTokenRepository = repo;
         this.jwtUtil = jwtUtil;
+        this.schedulerLockService = schedulerLockService;
     }
 
     @Transactional
@@ -36,32 +50,66 @@ public class RefreshTokenService {
         token.setUser(user);
         token.setExpiryDate(Instant.now().plusMillis(refreshTokenDurationMs));
         String signedJwtToken = jwtUtil.generateRefreshToken(user.getEmail(), user.getId(), user.getRole());
+        token.setTokenHash(TokenDigests.sha256Hex(signedJwtToken));
         token.setToken(signedJwtToken);
         token.setRevoked(false);
         return refreshTokenRepository.save(token);
     }
 
+    // Rejected tokens are left for the scheduled purge rather than deleted on the request path
     public RefreshToken verifyExpiration(RefreshToken token) {
         if (token.getExpiryDate().isBefore(Instant.now()) || token.isRevoked()) {
-            refreshTokenRepository.delete(token);
             throw new IllegalStateException("Refresh token is expired or revoked");
         }
 
         if (!jwtUtil.validateRefreshToken(token.getToken())) {
-            refreshTokenRepository.delete(token);
             throw new IllegalStateException("Invalid refresh token signature");
         }
 
         return token;
     }
 
-    @Transactional
     public void revokeAllUserTokens(User user) {
-        refreshTokenRepository.deleteByUserId(user.getId());
-        entityManager.flush(); // Force the delete to be executed immediately
+        refreshTokenRepository.revokeAllByUserId(user.getId());
     }
 
     public Optional<RefreshToken> findByToken(String refreshTokenStr) {
-        return refreshTokenRepository.findByToken(refreshTokenStr);
+        if (refreshTokenStr == null || refreshTokenStr.isBlank()) {
+            return Optional.empty();
+        }
+        Optional<RefreshToken> found = refreshTokenRepository.findByTokenHash(TokenDigests.sha256Hex(refreshTokenStr));
+        found.ifPresent(token -> token.setToken(refreshTokenStr));
+        return found;
+    }
+
+    @Scheduled(fixedDelayString = "${jwt.refresh-purge-interval-ms:3600000}")
+    public void scheduledPurge() {
+        schedulerLockService.runIfLeader("refresh-token-purge", Duration.ofMillis(purgeIntervalMs), this::purgeExpiredTokens);
+    }
+
+    /**
+     * Deletes expired and revoked refresh tokens in fixed-size batches, so each statement
+     * holds its locks only briefly however large the backlog is.
+     */
+    public void purgeExpiredTokens() {
+        Instant now = Instant.now();
+        int purged = purgeBatches(page -> refreshTokenRepository.findExpiredIds(now, page))
+                + purgeBatches(refreshTokenRepository::findRevokedIds);
+
+        if (purged > 0) {
+            log.info("Purged {} expired or revoked refresh tokens", purged);
+        }
+    }
+
+    private int purgeBatches(Function<Pageable, List<UUID>> nextBatch) {
+        int purged = 0;
+        List<UUID> batch;
+        do {
+            batch = nextBatch.apply(PageRequest.of(0, purgeBatchSize));
+            if (!batch.isEmpty()) {
+                purged += refreshTokenRepository.deleteByIdIn(batch);
+            }
+        } while (batch.size() == purgeBatchSize);
+        return purged;
     }
-}
\ No newline at end of file
+}
@@ -1,10 +1,10 @@
 package com.semicolon.africa.tapprbackend.user.services.implementations;
 
 import com.semicolon.africa.tapprbackend.Wallet.data.model.Wallet;
-import com.semicolon.africa.tapprbackend.Wallet.data.repositories.WalletRepository;
 import com.semicolon.africa.tapprbackend.Wallet.dtos.response.WalletBalanceResponse;
 import com.semicolon.africa.tapprbackend.Wallet.enums.WalletCurrency;
 import com.semicolon.africa.tapprbackend.Wallet.service.interfaces.WalletService;
+import com.semicolon.africa.tapprbackend.Wallet.utils.WalletContext;
 import com.semicolon.africa.tapprbackend.security.JwtUtil;
 import com.semicolon.africa.tapprbackend.user.data.models.User;
 import com.semicolon.africa.tapprbackend.user.dtos.responses.LoginResponse;
@@ -12,50 +12,43 @@ import com.semicolon.africa.tapprbackend.user.services.interfaces.UserService;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
+import java.util.Optional;
+
 @Slf4j
 @Service
 public class UserServiceImpl implements UserService {
 
     private final JwtUtil jwtUtil;
     private final WalletService walletService;
-    private final WalletRepository walletRepository;
 
-    public UserServiceImpl(JwtUtil jwtUtil, WalletService walletService, WalletRepository walletRepository) {
+    public UserServiceImpl(JwtUtil jwtUtil, WalletService walletService) {
         this.jwtUtil = jwtUtil;
         this.walletService = walletService;
-        this.walletRepository = walletRepository;
     }
 
     @Override
-    public LoginResponse generateLoginResponse(User user, String message) {
+    public LoginResponse generateLoginResponse(User user, String message, String refreshToken) {
         WalletBalanceResponse walletBalances = null;
-        String suiWalletAddress = null;
-        String fiatWalletAccountNumber = null;
-        boolean hasSuiWallet = false;
-        boolean hasFiatWallet = false;
 
+        // The user's wallets are fetch-joined at login, so this needs no query
+        WalletContext wallets = WalletContext.of(user.getWallets());
         try {
-            walletBalances = walletService.getUserWalletBalances(user.getId());
-
-            Wallet sui = walletRepository.findByUserAndCurrencyType(user, WalletCurrency.SUI).orElse(null);
-            if (sui != null) {
-                hasSuiWallet = true;
-                suiWalletAddress = sui.getWalletAddress();
-            }
-
-            Wallet fiat = walletRepository.findByUserAndCurrencyType(user, WalletCurrency.NGN).orElse(null);
-            if (fiat != null) {
-                hasFiatWallet = true;
-                fiatWalletAccountNumber = fiat.getAccountNumber();
-            }
+            walletBalances = walletService.getWalletBalances(wallets, user.getId());
         } catch (Exception e) {
             log.warn("Could not retrieve wallet information for user {}: {}", user.getEmail(), e.getMessage());
         }
 
+        Optional<Wallet> suiWallet = wallets.find(user.getId(), WalletCurrency.SUI);
+        Optional<Wallet> fiatWallet = wallets.find(user.getId(), WalletCurrency.NGN);
+        boolean hasSuiWallet = suiWallet.isPresent();
+        boolean hasFiatWallet = fiatWallet.isPresent();
+        String suiWalletAddress = suiWallet.map(Wallet::getWalletAddress).orElse(null);
+        String fiatWalletAccountNumber = fiatWallet.map(Wallet::getAccountNumber).orElse(null);
+
         return new LoginResponse(
                 message,
                 jwtUtil.generateToken(user.getEmail(), user.getId(), user.getRole()),
-                jwtUtil.generateRefreshToken(user.getEmail(), user.getId(), user.getRole()),
+                refreshToken,
                 user.getRole(),
                 true,
                 String.valueOf(user.getId()),
@@ -8,5 +8,9 @@ import org.springframework.stereotype.Component;
 @Component
 public interface UserService {
 
-    LoginResponse generateLoginResponse(User user, String message);
+    /**
+     * Builds the login response from the user's already loaded wallets. The refresh token is
+     * the one that was just persisted, so it is never signed twice.
+     */
+    LoginResponse generateLoginResponse(User user, String message, String refreshToken);
 }
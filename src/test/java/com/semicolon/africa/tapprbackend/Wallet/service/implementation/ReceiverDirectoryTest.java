@@ -0,0 +1,126 @@
+package com.semicolon.africa.tapprbackend.Wallet.service.implementation;
+
+import com.semicolon.africa.tapprbackend.Wallet.data.repositories.WalletRepository;
+import com.semicolon.africa.tapprbackend.Wallet.dtos.ReceiverWallet;
+import com.semicolon.africa.tapprbackend.Wallet.dtos.WalletDirectoryEntry;
+import com.semicolon.africa.tapprbackend.Wallet.enums.WalletCurrency;
+import com.semicolon.africa.tapprbackend.Wallet.events.WalletCreatedEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Receiver directory")
+class ReceiverDirectoryTest {
+
+    @Mock
+    private WalletRepository walletRepository;
+
+    private ReceiverDirectory directory;
+
+    @BeforeEach
+    void setUp() {
+        directory = new ReceiverDirectory(walletRepository, new SimpleMeterRegistry(), 16);
+        ReflectionTestUtils.setField(directory, "loadBatchSize", 2);
+    }
+
+    @Test
+    @DisplayName("Should bulk load every wallet by keyset and resolve them without queries")
+    void shouldLoadWalletsByKeyset() {
+        WalletDirectoryEntry first = fiat("0000000001");
+        WalletDirectoryEntry second = sui("sui_0123456789abcdef0123456789abcdef");
+        WalletDirectoryEntry third = fiat("9999999999");
+        when(walletRepository.findDirectoryEntries(any(Pageable.class))).thenReturn(List.of(first, second));
+        when(walletRepository.findDirectoryEntriesAfter(eq(second.walletId()), any(Pageable.class)))
+                .thenReturn(List.of(third));
+
+        directory.load();
+
+        assertEquals(3, directory.size());
+        assertEquals(receiverOf(first), directory.findByIdentifier("0000000001").orElseThrow());
+        assertEquals(receiverOf(second), directory.findByIdentifier(second.walletAddress()).orElseThrow());
+        assertEquals(receiverOf(third), directory.findByIdentifier("9999999999").orElseThrow());
+        verify(walletRepository, never()).findDirectoryEntryByAccountNumber(anyString());
+        verify(walletRepository, never()).findDirectoryEntryByWalletAddress(anyString());
+    }
+
+    @Test
+    @DisplayName("Should add wallets as they are created")
+    void shouldRegisterCreatedWallets() {
+        WalletDirectoryEntry wallet = sui("sui_ffffffffffffffff0000000000000001");
+
+        directory.onWalletCreated(new WalletCreatedEvent(wallet));
+
+        assertEquals(receiverOf(wallet), directory.findByIdentifier(wallet.walletAddress()).orElseThrow());
+        verifyNoInteractions(walletRepository);
+    }
+
+    @Test
+    @DisplayName("Should fall back to the database for wallets it has not seen and remember them")
+    void shouldFallBackToDatabaseOnMiss() {
+        WalletDirectoryEntry wallet = fiat("1234567890");
+        when(walletRepository.findDirectoryEntryByAccountNumber("1234567890")).thenReturn(Optional.of(wallet));
+
+        assertEquals(receiverOf(wallet), directory.findByIdentifier("1234567890").orElseThrow());
+        assertEquals(receiverOf(wallet), directory.findByIdentifier("1234567890").orElseThrow());
+
+        verify(walletRepository, times(1)).findDirectoryEntryByAccountNumber("1234567890");
+    }
+
+    @Test
+    @DisplayName("Should look up addresses it cannot encode in the database every time")
+    void shouldLookUpUnencodableAddressesInDatabase() {
+        when(walletRepository.findDirectoryEntryByWalletAddress("0xabc")).thenReturn(Optional.empty());
+
+        assertTrue(directory.findByIdentifier("0xabc").isEmpty());
+        assertTrue(directory.findByIdentifier("0xabc").isEmpty());
+
+        verify(walletRepository, times(2)).findDirectoryEntryByWalletAddress("0xabc");
+    }
+
+    @Test
+    @DisplayName("Should keep every entry reachable as the table grows")
+    void shouldGrowWithoutLosingEntries() {
+        List<WalletDirectoryEntry> wallets = new ArrayList<>();
+        for (int i = 0; i < 20_000; i++) {
+            WalletDirectoryEntry wallet = fiat(String.format("%010d", 3_000_000_000L + i * 7L));
+            wallets.add(wallet);
+            directory.onWalletCreated(new WalletCreatedEvent(wallet));
+        }
+
+        assertEquals(20_000, directory.size());
+        for (WalletDirectoryEntry wallet : wallets) {
+            assertEquals(receiverOf(wallet), directory.findByIdentifier(wallet.accountNumber()).orElseThrow());
+        }
+        verifyNoInteractions(walletRepository);
+    }
+
+    private static WalletDirectoryEntry fiat(String accountNumber) {
+        return new WalletDirectoryEntry(UUID.randomUUID(), UUID.randomUUID(), WalletCurrency.NGN, accountNumber, null);
+    }
+
+    private static WalletDirectoryEntry sui(String walletAddress) {
+        return new WalletDirectoryEntry(UUID.randomUUID(), UUID.randomUUID(), WalletCurrency.SUI, null, walletAddress);
+    }
+
+    private static ReceiverWallet receiverOf(WalletDirectoryEntry wallet) {
+        return new ReceiverWallet(wallet.userId(), wallet.walletId(), wallet.currency());
+    }
+}
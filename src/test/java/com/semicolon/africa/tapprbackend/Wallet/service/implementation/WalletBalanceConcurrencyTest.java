@@ -0,0 +1,153 @@
+package com.semicolon.africa.tapprbackend.Wallet.service.implementation;
+
+import com.semicolon.africa.tapprbackend.Wallet.data.model.Wallet;
+import com.semicolon.africa.tapprbackend.Wallet.data.repositories.WalletRepository;
+import com.semicolon.africa.tapprbackend.Wallet.enums.WalletCurrency;
+import com.semicolon.africa.tapprbackend.Wallet.exceptions.InsufficientBalanceException;
+import com.semicolon.africa.tapprbackend.Wallet.exceptions.WalletNotFoundException;
+import com.semicolon.africa.tapprbackend.Wallet.service.interfaces.WalletService;
+import com.semicolon.africa.tapprbackend.ledger.data.models.LedgerEntry;
+import com.semicolon.africa.tapprbackend.ledger.data.repositories.LedgerEntryRepository;
+import com.semicolon.africa.tapprbackend.ledger.enums.EntryDirection;
+import com.semicolon.africa.tapprbackend.ledger.enums.LedgerAccount;
+import com.semicolon.africa.tapprbackend.support.TestWallets;
+import com.semicolon.africa.tapprbackend.user.data.models.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("h2")
+@DisplayName("Wallet deposits and withdrawals under concurrency")
+class WalletBalanceConcurrencyTest {
+
+    private static final BigDecimal ONE = new BigDecimal("1.00");
+
+    @Autowired
+    private WalletService walletService;
+
+    @Autowired
+    private WalletRepository walletRepository;
+
+    @Autowired
+    private TestWallets testWallets;
+
+    @Autowired
+    private LedgerEntryRepository ledgerEntryRepository;
+
+    private User user;
+    private Wallet fiatWallet;
+
+    @BeforeEach
+    void setUp() {
+        user = testWallets.user("balance");
+        fiatWallet = testWallets.wallet(user, WalletCurrency.NGN, new BigDecimal("50.00"));
+    }
+
+    @Test
+    @DisplayName("Should apply every concurrent deposit and never overdraw on withdrawals")
+    void shouldKeepBalanceExactUnderConcurrency() throws Exception {
+        AtomicInteger rejected = new AtomicInteger();
+        List<Callable<Void>> operations = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            operations.add(() -> {
+                walletService.depositFiat(user.getId(), ONE);
+                return null;
+            });
+            operations.add(() -> {
+                try {
+                    walletService.withdrawFiat(user.getId(), new BigDecimal("2.00"));
+                } catch (InsufficientBalanceException e) {
+                    rejected.incrementAndGet();
+                }
+                return null;
+            });
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+        try {
+            for (Future<Void> future : executor.invokeAll(operations)) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+        }
+
+        // 50 + 100 deposits - 2 per accepted withdrawal
+        BigDecimal expected = new BigDecimal("150.00").subtract(BigDecimal.valueOf(2L * (100 - rejected.get())));
+        BigDecimal balance = walletRepository.findBalanceById(fiatWallet.getId());
+        assertEquals(0, expected.compareTo(balance), "expected " + expected + " but was " + balance);
+        assertTrue(balance.signum() >= 0);
+        // Every accepted change is on the ledger, on top of the opening balance
+        assertEquals(0, balance.subtract(new BigDecimal("50.00")).compareTo(ledgerNet(fiatWallet.getId())));
+    }
+
+    @Test
+    @DisplayName("Should post deposits and withdrawals against the external settlement account")
+    void shouldPostAgainstExternalSettlement() {
+        walletService.depositFiat(user.getId(), new BigDecimal("10.00"));
+        walletService.withdrawFiat(user.getId(), new BigDecimal("25.00"));
+
+        List<LedgerEntry> walletEntries = ledgerEntryRepository.findByWalletId(fiatWallet.getId());
+        assertEquals(2, walletEntries.size());
+        for (LedgerEntry walletEntry : walletEntries) {
+            List<LedgerEntry> posting = ledgerEntryRepository.findByPostingRef(walletEntry.getPostingRef());
+            assertEquals(2, posting.size());
+            LedgerEntry house = posting.stream()
+                    .filter(entry -> entry.getAccount() == LedgerAccount.EXTERNAL_SETTLEMENT)
+                    .findFirst().orElseThrow();
+            assertNotEquals(walletEntry.getDirection(), house.getDirection());
+            assertEquals(0, walletEntry.getAmount().compareTo(house.getAmount()));
+        }
+        assertEquals(new BigDecimal("-15.00"), ledgerNet(fiatWallet.getId()));
+        assertEquals(0, new BigDecimal("35.00").compareTo(walletRepository.findBalanceById(fiatWallet.getId())));
+    }
+
+    @Test
+    @DisplayName("Should reject a withdrawal the balance does not cover")
+    void shouldRejectUncoveredWithdrawal() {
+        InsufficientBalanceException exception = assertThrows(InsufficientBalanceException.class,
+                () -> walletService.withdrawFiat(user.getId(), new BigDecimal("50.01")));
+        assertEquals("Not enough fiat balance", exception.getMessage());
+        assertEquals(0, new BigDecimal("50.00").compareTo(walletRepository.findBalanceById(fiatWallet.getId())));
+        assertTrue(ledgerEntryRepository.findByWalletId(fiatWallet.getId()).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should report a missing wallet instead of an insufficient balance")
+    void shouldReportMissingWallet() {
+        assertThrows(WalletNotFoundException.class, () -> walletService.withdrawSui(user.getId(), ONE));
+        assertThrows(WalletNotFoundException.class, () -> walletService.depositSui(user.getId(), ONE));
+    }
+
+    @Test
+    @DisplayName("Should reject non-positive amounts")
+    void shouldRejectNonPositiveAmounts() {
+        assertThrows(IllegalArgumentException.class, () -> walletService.depositFiat(user.getId(), BigDecimal.ZERO));
+        assertThrows(IllegalArgumentException.class,
+                () -> walletService.withdrawFiat(user.getId(), new BigDecimal("-5.00")));
+    }
+
+    private BigDecimal ledgerNet(UUID walletId) {
+        return ledgerEntryRepository.findByWalletId(walletId).stream()
+                .map(entry -> entry.getDirection() == EntryDirection.CREDIT ? entry.getAmount() : entry.getAmount().negate())
+                .reduce(new BigDecimal("0.00"), BigDecimal::add);
+    }
+}
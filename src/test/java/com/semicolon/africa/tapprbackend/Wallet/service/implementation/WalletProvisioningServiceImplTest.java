@@ -0,0 +1,143 @@
+package com.semicolon.africa.tapprbackend.Wallet.service.implementation;
+
+import com.semicolon.africa.tapprbackend.Wallet.data.repositories.WalletRepository;
+import com.semicolon.africa.tapprbackend.Wallet.service.interfaces.WalletService;
+import com.semicolon.africa.tapprbackend.scheduling.services.interfaces.SchedulerLockService;
+import com.semicolon.africa.tapprbackend.security.UserStatusCache;
+import com.semicolon.africa.tapprbackend.user.data.models.User;
+import com.semicolon.africa.tapprbackend.user.data.repositories.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("WalletProvisioningService Implementation Tests")
+class WalletProvisioningServiceImplTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private WalletRepository walletRepository;
+
+    @Mock
+    private WalletService walletService;
+
+    @Mock
+    private UserStatusCache userStatusCache;
+
+    @Mock
+    private SchedulerLockService schedulerLockService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private WalletProvisioningServiceImpl provisioningService;
+
+    @BeforeEach
+    void setUp() {
+        provisioningService = new WalletProvisioningServiceImpl(
+                userRepository, walletRepository, walletService, userStatusCache, schedulerLockService, transactionManager);
+        ReflectionTestUtils.setField(provisioningService, "backfillBatchSize", 2);
+    }
+
+    @Test
+    @DisplayName("Should create missing wallets and mark the user as provisioned")
+    void shouldProvisionWalletsForUser() {
+        User user = user();
+        when(userRepository.findById(user.getId())).thenReturn(Optional.of(user));
+        when(walletRepository.findByUser(user)).thenReturn(new ArrayList<>());
+
+        provisioningService.provisionWallets(user.getId());
+
+        verify(walletService).createMissingWallets(user);
+        assertTrue(user.isHasWallet());
+        verify(userStatusCache).evict(user.getId());
+    }
+
+    @Test
+    @DisplayName("Should treat a concurrent duplicate wallet as already provisioned")
+    void shouldIgnoreConcurrentDuplicateWallet() {
+        User user = user();
+        when(userRepository.findById(user.getId())).thenReturn(Optional.of(user));
+        when(walletRepository.findByUser(user)).thenReturn(new ArrayList<>());
+        doThrow(new DataIntegrityViolationException("uk_wallets_user_currency"))
+                .doReturn(0)
+                .when(walletService).createMissingWallets(user);
+
+        assertEquals(0, provisioningService.provisionWallets(user.getId()));
+        // The wallet the other worker created is re-read and the user unblocked
+        assertTrue(user.isHasWallet());
+        verify(walletRepository, times(2)).findByUser(user);
+        verify(userStatusCache).evict(user.getId());
+    }
+
+    @Test
+    @DisplayName("Should page through users without wallets by keyset")
+    void shouldBackfillByKeyset() {
+        User first = user();
+        User second = user();
+        User third = user();
+        when(userRepository.findIdsWithoutWallets(any(Pageable.class)))
+                .thenReturn(List.of(first.getId(), second.getId()));
+        when(userRepository.findIdsWithoutWalletsAfter(eq(second.getId()), any(Pageable.class)))
+                .thenReturn(List.of(third.getId()));
+        when(userRepository.findAllWithWalletsByIdIn(anyList()))
+                .thenReturn(List.of(first, second))
+                .thenReturn(List.of(third));
+        when(walletService.createMissingWallets(any(User.class))).thenReturn(2, 1, 0);
+
+        int provisioned = provisioningService.backfillMissingWallets();
+
+        // Wallets created, not users visited
+        assertEquals(3, provisioned);
+        assertTrue(first.isHasWallet());
+        assertTrue(third.isHasWallet());
+        verify(walletService, times(3)).createMissingWallets(any(User.class));
+    }
+
+    @Test
+    @DisplayName("Should fall back to one user at a time when a batch fails")
+    void shouldFallBackToSingleUsersWhenBatchFails() {
+        User good = user();
+        User bad = user();
+        when(userRepository.findIdsWithoutWallets(any(Pageable.class)))
+                .thenReturn(List.of(good.getId(), bad.getId()));
+        when(userRepository.findIdsWithoutWalletsAfter(eq(bad.getId()), any(Pageable.class)))
+                .thenReturn(List.of());
+        when(userRepository.findAllWithWalletsByIdIn(anyList())).thenThrow(new IllegalStateException("boom"));
+        when(userRepository.findById(good.getId())).thenReturn(Optional.of(good));
+        when(userRepository.findById(bad.getId())).thenReturn(Optional.empty());
+        when(walletRepository.findByUser(good)).thenReturn(new ArrayList<>());
+        when(walletService.createMissingWallets(good)).thenReturn(2);
+
+        assertEquals(2, provisioningService.backfillMissingWallets());
+
+        assertTrue(good.isHasWallet());
+        verify(walletService).createMissingWallets(good);
+    }
+
+    private static User user() {
+        User user = new User();
+        user.setId(UUID.randomUUID());
+        user.setEmail(user.getId() + "@example.com");
+        return user;
+    }
+}
@@ -20,6 +20,7 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.math.BigDecimal;
 import java.util.Optional;
@@ -47,6 +48,9 @@ class WalletServiceImplTest {
     @Mock
     private JwtUtil jwtUtil;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private WalletServiceImpl walletService;
 
@@ -76,6 +80,7 @@ class WalletServiceImplTest {
         when(jwtUtil.extractUserId(validJwtToken)).thenReturn(testUser.getId().toString());
         when(userRepository.findById(testUser.getId())).thenReturn(Optional.of(testUser));
         when(walletRepository.findByUserAndCurrencyType(eq(testUser), any(WalletCurrency.class))).thenReturn(Optional.of(createMockWallet()));
+        when(walletRepository.save(any(Wallet.class))).thenAnswer(invocation -> invocation.getArgument(0));
 
         CreateWalletResponse response = walletService.createWalletForUser(validJwtToken, createWalletRequest);
 
@@ -101,6 +106,7 @@ class WalletServiceImplTest {
     public void shouldCreateCryptoWalletSuccessfully() {
         createWalletRequest.setType(WalletType.CRYPTO);
         createWalletRequest.setCurrencyType(WalletCurrency.SUI);
+        when(walletRepository.save(any(Wallet.class))).thenAnswer(invocation -> invocation.getArgument(0));
 
         Wallet cryptoWallet = createMockWallet();
         cryptoWallet.setWalletType(WalletType.CRYPTO);
@@ -0,0 +1,139 @@
+package com.semicolon.africa.tapprbackend.ledger.services.implementations;
+
+import com.semicolon.africa.tapprbackend.Wallet.data.model.Wallet;
+import com.semicolon.africa.tapprbackend.Wallet.data.repositories.WalletRepository;
+import com.semicolon.africa.tapprbackend.Wallet.enums.WalletCurrency;
+import com.semicolon.africa.tapprbackend.Wallet.exceptions.InsufficientBalanceException;
+import com.semicolon.africa.tapprbackend.ledger.data.models.LedgerEntry;
+import com.semicolon.africa.tapprbackend.ledger.data.repositories.LedgerEntryRepository;
+import com.semicolon.africa.tapprbackend.ledger.dtos.PostingLeg;
+import com.semicolon.africa.tapprbackend.ledger.services.interfaces.LedgerService;
+import com.semicolon.africa.tapprbackend.support.TestWallets;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("h2")
+@DisplayName("Ledger under concurrent payments")
+class LedgerConcurrencyTest {
+
+    private static final int THREADS = 32;
+    private static final BigDecimal ONE = new BigDecimal("1.00");
+
+    @Autowired
+    private LedgerService ledgerService;
+
+    @Autowired
+    private LedgerEntryRepository ledgerEntryRepository;
+
+    @Autowired
+    private WalletRepository walletRepository;
+
+    @Autowired
+    private TestWallets testWallets;
+
+    private Wallet merchantWallet;
+
+    @BeforeEach
+    void setUp() {
+        merchantWallet = testWallets.wallet("ledger", WalletCurrency.NGN, BigDecimal.ZERO);
+    }
+
+    @Test
+    @DisplayName("Should not lose credits when hundreds of payers hit the same merchant wallet")
+    void shouldNotLoseUpdatesOnHotMerchantWallet() throws Exception {
+        List<Wallet> payers = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            payers.add(testWallets.wallet("ledger", WalletCurrency.NGN, new BigDecimal("100.00")));
+        }
+
+        List<Callable<Void>> payments = new ArrayList<>();
+        for (int i = 0; i < 400; i++) {
+            Wallet payer = payers.get(i % payers.size());
+            payments.add(() -> {
+                pay(payer, ONE);
+                return null;
+            });
+        }
+        runConcurrently(payments);
+
+        assertBalance(merchantWallet, new BigDecimal("400.00"));
+        payers.forEach(payer -> assertBalance(payer, new BigDecimal("80.00")));
+
+        List<BigDecimal> runningBalances = ledgerEntryRepository.findByWalletId(merchantWallet.getId()).stream()
+                .map(LedgerEntry::getBalanceAfter)
+                .sorted()
+                .toList();
+        assertEquals(400, runningBalances.size());
+        for (int i = 0; i < runningBalances.size(); i++) {
+            assertEquals(0, runningBalances.get(i).compareTo(BigDecimal.valueOf(i + 1)),
+                    "every credit must observe the one before it");
+        }
+    }
+
+    @Test
+    @DisplayName("Should never overdraw a wallet under concurrent debits")
+    void shouldNeverOverdrawUnderConcurrentDebits() throws Exception {
+        Wallet payer = testWallets.wallet("ledger", WalletCurrency.NGN, new BigDecimal("100.00"));
+        AtomicInteger rejected = new AtomicInteger();
+
+        List<Callable<Void>> payments = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            payments.add(() -> {
+                try {
+                    pay(payer, ONE);
+                } catch (InsufficientBalanceException e) {
+                    rejected.incrementAndGet();
+                }
+                return null;
+            });
+        }
+        runConcurrently(payments);
+
+        assertEquals(200, rejected.get());
+        assertBalance(payer, new BigDecimal("0.00"));
+        assertBalance(merchantWallet, new BigDecimal("100.00"));
+        assertTrue(ledgerEntryRepository.findByWalletId(payer.getId()).stream()
+                .allMatch(entry -> entry.getBalanceAfter().signum() >= 0));
+    }
+
+    private void pay(Wallet payer, BigDecimal amount) {
+        ledgerService.post(UUID.randomUUID().toString(), List.of(
+                PostingLeg.debit(payer.getId(), WalletCurrency.NGN, amount),
+                PostingLeg.credit(merchantWallet.getId(), WalletCurrency.NGN, amount)));
+    }
+
+    private static void runConcurrently(List<Callable<Void>> tasks) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            for (Future<Void> future : executor.invokeAll(tasks)) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+        }
+    }
+
+    private void assertBalance(Wallet wallet, BigDecimal expected) {
+        BigDecimal actual = walletRepository.findBalanceById(wallet.getId());
+        assertEquals(0, expected.compareTo(actual), "expected " + expected + " but was " + actual);
+    }
+}
@@ -0,0 +1,210 @@
+package com.semicolon.africa.tapprbackend.ledger.services.implementations;
+
+import com.semicolon.africa.tapprbackend.Wallet.data.repositories.WalletRepository;
+import com.semicolon.africa.tapprbackend.Wallet.dtos.WalletBalance;
+import com.semicolon.africa.tapprbackend.Wallet.enums.WalletCurrency;
+import com.semicolon.africa.tapprbackend.Wallet.exceptions.InsufficientBalanceException;
+import com.semicolon.africa.tapprbackend.ledger.data.models.LedgerEntry;
+import com.semicolon.africa.tapprbackend.ledger.data.repositories.LedgerEntryRepository;
+import com.semicolon.africa.tapprbackend.ledger.data.repositories.LedgerPostingRepository;
+import com.semicolon.africa.tapprbackend.ledger.dtos.Payout;
+import com.semicolon.africa.tapprbackend.ledger.dtos.PostingLeg;
+import com.semicolon.africa.tapprbackend.ledger.enums.EntryDirection;
+import com.semicolon.africa.tapprbackend.ledger.enums.LedgerAccount;
+import com.semicolon.africa.tapprbackend.ledger.exceptions.UnbalancedPostingException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("LedgerService Implementation Tests")
+class LedgerServiceImplTest {
+
+    private static final BigDecimal AMOUNT = new BigDecimal("250.00");
+
+    @Mock
+    private WalletRepository walletRepository;
+
+    @Mock
+    private LedgerEntryRepository ledgerEntryRepository;
+
+    @Mock
+    private LedgerPostingRepository ledgerPostingRepository;
+
+    @Mock
+    private ShardedPostingWriter shardedPostingWriter;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @InjectMocks
+    private LedgerServiceImpl ledgerService;
+
+    @Test
+    @DisplayName("Should record each leg with the wallet balance it left behind")
+    void shouldRecordRunningBalances() {
+        UUID payer = UUID.randomUUID();
+        UUID merchant = UUID.randomUUID();
+        when(walletRepository.debit(payer, AMOUNT)).thenReturn(1);
+        when(walletRepository.credit(merchant, AMOUNT)).thenReturn(1);
+        when(walletRepository.findBalanceById(payer)).thenReturn(new BigDecimal("750.00"));
+        when(walletRepository.findBalanceById(merchant)).thenReturn(new BigDecimal("1250.00"));
+        when(ledgerEntryRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        List<LedgerEntry> entries = ledgerService.post("ref-1", List.of(
+                PostingLeg.debit(payer, WalletCurrency.NGN, AMOUNT),
+                PostingLeg.credit(merchant, WalletCurrency.NGN, AMOUNT)));
+
+        assertEquals(2, entries.size());
+        LedgerEntry debit = entries.stream().filter(e -> e.getDirection() == EntryDirection.DEBIT).findFirst().orElseThrow();
+        LedgerEntry credit = entries.stream().filter(e -> e.getDirection() == EntryDirection.CREDIT).findFirst().orElseThrow();
+        assertEquals(new BigDecimal("750.00"), debit.getBalanceAfter());
+        assertEquals(new BigDecimal("1250.00"), credit.getBalanceAfter());
+        assertTrue(entries.stream().allMatch(e -> "ref-1".equals(e.getPostingRef())));
+    }
+
+    @Test
+    @DisplayName("Should update wallets in id order regardless of leg order")
+    void shouldLockWalletsInIdOrder() {
+        UUID low = new UUID(0, 1);
+        UUID high = new UUID(0, 2);
+        when(walletRepository.debit(high, AMOUNT)).thenReturn(1);
+        when(walletRepository.credit(low, AMOUNT)).thenReturn(1);
+
+        ledgerService.post("ref-2", List.of(
+                PostingLeg.debit(high, WalletCurrency.NGN, AMOUNT),
+                PostingLeg.credit(low, WalletCurrency.NGN, AMOUNT)));
+
+        InOrder inOrder = inOrder(walletRepository);
+        inOrder.verify(walletRepository).credit(low, AMOUNT);
+        inOrder.verify(walletRepository).debit(high, AMOUNT);
+    }
+
+    @Test
+    @DisplayName("Should fail the posting when the debit is not covered")
+    void shouldRejectUncoveredDebit() {
+        UUID payer = UUID.randomUUID();
+        UUID merchant = UUID.randomUUID();
+        lenient().when(walletRepository.credit(merchant, AMOUNT)).thenReturn(1);
+        when(walletRepository.debit(payer, AMOUNT)).thenReturn(0);
+
+        assertThrows(InsufficientBalanceException.class, () -> ledgerService.post("ref-3", List.of(
+                PostingLeg.debit(payer, WalletCurrency.NGN, AMOUNT),
+                PostingLeg.credit(merchant, WalletCurrency.NGN, AMOUNT))));
+        verify(ledgerEntryRepository, never()).saveAll(anyList());
+    }
+
+    @Test
+    @DisplayName("Should answer a posting ref already on the ledger without moving money again")
+    void shouldReplayPostingAlreadyOnLedger() {
+        UUID payer = UUID.randomUUID();
+        UUID merchant = UUID.randomUUID();
+        LedgerEntry existing = Postings.toEntry("ref-6", PostingLeg.debit(payer, WalletCurrency.NGN, AMOUNT), AMOUNT);
+        when(ledgerEntryRepository.findByPostingRef("ref-6")).thenReturn(List.of(existing));
+
+        List<LedgerEntry> entries = ledgerService.post("ref-6", List.of(
+                PostingLeg.debit(payer, WalletCurrency.NGN, AMOUNT),
+                PostingLeg.credit(merchant, WalletCurrency.NGN, AMOUNT)));
+
+        assertEquals(List.of(existing), entries);
+        verifyNoInteractions(walletRepository, ledgerPostingRepository);
+        verify(ledgerEntryRepository, never()).saveAll(anyList());
+    }
+
+    @Test
+    @DisplayName("Should claim the posting ref before touching any wallet")
+    void shouldClaimPostingRefFirst() {
+        UUID payer = UUID.randomUUID();
+        UUID merchant = UUID.randomUUID();
+        when(walletRepository.debit(payer, AMOUNT)).thenReturn(1);
+        when(walletRepository.credit(merchant, AMOUNT)).thenReturn(1);
+
+        ledgerService.post("ref-7", List.of(
+                PostingLeg.debit(payer, WalletCurrency.NGN, AMOUNT),
+                PostingLeg.credit(merchant, WalletCurrency.NGN, AMOUNT)));
+
+        InOrder inOrder = inOrder(ledgerPostingRepository, walletRepository);
+        inOrder.verify(ledgerPostingRepository).insert(eq("ref-7"), any());
+        inOrder.verify(walletRepository).debit(payer, AMOUNT);
+    }
+
+    @Test
+    @DisplayName("Should reject postings that do not balance per currency")
+    void shouldRejectUnbalancedPosting() {
+        UUID payer = UUID.randomUUID();
+        UUID merchant = UUID.randomUUID();
+
+        assertThrows(UnbalancedPostingException.class, () -> ledgerService.post("ref-4", List.of(
+                PostingLeg.debit(payer, WalletCurrency.NGN, AMOUNT),
+                PostingLeg.credit(merchant, WalletCurrency.SUI, AMOUNT))));
+        verifyNoInteractions(walletRepository, ledgerEntryRepository);
+    }
+
+    @Test
+    @DisplayName("Should balance a conversion through the FX clearing account")
+    void shouldAcceptBalancedConversion() {
+        UUID payer = UUID.randomUUID();
+        UUID merchant = UUID.randomUUID();
+        BigDecimal sui = new BigDecimal("0.72");
+        when(walletRepository.debit(payer, AMOUNT)).thenReturn(1);
+        when(walletRepository.credit(merchant, sui)).thenReturn(1);
+
+        assertDoesNotThrow(() -> ledgerService.post("ref-5", List.of(
+                PostingLeg.debit(payer, WalletCurrency.NGN, AMOUNT),
+                PostingLeg.house(LedgerAccount.FX_CLEARING, EntryDirection.CREDIT, WalletCurrency.NGN, AMOUNT),
+                PostingLeg.house(LedgerAccount.FX_CLEARING, EntryDirection.DEBIT, WalletCurrency.SUI, sui),
+                PostingLeg.credit(merchant, WalletCurrency.SUI, sui))));
+    }
+
+    @Test
+    @DisplayName("Should debit the source once and credit each receiver once for a batch of payouts")
+    void shouldFanOutPayoutsWithOneUpdatePerWallet() {
+        UUID source = new UUID(0, 5);
+        UUID first = new UUID(0, 1);
+        UUID second = new UUID(0, 9);
+        when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenReturn(new int[]{1});
+        when(walletRepository.debit(source, new BigDecimal("60.00"))).thenReturn(1);
+        when(walletRepository.findBalancesByIdIn(anyCollection())).thenReturn(List.of(
+                new WalletBalance(source, new BigDecimal("40.00")),
+                new WalletBalance(first, new BigDecimal("30.00")),
+                new WalletBalance(second, new BigDecimal("30.00"))));
+        when(ledgerEntryRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        List<LedgerEntry> entries = ledgerService.postPayouts(source, WalletCurrency.NGN, List.of(
+                new Payout("p-1", first, new BigDecimal("10.00")),
+                new Payout("p-2", second, new BigDecimal("30.00")),
+                new Payout("p-3", first, new BigDecimal("20.00"))));
+
+        InOrder inOrder = inOrder(jdbcTemplate, walletRepository);
+        inOrder.verify(jdbcTemplate).batchUpdate(anyString(), argThat((List<Object[]> args) ->
+                args.size() == 1 && new BigDecimal("30.00").equals(args.get(0)[0])));
+        inOrder.verify(walletRepository).debit(source, new BigDecimal("60.00"));
+        inOrder.verify(jdbcTemplate).batchUpdate(anyString(), argThat((List<Object[]> args) ->
+                args.size() == 1 && second.toString().equals(args.get(0)[1])));
+        verify(walletRepository, never()).credit(any(), any());
+
+        assertEquals(6, entries.size());
+        assertEquals(List.of("90.00", "10.00", "60.00", "30.00", "40.00", "30.00"), entries.stream()
+                .map(entry -> entry.getBalanceAfter().toPlainString())
+                .toList());
+    }
+}
@@ -0,0 +1,184 @@
+package com.semicolon.africa.tapprbackend.ledger.services.implementations;
+
+import com.semicolon.africa.tapprbackend.Wallet.data.model.Wallet;
+import com.semicolon.africa.tapprbackend.Wallet.data.repositories.WalletRepository;
+import com.semicolon.africa.tapprbackend.Wallet.enums.WalletCurrency;
+import com.semicolon.africa.tapprbackend.Wallet.exceptions.InsufficientBalanceException;
+import com.semicolon.africa.tapprbackend.Wallet.exceptions.WalletNotFoundException;
+import com.semicolon.africa.tapprbackend.ledger.data.models.LedgerEntry;
+import com.semicolon.africa.tapprbackend.ledger.data.repositories.LedgerEntryRepository;
+import com.semicolon.africa.tapprbackend.ledger.dtos.PostingLeg;
+import com.semicolon.africa.tapprbackend.ledger.services.interfaces.LedgerService;
+import com.semicolon.africa.tapprbackend.support.TestWallets;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {"ledger.sharding.enabled=true", "ledger.sharding.shards=4"})
+@ActiveProfiles("h2")
+@DisplayName("Sharded ledger writer")
+class ShardedPostingWriterTest {
+
+    private static final BigDecimal ONE = new BigDecimal("1.00");
+
+    @Autowired
+    private LedgerService ledgerService;
+
+    @Autowired
+    private LedgerEntryRepository ledgerEntryRepository;
+
+    @Autowired
+    private WalletRepository walletRepository;
+
+    @Autowired
+    private TestWallets testWallets;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Wallet merchantWallet;
+
+    @BeforeEach
+    void setUp() {
+        merchantWallet = testWallets.wallet("shard", WalletCurrency.NGN, BigDecimal.ZERO);
+    }
+
+    @Test
+    @DisplayName("Should coalesce credits to a hot wallet without losing any")
+    void shouldCoalesceCreditsToHotWallet() throws Exception {
+        List<Wallet> payers = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            payers.add(testWallets.wallet("shard", WalletCurrency.NGN, new BigDecimal("100.00")));
+        }
+        long batchesBefore = batchCount();
+
+        List<Callable<Void>> payments = new ArrayList<>();
+        for (int i = 0; i < 400; i++) {
+            Wallet payer = payers.get(i % payers.size());
+            payments.add(() -> {
+                pay(payer, merchantWallet.getId());
+                return null;
+            });
+        }
+        runConcurrently(payments);
+
+        assertBalance(merchantWallet, new BigDecimal("400.00"));
+        payers.forEach(payer -> assertBalance(payer, new BigDecimal("80.00")));
+        assertTrue(batchCount() - batchesBefore < 400, "credits were never batched");
+
+        List<BigDecimal> runningBalances = ledgerEntryRepository.findByWalletId(merchantWallet.getId()).stream()
+                .map(LedgerEntry::getBalanceAfter)
+                .sorted()
+                .toList();
+        assertEquals(400, runningBalances.size());
+        for (int i = 0; i < runningBalances.size(); i++) {
+            assertEquals(0, runningBalances.get(i).compareTo(BigDecimal.valueOf(i + 1)));
+        }
+    }
+
+    @Test
+    @DisplayName("Should reject only the postings a batch cannot cover")
+    void shouldRejectUncoveredPostingsInBatch() throws Exception {
+        Wallet payer = testWallets.wallet("shard", WalletCurrency.NGN, new BigDecimal("100.00"));
+        AtomicInteger rejected = new AtomicInteger();
+
+        List<Callable<Void>> payments = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            payments.add(() -> {
+                try {
+                    pay(payer, merchantWallet.getId());
+                } catch (InsufficientBalanceException e) {
+                    rejected.incrementAndGet();
+                }
+                return null;
+            });
+        }
+        runConcurrently(payments);
+
+        assertEquals(200, rejected.get());
+        assertBalance(payer, new BigDecimal("0.00"));
+        assertBalance(merchantWallet, new BigDecimal("100.00"));
+        assertEquals(100, ledgerEntryRepository.findByWalletId(merchantWallet.getId()).size());
+    }
+
+    @Test
+    @DisplayName("Should fail a posting that credits a missing wallet and roll back its debit")
+    void shouldFailPostingToMissingWallet() {
+        Wallet payer = testWallets.wallet("shard", WalletCurrency.NGN, new BigDecimal("10.00"));
+
+        assertThrows(WalletNotFoundException.class, () -> pay(payer, UUID.randomUUID()));
+        assertBalance(payer, new BigDecimal("10.00"));
+
+        pay(payer, merchantWallet.getId());
+        assertBalance(merchantWallet, ONE);
+    }
+
+    @Test
+    @DisplayName("Should settle a posting ref once however often it is handed in")
+    void shouldSettlePostingRefOnce() throws Exception {
+        Wallet payer = testWallets.wallet("shard", WalletCurrency.NGN, new BigDecimal("10.00"));
+        String postingRef = UUID.randomUUID().toString();
+
+        List<Callable<Void>> retries = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            retries.add(() -> {
+                pay(payer, merchantWallet.getId(), postingRef);
+                return null;
+            });
+        }
+        runConcurrently(retries);
+        pay(payer, merchantWallet.getId(), postingRef);
+
+        assertBalance(payer, new BigDecimal("9.00"));
+        assertBalance(merchantWallet, ONE);
+        assertEquals(2, ledgerEntryRepository.findByPostingRef(postingRef).size());
+    }
+
+    private void pay(Wallet payer, UUID merchantWalletId) {
+        pay(payer, merchantWalletId, UUID.randomUUID().toString());
+    }
+
+    private void pay(Wallet payer, UUID merchantWalletId, String postingRef) {
+        ledgerService.post(postingRef, List.of(
+                PostingLeg.debit(payer.getId(), WalletCurrency.NGN, ONE),
+                PostingLeg.credit(merchantWalletId, WalletCurrency.NGN, ONE)));
+    }
+
+    private long batchCount() {
+        return meterRegistry.get("ledger.sharded.batch.size").summary().count();
+    }
+
+    private static void runConcurrently(List<Callable<Void>> tasks) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(32);
+        try {
+            for (Future<Void> future : executor.invokeAll(tasks)) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+        }
+    }
+
+    private void assertBalance(Wallet wallet, BigDecimal expected) {
+        BigDecimal actual = walletRepository.findBalanceById(wallet.getId());
+        assertEquals(0, expected.compareTo(actual), "expected " + expected + " but was " + actual);
+    }
+}
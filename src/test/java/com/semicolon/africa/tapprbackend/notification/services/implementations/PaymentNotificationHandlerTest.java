@@ -0,0 +1,114 @@
+package com.semicolon.africa.tapprbackend.notification.services.implementations;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.semicolon.africa.tapprbackend.Wallet.enums.WalletCurrency;
+import com.semicolon.africa.tapprbackend.notification.data.Notification;
+import com.semicolon.africa.tapprbackend.notification.data.repositories.NotificationRepository;
+import com.semicolon.africa.tapprbackend.outbox.dtos.OutboxMessage;
+import com.semicolon.africa.tapprbackend.outbox.enums.OutboxEventType;
+import com.semicolon.africa.tapprbackend.transaction.enums.TransactionStatus;
+import com.semicolon.africa.tapprbackend.transaction.events.TransactionEvent;
+import com.semicolon.africa.tapprbackend.user.data.models.User;
+import com.semicolon.africa.tapprbackend.user.data.repositories.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Payment notifications")
+class PaymentNotificationHandlerTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    @Mock
+    private NotificationRepository notificationRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    private PaymentNotificationHandler handler;
+    private User sender;
+    private User receiver;
+
+    @BeforeEach
+    void setUp() {
+        handler = new PaymentNotificationHandler(notificationRepository, userRepository, objectMapper);
+        sender = user();
+        receiver = user();
+    }
+
+    @Test
+    @DisplayName("Should notify both parties once a payment settles")
+    void shouldNotifySenderAndReceiverOnSettlement() throws Exception {
+        OutboxMessage message = message(OutboxEventType.TRANSACTION_SETTLED, TransactionStatus.SUCCESS, null);
+        when(userRepository.findAllById(List.of(sender.getId(), receiver.getId()))).thenReturn(List.of(sender, receiver));
+
+        handler.handle(message);
+
+        List<Notification> saved = captureSaved();
+        assertEquals(2, saved.size());
+        assertEquals("You sent 100.00 NGN. Ref: ref-1", saved.get(0).getMessage());
+        assertEquals("You received 100.00 NGN. Ref: ref-1", saved.get(1).getMessage());
+        assertTrue(saved.stream().allMatch(notification -> message.eventId().equals(notification.getEventId())));
+    }
+
+    @Test
+    @DisplayName("Should tell only the sender why a payment failed")
+    void shouldNotifySenderOnFailure() throws Exception {
+        OutboxMessage message = message(OutboxEventType.TRANSACTION_FAILED, TransactionStatus.FAILED, "Insufficient balance");
+        when(userRepository.findAllById(List.of(sender.getId()))).thenReturn(List.of(sender));
+
+        handler.handle(message);
+
+        List<Notification> saved = captureSaved();
+        assertEquals(1, saved.size());
+        assertSame(sender, saved.get(0).getUser());
+        assertEquals("Your payment of 100.00 NGN failed: Insufficient balance. Ref: ref-1", saved.get(0).getMessage());
+    }
+
+    @Test
+    @DisplayName("Should ignore an event it already handled")
+    void shouldIgnoreRedeliveredEvent() throws Exception {
+        OutboxMessage message = message(OutboxEventType.TRANSACTION_SETTLED, TransactionStatus.SUCCESS, null);
+        when(notificationRepository.existsByEventId(message.eventId())).thenReturn(true);
+
+        handler.handle(message);
+
+        verify(notificationRepository, never()).saveAll(anyList());
+        verifyNoInteractions(userRepository);
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Notification> captureSaved() {
+        ArgumentCaptor<List<Notification>> captor = ArgumentCaptor.forClass(List.class);
+        verify(notificationRepository).saveAll(captor.capture());
+        return captor.getValue();
+    }
+
+    private OutboxMessage message(OutboxEventType type, TransactionStatus status, String failureReason) throws Exception {
+        TransactionEvent event = new TransactionEvent("tx-1", "ref-1", sender.getId().toString(),
+                receiver.getId().toString(), new BigDecimal("100.00"), WalletCurrency.NGN, status, failureReason,
+                LocalDateTime.now(), LocalDateTime.now());
+        return new OutboxMessage(UUID.randomUUID(), type, "tx-1", objectMapper.writeValueAsString(event), 1,
+                LocalDateTime.now());
+    }
+
+    private static User user() {
+        User user = new User();
+        user.setId(UUID.randomUUID());
+        return user;
+    }
+}
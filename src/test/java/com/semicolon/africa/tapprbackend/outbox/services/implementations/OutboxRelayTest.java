@@ -0,0 +1,233 @@
+package com.semicolon.africa.tapprbackend.outbox.services.implementations;
+
+import com.semicolon.africa.tapprbackend.outbox.data.models.OutboxEvent;
+import com.semicolon.africa.tapprbackend.outbox.data.repositories.OutboxEventRepository;
+import com.semicolon.africa.tapprbackend.outbox.dtos.OutboxMessage;
+import com.semicolon.africa.tapprbackend.outbox.enums.OutboxEventType;
+import com.semicolon.africa.tapprbackend.outbox.enums.OutboxStatus;
+import com.semicolon.africa.tapprbackend.outbox.services.interfaces.OutboxEventHandler;
+import com.semicolon.africa.tapprbackend.outbox.services.interfaces.OutboxService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.IllegalTransactionStateException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "outbox.retry-backoff-ms=0",
+        "outbox.max-attempts=3"
+})
+@ActiveProfiles("h2")
+@DisplayName("Outbox relay")
+class OutboxRelayTest {
+
+    @Autowired
+    private OutboxService outboxService;
+
+    @Autowired
+    private OutboxRelay outboxRelay;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private RecordingHandler handler;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    @DisplayName("Should deliver a committed event once and mark it published")
+    void shouldDeliverCommittedEventOnce() {
+        String aggregateId = UUID.randomUUID().toString();
+        double publishedBefore = publishedCount();
+
+        appendCommitted(aggregateId);
+        outboxRelay.relay();
+        outboxRelay.relay();
+
+        List<OutboxMessage> delivered = handler.deliveredFor(aggregateId);
+        assertEquals(1, delivered.size());
+        assertEquals(OutboxEventType.WALLET_DEPOSITED, delivered.get(0).eventType());
+        assertEquals("{\"amount\":\"25.00\"}", delivered.get(0).payload());
+
+        OutboxEvent event = eventFor(aggregateId);
+        assertEquals(OutboxStatus.PUBLISHED, event.getStatus());
+        assertNotNull(event.getPublishedAt());
+        assertTrue(publishedCount() >= publishedBefore + 1);
+    }
+
+    @Test
+    @DisplayName("Should not record an event whose transaction rolled back")
+    void shouldDropEventOfRolledBackTransaction() {
+        String aggregateId = UUID.randomUUID().toString();
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            outboxService.append(OutboxEventType.WALLET_DEPOSITED, aggregateId, Map.of("amount", "25.00"));
+            status.setRollbackOnly();
+        });
+        outboxRelay.relay();
+
+        assertTrue(handler.deliveredFor(aggregateId).isEmpty());
+        assertTrue(outboxEventRepository.findAll().stream()
+                .noneMatch(event -> event.getAggregateId().equals(aggregateId)));
+    }
+
+    @Test
+    @DisplayName("Should redeliver an event after its handler fails until it goes through")
+    void shouldRedeliverAfterHandlerFailure() {
+        String aggregateId = UUID.randomUUID().toString();
+        handler.failNext(aggregateId, 2);
+
+        appendCommitted(aggregateId);
+        outboxRelay.relay();
+
+        OutboxEvent retrying = eventFor(aggregateId);
+        assertEquals(OutboxStatus.PENDING, retrying.getStatus());
+        assertEquals(1, retrying.getAttempts());
+        assertEquals("handler unavailable", retrying.getLastError());
+
+        outboxRelay.relay();
+        outboxRelay.relay();
+
+        assertEquals(List.of(1, 2, 3), handler.deliveredFor(aggregateId).stream().map(OutboxMessage::attempt).toList());
+        assertEquals(OutboxStatus.PUBLISHED, eventFor(aggregateId).getStatus());
+    }
+
+    @Test
+    @DisplayName("Should park an event as failed once it runs out of attempts")
+    void shouldParkEventAfterMaxAttempts() {
+        String aggregateId = UUID.randomUUID().toString();
+        handler.failNext(aggregateId, 10);
+
+        appendCommitted(aggregateId);
+        for (int run = 0; run < 5; run++) {
+            outboxRelay.relay();
+        }
+
+        assertEquals(3, handler.deliveredFor(aggregateId).size());
+        OutboxEvent event = eventFor(aggregateId);
+        assertEquals(OutboxStatus.FAILED, event.getStatus());
+        assertEquals(3, event.getAttempts());
+    }
+
+    @Test
+    @DisplayName("Should commit the claim before running handlers")
+    void shouldDeliverOutsideClaimTransaction() {
+        String aggregateId = UUID.randomUUID().toString();
+        List<OutboxEvent> seenByHandler = new CopyOnWriteArrayList<>();
+        handler.onHandle(aggregateId, message ->
+                seenByHandler.add(outboxEventRepository.findById(message.eventId()).orElseThrow()));
+
+        appendCommitted(aggregateId);
+        outboxRelay.relay();
+
+        // Read from the handler's own connection, so only a committed claim is visible
+        assertEquals(1, seenByHandler.size());
+        assertTrue(seenByHandler.get(0).getAvailableAt().isAfter(LocalDateTime.now()));
+        assertEquals(OutboxStatus.PUBLISHED, eventFor(aggregateId).getStatus());
+    }
+
+    @Test
+    @DisplayName("Should leave events without a handler pending instead of marking them published")
+    void shouldLeaveUnhandledEventsPending() {
+        String aggregateId = UUID.randomUUID().toString();
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                outboxService.append(OutboxEventType.TRANSACTION_ACCEPTED, aggregateId, Map.of("amount", "25.00")));
+        outboxRelay.relay();
+
+        OutboxEvent event = eventFor(aggregateId);
+        assertEquals(OutboxStatus.PENDING, event.getStatus());
+        assertEquals(0, event.getAttempts());
+        assertNull(event.getPublishedAt());
+    }
+
+    @Test
+    @DisplayName("Should refuse to record an event outside a transaction")
+    void shouldRequireTransactionToAppend() {
+        assertThrows(IllegalTransactionStateException.class, () -> outboxService.append(
+                OutboxEventType.WALLET_DEPOSITED, UUID.randomUUID().toString(), Map.of("amount", "25.00")));
+    }
+
+    private void appendCommitted(String aggregateId) {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                outboxService.append(OutboxEventType.WALLET_DEPOSITED, aggregateId, Map.of("amount", "25.00")));
+    }
+
+    private OutboxEvent eventFor(String aggregateId) {
+        return outboxEventRepository.findAll().stream()
+                .filter(event -> event.getAggregateId().equals(aggregateId))
+                .findFirst()
+                .orElseThrow();
+    }
+
+    private double publishedCount() {
+        return meterRegistry.get("outbox.events").tag("outcome", "published").counter().count();
+    }
+
+    @TestConfiguration
+    static class HandlerConfig {
+
+        @Bean
+        RecordingHandler recordingHandler() {
+            return new RecordingHandler();
+        }
+    }
+
+    // Other tests share the database, so everything is keyed by the test's own aggregate id
+    static class RecordingHandler implements OutboxEventHandler {
+
+        private final List<OutboxMessage> delivered = new CopyOnWriteArrayList<>();
+        private final Map<String, AtomicInteger> failuresLeft = new ConcurrentHashMap<>();
+        private final Map<String, Consumer<OutboxMessage>> observers = new ConcurrentHashMap<>();
+
+        @Override
+        public Set<OutboxEventType> eventTypes() {
+            return Set.of(OutboxEventType.WALLET_DEPOSITED);
+        }
+
+        @Override
+        public void handle(OutboxMessage message) {
+            delivered.add(message);
+            observers.getOrDefault(message.aggregateId(), ignored -> { }).accept(message);
+            AtomicInteger failures = failuresLeft.get(message.aggregateId());
+            if (failures != null && failures.getAndDecrement() > 0) {
+                throw new IllegalStateException("handler unavailable");
+            }
+        }
+
+        void onHandle(String aggregateId, Consumer<OutboxMessage> observer) {
+            observers.put(aggregateId, observer);
+        }
+
+        void failNext(String aggregateId, int times) {
+            failuresLeft.put(aggregateId, new AtomicInteger(times));
+        }
+
+        List<OutboxMessage> deliveredFor(String aggregateId) {
+            return delivered.stream().filter(message -> message.aggregateId().equals(aggregateId)).toList();
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.semicolon.africa.tapprbackend.scheduling.services.implementations;
+
+import com.semicolon.africa.tapprbackend.scheduling.data.repositories.SchedulerLockRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("h2")
+@DisplayName("Scheduler lock")
+class SchedulerLockServiceImplTest {
+
+    private static final Duration LEASE = Duration.ofMinutes(5);
+
+    @Autowired
+    private SchedulerLockRepository schedulerLockRepository;
+
+    private final AtomicInteger runs = new AtomicInteger();
+    private SchedulerLockServiceImpl first;
+    private SchedulerLockServiceImpl second;
+    private String job;
+
+    @BeforeEach
+    void setUp() {
+        first = new SchedulerLockServiceImpl(schedulerLockRepository);
+        second = new SchedulerLockServiceImpl(schedulerLockRepository);
+        job = "job-" + UUID.randomUUID().toString().substring(0, 8);
+    }
+
+    @Test
+    @DisplayName("Should run a job on one instance only while its lease holds")
+    void shouldRunOnOneInstanceWhileLeaseHolds() {
+        assertTrue(first.runIfLeader(job, LEASE, runs::incrementAndGet));
+        assertFalse(second.runIfLeader(job, LEASE, runs::incrementAndGet));
+        // The holder renews its own lease on each run
+        assertTrue(first.runIfLeader(job, LEASE, runs::incrementAndGet));
+        assertFalse(second.runIfLeader(job, LEASE, runs::incrementAndGet));
+
+        assertEquals(2, runs.get());
+    }
+
+    @Test
+    @DisplayName("Should let another instance take over once the lease lapses")
+    void shouldTakeOverLapsedLease() throws InterruptedException {
+        assertTrue(first.runIfLeader(job, Duration.ofMillis(50), runs::incrementAndGet));
+        Thread.sleep(100);
+
+        assertTrue(second.runIfLeader(job, LEASE, runs::incrementAndGet));
+        assertFalse(first.runIfLeader(job, LEASE, runs::incrementAndGet));
+        assertEquals(2, runs.get());
+    }
+
+    @Test
+    @DisplayName("Should hand leases over straight away when the holder shuts down")
+    void shouldReleaseLeasesOnShutdown() {
+        assertTrue(first.runIfLeader(job, LEASE, runs::incrementAndGet));
+
+        first.releaseAll();
+
+        assertTrue(second.runIfLeader(job, LEASE, runs::incrementAndGet));
+    }
+
+    @Test
+    @DisplayName("Should let exactly one of many instances take a new job's lease")
+    void shouldElectOneLeaderUnderContention() throws Exception {
+        int instances = 8;
+        ExecutorService pool = Executors.newFixedThreadPool(instances);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (int i = 0; i < instances; i++) {
+                SchedulerLockServiceImpl instance = new SchedulerLockServiceImpl(schedulerLockRepository);
+                results.add(pool.submit(() -> {
+                    start.await();
+                    return instance.runIfLeader(job, LEASE, runs::incrementAndGet);
+                }));
+            }
+            start.countDown();
+
+            int leaders = 0;
+            for (Future<Boolean> result : results) {
+                leaders += result.get() ? 1 : 0;
+            }
+            assertEquals(1, leaders);
+            assertEquals(1, runs.get());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.semicolon.africa.tapprbackend.security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("AuthRateLimitFilter Tests")
+class AuthRateLimitFilterTest {
+
+    private AuthRateLimitFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        filter = new AuthRateLimitFilter(objectMapper, new SimpleMeterRegistry(), 1_000, 100, 2, 100, 1, 100);
+    }
+
+    @Test
+    @DisplayName("Should limit logins per normalized email across addresses")
+    void shouldLimitLoginsPerNormalizedEmail() throws Exception {
+        assertEquals(200, login("10.0.0.1", "John.Doe@Example.com").getStatus());
+        assertEquals(200, login("10.0.0.2", " john.doe@example.com ").getStatus());
+
+        MockHttpServletResponse rejected = login("10.0.0.3", "JOHN.DOE@EXAMPLE.COM");
+        assertEquals(429, rejected.getStatus());
+        assertNotNull(rejected.getHeader("Retry-After"));
+        assertTrue(rejected.getContentAsString().contains("Too many attempts"));
+        assertTrue(rejected.getContentAsString().contains("\"path\":\"/api/v1/auth/login\""));
+    }
+
+    @Test
+    @DisplayName("Should hand the untouched body to the rest of the chain")
+    void shouldReplayBodyDownstream() throws Exception {
+        MockFilterChain chain = new MockFilterChain();
+        String body = "{\"email\":\"jane@example.com\",\"password\":\"securePassword123\"}";
+
+        filter.doFilter(post("/api/v1/auth/login", "10.0.0.1", body), new MockHttpServletResponse(), chain);
+
+        byte[] replayed = chain.getRequest().getInputStream().readAllBytes();
+        assertEquals(body, new String(replayed, StandardCharsets.UTF_8));
+    }
+
+    @Test
+    @DisplayName("Should limit registrations per phone number whatever the formatting")
+    void shouldLimitRegistrationsPerPhoneNumber() throws Exception {
+        String first = "{\"email\":\"a@example.com\",\"phoneNumber\":\"+234 812 345 6789\"}";
+        String second = "{\"email\":\"b@example.com\",\"phoneNumber\":\"+2348123456789\"}";
+
+        assertEquals(200, run(post("/api/v1/auth/register", "10.0.0.1", first)).getStatus());
+        assertEquals(429, run(post("/api/v1/auth/register", "10.0.0.2", second)).getStatus());
+    }
+
+    @Test
+    @DisplayName("Should leave other endpoints alone")
+    void shouldLeaveOtherEndpointsAlone() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            MockHttpServletRequest request = post("/api/v1/transactions", "10.0.0.1", "{\"email\":\"x@example.com\"}");
+            assertEquals(200, run(request).getStatus());
+        }
+    }
+
+    private MockHttpServletResponse login(String ip, String email) throws Exception {
+        return run(post("/api/v1/auth/login", ip, "{\"email\":\"" + email + "\",\"password\":\"secret123\"}"));
+    }
+
+    private MockHttpServletResponse run(MockHttpServletRequest request) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+
+    private static MockHttpServletRequest post(String uri, String ip, String body) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", uri);
+        request.setRemoteAddr(ip);
+        request.setContentType("application/json");
+        request.setContent(body.getBytes(StandardCharsets.UTF_8));
+        return request;
+    }
+}
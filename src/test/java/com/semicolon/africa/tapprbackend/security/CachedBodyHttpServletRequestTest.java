@@ -0,0 +1,68 @@
+package com.semicolon.africa.tapprbackend.security;
+
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("CachedBodyHttpServletRequest Tests")
+class CachedBodyHttpServletRequestTest {
+
+    private static final String BODY = "{\"email\":\"john.doe@example.com\"}";
+
+    @Test
+    @DisplayName("Should hand the cached body to an async reader straight away")
+    void shouldServeAsyncReaders() throws IOException {
+        ServletInputStream in = wrap().getInputStream();
+        ByteArrayOutputStream read = new ByteArrayOutputStream();
+        List<String> calls = new ArrayList<>();
+
+        in.setReadListener(new ReadListener() {
+            @Override
+            public void onDataAvailable() throws IOException {
+                calls.add("available");
+                byte[] buffer = new byte[8];
+                while (in.isReady() && !in.isFinished()) {
+                    read.write(buffer, 0, in.read(buffer));
+                }
+            }
+
+            @Override
+            public void onAllDataRead() {
+                calls.add("done");
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                calls.add("error");
+            }
+        });
+
+        assertEquals(List.of("available", "done"), calls);
+        assertEquals(BODY, read.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    @DisplayName("Should still serve the body to synchronous readers")
+    void shouldServeSyncReaders() throws IOException {
+        CachedBodyHttpServletRequest request = wrap();
+
+        assertEquals(BODY, new String(request.getInputStream().readAllBytes(), StandardCharsets.UTF_8));
+        assertEquals(BODY, request.getReader().readLine());
+    }
+
+    private static CachedBodyHttpServletRequest wrap() throws IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/v1/auth/login");
+        request.setContent(BODY.getBytes(StandardCharsets.UTF_8));
+        return CachedBodyHttpServletRequest.wrap(request, 1_024);
+    }
+}
@@ -0,0 +1,90 @@
+package com.semicolon.africa.tapprbackend.security;
+
+import com.semicolon.africa.tapprbackend.user.exceptions.AuthServiceBusyException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@DisplayName("PasswordHashingService Tests")
+class PasswordHashingServiceTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private PasswordHashingService passwordHashingService;
+
+    @AfterEach
+    void tearDown() {
+        if (passwordHashingService != null) {
+            passwordHashingService.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("Should hash and verify passwords off the calling thread")
+    void shouldHashAndVerifyPasswords() {
+        passwordHashingService = new PasswordHashingService(new BCryptPasswordEncoder(4), meterRegistry, 1, 4, 5_000);
+
+        String hash = passwordHashingService.encode("securePassword123");
+
+        assertTrue(passwordHashingService.matches("securePassword123", hash));
+        assertFalse(passwordHashingService.matches("wrongPassword123", hash));
+        assertEquals(2, meterRegistry.get("auth.password.hashing").tag("operation", "verify").timer().count());
+    }
+
+    @Test
+    @DisplayName("Should flag hashes made with a lower cost factor for upgrade")
+    void shouldFlagWeakerHashesForUpgrade() {
+        String weakHash = new BCryptPasswordEncoder(4).encode("securePassword123");
+        passwordHashingService = new PasswordHashingService(new BCryptPasswordEncoder(5), meterRegistry, 1, 4, 5_000);
+
+        assertTrue(passwordHashingService.needsUpgrade(weakHash));
+        assertFalse(passwordHashingService.needsUpgrade(passwordHashingService.encode("securePassword123")));
+    }
+
+    @Test
+    @DisplayName("Should reject work at once when the pool and queue are full")
+    void shouldRejectWorkWhenSaturated() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        PasswordEncoder slowEncoder = mock(PasswordEncoder.class);
+        when(slowEncoder.matches(anyString(), anyString())).thenAnswer(invocation -> {
+            started.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return true;
+        });
+        passwordHashingService = new PasswordHashingService(slowEncoder, meterRegistry, 1, 1, 5_000);
+
+        ExecutorService callers = Executors.newFixedThreadPool(2);
+        try {
+            callers.submit(() -> passwordHashingService.matches("a", "hash"));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            callers.submit(() -> passwordHashingService.matches("b", "hash"));
+            waitForQueueDepth(1);
+
+            assertThrows(AuthServiceBusyException.class, () -> passwordHashingService.matches("c", "hash"));
+            assertEquals(1.0, meterRegistry.get("auth.password.hashing.rejected").counter().count());
+        } finally {
+            release.countDown();
+            callers.shutdown();
+        }
+    }
+
+    private void waitForQueueDepth(int depth) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (meterRegistry.get("auth.password.hashing.queue.depth").gauge().value() < depth) {
+            assertTrue(System.currentTimeMillis() < deadline, "queue never filled");
+            Thread.sleep(10);
+        }
+    }
+}
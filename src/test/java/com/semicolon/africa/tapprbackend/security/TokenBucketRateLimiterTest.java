@@ -0,0 +1,77 @@
+package com.semicolon.africa.tapprbackend.security;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("TokenBucketRateLimiter Tests")
+class TokenBucketRateLimiterTest {
+
+    private static final Duration MINUTE = Duration.ofMinutes(1);
+
+    private final AtomicLong clock = new AtomicLong();
+    private final TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(1_000, Duration.ofMinutes(2), clock::get);
+
+    @Test
+    @DisplayName("Should allow a burst up to capacity and then reject")
+    void shouldAllowBurstUpToCapacity() {
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, limiter.tryAcquire("login|email|john", 3, MINUTE));
+        }
+        assertTrue(limiter.tryAcquire("login|email|john", 3, MINUTE) > 0);
+    }
+
+    @Test
+    @DisplayName("Should refill tokens over time")
+    void shouldRefillTokensOverTime() {
+        for (int i = 0; i < 3; i++) {
+            limiter.tryAcquire("login|email|john", 3, MINUTE);
+        }
+        long wait = limiter.tryAcquire("login|email|john", 3, MINUTE);
+        assertEquals(Duration.ofSeconds(20).toNanos(), wait, Duration.ofMillis(1).toNanos());
+
+        clock.addAndGet(wait);
+        assertEquals(0, limiter.tryAcquire("login|email|john", 3, MINUTE));
+    }
+
+    @Test
+    @DisplayName("Should keep separate buckets per key")
+    void shouldKeepSeparateBucketsPerKey() {
+        limiter.tryAcquire("login|email|john", 1, MINUTE);
+
+        assertTrue(limiter.tryAcquire("login|email|john", 1, MINUTE) > 0);
+        assertEquals(0, limiter.tryAcquire("login|email|jane", 1, MINUTE));
+    }
+
+    @Test
+    @DisplayName("Should grant only capacity tokens when a new key is hit concurrently")
+    void shouldShareOneBucketAcrossConcurrentFirstRequests() throws Exception {
+        List<Callable<Long>> attempts = new ArrayList<>();
+        for (int i = 0; i < 32; i++) {
+            attempts.add(() -> limiter.tryAcquire("login|email|new", 3, MINUTE));
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(16);
+        long granted = 0;
+        try {
+            for (Future<Long> result : pool.invokeAll(attempts)) {
+                if (result.get() == 0) {
+                    granted++;
+                }
+            }
+        } finally {
+            pool.shutdown();
+        }
+        assertEquals(3, granted);
+    }
+}
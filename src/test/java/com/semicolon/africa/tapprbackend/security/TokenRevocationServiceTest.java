@@ -0,0 +1,100 @@
+package com.semicolon.africa.tapprbackend.security;
+
+import com.semicolon.africa.tapprbackend.scheduling.services.interfaces.SchedulerLockService;
+import com.semicolon.africa.tapprbackend.user.data.models.RevokedToken;
+import com.semicolon.africa.tapprbackend.user.data.repositories.RevokedTokenRepository;
+import com.semicolon.africa.tapprbackend.user.enums.Role;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("TokenRevocationService Tests")
+class TokenRevocationServiceTest {
+
+    private static final String SECRET = "a-test-secret-that-is-long-enough-for-hs256-signing";
+
+    @Mock
+    private RevokedTokenRepository revokedTokenRepository;
+
+    @Mock
+    private SchedulerLockService schedulerLockService;
+
+    private JwtUtil jwtUtil;
+    private VerifiedTokenCache verifiedTokenCache;
+    private TokenRevocationService tokenRevocationService;
+    private UUID userId;
+
+    @BeforeEach
+    void setUp() {
+        jwtUtil = new JwtUtil(SECRET);
+        ReflectionTestUtils.setField(jwtUtil, "jwtExpirationMs", 3_600_000L);
+        verifiedTokenCache = new VerifiedTokenCache(jwtUtil, new SimpleMeterRegistry(), 100);
+        tokenRevocationService = new TokenRevocationService(revokedTokenRepository, verifiedTokenCache, schedulerLockService);
+        userId = UUID.randomUUID();
+    }
+
+    @Test
+    @DisplayName("Should revoke a token by jti and persist it until expiry")
+    void shouldRevokeTokenByJtiAndPersistIt() {
+        String token = jwtUtil.generateToken("john.doe@example.com", userId, Role.REGULAR);
+        TapprPrincipal principal = verifiedTokenCache.verify(token).principal();
+
+        assertEquals(principal, tokenRevocationService.revoke(token).orElseThrow());
+
+        assertTrue(tokenRevocationService.isRevoked(principal.tokenId()));
+        ArgumentCaptor<RevokedToken> saved = ArgumentCaptor.forClass(RevokedToken.class);
+        verify(revokedTokenRepository).save(saved.capture());
+        assertEquals(principal.tokenId(), saved.getValue().getJti());
+        assertEquals(userId, saved.getValue().getUserId());
+        assertTrue(saved.getValue().getExpiresAt().isAfter(Instant.now()));
+    }
+
+    @Test
+    @DisplayName("Should only revoke the presented token, not the user's other tokens")
+    void shouldOnlyRevokePresentedToken() {
+        String phoneToken = jwtUtil.generateToken("john.doe@example.com", userId, Role.REGULAR);
+        String terminalToken = jwtUtil.generateToken("john.doe@example.com", userId, Role.REGULAR);
+
+        tokenRevocationService.revoke(phoneToken);
+
+        assertFalse(tokenRevocationService.isRevoked(verifiedTokenCache.verify(terminalToken).principal().tokenId()));
+    }
+
+    @Test
+    @DisplayName("Should ignore tokens that no longer verify")
+    void shouldIgnoreTokensThatNoLongerVerify() {
+        assertTrue(tokenRevocationService.revoke("not-a-jwt").isEmpty());
+
+        verify(revokedTokenRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("Should pick up revocations written by other instances and drop expired ones")
+    void shouldSyncRevocationsFromDatabase() {
+        RevokedToken active = new RevokedToken("active-jti", userId, Instant.now().plusSeconds(600), Instant.now());
+        RevokedToken expired = new RevokedToken("expired-jti", userId, Instant.now().minusSeconds(1), Instant.now());
+        when(revokedTokenRepository.findByRevokedAtAfterAndExpiresAtAfter(any(), any()))
+                .thenReturn(List.of(active, expired));
+
+        tokenRevocationService.sync();
+
+        assertTrue(tokenRevocationService.isRevoked("active-jti"));
+        assertFalse(tokenRevocationService.isRevoked("expired-jti"));
+        assertFalse(tokenRevocationService.isRevoked(null));
+    }
+}
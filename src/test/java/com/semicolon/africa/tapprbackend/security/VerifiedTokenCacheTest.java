@@ -0,0 +1,88 @@
+package com.semicolon.africa.tapprbackend.security;
+
+import com.semicolon.africa.tapprbackend.user.enums.Role;
+import io.jsonwebtoken.JwtException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@DisplayName("VerifiedTokenCache Tests")
+class VerifiedTokenCacheTest {
+
+    private static final String SECRET = "a-test-secret-that-is-long-enough-for-hs256-signing";
+
+    private JwtUtil jwtUtil;
+    private SimpleMeterRegistry meterRegistry;
+    private VerifiedTokenCache verifiedTokenCache;
+    private UUID userId;
+
+    @BeforeEach
+    void setUp() {
+        jwtUtil = spy(new JwtUtil(SECRET));
+        ReflectionTestUtils.setField(jwtUtil, "jwtExpirationMs", 3_600_000L);
+        meterRegistry = new SimpleMeterRegistry();
+        verifiedTokenCache = new VerifiedTokenCache(jwtUtil, meterRegistry, 100);
+        userId = UUID.randomUUID();
+    }
+
+    @Test
+    @DisplayName("Should verify a token once and serve repeats from the cache")
+    void shouldVerifyTokenOnceAndServeRepeatsFromCache() {
+        String token = jwtUtil.generateToken("john.doe@example.com", userId, Role.REGULAR);
+
+        VerifiedToken first = verifiedTokenCache.verify(token);
+        VerifiedToken second = verifiedTokenCache.verify(token);
+
+        assertSame(first, second);
+        assertEquals(userId, first.principal().userId());
+        assertEquals(Role.REGULAR, first.principal().role());
+        verify(jwtUtil, times(1)).parseClaims(token);
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", "jwt.verified.tokens")
+                .tag("result", "hit").functionCounter().count());
+    }
+
+    @Test
+    @DisplayName("Should not keep an entry past the token's expiry")
+    void shouldNotKeepEntryPastTokenExpiry() throws InterruptedException {
+        ReflectionTestUtils.setField(jwtUtil, "jwtExpirationMs", 1_500L);
+        String token = jwtUtil.generateToken("john.doe@example.com", userId, Role.REGULAR);
+
+        VerifiedToken verified = verifiedTokenCache.verify(token);
+        assertTrue(verified.expiresAt().isBefore(Instant.now().plus(Duration.ofSeconds(2))));
+
+        Thread.sleep(2_000);
+        assertThrows(JwtException.class, () -> verifiedTokenCache.verify(token));
+    }
+
+    @Test
+    @DisplayName("Should verify the signature again after eviction")
+    void shouldVerifySignatureAgainAfterEviction() {
+        String token = jwtUtil.generateToken("john.doe@example.com", userId, Role.REGULAR);
+
+        verifiedTokenCache.verify(token);
+        verifiedTokenCache.evict(token);
+        verifiedTokenCache.verify(token);
+
+        verify(jwtUtil, times(2)).parseClaims(token);
+    }
+
+    @Test
+    @DisplayName("Should reject a tampered token without caching it")
+    void shouldRejectTamperedTokenWithoutCachingIt() {
+        String token = jwtUtil.generateToken("john.doe@example.com", userId, Role.REGULAR);
+        String tampered = token.substring(0, token.length() - 2) + "xx";
+
+        assertThrows(JwtException.class, () -> verifiedTokenCache.verify(tampered));
+        assertThrows(JwtException.class, () -> verifiedTokenCache.verify(tampered));
+        verify(jwtUtil, times(2)).parseClaims(tampered);
+    }
+}
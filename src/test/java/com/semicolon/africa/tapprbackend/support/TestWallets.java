@@ -0,0 +1,61 @@
+package com.semicolon.africa.tapprbackend.support;
+
+import com.semicolon.africa.tapprbackend.Wallet.data.model.Wallet;
+import com.semicolon.africa.tapprbackend.Wallet.data.repositories.WalletRepository;
+import com.semicolon.africa.tapprbackend.Wallet.enums.WalletCurrency;
+import com.semicolon.africa.tapprbackend.Wallet.enums.WalletType;
+import com.semicolon.africa.tapprbackend.user.data.models.User;
+import com.semicolon.africa.tapprbackend.user.data.repositories.UserRepository;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Saves users and wallets for the tests that run on the h2 profile. Emails, phone numbers
+ * and account numbers are random, so tests sharing the in-memory database do not clash.
+ */
+@Component
+public class TestWallets {
+
+    private final UserRepository userRepository;
+    private final WalletRepository walletRepository;
+
+    public TestWallets(UserRepository userRepository, WalletRepository walletRepository) {
+        this.userRepository = userRepository;
+        this.walletRepository = walletRepository;
+    }
+
+    /**
+     * Saves a user whose email starts with {@code label}. It is marked as provisioned, so the
+     * wallet backfill leaves it with only the wallets the test gives it.
+     */
+    public User user(String label) {
+        User user = new User();
+        user.setEmail(label + "-" + UUID.randomUUID() + "@example.com");
+        user.setFirstName(label);
+        user.setLastName("Test");
+        user.setPasswordHash("not-used");
+        user.setPhoneNumber("+234" + ThreadLocalRandom.current().nextLong(7_000_000_000L, 10_000_000_000L));
+        user.setHasWallet(true);
+        return userRepository.save(user);
+    }
+
+    // A wallet owned by a new user of its own
+    public Wallet wallet(String label, WalletCurrency currency, BigDecimal balance) {
+        return wallet(user(label), currency, balance);
+    }
+
+    public Wallet wallet(User owner, WalletCurrency currency, BigDecimal balance) {
+        Wallet wallet = new Wallet();
+        wallet.setUser(owner);
+        wallet.setWalletType(currency.getWalletType());
+        wallet.setCurrencyType(currency);
+        if (currency.getWalletType() == WalletType.FIAT) {
+            wallet.setAccountNumber(String.valueOf(ThreadLocalRandom.current().nextLong(1_000_000_000L, 10_000_000_000L)));
+        }
+        wallet.setBalance(balance);
+        return walletRepository.save(wallet);
+    }
+}
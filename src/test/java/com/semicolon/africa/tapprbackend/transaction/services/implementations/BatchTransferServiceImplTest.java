@@ -0,0 +1,150 @@
+package com.semicolon.africa.tapprbackend.transaction.services.implementations;
+
+import com.semicolon.africa.tapprbackend.Wallet.data.model.Wallet;
+import com.semicolon.africa.tapprbackend.Wallet.data.repositories.WalletRepository;
+import com.semicolon.africa.tapprbackend.Wallet.enums.WalletCurrency;
+import com.semicolon.africa.tapprbackend.ledger.data.models.LedgerEntry;
+import com.semicolon.africa.tapprbackend.ledger.data.repositories.LedgerEntryRepository;
+import com.semicolon.africa.tapprbackend.security.TapprPrincipal;
+import com.semicolon.africa.tapprbackend.support.TestWallets;
+import com.semicolon.africa.tapprbackend.transaction.data.repositories.TransactionRepository;
+import com.semicolon.africa.tapprbackend.transaction.dtos.requests.BatchTransferLine;
+import com.semicolon.africa.tapprbackend.transaction.dtos.requests.BatchTransferRequest;
+import com.semicolon.africa.tapprbackend.transaction.dtos.responses.BatchTransferLineResult;
+import com.semicolon.africa.tapprbackend.transaction.dtos.responses.BatchTransferSummary;
+import com.semicolon.africa.tapprbackend.transaction.enums.TransactionStatus;
+import com.semicolon.africa.tapprbackend.transaction.exceptions.InvalidRequestException;
+import com.semicolon.africa.tapprbackend.transaction.services.interfaces.BatchTransferService;
+import com.semicolon.africa.tapprbackend.user.data.models.User;
+import com.semicolon.africa.tapprbackend.user.enums.Role;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "transactions.batch.chunk-size=2")
+@ActiveProfiles("h2")
+@DisplayName("Batch payouts")
+class BatchTransferServiceImplTest {
+
+    @Autowired
+    private BatchTransferService batchTransferService;
+
+    @Autowired
+    private WalletRepository walletRepository;
+
+    @Autowired
+    private TestWallets testWallets;
+
+    @Autowired
+    private LedgerEntryRepository ledgerEntryRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    private Wallet senderWallet;
+    private TapprPrincipal sender;
+
+    @BeforeEach
+    void setUp() {
+        senderWallet = testWallets.wallet("batch", WalletCurrency.NGN, new BigDecimal("1000.00"));
+        User user = senderWallet.getUser();
+        sender = new TapprPrincipal(user.getId(), user.getEmail(), Role.REGULAR, UUID.randomUUID().toString());
+    }
+
+    @Test
+    @DisplayName("Should pay every valid line and stream a result for every line, chunk by chunk")
+    void shouldPayValidLinesAndReportEveryLine() {
+        Wallet first = testWallets.wallet("batch", WalletCurrency.NGN, BigDecimal.ZERO);
+        Wallet second = testWallets.wallet("batch", WalletCurrency.NGN, BigDecimal.ZERO);
+        List<List<BatchTransferLineResult>> chunks = new ArrayList<>();
+
+        BatchTransferSummary summary = batchTransferService.transfer(sender, request(
+                line("inv-1", first.getAccountNumber(), "100.00"),
+                line("inv-2", "0000000000", "50.00"),
+                line("inv-3", second.getAccountNumber(), "25.50"),
+                line("inv-4", first.getAccountNumber(), "0.001"),
+                line("inv-5", first.getAccountNumber(), "40.00")), chunks::add);
+
+        assertEquals(3, chunks.size());
+        List<BatchTransferLineResult> results = chunks.stream().flatMap(List::stream).toList();
+        assertEquals(List.of(1, 2, 3, 4, 5), results.stream().map(BatchTransferLineResult::line).toList());
+        assertEquals(List.of(TransactionStatus.SUCCESS, TransactionStatus.FAILED, TransactionStatus.SUCCESS,
+                        TransactionStatus.FAILED, TransactionStatus.SUCCESS),
+                results.stream().map(BatchTransferLineResult::status).toList());
+        assertEquals("Receiver not found", results.get(1).error());
+        assertEquals("inv-3", results.get(2).reference());
+
+        assertEquals(3, summary.succeeded());
+        assertEquals(2, summary.failed());
+        assertEquals(0, new BigDecimal("165.50").compareTo(summary.totalPaid()));
+        assertTrue(summary.linesPerSecond() > 0);
+
+        assertBalance(senderWallet, "834.50");
+        assertBalance(first, "140.00");
+        assertBalance(second, "25.50");
+        assertTrue(transactionRepository.findAll().stream()
+                .anyMatch(transaction -> transaction.getTransactionRef().equals(results.get(4).transactionRef())));
+
+        List<LedgerEntry> firstEntries = ledgerEntryRepository.findByWalletId(first.getId());
+        assertEquals(List.of("100.00", "140.00"), firstEntries.stream()
+                .map(entry -> entry.getBalanceAfter().toPlainString())
+                .sorted()
+                .toList());
+        for (BatchTransferLineResult result : results) {
+            if (result.status() == TransactionStatus.SUCCESS) {
+                assertEquals(2, ledgerEntryRepository.findByPostingRef(result.transactionRef()).size());
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Should reject the whole batch when its total exceeds the sender balance")
+    void shouldRejectBatchOverBalance() {
+        Wallet receiver = testWallets.wallet("batch", WalletCurrency.NGN, BigDecimal.ZERO);
+        List<List<BatchTransferLineResult>> chunks = new ArrayList<>();
+
+        assertThrows(InvalidRequestException.class, () -> batchTransferService.transfer(sender, request(
+                line("a", receiver.getAccountNumber(), "600.00"),
+                line("b", receiver.getAccountNumber(), "600.00")), chunks::add));
+
+        assertTrue(chunks.isEmpty());
+        assertBalance(senderWallet, "1000.00");
+        assertBalance(receiver, "0.00");
+    }
+
+    @Test
+    @DisplayName("Should reject an empty batch")
+    void shouldRejectEmptyBatch() {
+        assertThrows(InvalidRequestException.class,
+                () -> batchTransferService.transfer(sender, request(), results -> fail("nothing to stream")));
+    }
+
+    private static BatchTransferRequest request(BatchTransferLine... lines) {
+        BatchTransferRequest request = new BatchTransferRequest();
+        request.setLines(List.of(lines));
+        return request;
+    }
+
+    private static BatchTransferLine line(String reference, String accountNumber, String amount) {
+        BatchTransferLine line = new BatchTransferLine();
+        line.setReference(reference);
+        line.setAccountNumber(accountNumber);
+        line.setAmount(new BigDecimal(amount));
+        return line;
+    }
+
+    private void assertBalance(Wallet wallet, String expected) {
+        BigDecimal actual = walletRepository.findBalanceById(wallet.getId());
+        assertEquals(0, new BigDecimal(expected).compareTo(actual), "expected " + expected + " but was " + actual);
+    }
+}
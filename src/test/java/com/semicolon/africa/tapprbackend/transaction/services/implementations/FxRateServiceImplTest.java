@@ -0,0 +1,218 @@
+package com.semicolon.africa.tapprbackend.transaction.services.implementations;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.semicolon.africa.tapprbackend.Wallet.enums.WalletCurrency;
+import com.semicolon.africa.tapprbackend.scheduling.services.interfaces.SchedulerLockService;
+import com.semicolon.africa.tapprbackend.transaction.data.models.ExchangeRate;
+import com.semicolon.africa.tapprbackend.transaction.data.repositories.ExchangeRateRepository;
+import com.semicolon.africa.tapprbackend.transaction.exceptions.FxRatesUnavailableException;
+import com.semicolon.africa.tapprbackend.transaction.exceptions.InvalidRequestException;
+import com.semicolon.africa.tapprbackend.transaction.services.interfaces.SuiRateService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("FX rate service")
+class FxRateServiceImplTest {
+
+    private static final String URL = "http://rates.test/fx";
+    private static final String PRICES = """
+            {"sui": {"usd": 2.5, "ngn": 4000, "eur": 2.0},
+             "bitcoin": {"usd": 100000, "ngn": 160000000},
+             "ethereum": {"usd": 4000},
+             "tether": {"usd": 1.0, "xyz": 7}}
+            """;
+    private static final double DELTA = 1e-9;
+
+    @Mock
+    private RestTemplate restTemplate;
+
+    @Mock
+    private SuiRateService suiRateService;
+
+    @Mock
+    private ExchangeRateRepository exchangeRateRepository;
+
+    @Mock
+    private SchedulerLockService schedulerLockService;
+
+    private FxRateServiceImpl fxRateService;
+
+    @BeforeEach
+    void setUp() {
+        fxRateService = new FxRateServiceImpl(restTemplate, new ObjectMapper(), suiRateService,
+                exchangeRateRepository, schedulerLockService);
+        ReflectionTestUtils.setField(fxRateService, "ratesUrl", URL);
+        ReflectionTestUtils.setField(fxRateService, "maxAgeMs", 60_000L);
+        lenient().when(suiRateService.getSuiToNgnRate()).thenReturn(new BigDecimal("4000.00"));
+        lenient().when(schedulerLockService.runIfLeader(eq("fx-rate-refresh"), any(Duration.class), any(Runnable.class)))
+                .thenAnswer(invocation -> {
+                    invocation.getArgument(2, Runnable.class).run();
+                    return true;
+                });
+    }
+
+    @Test
+    @DisplayName("Should price quoted pairs both ways from one fetch")
+    void shouldPriceQuotedPairs() {
+        when(restTemplate.getForEntity(URL, String.class)).thenReturn(ResponseEntity.ok(PRICES));
+
+        fxRateService.refreshRates();
+
+        assertEquals(2.5, fxRateService.rate(WalletCurrency.SUI, WalletCurrency.USD), DELTA);
+        assertEquals(1.0 / 2.5, fxRateService.rate(WalletCurrency.USD, WalletCurrency.SUI), DELTA);
+        assertEquals(1.0, fxRateService.rate(WalletCurrency.KES, WalletCurrency.KES), DELTA);
+    }
+
+    @Test
+    @DisplayName("Should always price SUI/NGN from the SUI rate service and follow its moves")
+    void shouldPriceSuiNgnFromSuiRateService() {
+        when(suiRateService.getSuiToNgnRate())
+                .thenReturn(new BigDecimal("3500.00"), new BigDecimal("3500.00"), new BigDecimal("3600.00"));
+        when(restTemplate.getForEntity(URL, String.class)).thenReturn(ResponseEntity.ok(PRICES));
+
+        fxRateService.refreshRates();
+
+        // The upstream quotes SUI/NGN at 4000, but payments settle at the published rate
+        assertEquals(3500, fxRateService.rate(WalletCurrency.SUI, WalletCurrency.NGN), DELTA);
+        assertEquals(1.0 / 3500, fxRateService.rate(WalletCurrency.NGN, WalletCurrency.SUI), DELTA);
+        assertEquals(3600, fxRateService.rate(WalletCurrency.SUI, WalletCurrency.NGN), DELTA);
+    }
+
+    @Test
+    @DisplayName("Should triangulate missing pairs through USD and SUI")
+    void shouldTriangulateMissingPairs() {
+        when(restTemplate.getForEntity(URL, String.class)).thenReturn(ResponseEntity.ok(PRICES));
+
+        fxRateService.refreshRates();
+
+        // ETH/BTC through USD
+        assertEquals(4000.0 / 100000, fxRateService.rate(WalletCurrency.ETH, WalletCurrency.BTC), DELTA);
+        // EUR/NGN through SUI: 1 EUR buys 0.5 SUI, each worth 4000 NGN
+        assertEquals(2000, fxRateService.rate(WalletCurrency.EUR, WalletCurrency.NGN), DELTA);
+        // EUR/USD needs both pivots: EUR to SUI, then SUI to USD
+        assertEquals(1.25, fxRateService.rate(WalletCurrency.EUR, WalletCurrency.USD), DELTA);
+        assertEquals(new BigDecimal("0.25000"),
+                fxRateService.convert(new BigDecimal("1000.00"), WalletCurrency.NGN, WalletCurrency.SUI)
+                        .setScale(5, RoundingMode.HALF_UP));
+    }
+
+    @Test
+    @DisplayName("Should refuse pairs no quote reaches")
+    void shouldRejectUnpricedPairs() {
+        when(restTemplate.getForEntity(URL, String.class)).thenReturn(ResponseEntity.ok(PRICES));
+
+        fxRateService.refreshRates();
+
+        assertFalse(fxRateService.supports(WalletCurrency.NGN, WalletCurrency.KES));
+        assertTrue(Double.isNaN(fxRateService.rate(WalletCurrency.KES, WalletCurrency.USD)));
+        InvalidRequestException exception = assertThrows(InvalidRequestException.class,
+                () -> fxRateService.convert(BigDecimal.TEN, WalletCurrency.NGN, WalletCurrency.KES));
+        assertEquals("Unsupported currency pair NGN/KES", exception.getMessage());
+    }
+
+    @Test
+    @DisplayName("Should convert only SUI/NGN until a fetch succeeds, and keep rates when one fails")
+    void shouldConvertOnlySuiNgnBeforeFirstFetch() {
+        when(restTemplate.getForEntity(URL, String.class))
+                .thenThrow(new ResourceAccessException("upstream down"))
+                .thenReturn(ResponseEntity.ok(PRICES))
+                .thenThrow(new ResourceAccessException("upstream down"));
+
+        fxRateService.refreshRates();
+        assertEquals(new BigDecimal("8000.00"),
+                fxRateService.convert(new BigDecimal("2"), WalletCurrency.SUI, WalletCurrency.NGN).setScale(2));
+        assertFalse(fxRateService.supports(WalletCurrency.NGN, WalletCurrency.USD));
+        assertThrows(FxRatesUnavailableException.class,
+                () -> fxRateService.convert(BigDecimal.TEN, WalletCurrency.NGN, WalletCurrency.USD));
+
+        fxRateService.refreshRates();
+        fxRateService.refreshRates();
+        assertTrue(fxRateService.supports(WalletCurrency.NGN, WalletCurrency.USD));
+        assertEquals(new BigDecimal("0.01"), fxRateService.convert(new BigDecimal("16.00"),
+                WalletCurrency.NGN, WalletCurrency.USD).setScale(2, RoundingMode.HALF_UP));
+    }
+
+    @Test
+    @DisplayName("Should refuse conversions that need upstream quotes older than the limit")
+    void shouldRefuseStaleConversions() {
+        ReflectionTestUtils.setField(fxRateService, "maxAgeMs", 0L);
+        when(restTemplate.getForEntity(URL, String.class)).thenReturn(ResponseEntity.ok(PRICES));
+
+        fxRateService.refreshRates();
+
+        FxRatesUnavailableException exception = assertThrows(FxRatesUnavailableException.class,
+                () -> fxRateService.convert(BigDecimal.TEN, WalletCurrency.EUR, WalletCurrency.NGN));
+        assertEquals("FX rates for EUR/NGN are out of date", exception.getMessage());
+        assertEquals(new BigDecimal("0.25000"),
+                fxRateService.convert(new BigDecimal("1000.00"), WalletCurrency.NGN, WalletCurrency.SUI)
+                        .setScale(5, RoundingMode.HALF_UP));
+        assertEquals(BigDecimal.TEN, fxRateService.convert(BigDecimal.TEN, WalletCurrency.EUR, WalletCurrency.EUR));
+    }
+
+    @Test
+    @DisplayName("Should store the fetched quotes for the other instances, leaving SUI/NGN to the SUI rate service")
+    @SuppressWarnings("unchecked")
+    void shouldStoreFetchedQuotes() {
+        when(restTemplate.getForEntity(URL, String.class)).thenReturn(ResponseEntity.ok(PRICES));
+        ExchangeRate stored = new ExchangeRate(7L, "BTC/USD", new BigDecimal("100000.00000000"),
+                LocalDateTime.now().minusMinutes(10), null, 3);
+        when(exchangeRateRepository.findBySymbolNot("SUI/NGN")).thenReturn(List.of(stored));
+
+        fxRateService.refreshRates();
+
+        ArgumentCaptor<List<ExchangeRate>> saved = ArgumentCaptor.forClass(List.class);
+        verify(exchangeRateRepository).saveAll(saved.capture());
+        Map<String, ExchangeRate> rows = saved.getValue().stream()
+                .collect(Collectors.toMap(ExchangeRate::getSymbol, Function.identity()));
+        assertFalse(rows.containsKey("SUI/NGN"));
+        assertEquals(0, new BigDecimal("2.5").compareTo(rows.get("SUI/USD").getRate()));
+        assertSame(stored, rows.get("BTC/USD"));
+        // Unchanged, but confirmed with this fetch
+        assertTrue(stored.getLastUpdated().isBefore(stored.getVerifiedAt()));
+        assertEquals(rows.get("SUI/USD").getVerifiedAt(), stored.getVerifiedAt());
+    }
+
+    @Test
+    @DisplayName("Should load the quotes the leader last confirmed instead of calling upstream")
+    void shouldLoadStoredQuotesWhenAnotherInstanceLeads() {
+        when(schedulerLockService.runIfLeader(eq("fx-rate-refresh"), any(Duration.class), any(Runnable.class)))
+                .thenReturn(false);
+        LocalDateTime confirmed = LocalDateTime.now().minusSeconds(10);
+        when(exchangeRateRepository.findBySymbolNot("SUI/NGN")).thenReturn(List.of(
+                new ExchangeRate(1L, "SUI/USD", new BigDecimal("2.50000000"), confirmed, confirmed, 4),
+                new ExchangeRate(2L, "BTC/USD", new BigDecimal("100000.00000000"), confirmed, confirmed, 4),
+                // Left out of the leader's last fetch
+                new ExchangeRate(3L, "ETH/USD", new BigDecimal("4000.00000000"),
+                        confirmed.minusDays(1), confirmed.minusDays(1), 9)));
+
+        fxRateService.refreshRates();
+
+        verifyNoInteractions(restTemplate);
+        assertEquals(new BigDecimal("0.10"), fxRateService.convert(new BigDecimal("160.00"),
+                WalletCurrency.NGN, WalletCurrency.USD).setScale(2, RoundingMode.HALF_UP));
+        assertEquals(1.0 / 40000, fxRateService.rate(WalletCurrency.SUI, WalletCurrency.BTC), DELTA);
+        assertFalse(fxRateService.supports(WalletCurrency.ETH, WalletCurrency.USD));
+    }
+}
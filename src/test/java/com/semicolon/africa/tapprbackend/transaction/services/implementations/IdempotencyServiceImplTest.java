@@ -0,0 +1,180 @@
+package com.semicolon.africa.tapprbackend.transaction.services.implementations;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.semicolon.africa.tapprbackend.ledger.exceptions.LedgerBusyException;
+import com.semicolon.africa.tapprbackend.scheduling.services.interfaces.SchedulerLockService;
+import com.semicolon.africa.tapprbackend.transaction.data.repositories.IdempotencyRecordRepository;
+import com.semicolon.africa.tapprbackend.transaction.dtos.responses.CreateTransactionResponse;
+import com.semicolon.africa.tapprbackend.transaction.dtos.responses.IdempotentResult;
+import com.semicolon.africa.tapprbackend.transaction.enums.TransactionStatus;
+import com.semicolon.africa.tapprbackend.transaction.exceptions.IdempotencyConflictException;
+import com.semicolon.africa.tapprbackend.transaction.exceptions.InvalidRequestException;
+import com.semicolon.africa.tapprbackend.transaction.services.interfaces.IdempotencyService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("h2")
+@DisplayName("Idempotency-Key handling")
+class IdempotencyServiceImplTest {
+
+    @Autowired
+    private IdempotencyService idempotencyService;
+
+    @Autowired
+    private IdempotencyRecordRepository idempotencyRecordRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private SchedulerLockService schedulerLockService;
+
+    private final AtomicInteger executions = new AtomicInteger();
+    private UUID userId;
+    private String key;
+
+    @BeforeEach
+    void setUp() {
+        userId = UUID.randomUUID();
+        key = UUID.randomUUID().toString();
+    }
+
+    @Test
+    @DisplayName("Should replay the stored response without running the action again")
+    void shouldReplayRepeatedRequest() {
+        IdempotentResult<CreateTransactionResponse> first = execute(idempotencyService, "acct|100", this::pay);
+        IdempotentResult<CreateTransactionResponse> second = execute(idempotencyService, "acct|100", this::pay);
+
+        assertFalse(first.replayed());
+        assertTrue(second.replayed());
+        assertEquals(1, executions.get());
+        assertEquals(first.body().getTransactionRef(), second.body().getTransactionRef());
+        assertEquals(first.body().getInitiatedAt(), second.body().getInitiatedAt());
+    }
+
+    @Test
+    @DisplayName("Should make concurrent duplicates wait for the first call")
+    void shouldRunConcurrentDuplicatesOnce() throws Exception {
+        List<Callable<IdempotentResult<CreateTransactionResponse>>> calls = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            calls.add(() -> execute(idempotencyService, "acct|100", this::slowPay));
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(20);
+        List<String> refs = new ArrayList<>();
+        try {
+            for (Future<IdempotentResult<CreateTransactionResponse>> future : executor.invokeAll(calls)) {
+                refs.add(future.get().body().getTransactionRef());
+            }
+        } finally {
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        }
+
+        assertEquals(1, executions.get());
+        assertEquals(1, refs.stream().distinct().count());
+    }
+
+    @Test
+    @DisplayName("Should replay from the database on an instance that never saw the request")
+    void shouldReplayFromDatabaseTier() {
+        IdempotentResult<CreateTransactionResponse> first = execute(idempotencyService, "acct|100", this::pay);
+        IdempotencyService otherInstance = new IdempotencyServiceImpl(
+                idempotencyRecordRepository, objectMapper, transactionManager, schedulerLockService, 24, 100, 1000);
+
+        IdempotentResult<CreateTransactionResponse> replay = execute(otherInstance, "acct|100", this::pay);
+
+        assertTrue(replay.replayed());
+        assertEquals(1, executions.get());
+        assertEquals(first.body().getTransactionRef(), replay.body().getTransactionRef());
+    }
+
+    @Test
+    @DisplayName("Should reject a key reused for a different request")
+    void shouldRejectKeyReusedForDifferentRequest() {
+        execute(idempotencyService, "acct|100", this::pay);
+
+        InvalidRequestException exception = assertThrows(InvalidRequestException.class,
+                () -> execute(idempotencyService, "acct|250", this::pay));
+        assertEquals("Idempotency-Key was already used for a different request", exception.getMessage());
+        assertEquals(1, executions.get());
+    }
+
+    @Test
+    @DisplayName("Should release the key when the first call fails")
+    void shouldReleaseKeyOnFailure() {
+        assertThrows(InvalidRequestException.class, () -> execute(idempotencyService, "acct|100", () -> {
+            executions.incrementAndGet();
+            throw new InvalidRequestException("Insufficient funds in sender's fiat wallet");
+        }));
+
+        IdempotentResult<CreateTransactionResponse> retry = execute(idempotencyService, "acct|100", this::pay);
+
+        assertFalse(retry.replayed());
+        assertEquals(2, executions.get());
+    }
+
+    @Test
+    @DisplayName("Should keep the key and refuse repeats when the first call may have gone through")
+    void shouldKeepKeyOnAmbiguousFailure() {
+        assertThrows(LedgerBusyException.class, () -> execute(idempotencyService, "acct|100", () -> {
+            executions.incrementAndGet();
+            throw new LedgerBusyException("Payments are busy right now, please retry shortly");
+        }));
+
+        assertThrows(IdempotencyConflictException.class, () -> execute(idempotencyService, "acct|100", this::pay));
+        assertEquals(1, executions.get());
+        assertThrows(InvalidRequestException.class, () -> execute(idempotencyService, "acct|250", this::pay));
+    }
+
+    private IdempotentResult<CreateTransactionResponse> execute(IdempotencyService service, String fingerprint,
+                                                                Supplier<CreateTransactionResponse> action) {
+        return service.execute(userId, key, fingerprint, CreateTransactionResponse.class, action);
+    }
+
+    private CreateTransactionResponse pay() {
+        executions.incrementAndGet();
+        CreateTransactionResponse response = new CreateTransactionResponse();
+        response.setTransactionId(UUID.randomUUID().toString());
+        response.setTransactionRef(UUID.randomUUID().toString());
+        response.setAmount(new BigDecimal("100.00"));
+        response.setCurrency("NGN");
+        response.setStatus(TransactionStatus.SUCCESS);
+        response.setInitiatedAt(LocalDateTime.now());
+        response.setCompletedAt(LocalDateTime.now());
+        return response;
+    }
+
+    private CreateTransactionResponse slowPay() {
+        try {
+            Thread.sleep(200);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return pay();
+    }
+}
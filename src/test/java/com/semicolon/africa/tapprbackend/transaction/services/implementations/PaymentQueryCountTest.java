@@ -0,0 +1,120 @@
+package com.semicolon.africa.tapprbackend.transaction.services.implementations;
+
+import com.semicolon.africa.tapprbackend.Wallet.data.model.Wallet;
+import com.semicolon.africa.tapprbackend.Wallet.data.repositories.WalletRepository;
+import com.semicolon.africa.tapprbackend.Wallet.enums.WalletCurrency;
+import com.semicolon.africa.tapprbackend.Wallet.service.interfaces.WalletService;
+import com.semicolon.africa.tapprbackend.security.TapprPrincipal;
+import com.semicolon.africa.tapprbackend.security.UserStatusCache;
+import com.semicolon.africa.tapprbackend.support.TestWallets;
+import com.semicolon.africa.tapprbackend.transaction.dtos.requests.CreateTransactionRequest;
+import com.semicolon.africa.tapprbackend.transaction.dtos.responses.CreateTransactionResponse;
+import com.semicolon.africa.tapprbackend.transaction.services.interfaces.TransactionService;
+import com.semicolon.africa.tapprbackend.user.data.models.User;
+import com.semicolon.africa.tapprbackend.user.enums.Role;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("h2")
+@DisplayName("Payment query count")
+class PaymentQueryCountTest {
+
+    // Wallet set select, transaction insert, outbox insert
+    private static final long PAYMENT_STATEMENTS = 3;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private WalletService walletService;
+
+    @Autowired
+    private WalletRepository walletRepository;
+
+    @Autowired
+    private TestWallets testWallets;
+
+    @Autowired
+    private UserStatusCache userStatusCache;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    // Keeps settlement, which runs on its own threads, out of the statement count
+    @MockitoBean
+    private TransactionSettlementPipeline settlementPipeline;
+
+    private Statistics statistics;
+    private User sender;
+    private User receiver;
+    private TapprPrincipal principal;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        sender = userWithWallets();
+        receiver = userWithWallets();
+        walletService.depositFiat(sender.getId(), new BigDecimal("5000.00"));
+        principal = new TapprPrincipal(sender.getId(), sender.getEmail(), Role.REGULAR, UUID.randomUUID().toString());
+        // The sender's status is cached after the first request
+        userStatusCache.get(sender.getId());
+    }
+
+    @Test
+    @DisplayName("Should accept a payment to an account number within a fixed number of statements")
+    void shouldPayAccountNumberWithBoundedStatements() {
+        CreateTransactionRequest request = request(wallet(receiver, WalletCurrency.NGN).getAccountNumber());
+        statistics.clear();
+
+        CreateTransactionResponse response = transactionService.createTransaction(principal, request);
+
+        assertEquals(receiver.getFullName(), response.getMerchantName());
+        assertTrue(statistics.getPrepareStatementCount() <= PAYMENT_STATEMENTS,
+                "payment used " + statistics.getPrepareStatementCount() + " statements");
+    }
+
+    @Test
+    @DisplayName("Should accept a payment to a wallet address within the same number of statements")
+    void shouldPayWalletAddressWithBoundedStatements() {
+        CreateTransactionRequest request = request(wallet(receiver, WalletCurrency.SUI).getWalletAddress());
+        statistics.clear();
+
+        CreateTransactionResponse response = transactionService.createTransaction(principal, request);
+
+        assertEquals("SUI", response.getCurrency());
+        assertTrue(statistics.getPrepareStatementCount() <= PAYMENT_STATEMENTS,
+                "payment used " + statistics.getPrepareStatementCount() + " statements");
+    }
+
+    private static CreateTransactionRequest request(String identifier) {
+        CreateTransactionRequest request = new CreateTransactionRequest();
+        request.setAccountNumber(identifier);
+        request.setAmount(new BigDecimal("100.00"));
+        return request;
+    }
+
+    private Wallet wallet(User owner, WalletCurrency currency) {
+        return walletRepository.findByUserAndCurrencyType(owner, currency).orElseThrow();
+    }
+
+    private User userWithWallets() {
+        User user = testWallets.user("payment");
+        // Published wallet creation puts both wallets in the receiver directory
+        walletService.createWalletIfNotExists(user);
+        return user;
+    }
+}
@@ -0,0 +1,148 @@
+package com.semicolon.africa.tapprbackend.transaction.services.implementations;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.semicolon.africa.tapprbackend.transaction.services.interfaces.RateProvider;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Rate aggregator")
+class RateAggregatorTest {
+
+    private static final long TIMEOUT_MS = 300;
+    private static final int FAILURE_THRESHOLD = 2;
+    private static final long OPEN_MS = 200;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpClient httpClient = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(1)).build();
+    private final Map<String, Stub> stubs = new ConcurrentHashMap<>();
+    private final Map<String, AtomicInteger> hits = new ConcurrentHashMap<>();
+    private HttpServer server;
+    private ExecutorService serverThreads;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        serverThreads = Executors.newCachedThreadPool();
+        server.setExecutor(serverThreads);
+        server.createContext("/", exchange -> {
+            String path = exchange.getRequestURI().getPath();
+            hits.computeIfAbsent(path, key -> new AtomicInteger()).incrementAndGet();
+            Stub stub = stubs.getOrDefault(path, new Stub(404, "{}", 0));
+            try {
+                Thread.sleep(stub.delayMs());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            byte[] body = stub.body().getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(stub.status(), body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            } catch (IOException ignored) {
+                // The client gave up first
+            }
+        });
+        server.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+        serverThreads.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("Should take the median of the sources after dropping outliers")
+    void shouldCombineByMedianWithoutOutliers() {
+        stubs.put("/coingecko", new Stub(200, "{\"sui\":{\"ngn\":4000}}", 0));
+        stubs.put("/cryptocompare", new Stub(200, "{\"NGN\":4010}", 0));
+        stubs.put("/coinbase", new Stub(200, "{\"data\":{\"rates\":{\"NGN\":\"9000.00\"}}}", 0));
+
+        Optional<BigDecimal> rate = aggregator().fetchSuiToNgn();
+
+        assertEquals(0, new BigDecimal("4005").compareTo(rate.orElseThrow()));
+    }
+
+    @Test
+    @DisplayName("Should query sources concurrently and leave out one that misses the timeout")
+    void shouldIgnoreSlowSource() {
+        stubs.put("/coingecko", new Stub(200, "{\"sui\":{\"ngn\":4000}}", 0));
+        stubs.put("/cryptocompare", new Stub(200, "{\"NGN\":4020}", 0));
+        stubs.put("/coinbase", new Stub(200, "{\"data\":{\"rates\":{\"NGN\":\"4010\"}}}", 2_000));
+        RateAggregator aggregator = aggregator();
+
+        long started = System.nanoTime();
+        Optional<BigDecimal> rate = aggregator.fetchSuiToNgn();
+        long elapsedMs = (System.nanoTime() - started) / 1_000_000;
+
+        assertEquals(0, new BigDecimal("4010").compareTo(rate.orElseThrow()));
+        assertTrue(elapsedMs < 1_500, "waited " + elapsedMs + " ms for a slow source");
+    }
+
+    @Test
+    @DisplayName("Should stop calling a failing source until its breaker lets a trial through")
+    void shouldOpenBreakerOnFailingSource() throws InterruptedException {
+        stubs.put("/coingecko", new Stub(200, "{\"sui\":{\"ngn\":4000}}", 0));
+        stubs.put("/cryptocompare", new Stub(503, "unavailable", 0));
+        stubs.put("/coinbase", new Stub(200, "{\"data\":{\"rates\":{\"NGN\":\"4002\"}}}", 0));
+        RateAggregator aggregator = aggregator();
+
+        for (int fetch = 0; fetch < FAILURE_THRESHOLD + 2; fetch++) {
+            assertTrue(aggregator.fetchSuiToNgn().isPresent());
+        }
+        assertEquals(FAILURE_THRESHOLD, hits.get("/cryptocompare").get());
+        assertEquals(RateCircuitBreaker.State.OPEN, aggregator.breakerState("cryptocompare"));
+
+        Thread.sleep(OPEN_MS + 50);
+        stubs.put("/cryptocompare", new Stub(200, "{\"NGN\":4004}", 0));
+        Optional<BigDecimal> rate = aggregator.fetchSuiToNgn();
+
+        assertEquals(FAILURE_THRESHOLD + 1, hits.get("/cryptocompare").get());
+        assertEquals(RateCircuitBreaker.State.CLOSED, aggregator.breakerState("cryptocompare"));
+        assertEquals(0, new BigDecimal("4002").compareTo(rate.orElseThrow()));
+    }
+
+    @Test
+    @DisplayName("Should give no rate when no source returns a usable one")
+    void shouldReturnEmptyWhenAllSourcesFail() {
+        stubs.put("/coingecko", new Stub(200, "not json", 0));
+        stubs.put("/cryptocompare", new Stub(200, "{\"NGN\":-1}", 0));
+        stubs.put("/coinbase", new Stub(200, "{\"data\":{}}", 0));
+
+        assertTrue(aggregator().fetchSuiToNgn().isEmpty());
+    }
+
+    private RateAggregator aggregator() {
+        String base = "http://127.0.0.1:" + server.getAddress().getPort();
+        List<RateProvider> providers = List.of(
+                new CoinGeckoRateProvider(httpClient, objectMapper, base + "/coingecko", TIMEOUT_MS),
+                new CryptoCompareRateProvider(httpClient, objectMapper, base + "/cryptocompare", TIMEOUT_MS),
+                new CoinbaseRateProvider(httpClient, objectMapper, base + "/coinbase", TIMEOUT_MS));
+        return new RateAggregator(providers, new SimpleMeterRegistry(), TIMEOUT_MS, new BigDecimal("0.05"), 1,
+                FAILURE_THRESHOLD, OPEN_MS);
+    }
+
+    private record Stub(int status, String body, long delayMs) {
+    }
+}
@@ -0,0 +1,122 @@
+package com.semicolon.africa.tapprbackend.transaction.services.implementations;
+
+import com.semicolon.africa.tapprbackend.transaction.dtos.responses.RateCandleResponse;
+import com.semicolon.africa.tapprbackend.transaction.exceptions.InvalidRequestException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("h2")
+@DisplayName("Rate history")
+class RateHistoryServiceImplTest {
+
+    @Autowired
+    private RateHistoryServiceImpl rateHistoryService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private String symbol;
+    private Instant hour;
+
+    @BeforeEach
+    void setUp() {
+        symbol = "T/" + UUID.randomUUID().toString().substring(0, 8);
+        hour = Instant.now().truncatedTo(ChronoUnit.HOURS).minus(Duration.ofHours(2));
+    }
+
+    @Test
+    @DisplayName("Should roll ticks into minute, hour and day candles as they are recorded")
+    void shouldRollTicksIntoCandles() {
+        record("1500", hour.plusSeconds(5));
+        record("1520", hour.plusSeconds(20));
+        record("1490", hour.plusSeconds(40));
+        record("1510", hour.plusSeconds(65));
+
+        List<RateCandleResponse> minutes = rateHistoryService.candles(symbol, "1m", hour, hour.plus(Duration.ofHours(1)));
+        assertEquals(2, minutes.size());
+        assertCandle(minutes.get(0), hour, "1500", "1520", "1490", "1490", 3);
+        assertCandle(minutes.get(1), hour.plusSeconds(60), "1510", "1510", "1510", "1510", 1);
+
+        List<RateCandleResponse> hours = rateHistoryService.candles(symbol, "1h", hour, hour.plus(Duration.ofHours(1)));
+        assertEquals(1, hours.size());
+        assertCandle(hours.get(0), hour, "1500", "1520", "1490", "1510", 4);
+
+        List<RateCandleResponse> days = rateHistoryService.candles(symbol, "1d", null, null);
+        assertEquals(1, days.size());
+        assertEquals(4, days.get(0).ticks());
+    }
+
+    @Test
+    @DisplayName("Should keep open and close in time order when a tick arrives late")
+    void shouldKeepOrderForLateTicks() {
+        record("1500", hour.plusSeconds(30));
+        record("1550", hour.plusSeconds(50));
+        record("1400", hour.plusSeconds(10));
+
+        RateCandleResponse candle = rateHistoryService.candles(symbol, "1m", hour, hour.plusSeconds(60)).get(0);
+
+        assertCandle(candle, hour, "1400", "1550", "1400", "1550", 3);
+    }
+
+    @Test
+    @DisplayName("Should drop old ticks on retention and keep serving their candles")
+    void shouldDownsampleOldTicks() {
+        Instant old = Instant.now().truncatedTo(ChronoUnit.DAYS).minus(Duration.ofDays(120));
+        record("900", old.plusSeconds(10));
+        record("950", old.plus(Duration.ofHours(3)));
+        record("1500", hour.plusSeconds(10));
+
+        rateHistoryService.applyRetention();
+
+        assertEquals(1, ticks());
+        assertTrue(rateHistoryService.candles(symbol, "1m", old, old.plus(Duration.ofHours(4))).isEmpty());
+        List<RateCandleResponse> days = rateHistoryService.candles(symbol, "1d", old, old.plus(Duration.ofDays(1)));
+        assertEquals(1, days.size());
+        assertCandle(days.get(0), old, "900", "950", "900", "950", 2);
+    }
+
+    @Test
+    @DisplayName("Should reject unknown intervals and ranges wider than the candle limit")
+    void shouldRejectInvalidRanges() {
+        Instant now = Instant.now();
+
+        assertThrows(InvalidRequestException.class, () -> rateHistoryService.candles(symbol, "5m", null, null));
+        assertThrows(InvalidRequestException.class,
+                () -> rateHistoryService.candles(symbol, "1m", now.minus(Duration.ofDays(30)), now));
+        assertThrows(InvalidRequestException.class,
+                () -> rateHistoryService.candles(symbol, "1h", now, now.minus(Duration.ofHours(1))));
+    }
+
+    private void record(String rate, Instant at) {
+        rateHistoryService.record(symbol, new BigDecimal(rate), at);
+    }
+
+    private long ticks() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM rate_ticks WHERE symbol = ?", Long.class, symbol);
+    }
+
+    private static void assertCandle(RateCandleResponse candle, Instant bucketStart, String open, String high,
+                                     String low, String close, int ticks) {
+        assertEquals(bucketStart, candle.bucketStart());
+        assertEquals(0, new BigDecimal(open).compareTo(candle.open()), "open");
+        assertEquals(0, new BigDecimal(high).compareTo(candle.high()), "high");
+        assertEquals(0, new BigDecimal(low).compareTo(candle.low()), "low");
+        assertEquals(0, new BigDecimal(close).compareTo(candle.close()), "close");
+        assertEquals(ticks, candle.ticks());
+    }
+}
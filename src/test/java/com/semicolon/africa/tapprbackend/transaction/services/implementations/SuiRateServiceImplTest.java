@@ -0,0 +1,210 @@
+package com.semicolon.africa.tapprbackend.transaction.services.implementations;
+
+import com.semicolon.africa.tapprbackend.scheduling.services.interfaces.SchedulerLockService;
+import com.semicolon.africa.tapprbackend.transaction.data.models.ExchangeRate;
+import com.semicolon.africa.tapprbackend.transaction.data.repositories.ExchangeRateRepository;
+import com.semicolon.africa.tapprbackend.transaction.dtos.responses.RateSnapshot;
+import com.semicolon.africa.tapprbackend.transaction.enums.RateSource;
+import com.semicolon.africa.tapprbackend.transaction.services.interfaces.RateHistoryService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("SUI rate service")
+class SuiRateServiceImplTest {
+
+    private static final String SYMBOL = "SUI/NGN";
+    private static final long STALE_AFTER_MS = 60_000;
+    private static final long MIN_REVALIDATE_BACKOFF_MS = 15_000;
+
+    @Mock
+    private ExchangeRateRepository exchangeRateRepository;
+
+    @Mock
+    private RateAggregator rateAggregator;
+
+    @Mock
+    private SchedulerLockService schedulerLockService;
+
+    @Mock
+    private RateHistoryService rateHistoryService;
+
+    private final List<Runnable> refreshes = new ArrayList<>();
+
+    @Test
+    @DisplayName("Should seed the snapshot from the database and serve reads without further queries")
+    void shouldSeedFromDatabaseAndServeFromMemory() {
+        LocalDateTime lastUpdated = LocalDateTime.now().minusSeconds(5);
+        when(exchangeRateRepository.existsBySymbol(SYMBOL)).thenReturn(true);
+        when(exchangeRateRepository.findBySymbol(SYMBOL)).thenReturn(Optional.of(rate("1500.00", lastUpdated)));
+        SuiRateServiceImpl service = service();
+
+        service.initRateIfMissing();
+        for (int i = 0; i < 1_000; i++) {
+            assertEquals(new BigDecimal("1500.00"), service.getSuiToNgnRate());
+        }
+
+        RateSnapshot snapshot = service.getSuiToNgnSnapshot();
+        assertEquals(RateSource.DATABASE, snapshot.source());
+        assertEquals(lastUpdated, snapshot.lastUpdated());
+        verify(exchangeRateRepository, times(1)).findBySymbol(SYMBOL);
+        assertTrue(refreshes.isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should swap in the fetched rate")
+    void shouldSwapSnapshotOnUpdate() {
+        when(exchangeRateRepository.findBySymbol(SYMBOL))
+                .thenReturn(Optional.of(rate("1500.00", LocalDateTime.now())));
+        when(rateAggregator.fetchSuiToNgn()).thenReturn(Optional.of(new BigDecimal("1620.5")));
+        when(exchangeRateRepository.save(any(ExchangeRate.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        leader();
+        SuiRateServiceImpl service = service();
+
+        service.updateExchangeRate();
+
+        RateSnapshot snapshot = service.getSuiToNgnSnapshot();
+        assertEquals(new BigDecimal("1620.5"), snapshot.rate());
+        assertEquals(RateSource.UPSTREAM, snapshot.source());
+        verify(exchangeRateRepository).save(argThat(saved -> saved.getRate().compareTo(new BigDecimal("1620.5")) == 0));
+        verify(rateHistoryService).record(eq(SYMBOL), eq(new BigDecimal("1620.5")), any(Instant.class));
+    }
+
+    @Test
+    @DisplayName("Should keep serving a stale rate while the upstream fetch fails, refreshing in the background")
+    void shouldServeStaleRateWhileRevalidating() {
+        when(exchangeRateRepository.findBySymbol(SYMBOL))
+                .thenReturn(Optional.of(rate("1500.00", LocalDateTime.now().minusHours(1))));
+        when(rateAggregator.fetchSuiToNgn()).thenThrow(new IllegalStateException("providers down"));
+        leader();
+        SuiRateServiceImpl service = service();
+
+        assertEquals(new BigDecimal("1500.00"), service.getSuiToNgnRate());
+        assertEquals(new BigDecimal("1500.00"), service.getSuiToNgnRate());
+        // Only one refresh is in flight however many readers see the stale rate
+        assertEquals(1, refreshes.size());
+
+        runRefreshes();
+
+        assertEquals(new BigDecimal("1500.00"), service.getSuiToNgnRate());
+        assertEquals(RateSource.DATABASE, service.getSuiToNgnSnapshot().source());
+        verify(exchangeRateRepository, never()).save(any());
+        verifyNoInteractions(rateHistoryService);
+    }
+
+    @Test
+    @DisplayName("Should back off after a refresh that leaves the rate stale instead of refreshing on every read")
+    void shouldBackOffAfterFailedRefresh() {
+        when(exchangeRateRepository.findBySymbol(SYMBOL))
+                .thenReturn(Optional.of(rate("1500.00", LocalDateTime.now().minusHours(1))));
+        when(rateAggregator.fetchSuiToNgn()).thenReturn(Optional.empty());
+        leader();
+        SuiRateServiceImpl service = service();
+        service.getSuiToNgnRate();
+        runRefreshes();
+
+        for (int i = 0; i < 1_000; i++) {
+            assertEquals(new BigDecimal("1500.00"), service.getSuiToNgnRate());
+        }
+
+        assertTrue(refreshes.isEmpty());
+        verify(rateAggregator, times(1)).fetchSuiToNgn();
+        verify(schedulerLockService, times(1)).runIfLeader(anyString(), any(Duration.class), any(Runnable.class));
+    }
+
+    @Test
+    @DisplayName("Should fall back to the built-in rate and ask for a refresh when nothing is stored")
+    void shouldUseFallbackWhenNothingStored() {
+        when(exchangeRateRepository.findBySymbol(anyString())).thenReturn(Optional.empty());
+        SuiRateServiceImpl service = service();
+
+        RateSnapshot snapshot = service.getSuiToNgnSnapshot();
+
+        assertEquals(new BigDecimal("345.00"), snapshot.rate());
+        assertEquals(RateSource.FALLBACK, snapshot.source());
+        assertEquals(1, refreshes.size());
+        verify(rateAggregator, never()).fetchSuiToNgn();
+    }
+
+    @Test
+    @DisplayName("Should pick up the rate the leader wrote instead of fetching it when another instance holds the lease")
+    void shouldFollowLeaderWhenNotHoldingLease() {
+        when(exchangeRateRepository.findBySymbol(SYMBOL))
+                .thenReturn(Optional.of(rate("1500.00", LocalDateTime.now(), 1)))
+                .thenReturn(Optional.of(rate("1620.50", LocalDateTime.now(), 2)));
+        when(exchangeRateRepository.findVersionBySymbol(SYMBOL)).thenReturn(Optional.of(2L));
+        when(schedulerLockService.runIfLeader(anyString(), any(Duration.class), any(Runnable.class))).thenReturn(false);
+        SuiRateServiceImpl service = service();
+        assertEquals(new BigDecimal("1500.00"), service.getSuiToNgnRate());
+
+        service.updateExchangeRate();
+
+        RateSnapshot snapshot = service.getSuiToNgnSnapshot();
+        assertEquals(new BigDecimal("1620.50"), snapshot.rate());
+        assertEquals(RateSource.DATABASE, snapshot.source());
+        verify(rateAggregator, never()).fetchSuiToNgn();
+        verify(exchangeRateRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("Should only check the version while the stored rate has not been written")
+    void shouldNotReloadUnchangedRate() {
+        when(exchangeRateRepository.findBySymbol(SYMBOL)).thenReturn(Optional.of(rate("1500.00", LocalDateTime.now(), 7)));
+        when(exchangeRateRepository.findVersionBySymbol(SYMBOL)).thenReturn(Optional.of(7L));
+        SuiRateServiceImpl service = service();
+        service.getSuiToNgnRate();
+
+        for (int i = 0; i < 10; i++) {
+            service.syncFromDatabase();
+        }
+
+        verify(exchangeRateRepository, times(1)).findBySymbol(SYMBOL);
+        verify(exchangeRateRepository, times(10)).findVersionBySymbol(SYMBOL);
+    }
+
+    private SuiRateServiceImpl service() {
+        return new SuiRateServiceImpl(exchangeRateRepository, rateAggregator, schedulerLockService, rateHistoryService,
+                refreshes::add, new SimpleMeterRegistry(), STALE_AFTER_MS, MIN_REVALIDATE_BACKOFF_MS);
+    }
+
+    // This instance holds the refresh lease, so jobs run in place
+    private void leader() {
+        when(schedulerLockService.runIfLeader(anyString(), any(Duration.class), any(Runnable.class)))
+                .thenAnswer(invocation -> {
+                    invocation.getArgument(2, Runnable.class).run();
+                    return true;
+                });
+    }
+
+    private void runRefreshes() {
+        List<Runnable> pending = new ArrayList<>(refreshes);
+        refreshes.clear();
+        pending.forEach(Runnable::run);
+    }
+
+    private static ExchangeRate rate(String value, LocalDateTime lastUpdated) {
+        return rate(value, lastUpdated, 0);
+    }
+
+    private static ExchangeRate rate(String value, LocalDateTime lastUpdated, long version) {
+        return new ExchangeRate(1L, SYMBOL, new BigDecimal(value), lastUpdated, null, version);
+    }
+}
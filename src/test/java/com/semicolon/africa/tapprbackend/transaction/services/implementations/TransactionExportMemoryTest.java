@@ -0,0 +1,95 @@
+package com.semicolon.africa.tapprbackend.transaction.services.implementations;
+
+import com.semicolon.africa.tapprbackend.security.TapprPrincipal;
+import com.semicolon.africa.tapprbackend.support.TestWallets;
+import com.semicolon.africa.tapprbackend.transaction.dtos.requests.TransactionExportRequest;
+import com.semicolon.africa.tapprbackend.transaction.services.interfaces.TransactionExportService;
+import com.semicolon.africa.tapprbackend.user.data.models.User;
+import com.semicolon.africa.tapprbackend.user.enums.Role;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Exports more rows than the heap could hold. Only runs under the memory-tests profile, which
+ * forks a JVM with a small -Xmx; the rows live in a file-backed H2 database so they are not on
+ * the heap either.
+ */
+@Tag("memory")
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:file:./target/export-memory/tappr;MODE=MySQL;LOCK_TIMEOUT=10000")
+@ActiveProfiles("h2")
+@DisplayName("Transaction export memory")
+class TransactionExportMemoryTest {
+
+    private static final int ROWS = 1_000_000;
+
+    @Autowired
+    private TransactionExportService exportService;
+
+    @Autowired
+    private TestWallets testWallets;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    @DisplayName("Should stream an export larger than the heap from the database cursor")
+    void shouldStreamExportLargerThanHeap() throws IOException {
+        User merchant = testWallets.user("export-memory");
+        // Generated in one statement, with ascending keys so the inserts append to the indexes
+        jdbcTemplate.update("INSERT INTO transactions (id, transaction_ref, sender_account_number, " +
+                "receivers_account_number, senders_id, receivers_id, merchant_id, amount, wallet_currency, status, " +
+                "is_initiated, initiated_at, completed_at) " +
+                "SELECT CONCAT('memory-tx-', LPAD(X, 10, '0')), CONCAT('memory-ref-', LPAD(X, 10, '0')), " +
+                "'0000000001', '0000000002', ?, ?, ?, X / 100.0, 'NGN', 'SUCCESS', TRUE, " +
+                "DATEADD(SECOND, X, TIMESTAMP '2026-09-01 00:00:00'), NULL " +
+                "FROM SYSTEM_RANGE(1, ?)",
+                UUID.randomUUID().toString(), merchant.getId().toString(), merchant.getId().toString(), ROWS);
+        TransactionExportRequest request = exportService.prepare(
+                new TapprPrincipal(merchant.getId(), merchant.getEmail(), Role.REGULAR, UUID.randomUUID().toString()),
+                "ndjson", LocalDate.of(2026, 9, 1), LocalDate.of(2026, 9, 30));
+        CountingOutputStream sink = new CountingOutputStream();
+
+        long rows = exportService.export(request, sink);
+
+        assertEquals(ROWS, rows);
+        assertEquals(ROWS, sink.lines);
+        long maxHeap = Runtime.getRuntime().maxMemory();
+        assertTrue(sink.count > maxHeap, "wrote " + sink.count + " bytes, which fits in a " + maxHeap + " byte heap");
+    }
+
+    private static final class CountingOutputStream extends OutputStream {
+
+        private long count;
+        private long lines;
+
+        @Override
+        public void write(int b) {
+            count++;
+            if (b == '\n') {
+                lines++;
+            }
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) {
+            count += length;
+            for (int i = offset; i < offset + length; i++) {
+                if (bytes[i] == '\n') {
+                    lines++;
+                }
+            }
+        }
+    }
+}
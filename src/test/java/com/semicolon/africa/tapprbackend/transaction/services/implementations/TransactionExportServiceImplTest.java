@@ -0,0 +1,165 @@
+package com.semicolon.africa.tapprbackend.transaction.services.implementations;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.cfg.JsonNodeFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.semicolon.africa.tapprbackend.Wallet.enums.WalletCurrency;
+import com.semicolon.africa.tapprbackend.config.ExportDataSource;
+import com.semicolon.africa.tapprbackend.security.TapprPrincipal;
+import com.semicolon.africa.tapprbackend.support.TestWallets;
+import com.semicolon.africa.tapprbackend.transaction.data.models.Transaction;
+import com.semicolon.africa.tapprbackend.transaction.data.repositories.TransactionRepository;
+import com.semicolon.africa.tapprbackend.transaction.dtos.requests.TransactionExportRequest;
+import com.semicolon.africa.tapprbackend.transaction.enums.TransactionStatus;
+import com.semicolon.africa.tapprbackend.transaction.exceptions.InvalidRequestException;
+import com.semicolon.africa.tapprbackend.transaction.services.interfaces.TransactionExportService;
+import com.semicolon.africa.tapprbackend.user.data.models.User;
+import com.semicolon.africa.tapprbackend.user.enums.Role;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.sql.DataSource;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("h2")
+@DisplayName("Transaction export")
+class TransactionExportServiceImplTest {
+
+    @Autowired
+    private TransactionExportService exportService;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private TestWallets testWallets;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private ExportDataSource exportDataSource;
+
+    // Amounts are compared with their scale
+    private final ObjectMapper objectMapper = JsonMapper.builder()
+            .enable(DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS)
+            .disable(JsonNodeFeature.STRIP_TRAILING_BIGDECIMAL_ZEROES)
+            .build();
+
+    private User merchant;
+
+    @BeforeEach
+    void setUp() {
+        User sender = testWallets.user("export");
+        merchant = testWallets.user("export");
+        payment(sender, merchant, "10.00", LocalDateTime.of(2026, 8, 31, 23, 59));
+        payment(sender, merchant, "20.00", LocalDateTime.of(2026, 9, 1, 0, 0));
+        payment(sender, merchant, "30.00", LocalDateTime.of(2026, 9, 30, 23, 59));
+        payment(sender, merchant, "40.00", LocalDateTime.of(2026, 10, 1, 0, 0));
+        payment(merchant, sender, "50.00", LocalDateTime.of(2026, 9, 15, 12, 0));
+    }
+
+    @Test
+    @DisplayName("Should export the merchant's payments in the date range, oldest first, as NDJSON")
+    void shouldExportDateRangeAsNdjson() throws IOException {
+        TransactionExportRequest request = exportService.prepare(principal(merchant), "ndjson",
+                LocalDate.of(2026, 9, 1), LocalDate.of(2026, 9, 30));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long rows = exportService.export(request, out);
+
+        List<String> amounts = out.toString(StandardCharsets.UTF_8).lines()
+                .map(this::readAmount)
+                .toList();
+        assertEquals(2, rows);
+        assertEquals(List.of("20.00", "30.00"), amounts);
+    }
+
+    @Test
+    @DisplayName("Should export the same rows as CSV under a header")
+    void shouldExportDateRangeAsCsv() throws IOException {
+        TransactionExportRequest request = exportService.prepare(principal(merchant), "CSV",
+                LocalDate.of(2026, 8, 31), LocalDate.of(2026, 10, 1));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        exportService.export(request, out);
+
+        List<String> lines = out.toString(StandardCharsets.UTF_8).lines().toList();
+        assertEquals(String.join(",", TransactionExportWriter.COLUMNS), lines.get(0));
+        assertEquals(List.of("10.00", "20.00", "30.00", "40.00"),
+                lines.stream().skip(1).map(line -> Arrays.asList(line.split(",", -1)).get(2)).toList());
+    }
+
+    @Test
+    @DisplayName("Should reject unknown formats and inverted or oversized ranges before writing")
+    void shouldRejectInvalidExports() {
+        TapprPrincipal principal = principal(merchant);
+        LocalDate day = LocalDate.of(2026, 9, 1);
+
+        assertThrows(InvalidRequestException.class, () -> exportService.prepare(principal, "xml", day, day));
+        assertThrows(InvalidRequestException.class, () -> exportService.prepare(principal, "csv", day, day.minusDays(1)));
+        assertThrows(InvalidRequestException.class, () -> exportService.prepare(principal, "csv", day, day.plusYears(2)));
+        assertThrows(InvalidRequestException.class, () -> exportService.prepare(principal, "csv", null, day));
+    }
+
+    private String readAmount(String line) {
+        try {
+            return objectMapper.readTree(line).get("amount").decimalValue().toPlainString();
+        } catch (IOException e) {
+            throw new AssertionError(e);
+        }
+    }
+
+    @Test
+    @DisplayName("Should read exports from their own read-only pool, leaving the main pool as it was")
+    void shouldUseSeparateReadOnlyPool() {
+        // H2 ignores Connection.setReadOnly, so the pool settings are checked instead
+        HikariDataSource exportPool = (HikariDataSource) exportDataSource.getDataSource();
+        assertNotSame(dataSource, exportPool);
+        assertEquals("export", exportPool.getPoolName());
+        assertTrue(exportPool.isReadOnly());
+        assertFalse(((HikariDataSource) dataSource).isReadOnly());
+    }
+
+    private void payment(User sender, User merchant, String amount, LocalDateTime initiatedAt) {
+        Transaction transaction = new Transaction();
+        transaction.setTransactionRef(UUID.randomUUID().toString());
+        transaction.setMerchant(merchant);
+        transaction.setSenderId(sender.getId().toString());
+        transaction.setReceiversId(merchant.getId().toString());
+        transaction.setSenderAccountNumber("0000000001");
+        transaction.setReceiversAccountNumber("0000000002");
+        transaction.setAmount(new BigDecimal(amount));
+        transaction.setWalletCurrency(WalletCurrency.NGN);
+        transaction.setStatus(TransactionStatus.SUCCESS);
+        String id = transactionRepository.save(transaction).getId();
+        // initiatedAt is stamped on insert, so backdate it directly
+        jdbcTemplate.update("UPDATE transactions SET initiated_at = ? WHERE id = ?", Timestamp.valueOf(initiatedAt), id);
+    }
+
+    private static TapprPrincipal principal(User user) {
+        return new TapprPrincipal(user.getId(), user.getEmail(), Role.REGULAR, UUID.randomUUID().toString());
+    }
+}
@@ -0,0 +1,62 @@
+package com.semicolon.africa.tapprbackend.transaction.services.implementations;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.cfg.JsonNodeFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.semicolon.africa.tapprbackend.transaction.enums.ExportFormat;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Transaction export writer")
+class TransactionExportWriterTest {
+
+    private final JsonFactory jsonFactory = new ObjectMapper().getFactory();
+
+    @Test
+    @DisplayName("Should write one JSON object per line")
+    void shouldWriteNdjsonLines() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (TransactionExportWriter writer = TransactionExportWriter.create(ExportFormat.NDJSON, jsonFactory, out)) {
+            writer.write("tx-1", "ref-1", new BigDecimal("12.50"), "NGN", "FAILED", "sender", "0000000001",
+                    "0000000002", LocalDateTime.of(2026, 9, 1, 10, 15), null, "Insufficient funds");
+        }
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(1, lines.length);
+        JsonNode row = JsonMapper.builder()
+                .enable(DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS)
+                .disable(JsonNodeFeature.STRIP_TRAILING_BIGDECIMAL_ZEROES)
+                .build().readTree(lines[0]);
+        assertEquals("tx-1", row.get("transactionId").asText());
+        assertEquals(new BigDecimal("12.50"), row.get("amount").decimalValue());
+        assertEquals("2026-09-01T10:15", row.get("initiatedAt").asText());
+        assertTrue(row.get("completedAt").isNull());
+        assertEquals("Insufficient funds", row.get("failureReason").asText());
+    }
+
+    @Test
+    @DisplayName("Should write a CSV header and quote fields that need it")
+    void shouldWriteQuotedCsv() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (TransactionExportWriter writer = TransactionExportWriter.create(ExportFormat.CSV, jsonFactory, out)) {
+            writer.write("tx-1", "ref-1", new BigDecimal("12.50"), "NGN", "FAILED", "sender", "0000000001",
+                    "0000000002", LocalDateTime.of(2026, 9, 1, 10, 15), null, "Rejected, \"limit\" reached");
+        }
+
+        assertEquals(String.join(",", TransactionExportWriter.COLUMNS) + "\r\n"
+                        + "tx-1,ref-1,12.50,NGN,FAILED,sender,0000000001,0000000002,2026-09-01T10:15,,"
+                        + "\"Rejected, \"\"limit\"\" reached\"\r\n",
+                out.toString(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,141 @@
+package com.semicolon.africa.tapprbackend.transaction.services.implementations;
+
+import com.semicolon.africa.tapprbackend.Wallet.enums.WalletCurrency;
+import com.semicolon.africa.tapprbackend.security.TapprPrincipal;
+import com.semicolon.africa.tapprbackend.support.TestWallets;
+import com.semicolon.africa.tapprbackend.transaction.data.models.Transaction;
+import com.semicolon.africa.tapprbackend.transaction.data.repositories.TransactionRepository;
+import com.semicolon.africa.tapprbackend.transaction.dtos.responses.TransactionHistoryItem;
+import com.semicolon.africa.tapprbackend.transaction.dtos.responses.TransactionHistoryPage;
+import com.semicolon.africa.tapprbackend.transaction.enums.TransactionStatus;
+import com.semicolon.africa.tapprbackend.transaction.exceptions.InvalidRequestException;
+import com.semicolon.africa.tapprbackend.transaction.services.interfaces.TransactionHistoryService;
+import com.semicolon.africa.tapprbackend.user.data.models.User;
+import com.semicolon.africa.tapprbackend.user.enums.Role;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("h2")
+@DisplayName("Transaction history")
+class TransactionHistoryServiceImplTest {
+
+    private static final int PAYMENTS = 25;
+
+    @Autowired
+    private TransactionHistoryService historyService;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private TestWallets testWallets;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private User sender;
+    private User merchant;
+    private List<String> expectedOrder;
+
+    @BeforeEach
+    void setUp() {
+        sender = testWallets.user("history");
+        merchant = testWallets.user("history");
+        List<Transaction> saved = new ArrayList<>();
+        for (int i = 0; i < PAYMENTS; i++) {
+            saved.add(transactionRepository.save(payment(sender, merchant, i)));
+        }
+        // Rows saved in the same tick share initiatedAt, so the id breaks the tie
+        expectedOrder = saved.stream()
+                .sorted(Comparator.comparing(Transaction::getInitiatedAt).thenComparing(Transaction::getId).reversed())
+                .map(Transaction::getId)
+                .toList();
+    }
+
+    @Test
+    @DisplayName("Should page through sent payments newest first without gaps or repeats")
+    void shouldPageThroughSentHistory() {
+        List<String> seen = new ArrayList<>();
+        List<Integer> pageSizes = new ArrayList<>();
+        String cursor = null;
+        do {
+            TransactionHistoryPage page = historyService.getSentHistory(principal(sender), cursor, 10);
+            page.items().forEach(item -> seen.add(item.transactionId()));
+            pageSizes.add(page.items().size());
+            cursor = page.nextCursor();
+        } while (cursor != null);
+
+        assertEquals(List.of(10, 10, 5), pageSizes);
+        assertEquals(expectedOrder, seen);
+    }
+
+    @Test
+    @DisplayName("Should list received payments for the merchant only")
+    void shouldListReceivedHistoryForMerchant() {
+        TransactionHistoryPage received = historyService.getReceivedHistory(principal(merchant), null, 100);
+
+        assertEquals(expectedOrder, received.items().stream().map(TransactionHistoryItem::transactionId).toList());
+        assertNull(received.nextCursor());
+        assertTrue(historyService.getReceivedHistory(principal(sender), null, null).items().isEmpty());
+        assertTrue(historyService.getSentHistory(principal(merchant), null, null).items().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should read a deep page in one statement without loading merchants or receipts")
+    void shouldReadPageInOneStatement() {
+        String cursor = historyService.getSentHistory(principal(sender), null, 20).nextCursor();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        TransactionHistoryPage page = historyService.getSentHistory(principal(sender), cursor, 20);
+
+        assertEquals(PAYMENTS - 20, page.items().size());
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    @DisplayName("Should reject a malformed cursor and an out-of-range limit")
+    void shouldRejectInvalidPagingParameters() {
+        assertThrows(InvalidRequestException.class,
+                () -> historyService.getSentHistory(principal(sender), "not-a-cursor", 10));
+        assertThrows(InvalidRequestException.class,
+                () -> historyService.getSentHistory(principal(sender), null, 0));
+        assertThrows(InvalidRequestException.class,
+                () -> historyService.getSentHistory(principal(sender), null, 101));
+    }
+
+    private static Transaction payment(User sender, User merchant, int index) {
+        Transaction transaction = new Transaction();
+        transaction.setTransactionRef(UUID.randomUUID().toString());
+        transaction.setMerchant(merchant);
+        transaction.setSenderId(sender.getId().toString());
+        transaction.setReceiversId(merchant.getId().toString());
+        transaction.setSenderAccountNumber("0000000001");
+        transaction.setReceiversAccountNumber("0000000002");
+        transaction.setAmount(new BigDecimal(index + 1));
+        transaction.setWalletCurrency(WalletCurrency.NGN);
+        transaction.setStatus(TransactionStatus.SUCCESS);
+        return transaction;
+    }
+
+    private static TapprPrincipal principal(User user) {
+        return new TapprPrincipal(user.getId(), user.getEmail(), Role.REGULAR, UUID.randomUUID().toString());
+    }
+}
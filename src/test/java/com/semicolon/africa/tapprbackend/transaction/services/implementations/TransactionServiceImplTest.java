@@ -2,18 +2,27 @@ package com.semicolon.africa.tapprbackend.transaction.services.implementations;
 
 import com.semicolon.africa.tapprbackend.Wallet.data.model.Wallet;
 import com.semicolon.africa.tapprbackend.Wallet.data.repositories.WalletRepository;
+import com.semicolon.africa.tapprbackend.Wallet.dtos.ReceiverWallet;
 import com.semicolon.africa.tapprbackend.Wallet.enums.WalletCurrency;
+import com.semicolon.africa.tapprbackend.Wallet.service.implementation.ReceiverDirectory;
+import com.semicolon.africa.tapprbackend.outbox.enums.OutboxEventType;
+import com.semicolon.africa.tapprbackend.outbox.services.interfaces.OutboxService;
 import com.semicolon.africa.tapprbackend.reciepts.data.models.Receipt;
-import com.semicolon.africa.tapprbackend.security.JwtUtil;
+import com.semicolon.africa.tapprbackend.security.TapprPrincipal;
+import com.semicolon.africa.tapprbackend.security.TokenRevocationService;
+import com.semicolon.africa.tapprbackend.security.UserStatus;
+import com.semicolon.africa.tapprbackend.security.UserStatusCache;
 import com.semicolon.africa.tapprbackend.transaction.data.models.Transaction;
 import com.semicolon.africa.tapprbackend.transaction.data.repositories.TransactionRepository;
 import com.semicolon.africa.tapprbackend.transaction.dtos.requests.CreateTransactionRequest;
 import com.semicolon.africa.tapprbackend.transaction.dtos.responses.CreateTransactionResponse;
 import com.semicolon.africa.tapprbackend.transaction.enums.TransactionStatus;
+import com.semicolon.africa.tapprbackend.transaction.events.TransactionAcceptedEvent;
+import com.semicolon.africa.tapprbackend.transaction.events.TransactionEvent;
 import com.semicolon.africa.tapprbackend.transaction.exceptions.InvalidRequestException;
+import com.semicolon.africa.tapprbackend.transaction.services.interfaces.FxRateService;
 import com.semicolon.africa.tapprbackend.user.data.models.User;
-import com.semicolon.africa.tapprbackend.user.data.repositories.UserRepository;
-import jakarta.servlet.http.HttpServletRequest;
+import com.semicolon.africa.tapprbackend.user.enums.Role;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -21,14 +30,15 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
-import org.mockito.MockedStatic;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.web.context.request.RequestContextHolder;
-import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -43,19 +53,25 @@ public class TransactionServiceImplTest {
     private TransactionRepository transactionRepository;
 
     @Mock
-    private UserRepository userRepository;
+    private WalletRepository walletRepository;
 
     @Mock
-    private JwtUtil jwtUtil;
+    private UserStatusCache userStatusCache;
 
     @Mock
-    private WalletRepository walletRepository;
+    private TokenRevocationService tokenRevocationService;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
 
     @Mock
-    private HttpServletRequest httpServletRequest;
+    private OutboxService outboxService;
 
     @Mock
-    private ServletRequestAttributes servletRequestAttributes;
+    private ReceiverDirectory receiverDirectory;
+
+    @Mock
+    private FxRateService fxRateService;
 
     @InjectMocks
     private TransactionServiceImpl transactionService;
@@ -67,6 +83,7 @@ public class TransactionServiceImplTest {
     private Wallet senderCryptoWallet;
     private Wallet receiverWallet;
     private Transaction savedTransaction;
+    private TapprPrincipal senderPrincipal;
 
     @BeforeEach
     void setUp() {
@@ -78,6 +95,8 @@ public class TransactionServiceImplTest {
         sender.setPhoneNumber("+2348123456789");
         sender.setHasWallet(true);
         sender.setLoggedIn(true);
+        senderPrincipal = new TapprPrincipal(sender.getId(), sender.getEmail(), Role.REGULAR,
+                UUID.randomUUID().toString());
 
         receiver = new User();
         receiver.setId(UUID.randomUUID());
@@ -129,6 +148,20 @@ public class TransactionServiceImplTest {
         savedTransaction.setReceipt(new Receipt());
     }
 
+    private void stubSenderLookup() {
+        when(userStatusCache.get(sender.getId())).thenReturn(Optional.of(new UserStatus(
+                sender.getId(), sender.getPhoneNumber(), sender.getRole(), sender.isHasWallet())));
+    }
+
+    private void stubReceiver(User owner, Wallet wallet) {
+        when(receiverDirectory.findByIdentifier(createTransactionRequest.getAccountNumber()))
+                .thenReturn(Optional.of(new ReceiverWallet(owner.getId(), wallet.getId(), wallet.getCurrencyType())));
+    }
+
+    private void stubWallets(Wallet... wallets) {
+        when(walletRepository.findByUserIdsAndCurrencies(anyCollection(), anyCollection())).thenReturn(List.of(wallets));
+    }
+
     @Nested
     @DisplayName("Successful Transaction Creation")
     class SuccessfulTransactionCreation {
@@ -136,102 +169,115 @@ public class TransactionServiceImplTest {
         @Test
         @DisplayName("Should create transaction successfully with fiat account number")
         void shouldCreateTransactionSuccessfullyWithFiatAccountNumber() {
-            try (MockedStatic<RequestContextHolder> mockedRequestContextHolder = mockStatic(RequestContextHolder.class)) {
-                setupSuccessfulMocks(mockedRequestContextHolder);
-
-                CreateTransactionResponse response = transactionService.createTransaction(createTransactionRequest);
-
-                assertNotNull(response);
-                assertEquals(savedTransaction.getId(), response.getTransactionId());
-                assertEquals(savedTransaction.getTransactionRef(), response.getTransactionRef());
-                assertEquals(receiver.getFullName(), response.getMerchantName());
-                assertEquals(createTransactionRequest.getAmount(), response.getAmount());
-                assertEquals("NGN", response.getCurrency());
-                assertEquals(TransactionStatus.PENDING, response.getStatus());
-                assertNotNull(response.getInitiatedAt());
-                assertNull(response.getCompletedAt());
-
-                // Verify interactions
-                verify(jwtUtil).extractEmail("valid-token");
-                verify(userRepository).findByEmail(sender.getEmail());
-                verify(userRepository).findUserByAccountNumber(createTransactionRequest.getAccountNumber());
-                verify(walletRepository).findByUserAndCurrencyType(sender, WalletCurrency.NGN);
-                verify(walletRepository).findByUserAndCurrencyType(sender, WalletCurrency.SUI);
-                verify(walletRepository).findByUserAndCurrencyType(receiver, WalletCurrency.NGN);
-                verify(transactionRepository).save(any(Transaction.class));
-            }
+            setupSuccessfulMocks();
+
+            CreateTransactionResponse response = transactionService.createTransaction(senderPrincipal, createTransactionRequest);
+
+            assertNotNull(response);
+            assertEquals(savedTransaction.getId(), response.getTransactionId());
+            assertEquals(savedTransaction.getTransactionRef(), response.getTransactionRef());
+            assertEquals(receiver.getFullName(), response.getMerchantName());
+            assertEquals(createTransactionRequest.getAmount(), response.getAmount());
+            assertEquals("NGN", response.getCurrency());
+            assertEquals(TransactionStatus.PENDING, response.getStatus());
+            assertNotNull(response.getInitiatedAt());
+            assertNull(response.getCompletedAt());
+
+            // Verify interactions
+            verify(userStatusCache).get(sender.getId());
+            verify(receiverDirectory).findByIdentifier(createTransactionRequest.getAccountNumber());
+            verify(walletRepository).findByUserIdsAndCurrencies(
+                    Set.of(sender.getId(), receiver.getId()), EnumSet.of(WalletCurrency.NGN, WalletCurrency.SUI));
+            verifyNoMoreInteractions(walletRepository);
+            verify(transactionRepository).save(any(Transaction.class));
         }
 
         @Test
         @DisplayName("Should create transaction successfully with crypto wallet address")
         void shouldCreateTransactionSuccessfullyWithCryptoWalletAddress() {
-            try (MockedStatic<RequestContextHolder> mockedRequestContextHolder = mockStatic(RequestContextHolder.class)) {
-                createTransactionRequest.setAccountNumber("0x789abcdef123456789abcdef123456789abcdef12");
-                receiverWallet.setCurrencyType(WalletCurrency.SUI);
-                savedTransaction.setWalletCurrency(WalletCurrency.SUI);
-                
-                setupCryptoTransactionMocks(mockedRequestContextHolder);
-                when(userRepository.findUserByWalletAddress(createTransactionRequest.getAccountNumber()))
-                        .thenReturn(Optional.of(receiver));
-                when(walletRepository.findByUserAndCurrencyType(receiver, WalletCurrency.SUI))
-                        .thenReturn(Optional.of(receiverWallet));
-
-                CreateTransactionResponse response = transactionService.createTransaction(createTransactionRequest);
-
-                assertNotNull(response);
-                assertEquals("SUI", response.getCurrency());
-                verify(userRepository).findUserByWalletAddress(createTransactionRequest.getAccountNumber());
-                verify(walletRepository).findByUserAndCurrencyType(receiver, WalletCurrency.SUI);
-            }
-        }
-
-        private void setupCryptoTransactionMocks(MockedStatic<RequestContextHolder> mockedRequestContextHolder) {
-            mockedRequestContextHolder.when(RequestContextHolder::getRequestAttributes)
-                    .thenReturn(servletRequestAttributes);
-            when(servletRequestAttributes.getRequest()).thenReturn(httpServletRequest);
-            when(httpServletRequest.getHeader("Authorization")).thenReturn("Bearer valid-token");
-            when(jwtUtil.extractEmail("valid-token")).thenReturn(sender.getEmail());
-            when(userRepository.findByEmail(sender.getEmail())).thenReturn(Optional.of(sender));
-            when(walletRepository.findByUserAndCurrencyType(sender, WalletCurrency.NGN))
-                    .thenReturn(Optional.of(senderFiatWallet));
-            when(walletRepository.findByUserAndCurrencyType(sender, WalletCurrency.SUI))
-                    .thenReturn(Optional.of(senderCryptoWallet));
+            createTransactionRequest.setAccountNumber("0x789abcdef123456789abcdef123456789abcdef12");
+            receiverWallet.setCurrencyType(WalletCurrency.SUI);
+            savedTransaction.setWalletCurrency(WalletCurrency.SUI);
+            
+            setupCryptoTransactionMocks();
+            stubReceiver(receiver, receiverWallet);
+
+            CreateTransactionResponse response = transactionService.createTransaction(senderPrincipal, createTransactionRequest);
+
+            assertNotNull(response);
+            assertEquals("SUI", response.getCurrency());
+            verify(receiverDirectory).findByIdentifier(createTransactionRequest.getAccountNumber());
+            verify(walletRepository).findByUserIdsAndCurrencies(anyCollection(), anyCollection());
+        }
+
+        private void setupCryptoTransactionMocks() {
+            stubSenderLookup();
+            stubWallets(senderFiatWallet, senderCryptoWallet, receiverWallet);
+            when(fxRateService.supports(WalletCurrency.NGN, WalletCurrency.SUI)).thenReturn(true);
             when(transactionRepository.save(any(Transaction.class))).thenReturn(savedTransaction);
         }
 
+        @Test
+        @DisplayName("Should hand the accepted payment to the settlement pipeline")
+        void shouldPublishAcceptedEvent() {
+            setupSuccessfulMocks();
+
+            transactionService.createTransaction(senderPrincipal, createTransactionRequest);
+
+            verify(eventPublisher).publishEvent(new TransactionAcceptedEvent(savedTransaction.getId()));
+        }
+
+        @Test
+        @DisplayName("Should record the accepted payment in the outbox")
+        void shouldAppendAcceptedEventToOutbox() {
+            setupSuccessfulMocks();
+
+            transactionService.createTransaction(senderPrincipal, createTransactionRequest);
+
+            verify(outboxService).append(OutboxEventType.TRANSACTION_ACCEPTED, savedTransaction.getId(),
+                    TransactionEvent.of(savedTransaction));
+        }
+
+        @Test
+        @DisplayName("Should reject a currency pair the pipeline cannot settle")
+        void shouldRejectUnsupportedCurrencyPair() {
+            // A Kenyan sender paying an account number targets the receiver's KES wallet
+            sender.setPhoneNumber("+254712345678");
+            Wallet receiverKesWallet = new Wallet();
+            receiverKesWallet.setId(UUID.randomUUID());
+            receiverKesWallet.setUser(receiver);
+            receiverKesWallet.setCurrencyType(WalletCurrency.KES);
+            stubSenderLookup();
+            stubReceiver(receiver, receiverWallet);
+            stubWallets(senderFiatWallet, senderCryptoWallet, receiverKesWallet);
+            when(fxRateService.supports(WalletCurrency.NGN, WalletCurrency.KES)).thenReturn(false);
+
+            InvalidRequestException exception = assertThrows(InvalidRequestException.class,
+                    () -> transactionService.createTransaction(senderPrincipal, createTransactionRequest));
+            assertEquals("Unsupported currency pair NGN/KES", exception.getMessage());
+            verifyNoInteractions(transactionRepository, eventPublisher, outboxService);
+        }
+
         @Test
         @DisplayName("Should include receipt URLs when receipt exists")
         void shouldIncludeReceiptUrlsWhenReceiptExists() {
-            try (MockedStatic<RequestContextHolder> mockedRequestContextHolder = mockStatic(RequestContextHolder.class)) {
-                Receipt receipt = new Receipt();
-                receipt.setMerchantReceiptDownloadUrl("https://example.com/merchant-receipt.pdf");
-                receipt.setRegularReceiptDownloadUrl("https://example.com/regular-receipt.pdf");
-                savedTransaction.setReceipt(receipt);
-                
-                setupSuccessfulMocks(mockedRequestContextHolder);
-
-                CreateTransactionResponse response = transactionService.createTransaction(createTransactionRequest);
-
-                assertEquals(receipt.getMerchantReceiptDownloadUrl(), response.getMerchantReceiptDownloadUrl());
-                assertEquals(receipt.getRegularReceiptDownloadUrl(), response.getRegularReceiptDownloadUrl());
-            }
-        }
-
-        private void setupSuccessfulMocks(MockedStatic<RequestContextHolder> mockedRequestContextHolder) {
-            mockedRequestContextHolder.when(RequestContextHolder::getRequestAttributes)
-                    .thenReturn(servletRequestAttributes);
-            when(servletRequestAttributes.getRequest()).thenReturn(httpServletRequest);
-            when(httpServletRequest.getHeader("Authorization")).thenReturn("Bearer valid-token");
-            when(jwtUtil.extractEmail("valid-token")).thenReturn(sender.getEmail());
-            when(userRepository.findByEmail(sender.getEmail())).thenReturn(Optional.of(sender));
-            when(userRepository.findUserByAccountNumber(createTransactionRequest.getAccountNumber()))
-                    .thenReturn(Optional.of(receiver));
-            when(walletRepository.findByUserAndCurrencyType(sender, WalletCurrency.NGN))
-                    .thenReturn(Optional.of(senderFiatWallet));
-            when(walletRepository.findByUserAndCurrencyType(sender, WalletCurrency.SUI))
-                    .thenReturn(Optional.of(senderCryptoWallet));
-            when(walletRepository.findByUserAndCurrencyType(receiver, WalletCurrency.NGN))
-                    .thenReturn(Optional.of(receiverWallet));
+            Receipt receipt = new Receipt();
+            receipt.setMerchantReceiptDownloadUrl("https://example.com/merchant-receipt.pdf");
+            receipt.setRegularReceiptDownloadUrl("https://example.com/regular-receipt.pdf");
+            savedTransaction.setReceipt(receipt);
+            
+            setupSuccessfulMocks();
+
+            CreateTransactionResponse response = transactionService.createTransaction(senderPrincipal, createTransactionRequest);
+
+            assertEquals(receipt.getMerchantReceiptDownloadUrl(), response.getMerchantReceiptDownloadUrl());
+            assertEquals(receipt.getRegularReceiptDownloadUrl(), response.getRegularReceiptDownloadUrl());
+        }
+
+        private void setupSuccessfulMocks() {
+            stubSenderLookup();
+            stubReceiver(receiver, receiverWallet);
+            stubWallets(senderFiatWallet, senderCryptoWallet, receiverWallet);
             when(transactionRepository.save(any(Transaction.class))).thenReturn(savedTransaction);
         }
     }
@@ -246,7 +292,7 @@ public class TransactionServiceImplTest {
             createTransactionRequest.setAccountNumber(null);
 
             InvalidRequestException exception = assertThrows(InvalidRequestException.class, () -> {
-                transactionService.createTransaction(createTransactionRequest);
+                transactionService.createTransaction(senderPrincipal, createTransactionRequest);
             });
             assertEquals("Amount or account number must be correct and greater than zero!", exception.getMessage());
         }
@@ -257,7 +303,7 @@ public class TransactionServiceImplTest {
             createTransactionRequest.setAmount(null);
 
             InvalidRequestException exception = assertThrows(InvalidRequestException.class, () -> {
-                transactionService.createTransaction(createTransactionRequest);
+                transactionService.createTransaction(senderPrincipal, createTransactionRequest);
             });
             assertEquals("Amount or account number must be correct and greater than zero!", exception.getMessage());
         }
@@ -268,7 +314,7 @@ public class TransactionServiceImplTest {
             createTransactionRequest.setAmount(BigDecimal.ZERO);
 
             InvalidRequestException exception = assertThrows(InvalidRequestException.class, () -> {
-                transactionService.createTransaction(createTransactionRequest);
+                transactionService.createTransaction(senderPrincipal, createTransactionRequest);
             });
             assertEquals("Amount or account number must be correct and greater than zero!", exception.getMessage());
         }
@@ -279,10 +325,22 @@ public class TransactionServiceImplTest {
             createTransactionRequest.setAmount(BigDecimal.valueOf(-100));
 
             InvalidRequestException exception = assertThrows(InvalidRequestException.class, () -> {
-                transactionService.createTransaction(createTransactionRequest);
+                transactionService.createTransaction(senderPrincipal, createTransactionRequest);
             });
             assertEquals("Amount or account number must be correct and greater than zero!", exception.getMessage());
         }
+
+        @Test
+        @DisplayName("Should throw exception when amount has more than two decimal places")
+        void shouldThrowExceptionWhenAmountHasTooManyDecimals() {
+            createTransactionRequest.setAmount(new BigDecimal("10.005"));
+
+            InvalidRequestException exception = assertThrows(InvalidRequestException.class, () -> {
+                transactionService.createTransaction(senderPrincipal, createTransactionRequest);
+            });
+            assertEquals("Amount cannot have more than 2 decimal places", exception.getMessage());
+            verifyNoInteractions(transactionRepository);
+        }
     }
 
     @Nested
@@ -292,51 +350,30 @@ public class TransactionServiceImplTest {
         @Test
         @DisplayName("Should throw exception when authorization header is missing")
         void shouldThrowExceptionWhenAuthorizationHeaderIsMissing() {
-            try (MockedStatic<RequestContextHolder> mockedRequestContextHolder = mockStatic(RequestContextHolder.class)) {
-                mockedRequestContextHolder.when(RequestContextHolder::getRequestAttributes)
-                        .thenReturn(servletRequestAttributes);
-                when(servletRequestAttributes.getRequest()).thenReturn(httpServletRequest);
-                when(httpServletRequest.getHeader("Authorization")).thenReturn(null);
-
-                InvalidRequestException exception = assertThrows(InvalidRequestException.class, () -> {
-                    transactionService.createTransaction(createTransactionRequest);
-                });
-                assertEquals("Missing or invalid authorization header", exception.getMessage());
-            }
+            InvalidRequestException exception = assertThrows(InvalidRequestException.class, () -> {
+                transactionService.createTransaction(null, createTransactionRequest);
+            });
+            assertEquals("Missing or invalid authorization header", exception.getMessage());
         }
 
         @Test
         @DisplayName("Should throw exception when authorization header doesn't start with Bearer")
         void shouldThrowExceptionWhenAuthorizationHeaderDoesntStartWithBearer() {
-            try (MockedStatic<RequestContextHolder> mockedRequestContextHolder = mockStatic(RequestContextHolder.class)) {
-                mockedRequestContextHolder.when(RequestContextHolder::getRequestAttributes)
-                        .thenReturn(servletRequestAttributes);
-                when(servletRequestAttributes.getRequest()).thenReturn(httpServletRequest);
-                when(httpServletRequest.getHeader("Authorization")).thenReturn("Invalid token");
-
-                InvalidRequestException exception = assertThrows(InvalidRequestException.class, () -> {
-                    transactionService.createTransaction(createTransactionRequest);
-                });
-                assertEquals("Missing or invalid authorization header", exception.getMessage());
-            }
+            InvalidRequestException exception = assertThrows(InvalidRequestException.class, () -> {
+                transactionService.createTransaction(null, createTransactionRequest);
+            });
+            assertEquals("Missing or invalid authorization header", exception.getMessage());
         }
 
         @Test
         @DisplayName("Should throw exception when user is not found")
         void shouldThrowExceptionWhenUserIsNotFound() {
-            try (MockedStatic<RequestContextHolder> mockedRequestContextHolder = mockStatic(RequestContextHolder.class)) {
-                mockedRequestContextHolder.when(RequestContextHolder::getRequestAttributes)
-                        .thenReturn(servletRequestAttributes);
-                when(servletRequestAttributes.getRequest()).thenReturn(httpServletRequest);
-                when(httpServletRequest.getHeader("Authorization")).thenReturn("Bearer valid-token");
-                when(jwtUtil.extractEmail("valid-token")).thenReturn("nonexistent@example.com");
-                when(userRepository.findByEmail("nonexistent@example.com")).thenReturn(Optional.empty());
-
-                InvalidRequestException exception = assertThrows(InvalidRequestException.class, () -> {
-                    transactionService.createTransaction(createTransactionRequest);
-                });
-                assertEquals("User not found", exception.getMessage());
-            }
+            when(userStatusCache.get(sender.getId())).thenReturn(Optional.empty());
+
+            InvalidRequestException exception = assertThrows(InvalidRequestException.class, () -> {
+                transactionService.createTransaction(senderPrincipal, createTransactionRequest);
+            });
+            assertEquals("User not found", exception.getMessage());
         }
     }
 
@@ -347,38 +384,29 @@ public class TransactionServiceImplTest {
         @Test
         @DisplayName("Should throw exception when user doesn't have wallet")
         void shouldThrowExceptionWhenUserDoesntHaveWallet() {
-            try (MockedStatic<RequestContextHolder> mockedRequestContextHolder = mockStatic(RequestContextHolder.class)) {
-                sender.setHasWallet(false);
-                setupAuthenticationMocks(mockedRequestContextHolder);
+            sender.setHasWallet(false);
+            setupAuthenticationMocks();
 
-                InvalidRequestException exception = assertThrows(InvalidRequestException.class, () -> {
-                    transactionService.createTransaction(createTransactionRequest);
-                });
-                assertEquals("User does not have a wallet", exception.getMessage());
-            }
+            InvalidRequestException exception = assertThrows(InvalidRequestException.class, () -> {
+                transactionService.createTransaction(senderPrincipal, createTransactionRequest);
+            });
+            assertEquals("User does not have a wallet", exception.getMessage());
         }
 
         @Test
-        @DisplayName("Should throw exception when user is not logged in")
-        void shouldThrowExceptionWhenUserIsNotLoggedIn() {
-            try (MockedStatic<RequestContextHolder> mockedRequestContextHolder = mockStatic(RequestContextHolder.class)) {
-                sender.setLoggedIn(false);
-                setupAuthenticationMocks(mockedRequestContextHolder);
-
-                InvalidRequestException exception = assertThrows(InvalidRequestException.class, () -> {
-                    transactionService.createTransaction(createTransactionRequest);
-                });
-                assertEquals("User is not logged in", exception.getMessage());
-            }
-        }
-
-        private void setupAuthenticationMocks(MockedStatic<RequestContextHolder> mockedRequestContextHolder) {
-            mockedRequestContextHolder.when(RequestContextHolder::getRequestAttributes)
-                    .thenReturn(servletRequestAttributes);
-            when(servletRequestAttributes.getRequest()).thenReturn(httpServletRequest);
-            when(httpServletRequest.getHeader("Authorization")).thenReturn("Bearer valid-token");
-            when(jwtUtil.extractEmail("valid-token")).thenReturn(sender.getEmail());
-            when(userRepository.findByEmail(sender.getEmail())).thenReturn(Optional.of(sender));
+        @DisplayName("Should throw exception when the sender's token has been revoked")
+        void shouldThrowExceptionWhenSenderTokenIsRevoked() {
+            setupAuthenticationMocks();
+            when(tokenRevocationService.isRevoked(senderPrincipal.tokenId())).thenReturn(true);
+
+            InvalidRequestException exception = assertThrows(InvalidRequestException.class, () -> {
+                transactionService.createTransaction(senderPrincipal, createTransactionRequest);
+            });
+            assertEquals("User is not logged in", exception.getMessage());
+        }
+
+        private void setupAuthenticationMocks() {
+            stubSenderLookup();
         }
     }
 
@@ -389,41 +417,32 @@ public class TransactionServiceImplTest {
         @Test
         @DisplayName("Should throw exception when receiver is not found by account number")
         void shouldThrowExceptionWhenReceiverIsNotFoundByAccountNumber() {
-            try (MockedStatic<RequestContextHolder> mockedRequestContextHolder = mockStatic(RequestContextHolder.class)) {
-                setupAuthenticationAndUserMocks(mockedRequestContextHolder);
-                when(userRepository.findUserByAccountNumber(createTransactionRequest.getAccountNumber()))
-                        .thenReturn(Optional.empty());
+            setupAuthenticationAndUserMocks();
+            when(receiverDirectory.findByIdentifier(createTransactionRequest.getAccountNumber()))
+                    .thenReturn(Optional.empty());
 
-                InvalidRequestException exception = assertThrows(InvalidRequestException.class, () -> {
-                    transactionService.createTransaction(createTransactionRequest);
-                });
-                assertEquals("Receiver not found", exception.getMessage());
-            }
+            InvalidRequestException exception = assertThrows(InvalidRequestException.class, () -> {
+                transactionService.createTransaction(senderPrincipal, createTransactionRequest);
+            });
+            assertEquals("Receiver not found", exception.getMessage());
         }
 
         @Test
         @DisplayName("Should throw exception when receiver is not found by wallet address")
         void shouldThrowExceptionWhenReceiverIsNotFoundByWalletAddress() {
-            try (MockedStatic<RequestContextHolder> mockedRequestContextHolder = mockStatic(RequestContextHolder.class)) {
-                createTransactionRequest.setAccountNumber("0x789abcdef123456789abcdef123456789abcdef12");
-                setupAuthenticationAndUserMocks(mockedRequestContextHolder);
-                when(userRepository.findUserByWalletAddress(createTransactionRequest.getAccountNumber()))
-                        .thenReturn(Optional.empty());
-
-                InvalidRequestException exception = assertThrows(InvalidRequestException.class, () -> {
-                    transactionService.createTransaction(createTransactionRequest);
-                });
-                assertEquals("Receiver not found", exception.getMessage());
-            }
-        }
-
-        private void setupAuthenticationAndUserMocks(MockedStatic<RequestContextHolder> mockedRequestContextHolder) {
-            mockedRequestContextHolder.when(RequestContextHolder::getRequestAttributes)
-                    .thenReturn(servletRequestAttributes);
-            when(servletRequestAttributes.getRequest()).thenReturn(httpServletRequest);
-            when(httpServletRequest.getHeader("Authorization")).thenReturn("Bearer valid-token");
-            when(jwtUtil.extractEmail("valid-token")).thenReturn(sender.getEmail());
-            when(userRepository.findByEmail(sender.getEmail())).thenReturn(Optional.of(sender));
+            createTransactionRequest.setAccountNumber("0x789abcdef123456789abcdef123456789abcdef12");
+            setupAuthenticationAndUserMocks();
+            when(receiverDirectory.findByIdentifier(createTransactionRequest.getAccountNumber()))
+                    .thenReturn(Optional.empty());
+
+            InvalidRequestException exception = assertThrows(InvalidRequestException.class, () -> {
+                transactionService.createTransaction(senderPrincipal, createTransactionRequest);
+            });
+            assertEquals("Receiver not found", exception.getMessage());
+        }
+
+        private void setupAuthenticationAndUserMocks() {
+            stubSenderLookup();
         }
     }
 
@@ -434,85 +453,57 @@ public class TransactionServiceImplTest {
         @Test
         @DisplayName("Should throw exception when sender fiat wallet is not found")
         void shouldThrowExceptionWhenSenderFiatWalletIsNotFound() {
-            try (MockedStatic<RequestContextHolder> mockedRequestContextHolder = mockStatic(RequestContextHolder.class)) {
-                setupAuthenticationUserAndReceiverMocks(mockedRequestContextHolder);
-                when(walletRepository.findByUserAndCurrencyType(sender, WalletCurrency.NGN))
-                        .thenReturn(Optional.empty());
+            setupAuthenticationUserAndReceiverMocks();
+            stubWallets(senderCryptoWallet, receiverWallet);
 
-                InvalidRequestException exception = assertThrows(InvalidRequestException.class, () -> {
-                    transactionService.createTransaction(createTransactionRequest);
-                });
-                assertEquals("Sender fiat wallet not found", exception.getMessage());
-            }
+            InvalidRequestException exception = assertThrows(InvalidRequestException.class, () -> {
+                transactionService.createTransaction(senderPrincipal, createTransactionRequest);
+            });
+            assertEquals("Sender fiat wallet not found", exception.getMessage());
         }
 
         @Test
         @DisplayName("Should throw exception when sender crypto wallet is not found")
         void shouldThrowExceptionWhenSenderCryptoWalletIsNotFound() {
-            try (MockedStatic<RequestContextHolder> mockedRequestContextHolder = mockStatic(RequestContextHolder.class)) {
-                setupAuthenticationUserAndReceiverMocks(mockedRequestContextHolder);
-                when(walletRepository.findByUserAndCurrencyType(sender, WalletCurrency.NGN))
-                        .thenReturn(Optional.of(senderFiatWallet));
-                when(walletRepository.findByUserAndCurrencyType(sender, WalletCurrency.SUI))
-                        .thenReturn(Optional.empty());
+            setupAuthenticationUserAndReceiverMocks();
+            stubWallets(senderFiatWallet, receiverWallet);
 
-                InvalidRequestException exception = assertThrows(InvalidRequestException.class, () -> {
-                    transactionService.createTransaction(createTransactionRequest);
-                });
-                assertEquals("Sender crypto wallet not found", exception.getMessage());
-            }
+            InvalidRequestException exception = assertThrows(InvalidRequestException.class, () -> {
+                transactionService.createTransaction(senderPrincipal, createTransactionRequest);
+            });
+            assertEquals("Sender crypto wallet not found", exception.getMessage());
         }
 
         @Test
         @DisplayName("Should throw exception when receiver wallet is not found")
         void shouldThrowExceptionWhenReceiverWalletIsNotFound() {
-            try (MockedStatic<RequestContextHolder> mockedRequestContextHolder = mockStatic(RequestContextHolder.class)) {
-                setupAuthenticationUserAndReceiverMocks(mockedRequestContextHolder);
-                when(walletRepository.findByUserAndCurrencyType(sender, WalletCurrency.NGN))
-                        .thenReturn(Optional.of(senderFiatWallet));
-                when(walletRepository.findByUserAndCurrencyType(sender, WalletCurrency.SUI))
-                        .thenReturn(Optional.of(senderCryptoWallet));
-                when(walletRepository.findByUserAndCurrencyType(receiver, WalletCurrency.NGN))
-                        .thenReturn(Optional.empty());
-
-                InvalidRequestException exception = assertThrows(InvalidRequestException.class, () -> {
-                    transactionService.createTransaction(createTransactionRequest);
-                });
-                assertEquals("Receiver wallet not found", exception.getMessage());
-            }
+            setupAuthenticationUserAndReceiverMocks();
+            stubWallets(senderFiatWallet, senderCryptoWallet);
+
+            InvalidRequestException exception = assertThrows(InvalidRequestException.class, () -> {
+                transactionService.createTransaction(senderPrincipal, createTransactionRequest);
+            });
+            assertEquals("Receiver wallet not found", exception.getMessage());
         }
 
         @Test
         @DisplayName("Should throw exception when sender has insufficient funds")
         void shouldThrowExceptionWhenSenderHasInsufficientFunds() {
-            try (MockedStatic<RequestContextHolder> mockedRequestContextHolder = mockStatic(RequestContextHolder.class)) {
-                senderFiatWallet.setBalance(BigDecimal.valueOf(500)); // Less than transaction amount
-                createTransactionRequest.setAmount(BigDecimal.valueOf(1000));
-                
-                setupAuthenticationUserAndReceiverMocks(mockedRequestContextHolder);
-                when(walletRepository.findByUserAndCurrencyType(sender, WalletCurrency.NGN))
-                        .thenReturn(Optional.of(senderFiatWallet));
-                when(walletRepository.findByUserAndCurrencyType(sender, WalletCurrency.SUI))
-                        .thenReturn(Optional.of(senderCryptoWallet));
-                when(walletRepository.findByUserAndCurrencyType(receiver, WalletCurrency.NGN))
-                        .thenReturn(Optional.of(receiverWallet));
-
-                InvalidRequestException exception = assertThrows(InvalidRequestException.class, () -> {
-                    transactionService.createTransaction(createTransactionRequest);
-                });
-                assertEquals("Insufficient funds in sender's fiat wallet", exception.getMessage());
-            }
-        }
-
-        private void setupAuthenticationUserAndReceiverMocks(MockedStatic<RequestContextHolder> mockedRequestContextHolder) {
-            mockedRequestContextHolder.when(RequestContextHolder::getRequestAttributes)
-                    .thenReturn(servletRequestAttributes);
-            when(servletRequestAttributes.getRequest()).thenReturn(httpServletRequest);
-            when(httpServletRequest.getHeader("Authorization")).thenReturn("Bearer valid-token");
-            when(jwtUtil.extractEmail("valid-token")).thenReturn(sender.getEmail());
-            when(userRepository.findByEmail(sender.getEmail())).thenReturn(Optional.of(sender));
-            when(userRepository.findUserByAccountNumber(createTransactionRequest.getAccountNumber()))
-                    .thenReturn(Optional.of(receiver));
+            senderFiatWallet.setBalance(BigDecimal.valueOf(500)); // Less than transaction amount
+            createTransactionRequest.setAmount(BigDecimal.valueOf(1000));
+            
+            setupAuthenticationUserAndReceiverMocks();
+            stubWallets(senderFiatWallet, senderCryptoWallet, receiverWallet);
+
+            InvalidRequestException exception = assertThrows(InvalidRequestException.class, () -> {
+                transactionService.createTransaction(senderPrincipal, createTransactionRequest);
+            });
+            assertEquals("Insufficient funds in sender's fiat wallet", exception.getMessage());
+        }
+
+        private void setupAuthenticationUserAndReceiverMocks() {
+            stubSenderLookup();
+            stubReceiver(receiver, receiverWallet);
         }
     }
 
@@ -523,68 +514,43 @@ public class TransactionServiceImplTest {
         @Test
         @DisplayName("Should resolve NGN currency for Nigerian phone number with 10-digit account")
         void shouldResolveNGNCurrencyForNigerianPhoneNumberWith10DigitAccount() {
-            try (MockedStatic<RequestContextHolder> mockedRequestContextHolder = mockStatic(RequestContextHolder.class)) {
-                sender.setPhoneNumber("+2348123456789");
-                createTransactionRequest.setAccountNumber("1234567890");
-                
-                setupSuccessfulTransactionMocks(mockedRequestContextHolder);
-                CreateTransactionResponse response = transactionService.createTransaction(createTransactionRequest);
+            sender.setPhoneNumber("+2348123456789");
+            createTransactionRequest.setAccountNumber("1234567890");
+            
+            setupSuccessfulTransactionMocks();
+            CreateTransactionResponse response = transactionService.createTransaction(senderPrincipal, createTransactionRequest);
 
-                assertEquals("NGN", response.getCurrency());
-                verify(walletRepository).findByUserAndCurrencyType(receiver, WalletCurrency.NGN);
-            }
+            assertEquals("NGN", response.getCurrency());
+            verify(walletRepository).findByUserIdsAndCurrencies(anyCollection(), anyCollection());
         }
 
         @Test
         @DisplayName("Should resolve SUI currency for crypto wallet address")
         void shouldResolveSUICurrencyForCryptoWalletAddress() {
-            try (MockedStatic<RequestContextHolder> mockedRequestContextHolder = mockStatic(RequestContextHolder.class)) {
-                createTransactionRequest.setAccountNumber("0x789abcdef123456789abcdef123456789abcdef12");
-                receiverWallet.setCurrencyType(WalletCurrency.SUI);
-                savedTransaction.setWalletCurrency(WalletCurrency.SUI);
-                
-                setupCryptoTransactionMocks(mockedRequestContextHolder);
-                when(userRepository.findUserByWalletAddress(createTransactionRequest.getAccountNumber()))
-                        .thenReturn(Optional.of(receiver));
-                when(walletRepository.findByUserAndCurrencyType(receiver, WalletCurrency.SUI))
-                        .thenReturn(Optional.of(receiverWallet));
-
-                CreateTransactionResponse response = transactionService.createTransaction(createTransactionRequest);
-
-                assertEquals("SUI", response.getCurrency());
-                verify(walletRepository).findByUserAndCurrencyType(receiver, WalletCurrency.SUI);
-            }
-        }
-
-        private void setupCryptoTransactionMocks(MockedStatic<RequestContextHolder> mockedRequestContextHolder) {
-            mockedRequestContextHolder.when(RequestContextHolder::getRequestAttributes)
-                    .thenReturn(servletRequestAttributes);
-            when(servletRequestAttributes.getRequest()).thenReturn(httpServletRequest);
-            when(httpServletRequest.getHeader("Authorization")).thenReturn("Bearer valid-token");
-            when(jwtUtil.extractEmail("valid-token")).thenReturn(sender.getEmail());
-            when(userRepository.findByEmail(sender.getEmail())).thenReturn(Optional.of(sender));
-            when(walletRepository.findByUserAndCurrencyType(sender, WalletCurrency.NGN))
-                    .thenReturn(Optional.of(senderFiatWallet));
-            when(walletRepository.findByUserAndCurrencyType(sender, WalletCurrency.SUI))
-                    .thenReturn(Optional.of(senderCryptoWallet));
+            createTransactionRequest.setAccountNumber("0x789abcdef123456789abcdef123456789abcdef12");
+            receiverWallet.setCurrencyType(WalletCurrency.SUI);
+            savedTransaction.setWalletCurrency(WalletCurrency.SUI);
+            
+            setupCryptoTransactionMocks();
+            stubReceiver(receiver, receiverWallet);
+
+            CreateTransactionResponse response = transactionService.createTransaction(senderPrincipal, createTransactionRequest);
+
+            assertEquals("SUI", response.getCurrency());
+            verify(walletRepository).findByUserIdsAndCurrencies(anyCollection(), anyCollection());
+        }
+
+        private void setupCryptoTransactionMocks() {
+            stubSenderLookup();
+            stubWallets(senderFiatWallet, senderCryptoWallet, receiverWallet);
+            when(fxRateService.supports(WalletCurrency.NGN, WalletCurrency.SUI)).thenReturn(true);
             when(transactionRepository.save(any(Transaction.class))).thenReturn(savedTransaction);
         }
 
-        private void setupSuccessfulTransactionMocks(MockedStatic<RequestContextHolder> mockedRequestContextHolder) {
-            mockedRequestContextHolder.when(RequestContextHolder::getRequestAttributes)
-                    .thenReturn(servletRequestAttributes);
-            when(servletRequestAttributes.getRequest()).thenReturn(httpServletRequest);
-            when(httpServletRequest.getHeader("Authorization")).thenReturn("Bearer valid-token");
-            when(jwtUtil.extractEmail("valid-token")).thenReturn(sender.getEmail());
-            when(userRepository.findByEmail(sender.getEmail())).thenReturn(Optional.of(sender));
-            when(userRepository.findUserByAccountNumber(createTransactionRequest.getAccountNumber()))
-                    .thenReturn(Optional.of(receiver));
-            when(walletRepository.findByUserAndCurrencyType(sender, WalletCurrency.NGN))
-                    .thenReturn(Optional.of(senderFiatWallet));
-            when(walletRepository.findByUserAndCurrencyType(sender, WalletCurrency.SUI))
-                    .thenReturn(Optional.of(senderCryptoWallet));
-            when(walletRepository.findByUserAndCurrencyType(receiver, WalletCurrency.NGN))
-                    .thenReturn(Optional.of(receiverWallet));
+        private void setupSuccessfulTransactionMocks() {
+            stubSenderLookup();
+            stubReceiver(receiver, receiverWallet);
+            stubWallets(senderFiatWallet, senderCryptoWallet, receiverWallet);
             when(transactionRepository.save(any(Transaction.class))).thenReturn(savedTransaction);
         }
     }
@@ -596,58 +562,47 @@ public class TransactionServiceImplTest {
         @Test
         @DisplayName("Should save transaction with correct properties")
         void shouldSaveTransactionWithCorrectProperties() {
-            try (MockedStatic<RequestContextHolder> mockedRequestContextHolder = mockStatic(RequestContextHolder.class)) {
-                setupSuccessfulMocks(mockedRequestContextHolder);
-
-                transactionService.createTransaction(createTransactionRequest);
-
-                verify(transactionRepository).save(argThat(transaction -> {
-                    assertNotNull(transaction.getTransactionRef());
-                    assertEquals(receiver, transaction.getMerchant());
-                    assertEquals(senderFiatWallet.getAccountNumber(), transaction.getSenderAccountNumber());
-                    assertEquals(createTransactionRequest.getAmount(), transaction.getAmount());
-                    assertEquals(WalletCurrency.NGN, transaction.getWalletCurrency());
-                    assertEquals(createTransactionRequest.getAccountNumber(), transaction.getReceiversAccountNumber());
-                    assertNotNull(transaction.getInitiatedAt());
-                    assertEquals(TransactionStatus.PENDING, transaction.getStatus());
-                    assertTrue(transaction.isInitiated());
-                    assertNotNull(transaction.getReceipt());
-                    return true;
-                }));
-            }
+            setupSuccessfulMocks();
+
+            transactionService.createTransaction(senderPrincipal, createTransactionRequest);
+
+            verify(transactionRepository).save(argThat(transaction -> {
+                assertNotNull(transaction.getTransactionRef());
+                assertEquals(receiver, transaction.getMerchant());
+                assertEquals(senderFiatWallet.getAccountNumber(), transaction.getSenderAccountNumber());
+                assertEquals(createTransactionRequest.getAmount(), transaction.getAmount());
+                assertEquals(WalletCurrency.NGN, transaction.getWalletCurrency());
+                assertEquals(createTransactionRequest.getAccountNumber(), transaction.getReceiversAccountNumber());
+                assertNotNull(transaction.getInitiatedAt());
+                assertEquals(TransactionStatus.PENDING, transaction.getStatus());
+                assertNull(transaction.getCompletedAt());
+                assertEquals(senderFiatWallet.getId(), transaction.getSenderWalletId());
+                assertEquals(receiverWallet.getId(), transaction.getReceiverWalletId());
+                assertEquals(sender.getId().toString(), transaction.getSenderId());
+                assertEquals(receiver.getId().toString(), transaction.getReceiversId());
+                assertTrue(transaction.isInitiated());
+                return true;
+            }));
         }
 
         @Test
         @DisplayName("Should generate unique transaction reference")
         void shouldGenerateUniqueTransactionReference() {
-            try (MockedStatic<RequestContextHolder> mockedRequestContextHolder = mockStatic(RequestContextHolder.class)) {
-                setupSuccessfulMocks(mockedRequestContextHolder);
-
-                transactionService.createTransaction(createTransactionRequest);
-
-                verify(transactionRepository).save(argThat(transaction -> {
-                    assertNotNull(transaction.getTransactionRef());
-                    assertFalse(transaction.getTransactionRef().isEmpty());
-                    return true;
-                }));
-            }
-        }
-
-        private void setupSuccessfulMocks(MockedStatic<RequestContextHolder> mockedRequestContextHolder) {
-            mockedRequestContextHolder.when(RequestContextHolder::getRequestAttributes)
-                    .thenReturn(servletRequestAttributes);
-            when(servletRequestAttributes.getRequest()).thenReturn(httpServletRequest);
-            when(httpServletRequest.getHeader("Authorization")).thenReturn("Bearer valid-token");
-            when(jwtUtil.extractEmail("valid-token")).thenReturn(sender.getEmail());
-            when(userRepository.findByEmail(sender.getEmail())).thenReturn(Optional.of(sender));
-            when(userRepository.findUserByAccountNumber(createTransactionRequest.getAccountNumber()))
-                    .thenReturn(Optional.of(receiver));
-            when(walletRepository.findByUserAndCurrencyType(sender, WalletCurrency.NGN))
-                    .thenReturn(Optional.of(senderFiatWallet));
-            when(walletRepository.findByUserAndCurrencyType(sender, WalletCurrency.SUI))
-                    .thenReturn(Optional.of(senderCryptoWallet));
-            when(walletRepository.findByUserAndCurrencyType(receiver, WalletCurrency.NGN))
-                    .thenReturn(Optional.of(receiverWallet));
+            setupSuccessfulMocks();
+
+            transactionService.createTransaction(senderPrincipal, createTransactionRequest);
+
+            verify(transactionRepository).save(argThat(transaction -> {
+                assertNotNull(transaction.getTransactionRef());
+                assertFalse(transaction.getTransactionRef().isEmpty());
+                return true;
+            }));
+        }
+
+        private void setupSuccessfulMocks() {
+            stubSenderLookup();
+            stubReceiver(receiver, receiverWallet);
+            stubWallets(senderFiatWallet, senderCryptoWallet, receiverWallet);
             when(transactionRepository.save(any(Transaction.class))).thenReturn(savedTransaction);
         }
     }
@@ -659,82 +614,54 @@ public class TransactionServiceImplTest {
         @Test
         @DisplayName("Should handle repository exceptions gracefully")
         void shouldHandleRepositoryExceptionsGracefully() {
-            try (MockedStatic<RequestContextHolder> mockedRequestContextHolder = mockStatic(RequestContextHolder.class)) {
-                setupAuthenticationAndUserMocks(mockedRequestContextHolder);
-                when(userRepository.findUserByAccountNumber(createTransactionRequest.getAccountNumber()))
-                        .thenReturn(Optional.of(receiver));
-                when(walletRepository.findByUserAndCurrencyType(sender, WalletCurrency.NGN))
-                        .thenReturn(Optional.of(senderFiatWallet));
-                when(walletRepository.findByUserAndCurrencyType(sender, WalletCurrency.SUI))
-                        .thenReturn(Optional.of(senderCryptoWallet));
-                when(walletRepository.findByUserAndCurrencyType(receiver, WalletCurrency.NGN))
-                        .thenReturn(Optional.of(receiverWallet));
-                when(transactionRepository.save(any(Transaction.class)))
-                        .thenThrow(new RuntimeException("Database connection error"));
-
-                assertThrows(RuntimeException.class, () -> {
-                    transactionService.createTransaction(createTransactionRequest);
-                });
-            }
+            setupAuthenticationAndUserMocks();
+            stubReceiver(receiver, receiverWallet);
+            stubWallets(senderFiatWallet, senderCryptoWallet, receiverWallet);
+            when(transactionRepository.save(any(Transaction.class)))
+                    .thenThrow(new RuntimeException("Database connection error"));
+
+            assertThrows(RuntimeException.class, () -> {
+                transactionService.createTransaction(senderPrincipal, createTransactionRequest);
+            });
         }
 
         @Test
         @DisplayName("Should handle large transaction amounts")
         void shouldHandleLargeTransactionAmounts() {
-            try (MockedStatic<RequestContextHolder> mockedRequestContextHolder = mockStatic(RequestContextHolder.class)) {
-                BigDecimal largeAmount = new BigDecimal("999999999.99");
-                createTransactionRequest.setAmount(largeAmount);
-                senderFiatWallet.setBalance(new BigDecimal("1000000000.00"));
-                savedTransaction.setAmount(largeAmount);
-                
-                setupSuccessfulMocks(mockedRequestContextHolder);
+            BigDecimal largeAmount = new BigDecimal("999999999.99");
+            createTransactionRequest.setAmount(largeAmount);
+            senderFiatWallet.setBalance(new BigDecimal("1000000000.00"));
+            savedTransaction.setAmount(largeAmount);
+            
+            setupSuccessfulMocks();
 
-                CreateTransactionResponse response = transactionService.createTransaction(createTransactionRequest);
+            CreateTransactionResponse response = transactionService.createTransaction(senderPrincipal, createTransactionRequest);
 
-                assertEquals(largeAmount, response.getAmount());
-            }
+            assertEquals(largeAmount, response.getAmount());
         }
 
         @Test
         @DisplayName("Should handle decimal amounts correctly")
         void shouldHandleDecimalAmountsCorrectly() {
-            try (MockedStatic<RequestContextHolder> mockedRequestContextHolder = mockStatic(RequestContextHolder.class)) {
-                BigDecimal decimalAmount = new BigDecimal("123.45");
-                createTransactionRequest.setAmount(decimalAmount);
-                savedTransaction.setAmount(decimalAmount);
-                
-                setupSuccessfulMocks(mockedRequestContextHolder);
-
-                CreateTransactionResponse response = transactionService.createTransaction(createTransactionRequest);
-
-                assertEquals(decimalAmount, response.getAmount());
-            }
-        }
-
-        private void setupAuthenticationAndUserMocks(MockedStatic<RequestContextHolder> mockedRequestContextHolder) {
-            mockedRequestContextHolder.when(RequestContextHolder::getRequestAttributes)
-                    .thenReturn(servletRequestAttributes);
-            when(servletRequestAttributes.getRequest()).thenReturn(httpServletRequest);
-            when(httpServletRequest.getHeader("Authorization")).thenReturn("Bearer valid-token");
-            when(jwtUtil.extractEmail("valid-token")).thenReturn(sender.getEmail());
-            when(userRepository.findByEmail(sender.getEmail())).thenReturn(Optional.of(sender));
-        }
-
-        private void setupSuccessfulMocks(MockedStatic<RequestContextHolder> mockedRequestContextHolder) {
-            mockedRequestContextHolder.when(RequestContextHolder::getRequestAttributes)
-                    .thenReturn(servletRequestAttributes);
-            when(servletRequestAttributes.getRequest()).thenReturn(httpServletRequest);
-            when(httpServletRequest.getHeader("Authorization")).thenReturn("Bearer valid-token");
-            when(jwtUtil.extractEmail("valid-token")).thenReturn(sender.getEmail());
-            when(userRepository.findByEmail(sender.getEmail())).thenReturn(Optional.of(sender));
-            when(userRepository.findUserByAccountNumber(createTransactionRequest.getAccountNumber()))
-                    .thenReturn(Optional.of(receiver));
-            when(walletRepository.findByUserAndCurrencyType(sender, WalletCurrency.NGN))
-                    .thenReturn(Optional.of(senderFiatWallet));
-            when(walletRepository.findByUserAndCurrencyType(sender, WalletCurrency.SUI))
-                    .thenReturn(Optional.of(senderCryptoWallet));
-            when(walletRepository.findByUserAndCurrencyType(receiver, WalletCurrency.NGN))
-                    .thenReturn(Optional.of(receiverWallet));
+            BigDecimal decimalAmount = new BigDecimal("123.45");
+            createTransactionRequest.setAmount(decimalAmount);
+            savedTransaction.setAmount(decimalAmount);
+            
+            setupSuccessfulMocks();
+
+            CreateTransactionResponse response = transactionService.createTransaction(senderPrincipal, createTransactionRequest);
+
+            assertEquals(decimalAmount, response.getAmount());
+        }
+
+        private void setupAuthenticationAndUserMocks() {
+            stubSenderLookup();
+        }
+
+        private void setupSuccessfulMocks() {
+            stubSenderLookup();
+            stubReceiver(receiver, receiverWallet);
+            stubWallets(senderFiatWallet, senderCryptoWallet, receiverWallet);
             when(transactionRepository.save(any(Transaction.class))).thenReturn(savedTransaction);
         }
     }
@@ -746,64 +673,41 @@ public class TransactionServiceImplTest {
         @Test
         @DisplayName("Should handle self-transaction (sender equals receiver)")
         void shouldHandleSelfTransaction() {
-            try (MockedStatic<RequestContextHolder> mockedRequestContextHolder = mockStatic(RequestContextHolder.class)) {
-                createTransactionRequest.setAccountNumber(senderFiatWallet.getAccountNumber()); // Same as sender
-                
-                mockedRequestContextHolder.when(RequestContextHolder::getRequestAttributes)
-                        .thenReturn(servletRequestAttributes);
-                when(servletRequestAttributes.getRequest()).thenReturn(httpServletRequest);
-                when(httpServletRequest.getHeader("Authorization")).thenReturn("Bearer valid-token");
-                when(jwtUtil.extractEmail("valid-token")).thenReturn(sender.getEmail());
-                when(userRepository.findByEmail(sender.getEmail())).thenReturn(Optional.of(sender));
-                when(userRepository.findUserByAccountNumber(createTransactionRequest.getAccountNumber()))
-                        .thenReturn(Optional.of(sender)); // Same user
-                when(walletRepository.findByUserAndCurrencyType(sender, WalletCurrency.NGN))
-                        .thenReturn(Optional.of(senderFiatWallet));
-                when(walletRepository.findByUserAndCurrencyType(sender, WalletCurrency.SUI))
-                        .thenReturn(Optional.of(senderCryptoWallet));
-                
-                savedTransaction.setMerchant(sender); // Self-transaction
-                when(transactionRepository.save(any(Transaction.class))).thenReturn(savedTransaction);
-
-                CreateTransactionResponse response = transactionService.createTransaction(createTransactionRequest);
-
-                assertNotNull(response);
-                assertEquals(sender.getFullName(), response.getMerchantName());
-            }
+            createTransactionRequest.setAccountNumber(senderFiatWallet.getAccountNumber()); // Same as sender
+            
+            stubSenderLookup();
+            stubReceiver(sender, senderFiatWallet); // Same user
+            stubWallets(senderFiatWallet, senderCryptoWallet, receiverWallet);
+            
+            savedTransaction.setMerchant(sender); // Self-transaction
+            when(transactionRepository.save(any(Transaction.class))).thenReturn(savedTransaction);
+
+            CreateTransactionResponse response = transactionService.createTransaction(senderPrincipal, createTransactionRequest);
+
+            assertNotNull(response);
+            assertEquals(sender.getFullName(), response.getMerchantName());
         }
 
         @Test
         @DisplayName("Should handle very long crypto wallet address")
         void shouldHandleVeryLongCryptoWalletAddress() {
-            try (MockedStatic<RequestContextHolder> mockedRequestContextHolder = mockStatic(RequestContextHolder.class)) {
-                String longCryptoAddress = "0x" + "a".repeat(64); // Very long address
-                createTransactionRequest.setAccountNumber(longCryptoAddress);
-                receiverWallet.setCurrencyType(WalletCurrency.SUI);
-                savedTransaction.setWalletCurrency(WalletCurrency.SUI);
-                
-                setupCryptoTransactionMocksForEdgeCases(mockedRequestContextHolder);
-                when(userRepository.findUserByWalletAddress(longCryptoAddress))
-                        .thenReturn(Optional.of(receiver));
-                when(walletRepository.findByUserAndCurrencyType(receiver, WalletCurrency.SUI))
-                        .thenReturn(Optional.of(receiverWallet));
-
-                CreateTransactionResponse response = transactionService.createTransaction(createTransactionRequest);
-
-                assertEquals("SUI", response.getCurrency());
-            }
-        }
-
-        private void setupCryptoTransactionMocksForEdgeCases(MockedStatic<RequestContextHolder> mockedRequestContextHolder) {
-            mockedRequestContextHolder.when(RequestContextHolder::getRequestAttributes)
-                    .thenReturn(servletRequestAttributes);
-            when(servletRequestAttributes.getRequest()).thenReturn(httpServletRequest);
-            when(httpServletRequest.getHeader("Authorization")).thenReturn("Bearer valid-token");
-            when(jwtUtil.extractEmail("valid-token")).thenReturn(sender.getEmail());
-            when(userRepository.findByEmail(sender.getEmail())).thenReturn(Optional.of(sender));
-            when(walletRepository.findByUserAndCurrencyType(sender, WalletCurrency.NGN))
-                    .thenReturn(Optional.of(senderFiatWallet));
-            when(walletRepository.findByUserAndCurrencyType(sender, WalletCurrency.SUI))
-                    .thenReturn(Optional.of(senderCryptoWallet));
+            String longCryptoAddress = "0x" + "a".repeat(64); // Very long address
+            createTransactionRequest.setAccountNumber(longCryptoAddress);
+            receiverWallet.setCurrencyType(WalletCurrency.SUI);
+            savedTransaction.setWalletCurrency(WalletCurrency.SUI);
+            
+            setupCryptoTransactionMocksForEdgeCases();
+            stubReceiver(receiver, receiverWallet);
+
+            CreateTransactionResponse response = transactionService.createTransaction(senderPrincipal, createTransactionRequest);
+
+            assertEquals("SUI", response.getCurrency());
+        }
+
+        private void setupCryptoTransactionMocksForEdgeCases() {
+            stubSenderLookup();
+            stubWallets(senderFiatWallet, senderCryptoWallet, receiverWallet);
+            when(fxRateService.supports(WalletCurrency.NGN, WalletCurrency.SUI)).thenReturn(true);
             when(transactionRepository.save(any(Transaction.class))).thenReturn(savedTransaction);
         }
     }
@@ -0,0 +1,209 @@
+package com.semicolon.africa.tapprbackend.transaction.services.implementations;
+
+import com.semicolon.africa.tapprbackend.Wallet.data.model.Wallet;
+import com.semicolon.africa.tapprbackend.Wallet.data.repositories.WalletRepository;
+import com.semicolon.africa.tapprbackend.Wallet.enums.WalletCurrency;
+import com.semicolon.africa.tapprbackend.ledger.data.models.LedgerEntry;
+import com.semicolon.africa.tapprbackend.ledger.data.repositories.LedgerEntryRepository;
+import com.semicolon.africa.tapprbackend.ledger.dtos.PostingLeg;
+import com.semicolon.africa.tapprbackend.ledger.enums.LedgerAccount;
+import com.semicolon.africa.tapprbackend.ledger.services.interfaces.LedgerService;
+import com.semicolon.africa.tapprbackend.support.TestWallets;
+import com.semicolon.africa.tapprbackend.transaction.data.models.Transaction;
+import com.semicolon.africa.tapprbackend.transaction.data.repositories.TransactionRepository;
+import com.semicolon.africa.tapprbackend.transaction.enums.TransactionStatus;
+import com.semicolon.africa.tapprbackend.transaction.services.interfaces.FxRateService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest(properties = {
+        "transactions.pipeline.retry-backoff-ms=10",
+        "transactions.pipeline.recovery-after-ms=0"
+})
+@ActiveProfiles("h2")
+@DisplayName("Transaction settlement pipeline")
+class TransactionSettlementPipelineTest {
+
+    private static final Duration SETTLEMENT_TIMEOUT = Duration.ofSeconds(10);
+
+    @Autowired
+    private TransactionSettlementPipeline pipeline;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private LedgerEntryRepository ledgerEntryRepository;
+
+    @Autowired
+    private LedgerService ledgerService;
+
+    @Autowired
+    private WalletRepository walletRepository;
+
+    @Autowired
+    private TestWallets testWallets;
+
+    @MockitoBean
+    private FxRateService fxRateService;
+
+    @Test
+    @DisplayName("Should settle a pending payment and record when it completed")
+    void shouldSettlePendingPayment() throws InterruptedException {
+        Wallet sender = testWallets.wallet("pipeline", WalletCurrency.NGN, new BigDecimal("500.00"));
+        Wallet receiver = testWallets.wallet("pipeline", WalletCurrency.NGN, new BigDecimal("0.00"));
+        Transaction transaction = pending(sender, receiver, "120.00");
+
+        assertTrue(pipeline.submit(transaction.getId()));
+
+        Transaction settled = awaitSettled(transaction);
+        assertEquals(TransactionStatus.SUCCESS, settled.getStatus());
+        assertNotNull(settled.getCompletedAt());
+        assertBalance(sender, "380.00");
+        assertBalance(receiver, "120.00");
+        assertEquals(2, ledgerEntryRepository.findByPostingRef(transaction.getTransactionRef()).size());
+    }
+
+    @Test
+    @DisplayName("Should fail a payment the sender can no longer cover without moving money")
+    void shouldFailUncoveredPayment() throws InterruptedException {
+        Wallet sender = testWallets.wallet("pipeline", WalletCurrency.NGN, new BigDecimal("50.00"));
+        Wallet receiver = testWallets.wallet("pipeline", WalletCurrency.NGN, new BigDecimal("0.00"));
+        Transaction transaction = pending(sender, receiver, "120.00");
+
+        pipeline.submit(transaction.getId());
+
+        Transaction failed = awaitSettled(transaction);
+        assertEquals(TransactionStatus.FAILED, failed.getStatus());
+        assertNotNull(failed.getFailureReason());
+        assertNotNull(failed.getCompletedAt());
+        assertBalance(sender, "50.00");
+        assertBalance(receiver, "0.00");
+        assertTrue(ledgerEntryRepository.findByPostingRef(transaction.getTransactionRef()).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should price a cross-currency payment and settle it through FX clearing")
+    void shouldSettleCrossCurrencyPayment() throws InterruptedException {
+        when(fxRateService.convert(any(), eq(WalletCurrency.NGN), eq(WalletCurrency.SUI))).thenReturn(new BigDecimal("2.898550"));
+        Wallet sender = testWallets.wallet("pipeline", WalletCurrency.NGN, new BigDecimal("5000.00"));
+        Wallet receiver = testWallets.wallet("pipeline", WalletCurrency.SUI, new BigDecimal("0.00"));
+        Transaction transaction = pending(sender, receiver, "1000.00");
+
+        pipeline.submit(transaction.getId());
+
+        assertEquals(TransactionStatus.SUCCESS, awaitSettled(transaction).getStatus());
+        assertBalance(sender, "4000.00");
+        assertBalance(receiver, "2.89");
+        List<LedgerEntry> entries = ledgerEntryRepository.findByPostingRef(transaction.getTransactionRef());
+        assertEquals(4, entries.size());
+        assertEquals(2, entries.stream().filter(entry -> entry.getAccount() == LedgerAccount.FX_CLEARING).count());
+    }
+
+    @Test
+    @DisplayName("Should pay a payment only once however often it is handed in")
+    void shouldSettleEachPaymentOnce() throws InterruptedException {
+        Wallet sender = testWallets.wallet("pipeline", WalletCurrency.NGN, new BigDecimal("500.00"));
+        Wallet receiver = testWallets.wallet("pipeline", WalletCurrency.NGN, new BigDecimal("0.00"));
+        Transaction transaction = pending(sender, receiver, "100.00");
+
+        pipeline.submit(transaction.getId());
+        pipeline.submit(transaction.getId());
+        pipeline.recoverStalled();
+        awaitSettled(transaction);
+        pipeline.submit(transaction.getId());
+        pipeline.recoverStalled();
+        Thread.sleep(200);
+
+        assertBalance(sender, "400.00");
+        assertBalance(receiver, "100.00");
+        assertEquals(2, ledgerEntryRepository.findByPostingRef(transaction.getTransactionRef()).size());
+    }
+
+    @Test
+    @DisplayName("Should mark a payment settled when its posting committed before its status did")
+    void shouldSettlePaymentAlreadyOnLedger() throws InterruptedException {
+        Wallet sender = testWallets.wallet("pipeline", WalletCurrency.NGN, new BigDecimal("500.00"));
+        Wallet receiver = testWallets.wallet("pipeline", WalletCurrency.NGN, new BigDecimal("0.00"));
+        Transaction transaction = pending(sender, receiver, "100.00");
+        // As left behind by a shard that committed after its caller gave up
+        ledgerService.post(transaction.getTransactionRef(), List.of(
+                PostingLeg.debit(sender.getId(), WalletCurrency.NGN, new BigDecimal("100.00")),
+                PostingLeg.credit(receiver.getId(), WalletCurrency.NGN, new BigDecimal("100.00"))));
+
+        pipeline.submit(transaction.getId());
+
+        assertEquals(TransactionStatus.SUCCESS, awaitSettled(transaction).getStatus());
+        assertBalance(sender, "400.00");
+        assertBalance(receiver, "100.00");
+        assertEquals(2, ledgerEntryRepository.findByPostingRef(transaction.getTransactionRef()).size());
+    }
+
+    @Test
+    @DisplayName("Should pick up stalled payments in the recovery sweep but leave rows from before the pipeline")
+    void shouldRecoverStalledPayments() throws InterruptedException {
+        Wallet sender = testWallets.wallet("pipeline", WalletCurrency.NGN, new BigDecimal("500.00"));
+        Wallet receiver = testWallets.wallet("pipeline", WalletCurrency.NGN, new BigDecimal("0.00"));
+        Transaction stalled = pending(sender, receiver, "75.00");
+        Transaction legacy = pending(sender, receiver, "10.00");
+        legacy.setSenderWalletId(null);
+        legacy.setReceiverWalletId(null);
+        transactionRepository.save(legacy);
+
+        pipeline.recoverStalled();
+
+        assertEquals(TransactionStatus.SUCCESS, awaitSettled(stalled).getStatus());
+        assertEquals(TransactionStatus.PENDING, transactionRepository.findById(legacy.getId()).orElseThrow().getStatus());
+        assertBalance(sender, "425.00");
+    }
+
+    private Transaction awaitSettled(Transaction transaction) throws InterruptedException {
+        long deadline = System.nanoTime() + SETTLEMENT_TIMEOUT.toNanos();
+        while (true) {
+            Transaction current = transactionRepository.findById(transaction.getId()).orElseThrow();
+            if (current.getStatus() != TransactionStatus.PENDING) {
+                return current;
+            }
+            assertTrue(System.nanoTime() < deadline, "payment was not settled in time");
+            Thread.sleep(20);
+        }
+    }
+
+    private void assertBalance(Wallet wallet, String expected) {
+        BigDecimal actual = walletRepository.findBalanceById(wallet.getId());
+        assertEquals(0, new BigDecimal(expected).compareTo(actual), "expected " + expected + " but was " + actual);
+    }
+
+    private Transaction pending(Wallet sender, Wallet receiver, String amount) {
+        Transaction transaction = new Transaction();
+        transaction.setTransactionRef(UUID.randomUUID().toString());
+        transaction.setMerchant(receiver.getUser());
+        transaction.setSenderId(sender.getUser().getId().toString());
+        transaction.setReceiversId(receiver.getUser().getId().toString());
+        transaction.setSenderWalletId(sender.getId());
+        transaction.setReceiverWalletId(receiver.getId());
+        transaction.setSenderAccountNumber("1234567890");
+        transaction.setReceiversAccountNumber("0987654321");
+        transaction.setAmount(new BigDecimal(amount));
+        transaction.setWalletCurrency(receiver.getCurrencyType());
+        transaction.setStatus(TransactionStatus.PENDING);
+        transaction.setInitiated(true);
+        transaction.setInitiatedAt(LocalDateTime.now().minusMinutes(5));
+        return transactionRepository.save(transaction);
+    }
+}
@@ -671,10 +671,8 @@ public class AuthServiceImplTest {
         LogoutRequest logOutRequest = new LogoutRequest();
         logOutRequest.setEmail(createNewUserRequest.getEmail());
         
-        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () -> {
-            authenticationService.logOut(logOutRequest);
-        });
-        assertEquals("User is already logged out", exception.getMessage());
+        LogoutUserResponse response = authenticationService.logOut(logOutRequest);
+        assertFalse(response.isLoggedIn());
     }
 
     @Test
@@ -688,10 +686,8 @@ public class AuthServiceImplTest {
         LogoutUserResponse firstLogout = authenticationService.logOut(logOutRequest);
         assertFalse(firstLogout.isLoggedIn());
         
-        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () -> {
-            authenticationService.logOut(logOutRequest);
-        });
-        assertEquals("User is already logged out", exception.getMessage());
+        LogoutUserResponse secondLogout = authenticationService.logOut(logOutRequest);
+        assertFalse(secondLogout.isLoggedIn());
     }
 
 
@@ -0,0 +1,132 @@
+package com.semicolon.africa.tapprbackend.user.services.implementations;
+
+import com.semicolon.africa.tapprbackend.security.PasswordHashingService;
+import com.semicolon.africa.tapprbackend.user.data.models.User;
+import com.semicolon.africa.tapprbackend.user.data.repositories.UserRepository;
+import com.semicolon.africa.tapprbackend.user.dtos.requests.CreateNewUserRequest;
+import com.semicolon.africa.tapprbackend.user.dtos.requests.LoginRequest;
+import com.semicolon.africa.tapprbackend.user.dtos.responses.LoginResponse;
+import com.semicolon.africa.tapprbackend.user.services.interfaces.AuthService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+
+@SpringBootTest
+@ActiveProfiles("h2")
+@DisplayName("Login query count")
+class LoginQueryCountTest {
+
+    // User fetch-join, user update, refresh-token insert
+    private static final long STEADY_STATE_STATEMENTS = 3;
+    private static final Duration PROVISIONING_TIMEOUT = Duration.ofSeconds(10);
+
+    @Autowired
+    private AuthService authService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private RefreshTokenService refreshTokenService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @MockitoSpyBean
+    private PasswordHashingService passwordHashingService;
+
+    private Statistics statistics;
+    private String email;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        email = "login-" + UUID.randomUUID() + "@example.com";
+
+        CreateNewUserRequest request = new CreateNewUserRequest();
+        request.setFirstName("John");
+        request.setLastName("Doe");
+        request.setEmail(email);
+        request.setPhoneNumber("+23481" + String.format("%08d", Math.abs(email.hashCode()) % 100_000_000));
+        request.setPassword("securePassword123");
+        authService.createNewUser(request);
+    }
+
+    @Test
+    @DisplayName("Should provision both wallets after registration without a login")
+    void shouldProvisionWalletsAfterRegistration() throws InterruptedException {
+        awaitWallets();
+
+        LoginResponse response = authService.login(loginRequest());
+
+        assertTrue(response.isHasFiatWallet());
+        assertTrue(response.isHasSuiWallet());
+    }
+
+    @Test
+    @DisplayName("Should log in without touching wallets within a fixed number of statements")
+    void shouldLogInWithBoundedStatements() throws InterruptedException {
+        awaitWallets();
+        statistics.clear();
+
+        LoginResponse response = authService.login(loginRequest());
+
+        assertNotNull(response.getWalletBalances());
+        assertTrue(statistics.getPrepareStatementCount() <= STEADY_STATE_STATEMENTS,
+                "login used " + statistics.getPrepareStatementCount() + " statements");
+    }
+
+    @Test
+    @DisplayName("Should return the refresh token that was persisted")
+    void shouldReturnPersistedRefreshToken() {
+        LoginResponse response = authService.login(loginRequest());
+
+        assertTrue(refreshTokenService.findByToken(response.getRefreshToken()).isPresent());
+    }
+
+    @Test
+    @DisplayName("Should check the password outside any transaction")
+    void shouldCheckPasswordOutsideTransaction() {
+        AtomicBoolean inTransaction = new AtomicBoolean(true);
+        doAnswer(invocation -> {
+            inTransaction.set(TransactionSynchronizationManager.isActualTransactionActive());
+            return invocation.callRealMethod();
+        }).when(passwordHashingService).matches(anyString(), anyString());
+
+        LoginResponse response = authService.login(loginRequest());
+
+        assertFalse(inTransaction.get());
+        assertTrue(response.isLoggedIn());
+    }
+
+    private void awaitWallets() throws InterruptedException {
+        long deadline = System.nanoTime() + PROVISIONING_TIMEOUT.toNanos();
+        while (!userRepository.findByEmail(email).map(User::isHasWallet).orElse(false)) {
+            assertTrue(System.nanoTime() < deadline, "wallets were not provisioned in time");
+            Thread.sleep(20);
+        }
+    }
+
+    private LoginRequest loginRequest() {
+        LoginRequest request = new LoginRequest();
+        request.setEmail(email);
+        request.setPassword("securePassword123");
+        return request;
+    }
+}
@@ -0,0 +1,112 @@
+package com.semicolon.africa.tapprbackend.user.services.implementations;
+
+import com.semicolon.africa.tapprbackend.scheduling.services.interfaces.SchedulerLockService;
+import com.semicolon.africa.tapprbackend.security.JwtUtil;
+import com.semicolon.africa.tapprbackend.security.TokenDigests;
+import com.semicolon.africa.tapprbackend.user.data.models.RefreshToken;
+import com.semicolon.africa.tapprbackend.user.data.models.User;
+import com.semicolon.africa.tapprbackend.user.data.repositories.RefreshTokenRepository;
+import com.semicolon.africa.tapprbackend.user.enums.Role;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("RefreshTokenService Tests")
+class RefreshTokenServiceTest {
+
+    private static final String SECRET = "a-test-secret-that-is-long-enough-for-hs256-signing";
+
+    @Mock
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Mock
+    private SchedulerLockService schedulerLockService;
+
+    private RefreshTokenService refreshTokenService;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        JwtUtil jwtUtil = new JwtUtil(SECRET);
+        ReflectionTestUtils.setField(jwtUtil, "refreshExpirationMs", 86_400_000L);
+        refreshTokenService = new RefreshTokenService(refreshTokenRepository, jwtUtil, schedulerLockService);
+        ReflectionTestUtils.setField(refreshTokenService, "refreshTokenDurationMs", 86_400_000L);
+        ReflectionTestUtils.setField(refreshTokenService, "purgeBatchSize", 2);
+
+        user = new User();
+        user.setId(UUID.randomUUID());
+        user.setEmail("john.doe@example.com");
+        user.setRole(Role.REGULAR);
+    }
+
+    @Test
+    @DisplayName("Should store only the digest of a new refresh token")
+    void shouldStoreOnlyDigestOfNewRefreshToken() {
+        when(refreshTokenRepository.save(any(RefreshToken.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        RefreshToken created = refreshTokenService.createRefreshToken(user);
+
+        assertNotNull(created.getToken());
+        assertEquals(64, created.getTokenHash().length());
+        assertEquals(TokenDigests.sha256Hex(created.getToken()), created.getTokenHash());
+    }
+
+    @Test
+    @DisplayName("Should look up a presented refresh token by its digest")
+    void shouldLookUpPresentedRefreshTokenByDigest() {
+        RefreshToken stored = new RefreshToken();
+        stored.setTokenHash(TokenDigests.sha256Hex("presented-token"));
+        when(refreshTokenRepository.findByTokenHash(TokenDigests.sha256Hex("presented-token")))
+                .thenReturn(Optional.of(stored));
+
+        Optional<RefreshToken> found = refreshTokenService.findByToken("presented-token");
+
+        assertTrue(found.isPresent());
+        assertEquals("presented-token", found.get().getToken());
+        assertTrue(refreshTokenService.findByToken(" ").isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should reject an expired token without deleting it inline")
+    void shouldRejectExpiredTokenWithoutDeletingInline() {
+        RefreshToken expired = new RefreshToken();
+        expired.setExpiryDate(Instant.now().minusSeconds(1));
+
+        assertThrows(IllegalStateException.class, () -> refreshTokenService.verifyExpiration(expired));
+        verifyNoInteractions(refreshTokenRepository);
+    }
+
+    @Test
+    @DisplayName("Should purge expired and revoked tokens in batches until none are left")
+    void shouldPurgeInBatchesUntilNoneLeft() {
+        when(refreshTokenRepository.findExpiredIds(any(Instant.class), any(Pageable.class)))
+                .thenReturn(ids(2), ids(2), ids(1));
+        when(refreshTokenRepository.findRevokedIds(any(Pageable.class))).thenReturn(ids(2), List.of());
+        when(refreshTokenRepository.deleteByIdIn(anyCollection())).thenAnswer(invocation ->
+                ((List<?>) invocation.getArgument(0)).size());
+
+        refreshTokenService.purgeExpiredTokens();
+
+        verify(refreshTokenRepository, times(4)).deleteByIdIn(anyCollection());
+    }
+
+    private static List<UUID> ids(int count) {
+        return Stream.generate(UUID::randomUUID).limit(count).toList();
+    }
+}